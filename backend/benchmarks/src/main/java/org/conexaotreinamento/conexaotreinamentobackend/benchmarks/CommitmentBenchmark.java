@@ -0,0 +1,63 @@
+package org.conexaotreinamento.conexaotreinamentobackend.benchmarks;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitment;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Latest commitment per series for a student (StudentCommitmentService#getCurrentActiveCommitments, which goes
+ * through buildLatestPerSeries) as each (student, series) history grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommitmentBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int historyPerCommitment;
+
+    @Param({"5", "20"})
+    private int commitmentsPerStudent;
+
+    private InMemoryBackend backend;
+    private UUID studentId;
+    private Instant at;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticGym gym = new SyntheticGym(10, 28, 200, commitmentsPerStudent, historyPerCommitment, 0, 1, 42);
+        backend = new InMemoryBackend(gym);
+        studentId = gym.students().get(gym.students().size() / 2).getId();
+        at = SyntheticGym.FIRST_DAY.atStartOfDay().toInstant(ZoneOffset.UTC);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        backend.close();
+    }
+
+    @Benchmark
+    public List<StudentCommitment> currentActiveCommitments() {
+        return backend.studentCommitmentService().getCurrentActiveCommitments(studentId, at);
+    }
+}
@@ -0,0 +1,57 @@
+package org.conexaotreinamento.conexaotreinamentobackend.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Event;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * EventResponseDTO.fromEntity over a page of events (the size of the event listing) as events fill up.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventMappingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"0", "10", "100"})
+    private int participantsPerEvent;
+
+    private final List<Event> page = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticGym gym = new SyntheticGym(5, 0, 500, 0, 0, 0, 0, 42);
+        Random random = new Random(42);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            page.add(gym.event(participantsPerEvent, random));
+        }
+    }
+
+    @Benchmark
+    public void fromEntity(Blackhole blackhole) {
+        for (Event event : page) {
+            blackhole.consume(EventResponseDTO.fromEntity(event));
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package org.conexaotreinamento.conexaotreinamentobackend.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Event;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduledSession;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.SessionParticipant;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Student;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitment;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitmentState;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Trainer;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.EventRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ParticipantExerciseRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ReportRollupDayRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ScheduleChangeRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ScheduledSessionRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.SessionKeyRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.SessionParticipantRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentCommitmentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentCommitmentStateRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentPlanAssignmentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentPlanRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerDailyRollupRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.RangeSliceExecutor;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ReportsService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleChangeLog;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleMaterializer;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.SessionKeyRegistry;
+import org.conexaotreinamento.conexaotreinamentobackend.service.StudentCommitmentService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.StudentCommitmentStateService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerAvailabilityIndex;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerScheduleIndex;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * The read-side services wired to repositories answering from a {@link SyntheticGym} the way the real queries
+ * would, so the suites time the service code and not a database. The services are built by a small Spring
+ * context exactly as the application wires them, so a dependency added to one of them fails here at startup
+ * instead of staying null; only the repository methods the read paths call are implemented, anything else throws.
+ */
+final class InMemoryBackend implements AutoCloseable {
+
+    private final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+
+    InMemoryBackend(SyntheticGym gym) {
+        Map<UUID, Trainer> trainersById = index(gym.trainers(), Trainer::getId);
+        Map<UUID, Student> studentsById = index(gym.students(), Student::getId);
+        Map<UUID, StudentCommitment> commitmentsById = index(gym.commitments(), StudentCommitment::getId);
+        Map<UUID, List<StudentCommitmentState>> statesBySeries = groupBy(gym.states(), StudentCommitmentState::getSessionSeriesId);
+        Map<UUID, List<StudentCommitmentState>> statesByStudent = groupBy(gym.states(), StudentCommitmentState::getStudentId);
+        Map<UUID, List<SessionParticipant>> participantsBySession = groupBy(gym.participants(), p -> p.getScheduledSession().getId());
+
+        register(TrainerScheduleRepository.class, Map.of(
+                "findAll", args -> gym.schedules()));
+        Map<UUID, UUID> trainerBySeries = new HashMap<>();
+        gym.schedules().forEach(schedule -> trainerBySeries.put(schedule.getId(), schedule.getTrainerId()));
+        register(ScheduledSessionRepository.class, Map.of(
+                "findByStartTimeBetweenAndActiveTrue", args -> sessionsBetween(gym.sessions(), (LocalDateTime) args[0], (LocalDateTime) args[1]),
+                "findForTrainerInRange", args -> sessionsBetween(gym.sessions(), (LocalDateTime) args[1], (LocalDateTime) args[2]).stream()
+                        .filter(s -> args[0].equals(s.getTrainerId()) || args[0].equals(trainerBySeries.get(s.getSessionSeriesId())))
+                        .toList()));
+        register(SessionParticipantRepository.class, Map.of(
+                "findByScheduledSession_IdInAndActiveTrue", args -> collect((Collection<?>) args[0], participantsBySession)));
+        register(StudentCommitmentStateRepository.class, Map.of(
+                "findBySessionSeriesIdInOverlapping", args -> collect((Collection<?>) args[0], statesBySeries).stream()
+                        .filter(s -> !s.getValidFrom().isAfter((Instant) args[2])
+                                && (s.getValidTo() == null || s.getValidTo().isAfter((Instant) args[1])))
+                        .toList(),
+                "findByStudentIdValidAt", args -> statesByStudent.getOrDefault(args[0], List.of()).stream()
+                        .filter(s -> s.isValidAt((Instant) args[1]))
+                        .toList()));
+        register(StudentCommitmentRepository.class, Map.of(
+                "findAllById", args -> lookup((Iterable<?>) args[0], commitmentsById)));
+        register(StudentRepository.class, Map.of(
+                "findAllById", args -> lookup((Iterable<?>) args[0], studentsById),
+                "findAllBirthDates", args -> gym.students().stream().map(Student::getBirthDate).toList()));
+        register(TrainerRepository.class, Map.of(
+                "findAll", args -> gym.trainers(),
+                "findAllById", args -> lookup((Iterable<?>) args[0], trainersById),
+                "findById", args -> Optional.ofNullable(trainersById.get(args[0]))));
+        register(ParticipantExerciseRepository.class, Map.of(
+                "findActiveWithExerciseBySessionParticipantIdIn", args -> List.of()));
+        register(EventRepository.class, Map.of(
+                "findActiveWithinDateRangeWithParticipants", args -> gym.events().stream()
+                        .filter(e -> !e.getDate().isBefore((LocalDate) args[0]) && !e.getDate().isAfter((LocalDate) args[1]))
+                        .toList()));
+        // No rollups: reports take the live path over the whole range
+        register(TrainerDailyRollupRepository.class, Map.of(
+                "findByDayBetween", args -> List.of()));
+        register(ReportRollupDayRepository.class, Map.of(
+                "findDaysBetween", args -> List.of()));
+        // Only reached by write paths, which the suites never take
+        register(StudentPlanRepository.class, Map.of());
+        register(StudentPlanAssignmentRepository.class, Map.of());
+        register(ScheduleChangeRepository.class, Map.of());
+        register(SessionKeyRepository.class, Map.of());
+
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmarks", Map.of(
+                "app.schedule-index.max-age", "P1D",
+                "app.availability-index.max-age", "P1D",
+                "app.schedule.materialization.enabled", "false",
+                "app.schedule.parallel.slice-days", "7",
+                "app.schedule.parallel.max-concurrent-slices", "4",
+                "app.schedule.parallel.min-range-days", "28")));
+        context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance());
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.register(TrainerScheduleIndex.class, TrainerAvailabilityIndex.class, ScheduleMaterializer.class,
+                RangeSliceExecutor.class, SessionKeyRegistry.class, ScheduleChangeLog.class, ScheduleService.class,
+                StudentCommitmentStateService.class, StudentCommitmentService.class, ReportsService.class);
+        context.refresh();
+    }
+
+    ScheduleService scheduleService() {
+        return context.getBean(ScheduleService.class);
+    }
+
+    StudentCommitmentService studentCommitmentService() {
+        return context.getBean(StudentCommitmentService.class);
+    }
+
+    ReportsService reportsService() {
+        return context.getBean(ReportsService.class);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private <R> void register(Class<R> type, Map<String, Function<Object[], Object>> queries) {
+        context.registerBean(type, () -> repository(type, queries));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R repository(Class<R> type, Map<String, Function<Object[], Object>> queries) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            Function<Object[], Object> query = queries.get(method.getName());
+            if (query != null) {
+                return query.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> "InMemory" + type.getSimpleName();
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        });
+    }
+
+    // Same bounds as the JPQL: starts at or after start, ends at or before end, ordered by start time
+    private static List<ScheduledSession> sessionsBetween(List<ScheduledSession> sortedSessions, LocalDateTime start, LocalDateTime end) {
+        List<ScheduledSession> result = new ArrayList<>();
+        for (ScheduledSession session : sortedSessions) {
+            if (session.getStartTime().isAfter(end)) {
+                break;
+            }
+            if (!session.getStartTime().isBefore(start) && !session.getEndTime().isAfter(end) && session.isActive()) {
+                result.add(session);
+            }
+        }
+        result.sort(Comparator.comparing(ScheduledSession::getStartTime));
+        return result;
+    }
+
+    private static <V> List<V> collect(Collection<?> keys, Map<UUID, List<V>> grouped) {
+        List<V> result = new ArrayList<>();
+        keys.forEach(key -> result.addAll(grouped.getOrDefault(key, List.of())));
+        return result;
+    }
+
+    private static <V> List<V> lookup(Iterable<?> ids, Map<UUID, V> byId) {
+        List<V> result = new ArrayList<>();
+        ids.forEach(id -> {
+            V value = byId.get(id);
+            if (value != null) {
+                result.add(value);
+            }
+        });
+        return result;
+    }
+
+    private static <V> Map<UUID, V> index(List<V> values, Function<V, UUID> id) {
+        Map<UUID, V> indexed = new HashMap<>();
+        values.forEach(value -> indexed.put(id.apply(value), value));
+        return indexed;
+    }
+
+    private static <V> Map<UUID, List<V>> groupBy(List<V> values, Function<V, UUID> key) {
+        Map<UUID, List<V>> grouped = new HashMap<>();
+        values.forEach(value -> grouped.computeIfAbsent(key.apply(value), k -> new ArrayList<>()).add(value));
+        return grouped;
+    }
+}
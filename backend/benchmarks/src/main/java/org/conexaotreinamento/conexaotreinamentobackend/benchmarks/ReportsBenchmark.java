@@ -0,0 +1,60 @@
+package org.conexaotreinamento.conexaotreinamentobackend.benchmarks;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ReportsResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ReportsService.generateReports for every trainer over a week and a month, computed live from the calendar and
+ * events (no rollups), plus the age distribution over all students.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportsBenchmark {
+
+    @Param({"7", "30"})
+    private int rangeDays;
+
+    @Param({"10", "40"})
+    private int trainers;
+
+    private InMemoryBackend backend;
+    private LocalDateTime start;
+    private LocalDateTime end;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SyntheticGym gym = new SyntheticGym(trainers, 28, trainers * 50, 3, 4, 0.3, 5, 42);
+        backend = new InMemoryBackend(gym);
+        start = SyntheticGym.FIRST_DAY.atStartOfDay();
+        end = SyntheticGym.FIRST_DAY.plusDays(rangeDays - 1L).atTime(23, 59, 59);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        backend.close();
+    }
+
+    @Benchmark
+    public ReportsResponseDTO generateReports() {
+        return backend.reportsService().generateReports(start, end, null);
+    }
+}
@@ -0,0 +1,69 @@
+package org.conexaotreinamento.conexaotreinamentobackend.benchmarks;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.SessionResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ScheduleService.getScheduledSessions from a day to a quarter, for a small and a large gym. Ranges of 28 days
+ * and more go through the sliced expansion. The trainer-scoped variant expands one trainer's slice of the same
+ * gym and should stay flat as the gym grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleBenchmark {
+
+    @Param({"1", "7", "31", "92"})
+    private int rangeDays;
+
+    @Param({"10", "40"})
+    private int trainers;
+
+    private InMemoryBackend backend;
+    private LocalDate endDate;
+    private UUID trainerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Each trainer runs 4 series a weekday; every student follows 3 of them
+        SyntheticGym gym = new SyntheticGym(trainers, 28, trainers * 50, 3, 4, 0.1, 14, 42);
+        backend = new InMemoryBackend(gym);
+        endDate = SyntheticGym.FIRST_DAY.plusDays(rangeDays - 1L);
+        trainerId = gym.trainers().get(0).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        backend.close();
+    }
+
+    @Benchmark
+    public List<SessionResponseDTO> getScheduledSessions() {
+        return backend.scheduleService().getScheduledSessions(SyntheticGym.FIRST_DAY, endDate);
+    }
+
+    @Benchmark
+    public List<SessionResponseDTO> getScheduledSessionsForTrainer() {
+        return backend.scheduleService().getScheduledSessions(SyntheticGym.FIRST_DAY, endDate, trainerId);
+    }
+}
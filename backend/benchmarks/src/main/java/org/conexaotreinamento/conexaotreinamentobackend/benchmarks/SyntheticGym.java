@@ -0,0 +1,221 @@
+package org.conexaotreinamento.conexaotreinamentobackend.benchmarks;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Event;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.EventParticipant;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduledSession;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.SessionParticipant;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Student;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitment;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitmentState;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Trainer;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.CommitmentStatus;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.CompensationType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Deterministic gym: trainers x weekly series x students x commitment history, plus overridden session instances
+ * and events over {@code weeks} weeks from {@link #FIRST_DAY}. Same seed, same gym.
+ */
+public final class SyntheticGym {
+
+    public static final LocalDate FIRST_DAY = LocalDate.of(2025, 9, 1);
+
+    private static final String[] NAMES = {"Ana", "Bruno", "Carla", "Diego", "Elisa", "Felipe", "Gabriela", "Heitor"};
+
+    private final List<Trainer> trainers = new ArrayList<>();
+    private final List<TrainerSchedule> schedules = new ArrayList<>();
+    private final List<Student> students = new ArrayList<>();
+    private final List<StudentCommitment> commitments = new ArrayList<>();
+    private final List<StudentCommitmentState> states = new ArrayList<>();
+    private final List<ScheduledSession> sessions = new ArrayList<>();
+    private final List<SessionParticipant> participants = new ArrayList<>();
+    private final List<Event> events = new ArrayList<>();
+
+    /**
+     * @param seriesPerTrainer   weekly series per trainer, spread over the week
+     * @param commitmentsPerStudent series each student has committed to
+     * @param historyPerCommitment  status changes per (student, series), the latest in force from {@link #FIRST_DAY}
+     * @param overrideShare      share of occurrences with a persisted, overridden instance
+     */
+    public SyntheticGym(int trainerCount, int seriesPerTrainer, int studentCount, int commitmentsPerStudent,
+            int historyPerCommitment, double overrideShare, int weeks, long seed) {
+        Random random = new Random(seed);
+        Instant seriesStart = FIRST_DAY.minusYears(1).atStartOfDay().toInstant(ZoneOffset.UTC);
+
+        for (int i = 0; i < trainerCount; i++) {
+            Trainer trainer = new Trainer();
+            trainer.setId(new UUID(1, i));
+            trainer.setName(NAMES[i % NAMES.length] + " Trainer " + i);
+            trainer.setCompensationType(i % 2 == 0 ? CompensationType.HOURLY : CompensationType.MONTHLY);
+            trainer.setSpecialties(List.of("musculação"));
+            trainers.add(trainer);
+            for (int s = 0; s < seriesPerTrainer; s++) {
+                TrainerSchedule schedule = new TrainerSchedule();
+                schedule.setId(new UUID(2, schedules.size()));
+                schedule.setTrainerId(trainer.getId());
+                schedule.setWeekday(s % 7);
+                schedule.setStartTime(LocalTime.of(6 + (s / 7) % 16, 0));
+                schedule.setIntervalDuration(60);
+                schedule.setSeriesName("series-" + schedules.size());
+                schedule.setEffectiveFromTimestamp(seriesStart);
+                schedule.setActive(true);
+                schedules.add(schedule);
+            }
+        }
+
+        for (int i = 0; i < studentCount; i++) {
+            Student student = new Student("student" + i + "@example.com", NAMES[random.nextInt(NAMES.length)], "Silva " + i,
+                    Student.Gender.values()[random.nextInt(Student.Gender.values().length)],
+                    LocalDate.of(1960 + random.nextInt(45), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            ReflectionTestUtils.setField(student, "id", new UUID(3, i));
+            students.add(student);
+            for (int c = 0; c < commitmentsPerStudent && !schedules.isEmpty(); c++) {
+                TrainerSchedule series = schedules.get(random.nextInt(schedules.size()));
+                addHistory(student.getId(), series.getId(), historyPerCommitment, random);
+            }
+        }
+
+        for (int week = 0; week < weeks; week++) {
+            for (TrainerSchedule schedule : schedules) {
+                if (random.nextDouble() >= overrideShare) {
+                    continue;
+                }
+                LocalDate date = FIRST_DAY.plusWeeks(week).plusDays((schedule.getWeekday() + 6) % 7);
+                addOverriddenInstance(schedule, date, random);
+            }
+        }
+        sessions.sort(Comparator.comparing(ScheduledSession::getStartTime));
+
+        for (int day = 0; day < weeks * 7; day++) {
+            if (trainers.isEmpty() || day % 3 != 0) {
+                continue;
+            }
+            Event event = new Event("Evento " + day, FIRST_DAY.plusDays(day));
+            event.setStartTime(LocalTime.of(18, 0));
+            event.setEndTime(LocalTime.of(20, 0));
+            event.setLocation("Parque");
+            event.setTrainer(trainers.get(random.nextInt(trainers.size())));
+            event.setParticipants(eventParticipants(event, 10, random));
+            events.add(event);
+        }
+    }
+
+    // An event with the given number of enrolled students, two thirds of them present
+    public Event event(int participantCount, Random random) {
+        Event event = new Event("Corrida", FIRST_DAY);
+        event.setStartTime(LocalTime.of(7, 0));
+        event.setEndTime(LocalTime.of(9, 0));
+        event.setLocation("Parque");
+        event.setDescription("Corrida de 5 km");
+        event.setTrainer(trainers.get(random.nextInt(trainers.size())));
+        event.setParticipants(eventParticipants(event, participantCount, random));
+        return event;
+    }
+
+    private List<EventParticipant> eventParticipants(Event event, int count, Random random) {
+        List<EventParticipant> enrolled = new ArrayList<>(count);
+        for (int i = 0; i < count && !students.isEmpty(); i++) {
+            EventParticipant participant = new EventParticipant(event, students.get(random.nextInt(students.size())));
+            participant.setPresent(i % 3 != 0);
+            enrolled.add(participant);
+        }
+        return enrolled;
+    }
+
+    // Commitment events for one (student, series), oldest first, with the projection states they produce
+    private void addHistory(UUID studentId, UUID seriesId, int depth, Random random) {
+        Instant effectiveFrom = FIRST_DAY.atStartOfDay().toInstant(ZoneOffset.UTC).minus(depth, ChronoUnit.DAYS);
+        StudentCommitmentState previous = null;
+        for (int i = 0; i < depth; i++) {
+            boolean latest = i == depth - 1;
+            CommitmentStatus status = latest || random.nextBoolean() ? CommitmentStatus.ATTENDING : CommitmentStatus.NOT_ATTENDING;
+            StudentCommitment commitment = new StudentCommitment();
+            commitment.setId(UUID.randomUUID());
+            commitment.setStudentId(studentId);
+            commitment.setSessionSeriesId(seriesId);
+            commitment.setCommitmentStatus(status);
+            commitment.setEffectiveFromTimestamp(effectiveFrom);
+            commitment.setCreatedAt(effectiveFrom);
+            commitments.add(commitment);
+
+            if (previous != null) {
+                previous.setValidTo(effectiveFrom);
+            }
+            previous = new StudentCommitmentState(UUID.randomUUID(), studentId, seriesId, status, effectiveFrom, null, commitment.getId());
+            states.add(previous);
+            effectiveFrom = effectiveFrom.plus(1, ChronoUnit.DAYS);
+        }
+    }
+
+    private void addOverriddenInstance(TrainerSchedule schedule, LocalDate date, Random random) {
+        ScheduledSession session = new ScheduledSession();
+        session.setId(UUID.randomUUID());
+        session.setSessionSeriesId(schedule.getId());
+        session.setSessionId(String.join("__", schedule.getSeriesName(), date.toString(), schedule.getStartTime().toString(),
+                schedule.getTrainerId().toString()));
+        session.setTrainerId(schedule.getTrainerId());
+        session.setStartTime(date.atTime(schedule.getStartTime()));
+        session.setEndTime(date.atTime(schedule.getStartTime()).plusMinutes(schedule.getIntervalDuration()));
+        session.setSeriesName(schedule.getSeriesName());
+        session.setNotes("Treino ajustado");
+        session.setInstanceOverride(true);
+        session.setEffectiveFromTimestamp(schedule.getEffectiveFromTimestamp());
+        session.setActive(true);
+        sessions.add(session);
+        if (students.isEmpty()) {
+            return;
+        }
+        SessionParticipant participant = new SessionParticipant();
+        participant.setId(UUID.randomUUID());
+        participant.setScheduledSession(session);
+        participant.setStudentId(students.get(random.nextInt(students.size())).getId());
+        participant.setParticipationType(SessionParticipant.ParticipationType.INCLUDED);
+        participant.setPresent(true);
+        participant.setActive(true);
+        participants.add(participant);
+    }
+
+    public List<Trainer> trainers() {
+        return trainers;
+    }
+
+    public List<TrainerSchedule> schedules() {
+        return schedules;
+    }
+
+    public List<Student> students() {
+        return students;
+    }
+
+    public List<StudentCommitment> commitments() {
+        return commitments;
+    }
+
+    public List<StudentCommitmentState> states() {
+        return states;
+    }
+
+    public List<ScheduledSession> sessions() {
+        return sessions;
+    }
+
+    public List<SessionParticipant> participants() {
+        return participants;
+    }
+
+    public List<Event> events() {
+        return events;
+    }
+}
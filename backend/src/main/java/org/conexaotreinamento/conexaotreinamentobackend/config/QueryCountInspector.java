@@ -0,0 +1,44 @@
+package org.conexaotreinamento.conexaotreinamentobackend.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, so a service can report how many
+ * queries one call issued (lazy loads included) as the difference of two {@link #count()} readings.
+ * {@link #capture(Runnable)} also records their text, which the query plan regression test replays.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    public static long count() {
+        return COUNT.get()[0];
+    }
+
+    // Statements prepared on this thread while the work runs, in order
+    public static List<String> capture(Runnable work) {
+        List<String> previous = CAPTURED.get();
+        List<String> statements = new ArrayList<>();
+        CAPTURED.set(statements);
+        try {
+            work.run();
+        } finally {
+            CAPTURED.set(previous);
+        }
+        return statements;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        List<String> statements = CAPTURED.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+}
@@ -10,8 +10,11 @@ import java.util.Arrays;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -19,6 +22,7 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -27,7 +31,9 @@ import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.util.StringUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -126,6 +132,33 @@ public class SecurityConfig {
         return authProvider;
     }
 
+    // Prometheus holds no user token: the scrape endpoint gets its own chain with a Basic credential, and stays closed without one
+    @Bean
+    @Order(1)
+    @Profile("!test")
+    public SecurityFilterChain metricsSecurityFilterChain(HttpSecurity http,
+            @Value("${app.metrics.scrape.username:prometheus}") String scrapeUsername,
+            @Value("${app.metrics.scrape.password:}") String scrapePassword) throws Exception {
+        http.securityMatcher("/actuator/prometheus")
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .httpBasic(Customizer.withDefaults());
+        if (StringUtils.hasText(scrapePassword)) {
+            DaoAuthenticationProvider scrapeProvider = new DaoAuthenticationProvider();
+            scrapeProvider.setUserDetailsService(new InMemoryUserDetailsManager(User.withUsername(scrapeUsername)
+                    .password(passwordEncoder().encode(scrapePassword))
+                    .roles("METRICS")
+                    .build()));
+            scrapeProvider.setPasswordEncoder(passwordEncoder());
+            http.authenticationManager(new ProviderManager(scrapeProvider))
+                    .authorizeHttpRequests(authorize -> authorize.anyRequest().hasRole("METRICS"));
+        } else {
+            http.authorizeHttpRequests(authorize -> authorize.anyRequest().denyAll());
+        }
+
+        return http.build();
+    }
+
     @Bean
     @Profile("!test")
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -181,6 +214,9 @@ public class SecurityConfig {
         // Allow all headers
         configuration.setAllowedHeaders(Arrays.asList("*"));
 
+        // Let the frontend read the schedule and report ETags to send them back in If-None-Match
+        configuration.setExposedHeaders(Arrays.asList("ETag"));
+
         // Allow credentials
         configuration.setAllowCredentials(true);
 
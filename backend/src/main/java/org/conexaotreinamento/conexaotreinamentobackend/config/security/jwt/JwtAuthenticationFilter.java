@@ -1,13 +1,25 @@
 package org.conexaotreinamento.conexaotreinamentobackend.config.security.jwt;
 
 import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.conexaotreinamento.conexaotreinamentobackend.config.security.user.ClaimsPrincipal;
+import org.conexaotreinamento.conexaotreinamentobackend.config.security.user.PrincipalCache;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.Role;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -25,37 +37,115 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Opt-in: authenticate access tokens from their verified userId/role claims without touching the database
+    @Value("${app.security.stateless-claims:false}")
+    private boolean statelessClaims;
+
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
             @NonNull FilterChain filterChain)
             throws ServletException, IOException {
+        long started = System.nanoTime();
+        String outcome = "anonymous";
         try {
             String token = extractJwtFromRequest(request);
-            if (StringUtils.hasText(token) && jwtService.isTokenValid(token)) {
-                String username = jwtService.extractUsername(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                var auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            Jwt jwt = StringUtils.hasText(token) ? jwtService.decodeIfValid(token).orElse(null) : null;
+            if (jwt != null) {
+                Authentication auth = statelessClaims ? authenticateFromClaims(jwt) : null;
+                if (auth == null) {
+                    UserDetails userDetails = resolvePrincipal(jwt);
+                    auth = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                }
                 SecurityContextHolder.getContext().setAuthentication(auth);
+                outcome = "authenticated";
             }
         } catch (JwtException e) {
+            outcome = "rejected";
             String requestURI = request.getRequestURI();
             if (isSecuredUrl(requestURI)) {
+                recordOverhead(outcome, started);
                 response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
                 response.getWriter()
                         .write(e.getMessage() + " : Invalid or expired token, you may login and try again!");
                 return;
             }
         } catch (Exception e) {
+            outcome = "error";
             String requestURI = request.getRequestURI();
             if (isSecuredUrl(requestURI)) {
+                recordOverhead(outcome, started);
                 response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
                 response.getWriter().write(e.getMessage());
                 return;
             }
         }
+        recordOverhead(outcome, started);
         filterChain.doFilter(request, response);
     }
 
+    // Time spent authenticating the request, excluding the rest of the chain
+    private void recordOverhead(String outcome, long started) {
+        Timer.builder("security.jwt.filter").description("JWT authentication overhead per request")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+
+    // Null when the token lacks usable userId/role claims (e.g. refresh tokens), which falls back to loading the user
+    private Authentication authenticateFromClaims(Jwt jwt) {
+        UUID userId = parseUserId(jwt.getClaimAsString("userId"));
+        Role role = parseRole(jwt.getClaimAsString("role"));
+        if (userId == null || role == null) {
+            return null;
+        }
+        if (revokedTokenRegistry.isRevoked(userId, jwt.getIssuedAt())) {
+            throw new JwtException("Token has been revoked");
+        }
+        ClaimsPrincipal principal = new ClaimsPrincipal(userId, jwt.getSubject(), role);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    private Role parseRole(String claim) {
+        if (!StringUtils.hasText(claim)) {
+            return null;
+        }
+        try {
+            return Role.valueOf(claim);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Access tokens carry the user id and hit the principal cache; other tokens (e.g. refresh) always load the user
+    private UserDetails resolvePrincipal(Jwt jwt) {
+        String username = jwt.getSubject();
+        UUID userId = parseUserId(jwt.getClaimAsString("userId"));
+        if (userId == null) {
+            return userDetailsService.loadUserByUsername(username);
+        }
+        return principalCache.getOrLoad(userId, username, () -> userDetailsService.loadUserByUsername(username));
+    }
+
+    private UUID parseUserId(String claim) {
+        if (!StringUtils.hasText(claim)) {
+            return null;
+        }
+        try {
+            return UUID.fromString(claim);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private String extractJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
@@ -2,6 +2,7 @@ package org.conexaotreinamento.conexaotreinamentobackend.config.security.jwt;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 
 import org.conexaotreinamento.conexaotreinamentobackend.config.security.user.UserDetailsImpl;
 import org.springframework.beans.factory.annotation.Value;
@@ -92,6 +93,18 @@ public class JwtService {
         return jwt.getSubject();
     }
 
+    // Verifies and parses the token once; empty when the signature or expiry check fails
+    public Optional<Jwt> decodeIfValid(String token) {
+        if (token == null || token.trim().isEmpty()) {
+            throw new JwtException("Token cannot be null or empty");
+        }
+        try {
+            return Optional.of(jwtDecoder.decode(token));
+        } catch (JwtException e) {
+            return Optional.empty();
+        }
+    }
+
     public boolean isTokenValid(String token) {
         if (token == null || token.trim().isEmpty()) {
             throw new JwtException("Token cannot be null or empty");
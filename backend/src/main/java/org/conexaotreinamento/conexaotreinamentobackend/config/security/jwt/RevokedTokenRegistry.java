@@ -0,0 +1,91 @@
+package org.conexaotreinamento.conexaotreinamentobackend.config.security.jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.User;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * "Revoked before" map consulted by the stateless claims mode: any access token of a user issued at
+ * or before the recorded instant is rejected. The instant is persisted on the user row in the
+ * caller's transaction and mirrored here once it commits; every instance reloads the recent ones
+ * from the database every {@code app.security.revocations.refresh-interval}, which bounds how long
+ * a revocation made elsewhere takes to apply. Entries older than the access token lifetime can no
+ * longer match a live token and are dropped, which keeps the map compact.
+ */
+@Component
+public class RevokedTokenRegistry {
+
+    private final UserRepository userRepository;
+    private final Duration tokenLifetime;
+    private final Map<UUID, Instant> revokedBefore = new ConcurrentHashMap<>();
+
+    public RevokedTokenRegistry(UserRepository userRepository,
+            @Value("${app.jwt.expiration-hours}") long expirationHours) {
+        this.userRepository = userRepository;
+        this.tokenLifetime = Duration.ofHours(expirationHours);
+    }
+
+    @Transactional
+    public void revoke(UUID userId) {
+        // JWT timestamps have second precision, so a token issued in the same second is revoked too
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        userRepository.findById(userId).ifPresent(user -> user.revokeTokensIssuedUpTo(now));
+        afterCommit(() -> {
+            record(userId, now);
+            dropExpired(now);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocations.refresh-interval:PT15S}")
+    public void refresh() {
+        Instant horizon = Instant.now().minus(tokenLifetime);
+        for (User user : userRepository.findByTokensRevokedBeforeAfter(horizon)) {
+            record(user.getId(), user.getTokensRevokedBefore());
+        }
+        dropExpired(Instant.now());
+    }
+
+    public boolean isRevoked(UUID userId, Instant issuedAt) {
+        Instant revokedAt = revokedBefore.get(userId);
+        return revokedAt != null && (issuedAt == null || !issuedAt.isAfter(revokedAt));
+    }
+
+    public int size() {
+        return revokedBefore.size();
+    }
+
+    private void record(UUID userId, Instant instant) {
+        revokedBefore.merge(userId, instant, (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+
+    private void dropExpired(Instant now) {
+        Instant horizon = now.minus(tokenLifetime);
+        revokedBefore.values().removeIf(instant -> instant.isBefore(horizon));
+    }
+
+    // A rolled back write must not revoke anything, not even on this instance
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
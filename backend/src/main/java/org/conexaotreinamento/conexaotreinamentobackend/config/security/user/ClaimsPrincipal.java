@@ -0,0 +1,26 @@
+package org.conexaotreinamento.conexaotreinamentobackend.config.security.user;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import org.conexaotreinamento.conexaotreinamentobackend.enums.Role;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Principal built straight from the verified claims of an access token, used by the stateless
+ * claims mode of JwtAuthenticationFilter instead of loading the User entity.
+ */
+public record ClaimsPrincipal(UUID id, String email, Role role) implements AuthenticatedPrincipal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+}
@@ -0,0 +1,84 @@
+package org.conexaotreinamento.conexaotreinamentobackend.config.security.user;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Bounded, TTL based cache of the principals resolved by JwtAuthenticationFilter, keyed by the
+ * {@code userId} claim of the access token. UserService publishes {@link Changed} whenever a write
+ * changes what the principal carries (deactivation, role, e-mail or password) and the user is
+ * evicted once that write commits, so a concurrent request cannot re-cache the old row; the TTL
+ * bounds staleness for writes made by other backend instances.
+ */
+@Component
+public class PrincipalCache {
+
+    private final Duration ttl;
+    private final int maxSize;
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    public PrincipalCache(@Value("${app.security.principal-cache.ttl:PT1M}") Duration ttl,
+            @Value("${app.security.principal-cache.max-size:10000}") int maxSize) {
+        this.ttl = ttl;
+        this.maxSize = maxSize;
+    }
+
+    // Returns the cached principal for the user, or loads and caches it; a cached entry issued for another username is reloaded
+    public UserDetails getOrLoad(UUID userId, String username, Supplier<UserDetails> loader) {
+        Instant now = Instant.now();
+        Entry entry = entries.get(userId);
+        if (entry != null && entry.expiresAt().isAfter(now) && entry.principal().getUsername().equals(username)) {
+            return entry.principal();
+        }
+        UserDetails principal = loader.get();
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(userId, new Entry(principal, now.plus(ttl)));
+        return principal;
+    }
+
+    // Published by writes that change a user's principal; handled after the write commits
+    public record Changed(UUID userId) {
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChanged(Changed changed) {
+        invalidate(changed.userId());
+    }
+
+    public void invalidate(UUID userId) {
+        entries.remove(userId);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(Instant now) {
+        entries.values().removeIf(e -> !e.expiresAt().isAfter(now));
+        if (entries.size() >= maxSize) {
+            // Still full of live entries: drop the one closest to expiring
+            entries.entrySet().stream()
+                    .min(Comparator.comparing(e -> e.getValue().expiresAt()))
+                    .ifPresent(e -> entries.remove(e.getKey(), e.getValue()));
+        }
+    }
+
+    private record Entry(UserDetails principal, Instant expiresAt) {
+    }
+}
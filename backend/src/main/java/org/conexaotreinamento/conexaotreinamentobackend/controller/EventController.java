@@ -5,6 +5,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.EventRequestDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.PatchEventRequestDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventPageResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventParticipantResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.StudentLookupResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TrainerLookupResponseDTO;
@@ -52,6 +54,24 @@ public class EventController {
         return ResponseEntity.ok(events);
     }
 
+    @GetMapping("/page")
+    public ResponseEntity<EventPageResponseDTO> findEventPage(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false, defaultValue = "false") boolean includeInactive,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false, defaultValue = "20") int size) {
+        log.debug("Fetching event page - Search: {}, Include inactive: {}, Size: {}", search, includeInactive, size);
+        EventPageResponseDTO page = eventService.findEventPage(search, includeInactive, cursor, size);
+        log.debug("Retrieved {} events", page.items().size());
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/{id}/participants")
+    public ResponseEntity<List<EventParticipantResponseDTO>> findEventRoster(@PathVariable UUID id) {
+        log.debug("Fetching roster of event [ID: {}]", id);
+        return ResponseEntity.ok(eventService.findEventRoster(id));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<EventResponseDTO> updateEvent(@PathVariable UUID id, @RequestBody @Valid EventRequestDTO request) {
         log.info("Updating event [ID: {}] - Title: {}", id, request.name());
@@ -1,13 +1,23 @@
 package org.conexaotreinamento.conexaotreinamentobackend.controller;
 
 import lombok.RequiredArgsConstructor;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ReportRollupBackfillResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ReportsResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ReportRollupService;
 import org.conexaotreinamento.conexaotreinamentobackend.service.ReportsService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleVersionService;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @RestController
@@ -15,7 +25,11 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ReportsController {
 
+    private static final int MAX_BACKFILL_DAYS = 366;
+
     private final ReportsService reportsService;
+    private final ReportRollupService reportRollupService;
+    private final ScheduleVersionService scheduleVersionService;
 
     /**
      * Get comprehensive reports including trainer performance and student demographics
@@ -23,16 +37,46 @@ public class ReportsController {
      * @param startDate Start date and time for the reporting period (ISO format)
      * @param endDate   End date and time for the reporting period (ISO format)
      * @param trainerId Optional trainer ID to filter reports by specific trainer
+     * @param request   Carries If-None-Match; an unchanged period is answered with 304 Not Modified
      * @return ReportsResponseDTO containing all report data
      */
     @GetMapping
     public ResponseEntity<ReportsResponseDTO> getReports(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
-            @RequestParam(required = false) UUID trainerId) {
+            @RequestParam(required = false) UUID trainerId,
+            WebRequest request) {
         
+        String eTag = scheduleVersionService.reportsETag(startDate, endDate, trainerId);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         ReportsResponseDTO reports = reportsService.generateReports(startDate, endDate, trainerId);
-        return ResponseEntity.ok(reports);
+        return ResponseEntity.ok().eTag(eTag).cacheControl(CacheControl.noCache().cachePrivate()).body(reports);
     }
-}
 
+    /**
+     * Rebuild the pre-aggregated trainer rollups for historical data. Administrators only: a backfill re-expands
+     * the calendar of every trainer for the whole range. At most one year per call, rolled up one chunk of days
+     * per transaction.
+     *
+     * @param startDate First day to roll up (ISO date)
+     * @param endDate   Last day to roll up (ISO date); days from today on are always computed live and are skipped
+     * @return Number of days rolled up
+     */
+    @PostMapping("/rollups/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReportRollupBackfillResponseDTO> backfillRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        if (endDate.isBefore(startDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endDate must not be before startDate");
+        }
+        if (ChronoUnit.DAYS.between(startDate, endDate) >= MAX_BACKFILL_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Range must not exceed " + MAX_BACKFILL_DAYS + " days");
+        }
+        int days = reportRollupService.refreshDays(startDate, endDate);
+        return ResponseEntity.ok(new ReportRollupBackfillResponseDTO(startDate, endDate, days));
+    }
+}
@@ -1,15 +1,35 @@
 package org.conexaotreinamento.conexaotreinamentobackend.controller;
 
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.*;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ScheduleChangesResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.SessionResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ScheduleResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.UserResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleVersionService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.List;
 
@@ -17,17 +37,107 @@ import java.util.List;
 @RequestMapping("/schedule")
 public class ScheduleController {
     
+    private static final String NDJSON = "application/x-ndjson";
+
+    // Clients may keep a copy but must revalidate it (If-None-Match) before every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private ScheduleService scheduleService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ScheduleVersionService scheduleVersionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TrainerService trainerService;
     
+    // With trainerId, only that trainer's sessions (after per-session trainer reassignments) are expanded
     @GetMapping
     public ResponseEntity<ScheduleResponseDTO> getSchedule(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) UUID trainerId,
+            WebRequest request) {
+        return scheduleResponse(startDate, endDate, trainerId, request);
+    }
+
+    // The signed-in trainer's own schedule
+    @GetMapping("/mine")
+    public ResponseEntity<ScheduleResponseDTO> getMySchedule(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest request,
+            HttpServletResponse response) {
+        // Same URL for every trainer: shared caches and the browser must key stored copies on the caller too,
+        // including the 304 answers
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String userEmail = authentication != null ? authentication.getName() : null;
+        if (userEmail == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        Optional<UserResponseDTO> userByEmail = userService.getUserByEmail(userEmail);
+        if (userByEmail.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        // Not a trainer: 404 from the lookup
+        UUID trainerId = trainerService.findByUserId(userByEmail.get().id()).id();
+        return scheduleResponse(startDate, endDate, trainerId, request);
+    }
+
+    private ResponseEntity<ScheduleResponseDTO> scheduleResponse(LocalDate startDate, LocalDate endDate, UUID trainerId,
+            WebRequest request) {
+        // A matching If-None-Match is answered with 304 before anything is expanded; the range-wide version also
+        // covers a trainer's slice of it, and the trainer in the tag keeps slices from validating each other
+        String eTag = scheduleVersionService.scheduleETag(startDate, endDate, trainerId);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
         
-        List<SessionResponseDTO> sessions = scheduleService.getScheduledSessions(startDate, endDate);
+        List<SessionResponseDTO> sessions = scheduleService.getScheduledSessions(startDate, endDate, trainerId);
         
-        return ResponseEntity.ok(new ScheduleResponseDTO(sessions));
+        return ResponseEntity.ok().eTag(eTag).cacheControl(REVALIDATE).body(new ScheduleResponseDTO(sessions));
+    }
+    
+    // Sessions changed since the client's change token (all sessions when the token is absent or expired)
+    @GetMapping("/changes")
+    public ResponseEntity<ScheduleChangesResponseDTO> getScheduleChanges(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Long since) {
+        if (endDate.isBefore(startDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endDate must not be before startDate");
+        }
+        return ResponseEntity.ok(scheduleService.getScheduleChanges(startDate, endDate, since));
+    }
+    
+    // Newline-delimited JSON, one session per line, written and flushed day by day so long exports start at once
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportSchedule(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        if (endDate.isBefore(startDate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "endDate must not be before startDate");
+        }
+        StreamingResponseBody body = out -> scheduleService.streamScheduledSessions(startDate, endDate, sessions -> {
+            try {
+                for (SessionResponseDTO session : sessions) {
+                    out.write(objectMapper.writeValueAsBytes(session));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
     
     @PostMapping("/sessions/{sessionId}")
@@ -47,8 +157,16 @@ public class ScheduleController {
     }
 
     @GetMapping("/sessions/{sessionId}")
-    public ResponseEntity<SessionResponseDTO> getSession(@PathVariable String sessionId, @RequestParam(required = false) UUID trainerId) {
-        return ResponseEntity.ok(scheduleService.getSessionById(sessionId, trainerId));
+    public ResponseEntity<SessionResponseDTO> getSession(@PathVariable String sessionId, @RequestParam(required = false) UUID trainerId,
+                                                         WebRequest request) {
+        Optional<String> eTag = scheduleVersionService.sessionETag(sessionId, trainerId);
+        if (eTag.isEmpty()) {
+            return ResponseEntity.ok(scheduleService.getSessionById(sessionId, trainerId));
+        }
+        if (request.checkNotModified(eTag.get())) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag.get()).cacheControl(REVALIDATE).body(scheduleService.getSessionById(sessionId, trainerId));
     }
 
     @PostMapping("/sessions/{sessionId}/trainer")
@@ -81,6 +199,13 @@ public class ScheduleController {
         return ResponseEntity.ok("Presence updated");
     }
 
+    // Whole roster at once, e.g. a trainer closing a class
+    @PostMapping("/sessions/{sessionId}/attendance")
+    public ResponseEntity<String> updateAttendance(@PathVariable String sessionId, @Valid @RequestBody SessionAttendanceRequestDTO req) {
+        scheduleService.updateAttendance(sessionId, req.attendance());
+        return ResponseEntity.ok("Attendance updated");
+    }
+
     @PostMapping("/sessions/{sessionId}/participants/{studentId}/exercises")
     public ResponseEntity<java.util.UUID> addRegisteredParticipantExercise(@PathVariable String sessionId, @PathVariable java.util.UUID studentId, @RequestBody ParticipantExerciseCreateRequestDTO req) {
         return ResponseEntity.ok(scheduleService.addParticipantExercise(sessionId, studentId, req).getId());
@@ -6,10 +6,9 @@ import org.conexaotreinamento.conexaotreinamentobackend.dto.request.StudentCommi
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.CommitmentDetailResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitment;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
-import org.conexaotreinamento.conexaotreinamentobackend.entity.Student;
 import org.conexaotreinamento.conexaotreinamentobackend.enums.CommitmentStatus;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository;
-import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.CommitmentDetailAssembler;
 import org.conexaotreinamento.conexaotreinamentobackend.service.StudentCommitmentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -21,9 +20,7 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/commitments")
@@ -36,7 +33,7 @@ public class StudentCommitmentController {
     private TrainerScheduleRepository trainerScheduleRepository;
     
     @Autowired
-    private StudentRepository studentRepository;
+    private CommitmentDetailAssembler commitmentDetailAssembler;
     
     // Update single commitment
     @PostMapping("/students/{studentId}/sessions/{sessionSeriesId}")
@@ -46,7 +43,7 @@ public class StudentCommitmentController {
             @Valid @RequestBody StudentCommitmentRequestDTO request) {
         StudentCommitment commitment = studentCommitmentService.updateCommitment(
             studentId, sessionSeriesId, request.commitmentStatus(), request.effectiveFromTimestamp());
-        CommitmentDetailResponseDTO response = convertToDetailResponseDTO(commitment);
+        CommitmentDetailResponseDTO response = commitmentDetailAssembler.toDetail(commitment);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
@@ -70,9 +67,7 @@ public class StudentCommitmentController {
             @PathVariable UUID studentId) {
         
         List<StudentCommitment> commitments = studentCommitmentService.getStudentCommitments(studentId);
-        List<CommitmentDetailResponseDTO> response = commitments.stream()
-            .map(this::convertToDetailResponseDTO)
-            .collect(Collectors.toList());
+        List<CommitmentDetailResponseDTO> response = commitmentDetailAssembler.toDetails(commitments);
         
         return ResponseEntity.ok(response);
     }
@@ -83,9 +78,7 @@ public class StudentCommitmentController {
             @PathVariable UUID sessionSeriesId) {
         
         List<StudentCommitment> commitments = studentCommitmentService.getSessionSeriesCommitments(sessionSeriesId);
-        List<CommitmentDetailResponseDTO> response = commitments.stream()
-            .map(this::convertToDetailResponseDTO)
-            .collect(Collectors.toList());
+        List<CommitmentDetailResponseDTO> response = commitmentDetailAssembler.toDetails(commitments);
         
         return ResponseEntity.ok(response);
     }
@@ -98,9 +91,7 @@ public class StudentCommitmentController {
         
         Instant queryTime = timestamp != null ? timestamp.toInstant(ZoneOffset.UTC) : Instant.now();
         List<StudentCommitment> commitments = studentCommitmentService.getCurrentActiveCommitments(studentId, queryTime);
-        List<CommitmentDetailResponseDTO> response = commitments.stream()
-            .map(this::convertToDetailResponseDTO)
-            .collect(Collectors.toList());
+        List<CommitmentDetailResponseDTO> response = commitmentDetailAssembler.toDetails(commitments);
         
         return ResponseEntity.ok(response);
     }
@@ -112,9 +103,7 @@ public class StudentCommitmentController {
             @PathVariable UUID sessionSeriesId) {
         
         List<StudentCommitment> commitments = studentCommitmentService.getCommitmentHistory(studentId, sessionSeriesId);
-        List<CommitmentDetailResponseDTO> response = commitments.stream()
-            .map(this::convertToDetailResponseDTO)
-            .collect(Collectors.toList());
+        List<CommitmentDetailResponseDTO> response = commitmentDetailAssembler.toDetails(commitments);
         
         return ResponseEntity.ok(response);
     }
@@ -126,9 +115,7 @@ public class StudentCommitmentController {
             @Valid @RequestBody BulkCommitmentRequestDTO request) {
         List<StudentCommitment> commitments = studentCommitmentService.bulkUpdateCommitments(
             studentId, request.sessionSeriesIds(), request.commitmentStatus(), request.effectiveFromTimestamp());
-        List<CommitmentDetailResponseDTO> response = commitments.stream()
-            .map(this::convertToDetailResponseDTO)
-            .collect(Collectors.toList());
+        List<CommitmentDetailResponseDTO> response = commitmentDetailAssembler.toDetails(commitments);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
     
@@ -138,21 +125,4 @@ public class StudentCommitmentController {
         List<TrainerSchedule> activeSeries = trainerScheduleRepository.findByActiveTrue();
         return ResponseEntity.ok(activeSeries);
     }
-    
-    // Convert entity to detailed response DTO
-    private CommitmentDetailResponseDTO convertToDetailResponseDTO(StudentCommitment commitment) {
-        Optional<Student> student = studentRepository.findById(commitment.getStudentId());
-        Optional<TrainerSchedule> schedule = trainerScheduleRepository.findById(commitment.getSessionSeriesId());
-
-        return new CommitmentDetailResponseDTO(
-            commitment.getId(),
-            commitment.getStudentId(),
-            student.map(Student::getName).orElse(null),
-            commitment.getSessionSeriesId(),
-            schedule.map(TrainerSchedule::getSeriesName).orElse(null),
-            commitment.getCommitmentStatus(),
-            commitment.getEffectiveFromTimestamp(),
-            commitment.getCreatedAt()
-        );
-    }
 }
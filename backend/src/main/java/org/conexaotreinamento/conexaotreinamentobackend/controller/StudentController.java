@@ -7,8 +7,10 @@ import jakarta.validation.constraints.Pattern;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.StudentRequestDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ScheduleResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.StudentResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.Student;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleService;
 import org.conexaotreinamento.conexaotreinamentobackend.service.StudentService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -32,6 +34,7 @@ import java.util.UUID;
 public class StudentController {
 
     private final StudentService studentService;
+    private final ScheduleService scheduleService;
 
     @PostMapping
     public ResponseEntity<StudentResponseDTO> createStudent(@RequestBody @Valid StudentRequestDTO request) {
@@ -47,6 +50,18 @@ public class StudentController {
         return ResponseEntity.ok(studentService.findById(id));
     }
 
+    // The student's own sessions (bookings and one-off additions) without expanding the whole gym calendar
+    @GetMapping("/{id}/sessions")
+    public ResponseEntity<ScheduleResponseDTO> findStudentSessions(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "to must not be before from");
+        }
+        return ResponseEntity.ok(new ScheduleResponseDTO(scheduleService.getStudentSessions(id, from, to)));
+    }
+
     @GetMapping
     public ResponseEntity<Page<StudentResponseDTO>> findAllStudents(
             @RequestParam(required = false) String search,
@@ -99,6 +114,14 @@ public class StudentController {
                 registrationPeriodMinDate, registrationPeriodMaxDate, includeInactive, pageable));
     }
 
+    @GetMapping("/search")
+    public ResponseEntity<Page<StudentResponseDTO>> searchStudents(
+            @RequestParam String q,
+            @RequestParam(required = false, defaultValue = "false") boolean includeInactive,
+            @PageableDefault(size = 20) Pageable pageable) {
+        return ResponseEntity.ok(studentService.search(q, includeInactive, pageable));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<StudentResponseDTO> updateStudent(@PathVariable UUID id, @RequestBody @Valid StudentRequestDTO request) {
         log.info("Updating student [ID: {}] - Name: {}", id, request.name());
@@ -1,13 +1,20 @@
 package org.conexaotreinamento.conexaotreinamentobackend.controller;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.TrainerCreateRequestDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.TrainerPasswordResetRequestDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TimeSlotResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TrainerAvailabilityResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TrainerBusyIntervalResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TrainerListItemResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TrainerResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerAvailabilityIndex;
 import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -18,7 +25,9 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -29,7 +38,10 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 @Slf4j
 public class TrainerController {
+    private static final Duration MAX_AVAILABILITY_RANGE = Duration.ofDays(31);
+
     private final TrainerService trainerService;
+    private final TrainerAvailabilityIndex trainerAvailabilityIndex;
 
     @PostMapping
     public ResponseEntity<TrainerListItemResponseDTO> createTrainerAndUser(@RequestBody @Valid TrainerCreateRequestDTO request) {
@@ -51,6 +63,27 @@ public class TrainerController {
         return ResponseEntity.ok(trainerService.findByUserId(id));
     }
 
+    // Series slots, one-off and reassigned sessions and events keeping the trainer busy in [start, end)
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<TrainerAvailabilityResponseDTO> findTrainerAvailability(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        validateRange(start, end);
+        List<TrainerBusyIntervalResponseDTO> conflicts = trainerAvailabilityIndex.findConflicts(id, start, end);
+        return ResponseEntity.ok(new TrainerAvailabilityResponseDTO(conflicts.isEmpty(), conflicts));
+    }
+
+    @GetMapping("/{id}/free-slots")
+    public ResponseEntity<List<TimeSlotResponseDTO>> findTrainerFreeSlots(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "0") int minMinutes) {
+        validateRange(start, end);
+        return ResponseEntity.ok(trainerAvailabilityIndex.findFreeSlots(id, start, end, Math.max(0, minMinutes)));
+    }
+
     @GetMapping
     public ResponseEntity<List<TrainerListItemResponseDTO>> findAllTrainers() {
         log.debug("Fetching all trainers");
@@ -93,4 +126,13 @@ public class TrainerController {
         log.info("Password reset successfully for trainer [ID: {}]", id);
         return ResponseEntity.noContent().build();
     }
+
+    private static void validateRange(LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "end must be after start");
+        }
+        if (Duration.between(start, end).compareTo(MAX_AVAILABILITY_RANGE) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Range must not exceed 31 days");
+        }
+    }
 }
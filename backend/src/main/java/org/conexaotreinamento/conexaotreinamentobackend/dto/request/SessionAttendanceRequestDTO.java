@@ -0,0 +1,13 @@
+package org.conexaotreinamento.conexaotreinamentobackend.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+
+// Presence of each student in the roster, keyed by student id
+public record SessionAttendanceRequestDTO(
+        @NotEmpty(message = "Attendance cannot be empty")
+        Map<UUID, @NotNull(message = "Presence is required") SessionParticipantPresenceRequestDTO> attendance
+) {}
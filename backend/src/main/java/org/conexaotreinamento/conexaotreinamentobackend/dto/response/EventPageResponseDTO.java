@@ -0,0 +1,9 @@
+package org.conexaotreinamento.conexaotreinamentobackend.dto.response;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record EventPageResponseDTO(
+        List<EventSummaryResponseDTO> items,
+        String nextCursor
+) {}
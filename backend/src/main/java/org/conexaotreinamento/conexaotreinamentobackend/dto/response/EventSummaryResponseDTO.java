@@ -0,0 +1,21 @@
+package org.conexaotreinamento.conexaotreinamentobackend.dto.response;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+public record EventSummaryResponseDTO(
+        UUID id,
+        String name,
+        LocalDate date,
+        LocalTime startTime,
+        LocalTime endTime,
+        String location,
+        UUID instructorId,
+        String instructor,
+        Long participantCount,
+        Long presentCount,
+        Instant createdAt,
+        Instant deletedAt
+) {}
@@ -0,0 +1,9 @@
+package org.conexaotreinamento.conexaotreinamentobackend.dto.response;
+
+import java.time.LocalDate;
+
+public record ReportRollupBackfillResponseDTO(
+        LocalDate startDate,
+        LocalDate endDate,
+        Integer daysRolledUp
+) {}
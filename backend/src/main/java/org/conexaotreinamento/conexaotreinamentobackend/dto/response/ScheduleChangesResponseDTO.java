@@ -0,0 +1,6 @@
+package org.conexaotreinamento.conexaotreinamentobackend.dto.response;
+
+import java.util.List;
+
+// fullSync: sessions is the whole range and replaces the client's copy; otherwise it only holds sessions to upsert
+public record ScheduleChangesResponseDTO(List<SessionResponseDTO> sessions, boolean fullSync, long changeToken) {}
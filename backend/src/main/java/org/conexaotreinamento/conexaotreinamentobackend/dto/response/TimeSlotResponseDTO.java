@@ -0,0 +1,5 @@
+package org.conexaotreinamento.conexaotreinamentobackend.dto.response;
+
+import java.time.LocalDateTime;
+
+public record TimeSlotResponseDTO(LocalDateTime startTime, LocalDateTime endTime) {}
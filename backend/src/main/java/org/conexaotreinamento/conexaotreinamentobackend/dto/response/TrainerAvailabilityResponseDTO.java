@@ -0,0 +1,5 @@
+package org.conexaotreinamento.conexaotreinamentobackend.dto.response;
+
+import java.util.List;
+
+public record TrainerAvailabilityResponseDTO(boolean available, List<TrainerBusyIntervalResponseDTO> conflicts) {}
@@ -0,0 +1,13 @@
+package org.conexaotreinamento.conexaotreinamentobackend.dto.response;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// kind: SERIES, ONE_OFF, SESSION or EVENT; sourceId is the series, session or event keeping the trainer busy
+public record TrainerBusyIntervalResponseDTO(
+        String kind,
+        UUID sourceId,
+        String label,
+        LocalDateTime startTime,
+        LocalDateTime endTime
+) {}
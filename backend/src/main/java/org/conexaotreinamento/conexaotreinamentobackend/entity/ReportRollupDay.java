@@ -0,0 +1,27 @@
+package org.conexaotreinamento.conexaotreinamentobackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+// Marks a day whose trainer rollups are complete, including days without any activity; a stale day awaits its re-roll
+@Entity
+@Table(name = "report_rollup_days")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportRollupDay {
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private Instant refreshedAt;
+
+    @Column(name = "stale", nullable = false)
+    private boolean stale;
+}
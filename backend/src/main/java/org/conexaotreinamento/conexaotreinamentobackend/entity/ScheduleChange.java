@@ -0,0 +1,60 @@
+package org.conexaotreinamento.conexaotreinamentobackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// One schedule write as seen by sync clients; see ScheduleChangeLog
+@Entity
+@Table(name = "schedule_changes")
+@Data
+@NoArgsConstructor
+public class ScheduleChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false, length = 32)
+    private ChangeType changeType;
+
+    @Column(name = "scheduled_session_id")
+    private UUID scheduledSessionId;
+
+    @Column(name = "series_id")
+    private UUID seriesId;
+
+    @Column(name = "session_date")
+    private LocalDate sessionDate;
+
+    // Writing transaction, filled in by the database; change tokens are built on it (see ScheduleChangeLog)
+    @Column(name = "txid", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT (pg_current_xact_id()::text::bigint)")
+    private Long txid;
+
+    @CreationTimestamp
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    private Instant changedAt;
+
+    public enum ChangeType {
+        OVERRIDE,
+        NOTES,
+        TRAINER,
+        CANCELLATION,
+        PRESENCE,
+        EXERCISES,
+        ONE_OFF,
+        COMMITMENT,
+        SCHEDULE
+    }
+
+    // Session-level changes only touch the session itself; everything else touches a whole series
+    public boolean isSessionChange() {
+        return scheduledSessionId != null;
+    }
+}
@@ -0,0 +1,36 @@
+package org.conexaotreinamento.conexaotreinamentobackend.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// One id under which a session series can be addressed; see SessionKeyRegistry
+@Entity
+@Table(name = "session_keys",
+       uniqueConstraints = @UniqueConstraint(name = "uk_session_keys_key_series", columnNames = {"session_key", "series_id"}))
+@Data
+@NoArgsConstructor
+public class SessionKey {
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "session_key", nullable = false, length = 512)
+    private String sessionKey;
+
+    @Column(name = "series_id", nullable = false)
+    private UUID seriesId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public SessionKey(String sessionKey, UUID seriesId) {
+        this.sessionKey = sessionKey;
+        this.seriesId = seriesId;
+    }
+}
@@ -111,6 +111,13 @@ public class Student {
     @Setter
     private Instant deletedAt;
 
+    // Maintained by Postgres (see V20); backs the trigram-indexed search
+    @Column(name = "search_text", insertable = false, updatable = false,
+            columnDefinition = "text GENERATED ALWAYS AS (lower(name || ' ' || surname || ' ' || email || ' ' || "
+                    + "coalesce(phone, '') || ' ' || coalesce(profession, ''))) STORED")
+    @Getter(AccessLevel.NONE)
+    private String searchText;
+
     public Student(String email, String name, String surname, Gender gender, LocalDate birthDate) {
         this.email = email;
         this.name = name;
@@ -0,0 +1,47 @@
+package org.conexaotreinamento.conexaotreinamentobackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.CommitmentStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// Projection of the StudentCommitment event log: the status in force for a (student, series) during [validFrom, validTo)
+@Entity
+@Table(name = "student_commitment_states")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StudentCommitmentState {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "student_id", nullable = false)
+    private UUID studentId;
+
+    @Column(name = "session_series_id", nullable = false)
+    private UUID sessionSeriesId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "commitment_status", nullable = false)
+    private CommitmentStatus commitmentStatus;
+
+    @Column(name = "valid_from", nullable = false)
+    private Instant validFrom;
+
+    // Null while this is the latest state for the pair
+    @Column(name = "valid_to")
+    private Instant validTo;
+
+    // The commitment event this state was derived from
+    @Column(name = "commitment_id", nullable = false)
+    private UUID commitmentId;
+
+    public boolean isValidAt(Instant timestamp) {
+        return !validFrom.isAfter(timestamp) && (validTo == null || validTo.isAfter(timestamp));
+    }
+}
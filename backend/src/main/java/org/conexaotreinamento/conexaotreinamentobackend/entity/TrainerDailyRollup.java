@@ -0,0 +1,44 @@
+package org.conexaotreinamento.conexaotreinamentobackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+// Activity of one trainer on one day, as counted by the trainer reports
+@Entity
+@Table(name = "trainer_daily_rollups")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainerDailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+
+    @Column(name = "trainer_id", nullable = false)
+    private UUID trainerId;
+
+    @Column(name = "day", nullable = false)
+    private LocalDate day;
+
+    @Column(name = "hours", nullable = false)
+    private double hours;
+
+    @Column(name = "activities", nullable = false)
+    private int activities;
+
+    // Distinct students present that day; kept as a set so ranges can count distinct students across days
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "student_ids", nullable = false, columnDefinition = "uuid[]")
+    private UUID[] studentIds;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private Instant refreshedAt;
+}
@@ -56,6 +56,9 @@ public class User {
     @Column(name = "deleted_at")
     private Instant deletedAt;
 
+    @Column(name = "tokens_revoked_before")
+    private Instant tokensRevokedBefore;
+
     public User(String email, String password, Role role) {
         this.email = email;
         this.password = password;
@@ -77,4 +80,11 @@ public class User {
     public void deactivate() {
         deletedAt = Instant.now();
     }
+
+    // Never moves backwards, so a late writer cannot re-validate tokens revoked by a newer one
+    public void revokeTokensIssuedUpTo(Instant instant) {
+        if (tokensRevokedBefore == null || instant.isAfter(tokensRevokedBefore)) {
+            tokensRevokedBefore = instant;
+        }
+    }
 }
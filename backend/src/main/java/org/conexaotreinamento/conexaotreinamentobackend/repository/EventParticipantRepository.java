@@ -2,7 +2,10 @@ package org.conexaotreinamento.conexaotreinamentobackend.repository;
 
 import org.conexaotreinamento.conexaotreinamentobackend.entity.EventParticipant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -10,4 +13,7 @@ public interface EventParticipantRepository extends JpaRepository<EventParticipa
     Optional<EventParticipant> findByEventIdAndStudentId(UUID eventId, UUID studentId);
     boolean existsByEventIdAndStudentId(UUID eventId, UUID studentId);
     void deleteByEventIdAndStudentId(UUID eventId, UUID studentId);
+
+    @Query("select p from EventParticipant p join fetch p.student where p.event.id = :eventId order by p.enrolledAt, p.id")
+    List<EventParticipant> findRosterByEventId(@Param("eventId") UUID eventId);
 }
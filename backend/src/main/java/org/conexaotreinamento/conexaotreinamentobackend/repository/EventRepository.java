@@ -1,11 +1,14 @@
 package org.conexaotreinamento.conexaotreinamentobackend.repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventSummaryResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.Event;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -22,6 +25,8 @@ public interface EventRepository extends JpaRepository<Event, UUID> {
 
     boolean existsByIdAndDeletedAtIsNull(UUID id);
 
+    List<Event> findByTrainer_IdAndDeletedAtIsNull(UUID trainerId);
+
     @Query("select distinct e from Event e left join fetch e.participants p left join fetch p.student left join fetch e.trainer where (lower(e.name) like :term or lower(e.location) like :term) order by e.createdAt desc")
     List<Event> findBySearchTermIncludingInactiveOrderByCreatedAtDesc(String term);
 
@@ -39,4 +44,53 @@ public interface EventRepository extends JpaRepository<Event, UUID> {
     List<Event> findActiveWithinDateRangeWithParticipants(
         @Param("startDate") LocalDate startDate,
         @Param("endDate") LocalDate endDate);
+
+    // Keyset pages of event summaries, newest first; term is a lower-case LIKE pattern ("%" matches every event)
+    @Query("""
+        select new org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventSummaryResponseDTO(
+            e.id, e.name, e.date, e.startTime, e.endTime, e.location, t.id, t.name,
+            (select count(p) from EventParticipant p where p.event = e),
+            (select count(p) from EventParticipant p where p.event = e and p.present = true),
+            e.createdAt, e.deletedAt)
+        from Event e
+        left join e.trainer t
+        where (:includeInactive = true or e.deletedAt is null)
+          and (lower(e.name) like :term or lower(e.location) like :term)
+        order by e.createdAt desc, e.id desc
+        """)
+    List<EventSummaryResponseDTO> findSummaries(
+        @Param("term") String term,
+        @Param("includeInactive") boolean includeInactive,
+        Limit limit);
+
+    @Query("""
+        select new org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventSummaryResponseDTO(
+            e.id, e.name, e.date, e.startTime, e.endTime, e.location, t.id, t.name,
+            (select count(p) from EventParticipant p where p.event = e),
+            (select count(p) from EventParticipant p where p.event = e and p.present = true),
+            e.createdAt, e.deletedAt)
+        from Event e
+        left join e.trainer t
+        where (:includeInactive = true or e.deletedAt is null)
+          and (lower(e.name) like :term or lower(e.location) like :term)
+          and (e.createdAt < :createdAt or (e.createdAt = :createdAt and e.id < :id))
+        order by e.createdAt desc, e.id desc
+        """)
+    List<EventSummaryResponseDTO> findSummariesAfter(
+        @Param("term") String term,
+        @Param("includeInactive") boolean includeInactive,
+        @Param("createdAt") Instant createdAt,
+        @Param("id") UUID id,
+        Limit limit);
+
+    // Latest write and row count of the events of the range and of their participants (counts catch hard deletes)
+    @Query(value = """
+        SELECT concat_ws('|',
+            (SELECT concat(max(e.updated_at), '/', max(e.created_at), '/', count(*)) FROM events e
+                WHERE e.event_date BETWEEN :startDate AND :endDate),
+            (SELECT concat(max(p.updated_at), '/', max(p.created_at), '/', count(*)) FROM event_participants p
+                JOIN events e ON e.event_id = p.event_id
+                WHERE e.event_date BETWEEN :startDate AND :endDate))
+        """, nativeQuery = true)
+    String findEventVersion(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 }
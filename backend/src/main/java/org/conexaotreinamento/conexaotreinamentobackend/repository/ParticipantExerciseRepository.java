@@ -1,12 +1,15 @@
 package org.conexaotreinamento.conexaotreinamentobackend.repository;
 
 import org.conexaotreinamento.conexaotreinamentobackend.entity.ParticipantExercise;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduledSession;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -15,4 +18,10 @@ public interface ParticipantExerciseRepository extends JpaRepository<Participant
 
     @Query("select pe from ParticipantExercise pe left join fetch pe.exercise e where pe.sessionParticipant.id = :sessionParticipantId and pe.active = true")
     List<ParticipantExercise> findActiveWithExerciseBySessionParticipantId(@Param("sessionParticipantId") UUID sessionParticipantId);
+
+    @Query("select pe from ParticipantExercise pe left join fetch pe.exercise e where pe.sessionParticipant.id in :sessionParticipantIds and pe.active = true")
+    List<ParticipantExercise> findActiveWithExerciseBySessionParticipantIdIn(@Param("sessionParticipantIds") Collection<UUID> sessionParticipantIds);
+
+    @Query("select sp.scheduledSession from ParticipantExercise pe join pe.sessionParticipant sp where pe.id = :id")
+    Optional<ScheduledSession> findScheduledSessionById(@Param("id") UUID id);
 }
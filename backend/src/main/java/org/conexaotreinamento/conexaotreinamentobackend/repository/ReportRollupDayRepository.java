@@ -0,0 +1,30 @@
+package org.conexaotreinamento.conexaotreinamentobackend.repository;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ReportRollupDay;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ReportRollupDayRepository extends JpaRepository<ReportRollupDay, LocalDate> {
+
+    // Days whose rollups can be read; stale days are left out
+    @Query("SELECT d.day FROM ReportRollupDay d WHERE d.day BETWEEN :startDate AND :endDate AND d.stale = false ORDER BY d.day")
+    List<LocalDate> findDaysBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Query("SELECT d.day FROM ReportRollupDay d WHERE d.stale = true ORDER BY d.day")
+    List<LocalDate> findStaleDays();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ReportRollupDay d SET d.stale = true WHERE d.day BETWEEN :startDate AND :endDate")
+    int markStaleBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ReportRollupDay d WHERE d.day BETWEEN :startDate AND :endDate")
+    int deleteByDayBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,32 @@
+package org.conexaotreinamento.conexaotreinamentobackend.repository;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduleChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface ScheduleChangeRepository extends JpaRepository<ScheduleChange, Long> {
+
+    @Query("SELECT max(c.id) FROM ScheduleChange c")
+    Long findMaxId();
+
+    // Every transaction below the watermark has finished: none of them can still add a change
+    @Query(value = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint", nativeQuery = true)
+    long findWatermark();
+
+    @Query("SELECT min(c.txid) FROM ScheduleChange c")
+    Long findMinTxid();
+
+    List<ScheduleChange> findByTxidGreaterThanEqualAndTxidLessThanOrderByIdAsc(Long since, Long upTo);
+
+    // The newest row always survives so the current token never moves backwards
+    @Modifying
+    @Query("DELETE FROM ScheduleChange c WHERE c.changedAt < :cutoff AND c.id < :newestId")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff, @Param("newestId") Long newestId);
+}
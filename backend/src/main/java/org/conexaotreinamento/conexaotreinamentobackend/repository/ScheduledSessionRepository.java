@@ -2,11 +2,15 @@ package org.conexaotreinamento.conexaotreinamentobackend.repository;
 
 import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduledSession;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,6 +19,28 @@ import java.util.UUID;
 public interface ScheduledSessionRepository extends JpaRepository<ScheduledSession, UUID> {
     
     Optional<ScheduledSession> findBySessionIdAndActiveTrue(String sessionId);
+
+    // Includes soft-deleted rows, whose session ids stay taken
+    List<ScheduledSession> findByStartTimeBetween(LocalDateTime startTime, LocalDateTime endTime);
+
+    // Race-free materialization: of concurrent inserts of one session id exactly one lands and the others are no-ops
+    // (they wait for it to commit); returns 1 when this call created the row, 0 when the id was already taken
+    @Transactional
+    @Modifying
+    @Query(value = """
+        INSERT INTO scheduled_sessions (id, session_series_id, session_id, trainer_id, start_time, end_time, canceled,
+            series_name, instance_override, effective_from_timestamp, created_at, updated_at, active)
+        VALUES (:#{#session.id}, :#{#session.sessionSeriesId}, :#{#session.sessionId}, :#{#session.trainerId},
+            :#{#session.startTime}, :#{#session.endTime}, :#{#session.canceled}, :#{#session.seriesName},
+            :#{#session.instanceOverride}, :#{#session.effectiveFromTimestamp}, now(), now(), :#{#session.active})
+        ON CONFLICT (session_id) DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(@Param("session") ScheduledSession session);
+
+    // Rows nobody has overridden yet carry nothing but what the series generates
+    @Modifying
+    @Query("DELETE FROM ScheduledSession ss WHERE ss.sessionSeriesId = :seriesId AND ss.instanceOverride = false")
+    int deletePristineBySessionSeriesId(@Param("seriesId") UUID seriesId);
     
     List<ScheduledSession> findBySessionSeriesIdAndActiveTrue(UUID sessionSeriesId);
     
@@ -30,4 +56,79 @@ public interface ScheduledSessionRepository extends JpaRepository<ScheduledSessi
         @Param("startTime") LocalDateTime startTime, 
         @Param("endTime") LocalDateTime endTime
     );
-}
\ No newline at end of file
+
+    // Instances a trainer-scoped expansion needs: those assigned to the trainer plus every instance of the trainer's
+    // series, so occurrences reassigned away are seen too
+    @Query("""
+        SELECT ss FROM ScheduledSession ss
+        WHERE (ss.trainerId = :trainerId
+               OR ss.sessionSeriesId IN (SELECT ts.id FROM TrainerSchedule ts WHERE ts.trainerId = :trainerId))
+          AND ss.startTime >= :startTime AND ss.endTime <= :endTime AND ss.active = true
+        ORDER BY ss.startTime
+        """)
+    List<ScheduledSession> findForTrainerInRange(
+        @Param("trainerId") UUID trainerId,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime
+    );
+
+    // Sessions keeping a trainer busy that the weekly slots of their own series do not already cover:
+    // one-offs and occurrences of other trainers' series reassigned to them
+    @Query("""
+        SELECT ss FROM ScheduledSession ss
+        WHERE ss.trainerId = :trainerId AND ss.active = true AND ss.canceled = false
+          AND (ss.sessionSeriesId IS NULL
+               OR ss.sessionSeriesId NOT IN (SELECT ts.id FROM TrainerSchedule ts WHERE ts.trainerId = :trainerId))
+        """)
+    List<ScheduledSession> findBusyOutsideOwnSeries(@Param("trainerId") UUID trainerId);
+
+    // Occurrences of a trainer's own series that no longer keep them busy: canceled or reassigned away
+    @Query("""
+        SELECT ss FROM ScheduledSession ss
+        WHERE ss.sessionSeriesId IN (SELECT ts.id FROM TrainerSchedule ts WHERE ts.trainerId = :trainerId)
+          AND ss.active = true
+          AND (ss.canceled = true OR ss.trainerId IS NULL OR ss.trainerId <> :trainerId)
+        """)
+    List<ScheduledSession> findReleasedFromOwnSeries(@Param("trainerId") UUID trainerId);
+
+    @Query("SELECT ss FROM ScheduledSession ss WHERE ss.sessionSeriesId IN :seriesIds AND ss.startTime >= :startTime AND ss.endTime <= :endTime AND ss.active = true ORDER BY ss.startTime")
+    List<ScheduledSession> findBySessionSeriesIdInRange(
+        @Param("seriesIds") Collection<UUID> seriesIds,
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime
+    );
+
+    // Version vector of everything a schedule expansion of the range reads: latest write and row count of the
+    // instances, overrides and exercises in the range (counts catch hard deletes), the latest commitment in force
+    // by effectiveUpTo, and the series in effect by then and not deleted before the range, with the trainer rows
+    // whose names are rendered. Series and trainers are limited to the range, so a poll never scans either table
+    // whole; an edit moving a series in or out of that set changes its count
+    @Query(value = """
+        WITH range_series AS (
+            SELECT t.trainer_id, t.updated_at FROM trainer_schedules t
+            WHERE t.effective_from_timestamp < :effectiveUpTo
+              AND (t.deleted_at IS NULL OR t.deleted_at >= :startTime))
+        SELECT concat_ws('|',
+            (SELECT concat(max(s.updated_at), '/', count(*)) FROM scheduled_sessions s
+                WHERE s.start_time BETWEEN :startTime AND :endTime),
+            (SELECT concat(max(sp.updated_at), '/', count(*)) FROM session_participants sp
+                JOIN scheduled_sessions s ON s.id = sp.scheduled_session_id
+                WHERE s.start_time BETWEEN :startTime AND :endTime),
+            (SELECT concat(max(pe.updated_at), '/', count(*)) FROM participant_exercises pe
+                JOIN session_participants sp ON sp.id = pe.session_participant_id
+                JOIN scheduled_sessions s ON s.id = sp.scheduled_session_id
+                WHERE s.start_time BETWEEN :startTime AND :endTime),
+            (SELECT max(c.created_at) FROM student_commitments c WHERE c.effective_from_timestamp < :effectiveUpTo),
+            (SELECT concat(max(rs.updated_at), '/', count(*)) FROM range_series rs),
+            (SELECT concat(max(st.updated_at), '/', max(st.created_at)) FROM students st),
+            (SELECT md5(coalesce(string_agg(tr::text, ',' ORDER BY tr.id), '')) FROM trainers tr
+                WHERE tr.id IN (SELECT rs.trainer_id FROM range_series rs)
+                   OR tr.id IN (SELECT s.trainer_id FROM scheduled_sessions s
+                                WHERE s.start_time BETWEEN :startTime AND :endTime)))
+        """, nativeQuery = true)
+    String findScheduleVersion(
+        @Param("startTime") LocalDateTime startTime,
+        @Param("endTime") LocalDateTime endTime,
+        @Param("effectiveUpTo") Instant effectiveUpTo
+    );
+}
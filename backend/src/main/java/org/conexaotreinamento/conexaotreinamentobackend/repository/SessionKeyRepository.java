@@ -0,0 +1,21 @@
+package org.conexaotreinamento.conexaotreinamentobackend.repository;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.SessionKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SessionKeyRepository extends JpaRepository<SessionKey, UUID> {
+
+    @Query("SELECT k.seriesId FROM SessionKey k WHERE k.sessionKey = :sessionKey")
+    List<UUID> findSeriesIdsBySessionKey(@Param("sessionKey") String sessionKey);
+
+    @Query("SELECT k.sessionKey FROM SessionKey k WHERE k.seriesId = :seriesId AND k.sessionKey IN :sessionKeys")
+    List<String> findRegisteredKeys(@Param("seriesId") UUID seriesId, @Param("sessionKeys") Collection<String> sessionKeys);
+}
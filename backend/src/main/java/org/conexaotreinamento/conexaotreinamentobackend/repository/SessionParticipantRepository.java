@@ -2,8 +2,12 @@ package org.conexaotreinamento.conexaotreinamentobackend.repository;
 
 import org.conexaotreinamento.conexaotreinamentobackend.entity.SessionParticipant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -15,4 +19,16 @@ public interface SessionParticipantRepository extends JpaRepository<SessionParti
     List<SessionParticipant> findByStudentIdAndActiveTrue(UUID studentId);
     
     List<SessionParticipant> findByScheduledSession_IdAndStudentIdAndActiveTrue(UUID scheduledSessionId, UUID studentId);
+    
+    // Filters on the foreign key column; the derived form joined scheduled_sessions to test the id there, which let
+    // the planner pick a scan of that table
+    @Query("SELECT sp FROM SessionParticipant sp WHERE sp.scheduledSession.id IN :scheduledSessionIds AND sp.active = true")
+    List<SessionParticipant> findByScheduledSession_IdInAndActiveTrue(@Param("scheduledSessionIds") Collection<UUID> scheduledSessionIds);
+
+    // A student's overrides on the active instances of a range, fetched with their instance
+    @Query("SELECT sp FROM SessionParticipant sp JOIN FETCH sp.scheduledSession ss WHERE sp.studentId = :studentId " +
+           "AND sp.active = true AND ss.active = true AND ss.startTime >= :startTime AND ss.endTime <= :endTime")
+    List<SessionParticipant> findByStudentIdInRange(@Param("studentId") UUID studentId,
+                                                    @Param("startTime") LocalDateTime startTime,
+                                                    @Param("endTime") LocalDateTime endTime);
 }
@@ -0,0 +1,88 @@
+package org.conexaotreinamento.conexaotreinamentobackend.repository;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitmentState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface StudentCommitmentStateRepository extends JpaRepository<StudentCommitmentState, UUID> {
+
+    List<StudentCommitmentState> findByStudentIdAndSessionSeriesIdOrderByValidFromAsc(UUID studentId, UUID sessionSeriesId);
+
+    // Interval chains of several series of one student, used by bulk commitment writes
+    List<StudentCommitmentState> findByStudentIdAndSessionSeriesIdInOrderByValidFromAsc(UUID studentId, Collection<UUID> sessionSeriesIds);
+
+    // State of every student for a series at a point in time
+    @Query("SELECT s FROM StudentCommitmentState s WHERE s.sessionSeriesId = :sessionSeriesId " +
+           "AND s.validFrom <= :timestamp AND (s.validTo IS NULL OR s.validTo > :timestamp)")
+    List<StudentCommitmentState> findBySessionSeriesIdValidAt(@Param("sessionSeriesId") UUID sessionSeriesId,
+                                                              @Param("timestamp") Instant timestamp);
+
+    // State of a student for every series at a point in time
+    @Query("SELECT s FROM StudentCommitmentState s WHERE s.studentId = :studentId " +
+           "AND s.validFrom <= :timestamp AND (s.validTo IS NULL OR s.validTo > :timestamp)")
+    List<StudentCommitmentState> findByStudentIdValidAt(@Param("studentId") UUID studentId,
+                                                        @Param("timestamp") Instant timestamp);
+
+    // States of a student that are in force at any point of [from, to]
+    @Query("SELECT s FROM StudentCommitmentState s WHERE s.studentId = :studentId " +
+           "AND s.validFrom <= :to AND (s.validTo IS NULL OR s.validTo > :from)")
+    List<StudentCommitmentState> findByStudentIdOverlapping(@Param("studentId") UUID studentId,
+                                                            @Param("from") Instant from,
+                                                            @Param("to") Instant to);
+
+    // States for the given series that are in force at any point of [from, to]
+    @Query("SELECT s FROM StudentCommitmentState s WHERE s.sessionSeriesId IN :sessionSeriesIds " +
+           "AND s.validFrom <= :to AND (s.validTo IS NULL OR s.validTo > :from)")
+    List<StudentCommitmentState> findBySessionSeriesIdInOverlapping(@Param("sessionSeriesIds") Collection<UUID> sessionSeriesIds,
+                                                                    @Param("from") Instant from,
+                                                                    @Param("to") Instant to);
+
+    // Taken by incremental writes before reading a chain: writers do not block each other, but a running rebuild
+    // (EXCLUSIVE) makes them wait until it commits, and vice versa
+    @Modifying
+    @Query(value = "LOCK TABLE student_commitment_states IN ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockForSplice();
+
+    // Serializes splices into the chain of one (student, series) pair until the transaction ends
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(hashtext(:studentId), hashtext(:sessionSeriesId))) l",
+           nativeQuery = true)
+    long lockChain(@Param("studentId") String studentId, @Param("sessionSeriesId") String sessionSeriesId);
+
+    // Readers keep going; incremental writes wait for the rebuild to commit
+    @Modifying
+    @Query(value = "LOCK TABLE student_commitment_states IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @Query(value = "DELETE FROM student_commitment_states", nativeQuery = true)
+    int deleteAllStates();
+
+    // Replays the whole event log; the latest event per effective instant wins (created_at, then id)
+    @Modifying
+    @Query(value = """
+                   INSERT INTO student_commitment_states (id, student_id, session_series_id, commitment_status, valid_from, valid_to, commitment_id)
+                   SELECT gen_random_uuid(),
+                          latest.student_id,
+                          latest.session_series_id,
+                          latest.commitment_status,
+                          latest.effective_from_timestamp,
+                          LEAD(latest.effective_from_timestamp) OVER (
+                              PARTITION BY latest.student_id, latest.session_series_id ORDER BY latest.effective_from_timestamp),
+                          latest.id
+                   FROM (
+                       SELECT DISTINCT ON (student_id, session_series_id, effective_from_timestamp) *
+                       FROM student_commitments
+                       ORDER BY student_id, session_series_id, effective_from_timestamp, created_at DESC, id DESC
+                   ) latest
+                   """, nativeQuery = true)
+    int insertStatesFromCommitments();
+}
@@ -1,9 +1,12 @@
 package org.conexaotreinamento.conexaotreinamentobackend.repository;
 
 import org.conexaotreinamento.conexaotreinamentobackend.entity.Student;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -19,4 +22,14 @@ public interface StudentRepository extends JpaRepository<Student, UUID>, JpaSpec
 
     @Query("SELECT s.birthDate FROM Student s WHERE s.deletedAt IS NULL")
     List<LocalDate> findAllBirthDates();
+
+    // Ranked search over the trigram-indexed search_text: substring hits plus fuzzy word matches (pg_trgm <%),
+    // best word_similarity first
+    @Query(value = "SELECT s.* FROM students s WHERE (:includeInactive OR s.deleted_at IS NULL) " +
+           "AND (s.search_text LIKE '%' || LOWER(:search) || '%' OR LOWER(:search) <% s.search_text) " +
+           "ORDER BY word_similarity(LOWER(:search), s.search_text) DESC, s.created_at DESC",
+           countQuery = "SELECT count(*) FROM students s WHERE (:includeInactive OR s.deleted_at IS NULL) " +
+           "AND (s.search_text LIKE '%' || LOWER(:search) || '%' OR LOWER(:search) <% s.search_text)",
+           nativeQuery = true)
+    Page<Student> searchRanked(@Param("search") String search, @Param("includeInactive") boolean includeInactive, Pageable pageable);
 }
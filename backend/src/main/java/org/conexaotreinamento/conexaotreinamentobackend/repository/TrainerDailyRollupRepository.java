@@ -0,0 +1,22 @@
+package org.conexaotreinamento.conexaotreinamentobackend.repository;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerDailyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TrainerDailyRollupRepository extends JpaRepository<TrainerDailyRollup, UUID> {
+
+    List<TrainerDailyRollup> findByDayBetween(LocalDate startDate, LocalDate endDate);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TrainerDailyRollup r WHERE r.day BETWEEN :startDate AND :endDate")
+    int deleteByDayBetween(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -4,6 +4,7 @@ import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TrainerList
 import org.conexaotreinamento.conexaotreinamentobackend.entity.Trainer;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -35,4 +36,7 @@ public interface TrainerRepository extends JpaRepository<Trainer, UUID> {
             " WHERE (:includeInactive = true OR u.deletedAt IS NULL)")
     List<TrainerListItemResponseDTO> findAllTrainerProfiles(Boolean includeInactive);
 
+    // Serializes availability checks, and the writes they guard, for one trainer until the transaction ends
+    @Query(value = "SELECT count(*) FROM (SELECT pg_advisory_xact_lock(hashtext(:trainerId))) l", nativeQuery = true)
+    long lockAvailability(@Param("trainerId") String trainerId);
 }
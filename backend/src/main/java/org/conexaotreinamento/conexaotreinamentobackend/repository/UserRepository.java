@@ -1,5 +1,7 @@
 package org.conexaotreinamento.conexaotreinamentobackend.repository;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -21,4 +23,6 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByIdAndDeletedAtIsNull(UUID id);
     
     boolean existsByEmailAndDeletedAtIsNull(String email);
+
+    List<User> findByTokensRevokedBeforeAfter(Instant since);
 }
@@ -0,0 +1,63 @@
+package org.conexaotreinamento.conexaotreinamentobackend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.CommitmentDetailResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Student;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitment;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Builds CommitmentDetailResponseDTOs for a list of commitments with one student and one schedule
+ * query, whatever the size of the list, instead of two lookups per commitment.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommitmentDetailAssembler {
+
+    private final StudentRepository studentRepository;
+    private final TrainerScheduleRepository trainerScheduleRepository;
+
+    public CommitmentDetailResponseDTO toDetail(StudentCommitment commitment) {
+        return toDetails(List.of(commitment)).getFirst();
+    }
+
+    // Preserves the order of the given commitments; unknown students or series map to null names
+    public List<CommitmentDetailResponseDTO> toDetails(List<StudentCommitment> commitments) {
+        if (commitments.isEmpty()) {
+            return List.of();
+        }
+        Set<UUID> studentIds = commitments.stream().map(StudentCommitment::getStudentId).collect(Collectors.toSet());
+        Set<UUID> seriesIds = commitments.stream().map(StudentCommitment::getSessionSeriesId).collect(Collectors.toSet());
+
+        Map<UUID, String> studentNames = new HashMap<>();
+        for (Student student : studentRepository.findAllById(studentIds)) {
+            studentNames.put(student.getId(), student.getName());
+        }
+        Map<UUID, String> seriesNames = new HashMap<>();
+        for (TrainerSchedule schedule : trainerScheduleRepository.findAllById(seriesIds)) {
+            seriesNames.put(schedule.getId(), schedule.getSeriesName());
+        }
+
+        return commitments.stream()
+            .map(commitment -> new CommitmentDetailResponseDTO(
+                commitment.getId(),
+                commitment.getStudentId(),
+                studentNames.get(commitment.getStudentId()),
+                commitment.getSessionSeriesId(),
+                seriesNames.get(commitment.getSessionSeriesId()),
+                commitment.getCommitmentStatus(),
+                commitment.getEffectiveFromTimestamp(),
+                commitment.getCreatedAt()))
+            .toList();
+    }
+}
@@ -5,7 +5,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.EventRequestDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.PatchEventRequestDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventPageResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventParticipantResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventSummaryResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.Event;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.EventParticipant;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.Student;
@@ -14,12 +17,20 @@ import org.conexaotreinamento.conexaotreinamentobackend.repository.EventParticip
 import org.conexaotreinamento.conexaotreinamentobackend.repository.EventRepository;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentRepository;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 
 @Service
@@ -27,10 +38,14 @@ import java.util.UUID;
 @Slf4j
 public class EventService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final EventRepository repository;
     private final EventParticipantRepository participantRepository;
     private final StudentRepository studentRepository;
     private final TrainerRepository trainerRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TrainerAvailabilityIndex trainerAvailabilityIndex;
 
     @Transactional
     public EventResponseDTO createEvent(EventRequestDTO request) {
@@ -42,8 +57,10 @@ public class EventService {
         e.setLocation(request.location());
         e.setDescription(request.description());
         e.setTrainer(findTrainer(request.trainerId()));
+        requireTrainerFree(request.trainerId(), request.date(), request.startTime(), request.endTime(), null);
 
         Event saved = repository.save(e);
+        publishTrainersChanged(trainerId(saved));
         log.info("Event created successfully [ID: {}] - Name: {}", saved.getId(), saved.getName());
 
         // Add participants if provided
@@ -79,12 +96,68 @@ public class EventService {
         return events.stream().map(EventResponseDTO::fromEntity).toList();
     }
 
+    // Keyset page of event summaries ordered by (createdAt, id) descending; rosters are served by findEventRoster
+    public EventPageResponseDTO findEventPage(String search, boolean includeInactive, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        String term = search == null || search.isBlank() ? "%" : "%" + search.toLowerCase() + "%";
+        // One extra row tells whether another page exists
+        Limit limit = Limit.of(size + 1);
+
+        List<EventSummaryResponseDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repository.findSummaries(term, includeInactive, limit);
+        } else {
+            EventCursor after = decodeCursor(cursor);
+            rows = repository.findSummariesAfter(term, includeInactive, after.createdAt(), after.id(), limit);
+        }
+
+        if (rows.size() <= size) {
+            return new EventPageResponseDTO(rows, null);
+        }
+        List<EventSummaryResponseDTO> items = rows.subList(0, size);
+        EventSummaryResponseDTO last = items.getLast();
+        return new EventPageResponseDTO(List.copyOf(items), encodeCursor(last.createdAt(), last.id()));
+    }
+
+    public List<EventParticipantResponseDTO> findEventRoster(UUID eventId) {
+        if (!repository.existsByIdAndDeletedAtIsNull(eventId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found");
+        }
+        return participantRepository.findRosterByEventId(eventId).stream()
+                .map(EventParticipantResponseDTO::fromEntity)
+                .toList();
+    }
+
+    private record EventCursor(Instant createdAt, UUID id) {}
+
+    private String encodeCursor(Instant createdAt, UUID id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private EventCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new EventCursor(Instant.parse(raw.substring(0, separator)), UUID.fromString(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
     @Transactional
     public EventResponseDTO updateEvent(UUID id, EventRequestDTO request) {
         log.debug("Updating event [ID: {}] - Name: {}", id, request.name());
         
         Event e = repository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found"));
+        LocalDate previousDate = e.getDate();
+        UUID previousTrainerId = trainerId(e);
+        Trainer trainer = findTrainer(request.trainerId());
+        // Checked before the entity changes, so the check never sees (or flushes) the edit it is judging
+        requireTrainerFreeIfMoved(e, request.trainerId(), request.date(), request.startTime(), request.endTime());
 
         e.setName(request.name());
         e.setDate(request.date());
@@ -92,7 +165,7 @@ public class EventService {
         e.setEndTime(request.endTime());
         e.setLocation(request.location());
         e.setDescription(request.description());
-        e.setTrainer(findTrainer(request.trainerId()));
+        e.setTrainer(trainer);
 
         // Update participants if provided
         if (request.participantIds() != null) {
@@ -100,6 +173,9 @@ public class EventService {
             updateEventParticipants(e, request.participantIds());
         }
 
+        publishActivityChanged(previousDate);
+        publishActivityChanged(e.getDate());
+        publishTrainersChanged(previousTrainerId, trainerId(e));
         log.info("Event updated successfully [ID: {}] - Name: {}", id, e.getName());
         return EventResponseDTO.fromEntity(e);
     }
@@ -110,6 +186,13 @@ public class EventService {
         
         Event e = repository.findByIdAndDeletedAtIsNull(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Event not found"));
+        LocalDate previousDate = e.getDate();
+        UUID previousTrainerId = trainerId(e);
+        Trainer trainer = request.trainerId() != null ? findTrainer(request.trainerId()) : e.getTrainer();
+        requireTrainerFreeIfMoved(e, trainer != null ? trainer.getId() : null,
+                request.date() != null ? request.date() : e.getDate(),
+                request.startTime() != null ? request.startTime() : e.getStartTime(),
+                request.endTime() != null ? request.endTime() : e.getEndTime());
 
         if (request.name() != null) e.setName(request.name());
         if (request.date() != null) e.setDate(request.date());
@@ -117,9 +200,12 @@ public class EventService {
         if (request.endTime() != null) e.setEndTime(request.endTime());
         if (request.location() != null) e.setLocation(request.location());
         if (request.description() != null) e.setDescription(request.description());
-        if (request.trainerId() != null) e.setTrainer(findTrainer(request.trainerId()));
+        e.setTrainer(trainer);
         if (request.participantIds() != null) updateEventParticipants(e, request.participantIds());
 
+        publishActivityChanged(previousDate);
+        publishActivityChanged(e.getDate());
+        publishTrainersChanged(previousTrainerId, trainerId(e));
         log.info("Event patched successfully [ID: {}] - Name: {}", id, e.getName());
         return EventResponseDTO.fromEntity(e);
     }
@@ -134,6 +220,8 @@ public class EventService {
         log.info("Deactivating event [ID: {}] - Name: {}", id, e.getName());
         e.deactivate();
         repository.save(e);
+        publishActivityChanged(e.getDate());
+        publishTrainersChanged(trainerId(e));
         log.info("Event deleted successfully [ID: {}]", id);
     }
 
@@ -149,13 +237,46 @@ public class EventService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Event is already active");
         }
 
+        requireTrainerFree(trainerId(e), e.getDate(), e.getStartTime(), e.getEndTime(), id);
         log.info("Activating event [ID: {}] - Name: {}", id, e.getName());
         e.activate();
         repository.save(e);
+        publishActivityChanged(e.getDate());
+        publishTrainersChanged(trainerId(e));
         log.info("Event restored successfully [ID: {}]", id);
         return EventResponseDTO.fromEntity(e);
     }
 
+    // Attendance and event changes alter the trainer report rollup of the event's day
+    private void publishActivityChanged(LocalDate date) {
+        if (date != null) {
+            eventPublisher.publishEvent(ReportRollupService.ActivityChanged.of(date));
+        }
+    }
+
+    // Events without times block no particular interval, so only timed events are checked
+    private void requireTrainerFree(UUID trainerId, LocalDate date, LocalTime startTime, LocalTime endTime, UUID eventId) {
+        if (date != null && startTime != null && endTime != null) {
+            trainerAvailabilityIndex.requireFree(trainerId, date.atTime(startTime), date.atTime(endTime), eventId);
+        }
+    }
+
+    // Edits that keep the trainer and the interval (participants, notes, ...) are not re-checked
+    private void requireTrainerFreeIfMoved(Event e, UUID trainerId, LocalDate date, LocalTime startTime, LocalTime endTime) {
+        if (!Objects.equals(trainerId, trainerId(e)) || !Objects.equals(date, e.getDate())
+                || !Objects.equals(startTime, e.getStartTime()) || !Objects.equals(endTime, e.getEndTime())) {
+            requireTrainerFree(trainerId, date, startTime, endTime, e.getId());
+        }
+    }
+
+    private void publishTrainersChanged(UUID... trainerIds) {
+        eventPublisher.publishEvent(TrainerAvailabilityIndex.Changed.of(trainerIds));
+    }
+
+    private static UUID trainerId(Event e) {
+        return e.getTrainer() != null ? e.getTrainer().getId() : null;
+    }
+
     private Trainer findTrainer(UUID trainerId) {
         if (trainerId == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Trainer is required");
@@ -230,6 +351,7 @@ public class EventService {
         }
 
         participantRepository.deleteByEventIdAndStudentId(eventId, studentId);
+        repository.findById(eventId).ifPresent(event -> publishActivityChanged(event.getDate()));
         log.info("Participant removed successfully - Student [ID: {}] from Event [ID: {}]", studentId, eventId);
     }
 
@@ -247,6 +369,8 @@ public class EventService {
         log.info("Attendance toggled successfully - Student [ID: {}] in Event [ID: {}] - Present: {}", 
                 studentId, eventId, newAttendanceStatus);
 
-        return EventResponseDTO.fromEntity(repository.findById(eventId).orElseThrow());
+        Event event = repository.findById(eventId).orElseThrow();
+        publishActivityChanged(event.getDate());
+        return EventResponseDTO.fromEntity(event);
     }
 }
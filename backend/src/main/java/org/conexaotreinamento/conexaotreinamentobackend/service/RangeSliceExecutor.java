@@ -0,0 +1,84 @@
+package org.conexaotreinamento.conexaotreinamentobackend.service;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiFunction;
+
+/**
+ * Splits a long date range into consecutive slices of {@code slice-days} and computes them on virtual
+ * threads, at most {@code max-concurrent-slices} at a time. A slice issues its queries one after another,
+ * so the budget is also the number of pooled connections the expansion can hold; keep it below the Hikari
+ * pool size. Ranges shorter than {@code min-range-days}, or a budget of 1, run on the calling thread.
+ */
+@Component
+public class RangeSliceExecutor implements DisposableBean {
+
+    private final int sliceDays;
+    private final int maxConcurrentSlices;
+    private final int minRangeDays;
+    private final Semaphore budget;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public RangeSliceExecutor(@Value("${app.schedule.parallel.slice-days:7}") int sliceDays,
+            @Value("${app.schedule.parallel.max-concurrent-slices:4}") int maxConcurrentSlices,
+            @Value("${app.schedule.parallel.min-range-days:28}") int minRangeDays) {
+        this.sliceDays = Math.max(1, sliceDays);
+        this.maxConcurrentSlices = Math.max(1, maxConcurrentSlices);
+        this.minRangeDays = minRangeDays;
+        this.budget = new Semaphore(this.maxConcurrentSlices);
+    }
+
+    // Results of every slice [from, to] (both inclusive) concatenated in date order
+    public <T> List<T> map(LocalDate startDate, LocalDate endDate, BiFunction<LocalDate, LocalDate, List<T>> slice) {
+        long days = ChronoUnit.DAYS.between(startDate, endDate) + 1;
+        if (maxConcurrentSlices == 1 || days < minRangeDays) {
+            return slice.apply(startDate, endDate);
+        }
+        List<Future<List<T>>> futures = new ArrayList<>();
+        for (LocalDate from = startDate; !from.isAfter(endDate); from = from.plusDays(sliceDays)) {
+            LocalDate sliceStart = from;
+            LocalDate sliceEnd = from.plusDays(sliceDays - 1L).isAfter(endDate) ? endDate : from.plusDays(sliceDays - 1L);
+            futures.add(executor.submit(() -> {
+                budget.acquire();
+                try {
+                    return slice.apply(sliceStart, sliceEnd);
+                } finally {
+                    budget.release();
+                }
+            }));
+        }
+        List<T> result = new ArrayList<>();
+        try {
+            for (Future<List<T>> future : futures) {
+                result.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while expanding " + startDate + ".." + endDate, e);
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,157 @@
+package org.conexaotreinamento.conexaotreinamentobackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ReportRollupDay;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerDailyRollup;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ReportRollupDayRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerDailyRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Maintains the per trainer and day rollups read by the trainer reports. Only closed days (before today)
+ * are rolled up; today and future days still depend on commitments and are always computed live. Writes
+ * that change a closed day publish {@link ActivityChanged}, which re-rolls that day once the write commits;
+ * wider changes mark their days stale and the nightly job re-rolls them. Each chunk of days is rolled up in
+ * its own transaction, so a long range never holds one transaction open.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReportRollupService {
+
+    // Days are rolled up in chunks so a backfill never expands more than this many days at once
+    private static final int CHUNK_DAYS = 31;
+
+    private final ReportsService reportsService;
+    private final TrainerDailyRollupRepository trainerDailyRollupRepository;
+    private final ReportRollupDayRepository reportRollupDayRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${app.reports.rollup.horizon-days:35}")
+    private int horizonDays;
+
+    // Published by schedule, event and commitment writes that may change the activity of the given days
+    public record ActivityChanged(LocalDate startDate, LocalDate endDate) {
+        public static ActivityChanged of(LocalDate day) {
+            return new ActivityChanged(day, day);
+        }
+    }
+
+    // Recomputes the rollups of every closed day in the range, one transaction per chunk (joining the caller's
+    // transaction if there is one); returns the number of days rolled up
+    public int refreshDays(LocalDate startDate, LocalDate endDate) {
+        LocalDate lastClosedDay = LocalDate.now().minusDays(1);
+        LocalDate last = endDate.isAfter(lastClosedDay) ? lastClosedDay : endDate;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int refreshed = 0;
+        for (LocalDate chunkStart = startDate; !chunkStart.isAfter(last); chunkStart = chunkStart.plusDays(CHUNK_DAYS)) {
+            LocalDate from = chunkStart;
+            LocalDate to = chunkStart.plusDays(CHUNK_DAYS - 1L).isAfter(last) ? last : chunkStart.plusDays(CHUNK_DAYS - 1L);
+            Integer days = transaction.execute(status -> refreshChunk(from, to));
+            refreshed += days != null ? days : 0;
+        }
+        return refreshed;
+    }
+
+    // Drops the rollups of the range and marks its rolled-up days stale: reports compute them live until the
+    // nightly job rolls them up again
+    @Transactional
+    public void invalidate(LocalDate startDate, LocalDate endDate) {
+        reportRollupDayRepository.markStaleBetween(startDate, endDate);
+        trainerDailyRollupRepository.deleteByDayBetween(startDate, endDate);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onActivityChanged(ActivityChanged change) {
+        LocalDate lastClosedDay = LocalDate.now().minusDays(1);
+        if (change.startDate().isAfter(lastClosedDay)) {
+            return;
+        }
+        LocalDate endDate = change.endDate().isAfter(lastClosedDay) ? lastClosedDay : change.endDate();
+        if (change.startDate().equals(endDate)) {
+            refreshDays(change.startDate(), endDate);
+        } else {
+            // Wide changes (e.g. backdated commitments or edited series) are only marked stale; the nightly job
+            // rolls them up again
+            invalidate(change.startDate(), endDate);
+        }
+    }
+
+    // Rolls up yesterday, any day in the horizon that was never rolled up and every stale day, however old
+    @Scheduled(cron = "${app.reports.rollup.cron:0 15 3 * * *}")
+    public void rollUpClosedDays() {
+        LocalDate lastClosedDay = LocalDate.now().minusDays(1);
+        LocalDate horizonStart = lastClosedDay.minusDays(horizonDays - 1L);
+        Set<LocalDate> rolledUp = new HashSet<>(reportRollupDayRepository.findDaysBetween(horizonStart, lastClosedDay));
+        TreeSet<LocalDate> pending = new TreeSet<>(reportRollupDayRepository.findStaleDays());
+        for (LocalDate day = horizonStart; !day.isAfter(lastClosedDay); day = day.plusDays(1)) {
+            if (!rolledUp.contains(day)) {
+                pending.add(day);
+            }
+        }
+        int refreshed = 0;
+        LocalDate runStart = null;
+        LocalDate runEnd = null;
+        for (LocalDate day : pending) {
+            if (runEnd != null && day.equals(runEnd.plusDays(1))) {
+                runEnd = day;
+                continue;
+            }
+            if (runStart != null) {
+                refreshed += refreshDays(runStart, runEnd);
+            }
+            runStart = day;
+            runEnd = day;
+        }
+        if (runStart != null) {
+            refreshed += refreshDays(runStart, runEnd);
+        }
+        log.info("Rolled up trainer activity for {} days", refreshed);
+    }
+
+    private int refreshChunk(LocalDate startDate, LocalDate endDate) {
+        reportRollupDayRepository.deleteByDayBetween(startDate, endDate);
+        trainerDailyRollupRepository.deleteByDayBetween(startDate, endDate);
+
+        Instant now = Instant.now();
+        List<TrainerDailyRollup> rollups = new ArrayList<>();
+        for (ReportsService.DailyActivity activity : reportsService.collectDailyActivity(
+                startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX), null)) {
+            TrainerDailyRollup rollup = new TrainerDailyRollup();
+            rollup.setTrainerId(activity.getTrainerId());
+            rollup.setDay(activity.getDay());
+            rollup.setHours(activity.getHours());
+            rollup.setActivities(activity.getActivities());
+            rollup.setStudentIds(activity.getStudentIds().toArray(new UUID[0]));
+            rollup.setRefreshedAt(now);
+            rollups.add(rollup);
+        }
+        trainerDailyRollupRepository.saveAll(rollups);
+
+        List<ReportRollupDay> days = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            days.add(new ReportRollupDay(day, now, false));
+        }
+        reportRollupDayRepository.saveAll(days);
+        return days.size();
+    }
+}
@@ -1,5 +1,8 @@
 package org.conexaotreinamento.conexaotreinamentobackend.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.AgeDistributionResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ReportsResponseDTO;
@@ -9,9 +12,12 @@ import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TrainerRepo
 import org.conexaotreinamento.conexaotreinamentobackend.entity.Event;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.EventParticipant;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.Trainer;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerDailyRollup;
 import org.conexaotreinamento.conexaotreinamentobackend.enums.CompensationType;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.EventRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ReportRollupDayRepository;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerDailyRollupRepository;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerRepository;
 import org.springframework.stereotype.Service;
 
@@ -21,6 +27,8 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.Period;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -39,11 +47,24 @@ public class ReportsService {
     private final EventRepository eventRepository;
     private final TrainerRepository trainerRepository;
     private final StudentRepository studentRepository;
+    private final TrainerDailyRollupRepository trainerDailyRollupRepository;
+    private final ReportRollupDayRepository reportRollupDayRepository;
+    private final MeterRegistry meterRegistry;
+
+    // Sessions starting at or after this time of day count on their day only when the range reaches it
+    private static final LocalTime LAST_SESSION_START = LocalTime.of(23, 59);
 
     public ReportsResponseDTO generateReports(LocalDateTime startDate, LocalDateTime endDate, UUID trainerId) {
-        List<TrainerReportResponseDTO> trainerReports = generateTrainerReports(startDate, endDate, trainerId);
-        List<AgeDistributionResponseDTO> ageDistribution = calculateAgeDistribution();
-        return new ReportsResponseDTO(trainerReports, ageDistribution);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            List<TrainerReportResponseDTO> trainerReports = generateTrainerReports(startDate, endDate, trainerId);
+            List<AgeDistributionResponseDTO> ageDistribution = calculateAgeDistribution();
+            return new ReportsResponseDTO(trainerReports, ageDistribution);
+        } finally {
+            sample.stop(Timer.builder("reports.generation").description("Time to generate the trainer reports")
+                    .tag("scope", trainerId == null ? "all" : "trainer")
+                    .register(meterRegistry));
+        }
     }
     
     private List<TrainerReportResponseDTO> generateTrainerReports(LocalDateTime startDate, LocalDateTime endDate, UUID trainerId) {
@@ -57,6 +78,48 @@ public class ReportsService {
             aggregates.put(trainer.getId(), new TrainerAggregate(trainer));
         }
 
+        // Whole days that are already rolled up are read from the store; everything else is computed live
+        Set<LocalDate> rolledUpDays = findRolledUpDays(startDate, endDate);
+        if (!rolledUpDays.isEmpty()) {
+            List<TrainerDailyRollup> rollups = trainerDailyRollupRepository.findByDayBetween(
+                    Collections.min(rolledUpDays),
+                    Collections.max(rolledUpDays));
+            for (TrainerDailyRollup rollup : rollups) {
+                TrainerAggregate aggregate = aggregates.get(rollup.getTrainerId());
+                if (aggregate != null && rolledUpDays.contains(rollup.getDay())) {
+                    aggregate.add(rollup.getHours(), rollup.getActivities(),
+                            rollup.getStudentIds() != null ? Arrays.asList(rollup.getStudentIds()) : List.of());
+                }
+            }
+        }
+
+        for (LocalDateTime[] gap : liveRanges(startDate, endDate, rolledUpDays)) {
+            for (DailyActivity activity : collectDailyActivity(gap[0], gap[1], aggregates.keySet())) {
+                aggregates.get(activity.getTrainerId()).add(activity.getHours(), activity.getActivities(), activity.getStudentIds());
+            }
+        }
+
+        return aggregates.values().stream()
+                .map(TrainerAggregate::toDto)
+                .sorted((a, b) -> {
+                    if (a.name() == null && b.name() == null) {
+                        return 0;
+                    }
+                    if (a.name() == null) {
+                        return 1;
+                    }
+                    if (b.name() == null) {
+                        return -1;
+                    }
+                    return a.name().compareToIgnoreCase(b.name());
+                })
+                .collect(Collectors.toList());
+    }
+    
+    // Per trainer and day activity straight from the calendar and events; trainer rollups store exactly this output
+    public List<DailyActivity> collectDailyActivity(LocalDateTime startDate, LocalDateTime endDate, Set<UUID> trainerIds) {
+        Map<String, DailyActivity> activities = new LinkedHashMap<>();
+
         List<SessionResponseDTO> sessions = scheduleService.getScheduledSessions(
                 startDate.toLocalDate(),
                 endDate.toLocalDate());
@@ -65,7 +128,7 @@ public class ReportsService {
             if (session == null || session.trainerId() == null) {
                 continue;
             }
-            if (!aggregates.containsKey(session.trainerId())) {
+            if (trainerIds != null && !trainerIds.contains(session.trainerId())) {
                 continue;
             }
             if (session.canceled()) {
@@ -84,14 +147,17 @@ public class ReportsService {
             if (participants == null) {
                 continue;
             }
-        List<StudentCommitmentResponseDTO> attending = participants.stream()
-            .filter(p -> Boolean.TRUE.equals(p.present()))
-            .collect(Collectors.toList());
+            List<UUID> attending = participants.stream()
+                    .filter(p -> Boolean.TRUE.equals(p.present()))
+                    .map(StudentCommitmentResponseDTO::studentId)
+                    .collect(Collectors.toList());
             if (attending.isEmpty()) {
                 continue;
             }
 
-            aggregates.get(session.trainerId()).addSession(sessionStart, sessionEnd, attending);
+            activities.computeIfAbsent(session.trainerId() + "|" + sessionStart.toLocalDate(),
+                            k -> new DailyActivity(session.trainerId(), sessionStart.toLocalDate()))
+                    .add(sessionStart, sessionEnd, attending);
         }
 
         List<Event> events = eventRepository.findActiveWithinDateRangeWithParticipants(
@@ -102,7 +168,8 @@ public class ReportsService {
             if (event.getTrainer() == null || event.getTrainer().getId() == null) {
                 continue;
             }
-            if (!aggregates.containsKey(event.getTrainer().getId())) {
+            UUID eventTrainerId = event.getTrainer().getId();
+            if (trainerIds != null && !trainerIds.contains(eventTrainerId)) {
                 continue;
             }
 
@@ -120,34 +187,69 @@ public class ReportsService {
                 continue;
             }
 
-            List<EventParticipant> presentParticipants = participants.stream()
+            List<UUID> presentParticipants = participants.stream()
                     .filter(ep -> Boolean.TRUE.equals(ep.getPresent()))
+                    .map(EventParticipant::getStudent)
+                    .filter(Objects::nonNull)
+                    .map(student -> student.getId())
                     .collect(Collectors.toList());
 
             if (presentParticipants.isEmpty()) {
                 continue;
             }
 
-            aggregates.get(event.getTrainer().getId()).addEvent(eventStart, eventEnd, presentParticipants);
+            activities.computeIfAbsent(eventTrainerId + "|" + event.getDate(),
+                            k -> new DailyActivity(eventTrainerId, event.getDate()))
+                    .add(eventStart, eventEnd, presentParticipants);
         }
 
-        return aggregates.values().stream()
-                .map(TrainerAggregate::toDto)
-                .sorted((a, b) -> {
-                    if (a.name() == null && b.name() == null) {
-                        return 0;
-                    }
-                    if (a.name() == null) {
-                        return 1;
-                    }
-                    if (b.name() == null) {
-                        return -1;
-                    }
-                    return a.name().compareToIgnoreCase(b.name());
-                })
-                .collect(Collectors.toList());
+        return new ArrayList<>(activities.values());
     }
-    
+
+    // Days fully inside the range that have complete rollups
+    private Set<LocalDate> findRolledUpDays(LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDate firstWholeDay = startDate.toLocalTime().equals(LocalTime.MIDNIGHT)
+                ? startDate.toLocalDate()
+                : startDate.toLocalDate().plusDays(1);
+        LocalDate lastWholeDay = endDate.toLocalTime().isBefore(LAST_SESSION_START)
+                ? endDate.toLocalDate().minusDays(1)
+                : endDate.toLocalDate();
+        if (firstWholeDay.isAfter(lastWholeDay)) {
+            return Set.of();
+        }
+        return new HashSet<>(reportRollupDayRepository.findDaysBetween(firstWholeDay, lastWholeDay));
+    }
+
+    // Maximal runs of days without rollups, clipped to the requested range
+    private List<LocalDateTime[]> liveRanges(LocalDateTime startDate, LocalDateTime endDate, Set<LocalDate> rolledUpDays) {
+        List<LocalDateTime[]> ranges = new ArrayList<>();
+        if (rolledUpDays.isEmpty()) {
+            ranges.add(new LocalDateTime[]{startDate, endDate});
+            return ranges;
+        }
+        LocalDate runStart = null;
+        for (LocalDate day = startDate.toLocalDate(); !day.isAfter(endDate.toLocalDate()); day = day.plusDays(1)) {
+            if (rolledUpDays.contains(day)) {
+                if (runStart != null) {
+                    ranges.add(clip(runStart, day.minusDays(1), startDate, endDate));
+                    runStart = null;
+                }
+            } else if (runStart == null) {
+                runStart = day;
+            }
+        }
+        if (runStart != null) {
+            ranges.add(clip(runStart, endDate.toLocalDate(), startDate, endDate));
+        }
+        return ranges;
+    }
+
+    private static LocalDateTime[] clip(LocalDate first, LocalDate last, LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime from = first.atStartOfDay().isBefore(startDate) ? startDate : first.atStartOfDay();
+        LocalDateTime to = last.atTime(LocalTime.MAX).isAfter(endDate) ? endDate : last.atTime(LocalTime.MAX);
+        return new LocalDateTime[]{from, to};
+    }
+
     private List<AgeDistributionResponseDTO> calculateAgeDistribution() {
         List<LocalDate> birthDates = studentRepository.findAllBirthDates();
         
@@ -214,30 +316,10 @@ public class ReportsService {
                     : new ArrayList<>();
         }
 
-        void addSession(LocalDateTime start, LocalDateTime end, List<StudentCommitmentResponseDTO> participants) {
-            double hours = calculateHours(start, end);
-            if (hours <= 0) {
-                return;
-            }
-            totalHours += hours;
-            totalActivities += 1;
-            participants.stream()
-                    .map(StudentCommitmentResponseDTO::studentId)
-                    .filter(Objects::nonNull)
-                    .forEach(uniqueStudents::add);
-        }
-
-        void addEvent(LocalDateTime start, LocalDateTime end, List<EventParticipant> participants) {
-            double hours = calculateHours(start, end);
-            if (hours <= 0) {
-                return;
-            }
+        void add(double hours, int activities, Collection<UUID> students) {
             totalHours += hours;
-            totalActivities += 1;
-            participants.stream()
-                    .map(EventParticipant::getStudent)
-                    .filter(Objects::nonNull)
-                    .map(student -> student.getId())
+            totalActivities += activities;
+            students.stream()
                     .filter(Objects::nonNull)
                     .forEach(uniqueStudents::add);
         }
@@ -254,8 +336,35 @@ public class ReportsService {
                     Collections.unmodifiableList(new ArrayList<>(specialties))
             );
         }
+    }
+
+    // Activity of one trainer on one day: hours and activity count, plus the distinct students present
+    @Getter
+    public static final class DailyActivity {
+        private final UUID trainerId;
+        private final LocalDate day;
+        private double hours = 0.0;
+        private int activities = 0;
+        private final Set<UUID> studentIds = new HashSet<>();
+
+        DailyActivity(UUID trainerId, LocalDate day) {
+            this.trainerId = trainerId;
+            this.day = day;
+        }
+
+        void add(LocalDateTime start, LocalDateTime end, List<UUID> participants) {
+            double sessionHours = calculateHours(start, end);
+            if (sessionHours <= 0) {
+                return;
+            }
+            hours += sessionHours;
+            activities += 1;
+            participants.stream()
+                    .filter(Objects::nonNull)
+                    .forEach(studentIds::add);
+        }
 
-        private double calculateHours(LocalDateTime start, LocalDateTime end) {
+        private static double calculateHours(LocalDateTime start, LocalDateTime end) {
             if (start == null || end == null) {
                 return 0.0;
             }
@@ -266,4 +375,4 @@ public class ReportsService {
             return minutes / 60.0;
         }
     }
-}
\ No newline at end of file
+}
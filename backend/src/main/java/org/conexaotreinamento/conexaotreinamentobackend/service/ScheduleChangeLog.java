@@ -0,0 +1,91 @@
+package org.conexaotreinamento.conexaotreinamentobackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduleChange;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduledSession;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ScheduleChangeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Append-only log of the schedule writes that change what GET /schedule returns. Each row records the transaction
+ * that wrote it, and a change token is a transaction watermark: every transaction below it has finished, so a
+ * client that has seen everything below token {@code t} only needs the sessions touched by rows from {@code t} on.
+ * Row ids cannot be tokens because they are drawn before commit and commits land out of id order. Rows older than
+ * the retention are pruned nightly; tokens from before the oldest remaining row can no longer be replayed and get
+ * a full resync instead.
+ */
+@Slf4j
+@Service
+public class ScheduleChangeLog {
+
+    private final ScheduleChangeRepository scheduleChangeRepository;
+    private final Duration retention;
+
+    public ScheduleChangeLog(ScheduleChangeRepository scheduleChangeRepository,
+                             @Value("${app.schedule.changes.retention-days:30}") int retentionDays) {
+        this.scheduleChangeRepository = scheduleChangeRepository;
+        this.retention = Duration.ofDays(retentionDays);
+    }
+
+    public void recordSession(ScheduledSession session, ScheduleChange.ChangeType changeType) {
+        ScheduleChange change = new ScheduleChange();
+        change.setChangeType(changeType);
+        change.setScheduledSessionId(session.getId());
+        change.setSeriesId(session.getSessionSeriesId());
+        change.setSessionDate(session.getStartTime() != null ? session.getStartTime().toLocalDate() : null);
+        scheduleChangeRepository.save(change);
+    }
+
+    // fromDate is the first day the change applies to; null means every day of the series
+    public void recordSeries(UUID seriesId, LocalDate fromDate, ScheduleChange.ChangeType changeType) {
+        scheduleChangeRepository.save(seriesChange(seriesId, fromDate, changeType));
+    }
+
+    public void recordSeries(Collection<UUID> seriesIds, LocalDate fromDate, ScheduleChange.ChangeType changeType) {
+        scheduleChangeRepository.saveAll(seriesIds.stream().map(seriesId -> seriesChange(seriesId, fromDate, changeType)).toList());
+    }
+
+    // Token covering every change whose transaction has finished; later commits all land at or above it
+    public long currentToken() {
+        return scheduleChangeRepository.findWatermark();
+    }
+
+    // Changes written by transactions in [since, upTo); empty when `since` can no longer be replayed
+    public Optional<List<ScheduleChange>> findChanges(long since, long upTo) {
+        Long oldestTxid = scheduleChangeRepository.findMinTxid();
+        if (since > upTo || (oldestTxid != null && since < oldestTxid)) {
+            return Optional.empty();
+        }
+        return Optional.of(scheduleChangeRepository.findByTxidGreaterThanEqualAndTxidLessThanOrderByIdAsc(since, upTo));
+    }
+
+    private static ScheduleChange seriesChange(UUID seriesId, LocalDate fromDate, ScheduleChange.ChangeType changeType) {
+        ScheduleChange change = new ScheduleChange();
+        change.setChangeType(changeType);
+        change.setSeriesId(seriesId);
+        change.setSessionDate(fromDate);
+        return change;
+    }
+
+    @Scheduled(cron = "${app.schedule.changes.prune-cron:0 45 3 * * *}")
+    @Transactional
+    public void prune() {
+        Long newestId = scheduleChangeRepository.findMaxId();
+        if (newestId == null) {
+            return;
+        }
+        int pruned = scheduleChangeRepository.deleteOlderThan(Instant.now().minus(retention), newestId);
+        log.info("Pruned {} schedule changes", pruned);
+    }
+}
@@ -0,0 +1,62 @@
+package org.conexaotreinamento.conexaotreinamentobackend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Materializes the rolling horizon at startup and nightly, then checks the rows against the virtual expansion.
+ * Reads inside the horizon are served from the rows only while that check comes out clean.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ScheduleMaterializationJob {
+
+    // Enough of each mismatch list to diagnose it without flooding the log
+    private static final int LOGGED_MISMATCHES = 10;
+
+    private final ScheduleMaterializer scheduleMaterializer;
+    private final ScheduleService scheduleService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        run();
+    }
+
+    @Scheduled(cron = "${app.schedule.materialization.cron:0 0 4 * * *}")
+    public void nightly() {
+        run();
+    }
+
+    public void run() {
+        if (!scheduleMaterializer.isEnabled()) {
+            return;
+        }
+        LocalDate startDate = LocalDate.now();
+        LocalDate endDate = scheduleMaterializer.horizonEnd(startDate);
+        try {
+            int created = scheduleMaterializer.materialize(startDate, endDate);
+            ScheduleMaterializer.Check check = scheduleService.checkMaterialization(startDate, endDate);
+            if (check.consistent()) {
+                scheduleMaterializer.serve(startDate, endDate);
+                log.info("Materialized {} sessions; serving {} to {} from scheduled_sessions", created, startDate, endDate);
+            } else {
+                scheduleMaterializer.stopServing();
+                log.warn("Materialized sessions {} to {} disagree with the virtual schedule ({} missing, {} unexpected), "
+                        + "e.g. missing {} unexpected {}; reads keep expanding the series", startDate, endDate,
+                    check.missing().size(), check.unexpected().size(),
+                    check.missing().stream().limit(LOGGED_MISMATCHES).toList(),
+                    check.unexpected().stream().limit(LOGGED_MISMATCHES).toList());
+            }
+        } catch (RuntimeException e) {
+            scheduleMaterializer.stopServing();
+            log.error("Schedule materialization failed; reads keep expanding the series", e);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.conexaotreinamento.conexaotreinamentobackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduledSession;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ScheduledSessionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Optionally pre-creates the scheduled_sessions row of every series occurrence in a rolling horizon, so schedule
+ * reads inside it are one range query over scheduled_sessions instead of an expansion of the series. Rows are
+ * keyed by canonical session id and only inserted when missing, so runs are idempotent. Pristine rows (never
+ * overridden) of a series are dropped and regenerated whenever the series changes. Reads are only served from
+ * the rows for a window that passed the consistency check of {@link ScheduleMaterializationJob}.
+ */
+@Slf4j
+@Component
+public class ScheduleMaterializer {
+
+    private final TrainerScheduleIndex trainerScheduleIndex;
+    private final ScheduledSessionRepository scheduledSessionRepository;
+    private final boolean enabled;
+    private final int horizonWeeks;
+
+    // Window whose rows matched the virtual expansion at the last check; null while reads must expand the series
+    private volatile Window servedWindow;
+
+    private record Window(LocalDate startDate, LocalDate endDate) {
+    }
+
+    // Result of comparing the materialized rows of a range with its virtual expansion
+    public record Check(LocalDate startDate, LocalDate endDate, List<String> missing, List<String> unexpected) {
+        public boolean consistent() {
+            return missing.isEmpty() && unexpected.isEmpty();
+        }
+    }
+
+    public ScheduleMaterializer(TrainerScheduleIndex trainerScheduleIndex,
+                                ScheduledSessionRepository scheduledSessionRepository,
+                                @Value("${app.schedule.materialization.enabled:false}") boolean enabled,
+                                @Value("${app.schedule.materialization.horizon-weeks:8}") int horizonWeeks) {
+        this.trainerScheduleIndex = trainerScheduleIndex;
+        this.scheduledSessionRepository = scheduledSessionRepository;
+        this.enabled = enabled;
+        this.horizonWeeks = horizonWeeks;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public LocalDate horizonEnd(LocalDate horizonStart) {
+        return horizonStart.plusWeeks(horizonWeeks).minusDays(1);
+    }
+
+    // Inserts the missing rows of every occurrence in the range, one day per batch; returns the number created
+    public int materialize(LocalDate startDate, LocalDate endDate) {
+        int created = 0;
+        for (List<ScheduledSession> day : missingRows(startDate, endDate, trainerScheduleIndex::findEffectiveOn)) {
+            try {
+                created += scheduledSessionRepository.saveAll(day).size();
+            } catch (DataIntegrityViolationException e) {
+                // A request created one of the day's rows meanwhile and the batch rolled back; retry row by row
+                log.debug("Materializing {} sessions one by one: {}", day.size(), e.getMessage());
+                created += insertIfAbsent(day);
+            }
+        }
+        return created;
+    }
+
+    // Regenerates the pristine rows of a created, changed or deleted series from its current definition
+    @Transactional
+    public void rematerializeSeries(UUID seriesId) {
+        if (seriesId == null) {
+            return;
+        }
+        // Dropped even when disabled: rows left from an earlier run would otherwise outlive a rename as duplicates
+        int dropped = scheduledSessionRepository.deletePristineBySessionSeriesId(seriesId);
+        int created = 0;
+        if (enabled) {
+            LocalDate today = LocalDate.now();
+            Function<LocalDate, List<TrainerSchedule>> occurrences = date ->
+                trainerScheduleIndex.findEffectiveOn(seriesId, date).map(List::of).orElse(List.of());
+            // Requests may materialize the same occurrences concurrently; a conflict must not fail the series change
+            for (List<ScheduledSession> day : missingRows(today, horizonEnd(today), occurrences)) {
+                created += insertIfAbsent(day);
+            }
+        }
+        log.debug("Rematerialized series {}: dropped {}, created {} sessions", seriesId, dropped, created);
+    }
+
+    private int insertIfAbsent(List<ScheduledSession> rows) {
+        int created = 0;
+        for (ScheduledSession row : rows) {
+            row.setId(UUID.randomUUID());
+            created += scheduledSessionRepository.insertIfAbsent(row);
+        }
+        return created;
+    }
+
+    public boolean serves(LocalDate startDate, LocalDate endDate) {
+        Window window = servedWindow;
+        return window != null && !startDate.isBefore(window.startDate()) && !endDate.isAfter(window.endDate());
+    }
+
+    public void serve(LocalDate startDate, LocalDate endDate) {
+        servedWindow = new Window(startDate, endDate);
+    }
+
+    public void stopServing() {
+        servedWindow = null;
+    }
+
+    // Rows for the occurrences of the range that have no row yet under their canonical or legacy id, grouped by day
+    private List<List<ScheduledSession>> missingRows(LocalDate startDate, LocalDate endDate,
+                                                     Function<LocalDate, List<TrainerSchedule>> occurrences) {
+        // Soft-deleted rows count too: their session ids are still taken
+        Set<String> taken = new HashSet<>();
+        for (ScheduledSession row : scheduledSessionRepository.findByStartTimeBetween(startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX))) {
+            taken.add(row.getSessionId());
+            String canonical = SessionIds.canonical(row.getSeriesName(), row.getStartTime().toLocalDate(),
+                row.getStartTime().toLocalTime(), row.getTrainerId());
+            if (canonical != null) {
+                taken.add(canonical);
+            }
+        }
+        List<List<ScheduledSession>> days = new ArrayList<>();
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            List<ScheduledSession> rows = new ArrayList<>();
+            for (TrainerSchedule schedule : occurrences.apply(date)) {
+                String legacyId = SessionIds.legacy(schedule, date);
+                if (taken.add(SessionIds.canonical(schedule, date)) && (legacyId == null || !taken.contains(legacyId))) {
+                    rows.add(ScheduleService.generateSessionFromSchedule(schedule, date));
+                }
+            }
+            if (!rows.isEmpty()) {
+                days.add(rows);
+            }
+        }
+        return days;
+    }
+}
@@ -1,30 +1,43 @@
 package org.conexaotreinamento.conexaotreinamentobackend.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.conexaotreinamento.conexaotreinamentobackend.config.QueryCountInspector;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.SessionResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.*;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ExerciseResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ParticipantExerciseResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ScheduleChangesResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.StudentCommitmentResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.*;
 import org.conexaotreinamento.conexaotreinamentobackend.enums.CommitmentStatus;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.time.DayOfWeek;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
 public class ScheduleService {
     
     @Autowired
-    private TrainerScheduleRepository trainerScheduleRepository;
+    private TrainerScheduleIndex trainerScheduleIndex;
     
     @Autowired
     private ScheduledSessionRepository scheduledSessionRepository;
@@ -33,7 +46,7 @@ public class ScheduleService {
     private SessionParticipantRepository sessionParticipantRepository;
     
     @Autowired
-    private StudentCommitmentRepository studentCommitmentRepository;
+    private StudentCommitmentStateRepository studentCommitmentStateRepository;
     
     @Autowired
     private StudentRepository studentRepository;
@@ -43,16 +56,301 @@ public class ScheduleService {
 
     @Autowired
     private ParticipantExerciseRepository participantExerciseRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SessionKeyRegistry sessionKeyRegistry;
+
+    @Autowired
+    private RangeSliceExecutor rangeSliceExecutor;
+
+    @Autowired
+    private ScheduleChangeLog scheduleChangeLog;
+
+    @Autowired
+    private ScheduleMaterializer scheduleMaterializer;
+
+    @Autowired
+    private TrainerAvailabilityIndex trainerAvailabilityIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Where planned sessions come from
+    private enum Source {
+        // Series occurrences merged with every persisted instance
+        MERGED,
+        // Series occurrences merged with overridden instances only, i.e. the schedule as if nothing was materialized
+        VIRTUAL,
+        // Persisted instances only; complete inside a checked materialized window
+        MATERIALIZED
+    }
     
+    // Long ranges are expanded as independent, date-disjoint slices; each slice comes back sorted, so concatenation keeps startTime order
     public List<SessionResponseDTO> getScheduledSessions(LocalDate startDate, LocalDate endDate) {
+        Source source = scheduleMaterializer.serves(startDate, endDate) ? Source.MATERIALIZED : Source.MERGED;
+        return rangeSliceExecutor.map(startDate, endDate, (start, end) -> expandRange(start, end, source, planned -> true));
+    }
+
+    // One trainer's sessions, including occurrences of other trainers' series reassigned to them and excluding their
+    // own occurrences reassigned away; only that trainer's series and instances are read
+    public List<SessionResponseDTO> getScheduledSessions(LocalDate startDate, LocalDate endDate, UUID trainerId) {
+        if (trainerId == null) {
+            return getScheduledSessions(startDate, endDate);
+        }
+        Source source = scheduleMaterializer.serves(startDate, endDate) ? Source.MATERIALIZED : Source.MERGED;
+        return rangeSliceExecutor.map(startDate, endDate, (start, end) -> expandRange(start, end, source, trainerId, planned -> true));
+    }
+
+    // One student's sessions of the range: occurrences of the series they are booked on and sessions they were added
+    // to, minus the ones they were excluded from. Only that student's commitment states, overrides and the instances
+    // of their series are read, and each session lists that student alone.
+    public List<SessionResponseDTO> getStudentSessions(UUID studentId, LocalDate startDate, LocalDate endDate) {
+        Student student = studentRepository.findByIdAndDeletedAtIsNull(studentId)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Student not found"));
+        LocalDateTime startDateTime = startDate.atStartOfDay();
+        LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
+
+        // Same projection StudentCommitmentService reads the latest commitments from, over the whole range so a
+        // booking changed mid-range applies from its own date
+        Map<UUID, List<StudentCommitmentState>> statesBySeries = new HashMap<>();
+        Set<UUID> bookedSeries = new HashSet<>();
+        studentCommitmentStateRepository.findByStudentIdOverlapping(studentId,
+                startDate.atStartOfDay().toInstant(ZoneOffset.UTC), endDate.atStartOfDay().toInstant(ZoneOffset.UTC))
+            .forEach(state -> {
+                statesBySeries.computeIfAbsent(state.getSessionSeriesId(), k -> new ArrayList<>()).add(state);
+                if (state.getCommitmentStatus() == CommitmentStatus.ATTENDING) bookedSeries.add(state.getSessionSeriesId());
+            });
+
+        // The student's INCLUDED/EXCLUDED overrides in the range, fetched with their instances
+        List<SessionParticipant> overrides = sessionParticipantRepository
+            .findByStudentIdInRange(studentId, startDateTime, endDateTime);
+        Map<UUID, ScheduledSession> instances = new LinkedHashMap<>();
+        if (!bookedSeries.isEmpty()) {
+            scheduledSessionRepository.findBySessionSeriesIdInRange(bookedSeries, startDateTime, endDateTime)
+                .forEach(ss -> instances.put(ss.getId(), ss));
+        }
+        Map<UUID, List<SessionParticipant>> overridesByInstance = new HashMap<>();
+        Map<LocalDate, Set<UUID>> addedToSeries = new HashMap<>();
+        for (SessionParticipant sp : overrides) {
+            ScheduledSession ss = sp.getScheduledSession();
+            instances.putIfAbsent(ss.getId(), ss);
+            overridesByInstance.computeIfAbsent(ss.getId(), k -> new ArrayList<>()).add(sp);
+            if (sp.isIncluded() && ss.getSessionSeriesId() != null) {
+                addedToSeries.computeIfAbsent(ss.getStartTime().toLocalDate(), k -> new HashSet<>()).add(ss.getSessionSeriesId());
+            }
+        }
+
+        // Booked series occur on every date, other series only on the dates the student was added to them
+        List<PlannedSession> planned = planOccurrences(startDate, endDate, List.copyOf(instances.values()), date -> {
+            Set<UUID> seriesIds = new LinkedHashSet<>(bookedSeries);
+            seriesIds.addAll(addedToSeries.getOrDefault(date, Set.of()));
+            List<TrainerSchedule> schedules = new ArrayList<>();
+            for (UUID seriesId : seriesIds) {
+                trainerScheduleIndex.findEffectiveOn(seriesId, date).ifPresent(schedules::add);
+            }
+            return schedules;
+        });
+
+        Map<UUID, String> trainerNames = new HashMap<>();
+        Set<UUID> trainerIds = planned.stream().map(PlannedSession::trainerId).filter(Objects::nonNull).collect(Collectors.toSet());
+        if (!trainerIds.isEmpty()) {
+            trainerRepository.findAllById(trainerIds).forEach(t -> trainerNames.put(t.getId(), t.getName()));
+        }
+        Map<UUID, List<ParticipantExercise>> exercisesByParticipant = new HashMap<>();
+        Set<UUID> participantIds = overrides.stream().filter(SessionParticipant::isIncluded).map(SessionParticipant::getId)
+            .collect(Collectors.toSet());
+        if (!participantIds.isEmpty()) {
+            participantExerciseRepository.findActiveWithExerciseBySessionParticipantIdIn(participantIds)
+                .forEach(pe -> exercisesByParticipant.computeIfAbsent(pe.getSessionParticipant().getId(), k -> new ArrayList<>()).add(pe));
+        }
+        ExpansionContext context = new ExpansionContext(trainerNames, statesBySeries, overridesByInstance,
+            Map.of(studentId, student.getName()), exercisesByParticipant);
+
+        // Occurrences of a booked series the student is not attending on that date render without them and are dropped
+        return planned.stream()
+            .map(plannedSession -> toSessionResponse(plannedSession, context))
+            .filter(session -> !session.students().isEmpty())
+            .sorted(Comparator.comparing(SessionResponseDTO::startTime))
+            .collect(Collectors.toList());
+    }
+
+    // Materialized rows of the range against its virtual expansion: occurrences without a row are missing,
+    // rows without an occurrence are unexpected
+    public ScheduleMaterializer.Check checkMaterialization(LocalDate startDate, LocalDate endDate) {
+        Set<String> expected = planKeys(planRange(startDate, endDate, Source.VIRTUAL));
+        Set<String> actual = planKeys(planRange(startDate, endDate, Source.MATERIALIZED));
+        List<String> missing = expected.stream().filter(key -> !actual.contains(key)).toList();
+        List<String> unexpected = actual.stream().filter(key -> !expected.contains(key)).toList();
+        return new ScheduleMaterializer.Check(startDate, endDate, missing, unexpected);
+    }
+
+    private static Set<String> planKeys(List<PlannedSession> planned) {
+        Set<String> keys = new TreeSet<>();
+        for (PlannedSession plannedSession : planned) {
+            keys.add(String.join("|", plannedSession.sessionId(), String.valueOf(plannedSession.startTime()), String.valueOf(plannedSession.endTime())));
+        }
+        return keys;
+    }
+
+    // Hands the range to the consumer one day at a time, in chronological order; only one day's sessions are held at
+    // once. Each day reads the materialized rows when the window serves it, like getScheduledSessions
+    public void streamScheduledSessions(LocalDate startDate, LocalDate endDate, Consumer<List<SessionResponseDTO>> dayConsumer) {
+        for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+            Source source = scheduleMaterializer.serves(date, date) ? Source.MATERIALIZED : Source.MERGED;
+            dayConsumer.accept(expandRange(date, date, source, planned -> true));
+        }
+    }
+
+    // Sessions of the range touched by writes after the `since` token, plus the token to send next time. Without a
+    // token, or with one whose changes were already pruned, the whole range is returned and fullSync is set.
+    // Schedule (series definition) edits add, drop or rename sessions, so they also force a full sync.
+    public ScheduleChangesResponseDTO getScheduleChanges(LocalDate startDate, LocalDate endDate, Long since) {
+        // Read the token first: a write landing while the range is expanded is replayed on the next sync
+        long token = scheduleChangeLog.currentToken();
+        Optional<List<ScheduleChange>> changes = since != null ? scheduleChangeLog.findChanges(since, token) : Optional.empty();
+        if (changes.isEmpty() || changes.get().stream().anyMatch(c -> c.getChangeType() == ScheduleChange.ChangeType.SCHEDULE)) {
+            return new ScheduleChangesResponseDTO(getScheduledSessions(startDate, endDate), true, token);
+        }
+
+        Set<UUID> instanceIds = new HashSet<>();
+        Set<UUID> seriesIds = new HashSet<>();
+        TreeSet<LocalDate> days = new TreeSet<>();
+        for (ScheduleChange change : changes.get()) {
+            LocalDate date = change.getSessionDate();
+            if (change.isSessionChange()) {
+                if (date != null && !date.isBefore(startDate) && !date.isAfter(endDate)) {
+                    instanceIds.add(change.getScheduledSessionId());
+                    days.add(date);
+                }
+            } else if (change.getSeriesId() != null && (date == null || !date.isAfter(endDate))) {
+                seriesIds.add(change.getSeriesId());
+            }
+        }
+        if (instanceIds.isEmpty() && seriesIds.isEmpty()) {
+            return new ScheduleChangesResponseDTO(List.of(), false, token);
+        }
+
+        // Only the touched sessions are resolved; series-wide changes need every day, session changes only their own
+        Predicate<PlannedSession> touched = planned ->
+            (planned.instance() != null && instanceIds.contains(planned.instance().getId()))
+                || (planned.seriesId() != null && seriesIds.contains(planned.seriesId()));
         List<SessionResponseDTO> sessions = new ArrayList<>();
+        if (!seriesIds.isEmpty()) {
+            sessions.addAll(expandRange(startDate, endDate, Source.MERGED, touched));
+        } else {
+            LocalDate runStart = days.first();
+            LocalDate runEnd = runStart;
+            for (LocalDate day : days.tailSet(runStart, false)) {
+                if (!day.equals(runEnd.plusDays(1))) {
+                    sessions.addAll(expandRange(runStart, runEnd, Source.MERGED, touched));
+                    runStart = day;
+                }
+                runEnd = day;
+            }
+            sessions.addAll(expandRange(runStart, runEnd, Source.MERGED, touched));
+        }
+        return new ScheduleChangesResponseDTO(sessions, false, token);
+    }
+
+    private List<SessionResponseDTO> expandRange(LocalDate startDate, LocalDate endDate, Source source, Predicate<PlannedSession> filter) {
+        return expandRange(startDate, endDate, source, null, filter);
+    }
+
+    private List<SessionResponseDTO> expandRange(LocalDate startDate, LocalDate endDate, Source source, UUID trainerId,
+            Predicate<PlannedSession> filter) {
+        long started = System.nanoTime();
+        long queriesBefore = QueryCountInspector.count();
+        List<PlannedSession> planned = planRange(startDate, endDate, source, trainerId);
+        planned.removeIf(filter.negate());
+
+        // Resolve names, commitments, overrides and exercises for all planned sessions with set-based queries
+        ExpansionContext context = loadExpansionContext(planned);
+        
+        List<SessionResponseDTO> sessions = new ArrayList<>(planned.size());
+        for (PlannedSession plannedSession : planned) {
+            sessions.add(toSessionResponse(plannedSession, context));
+        }
+        
+        List<SessionResponseDTO> sorted = sessions.stream()
+            .sorted(Comparator.comparing(SessionResponseDTO::startTime))
+            .collect(Collectors.toList());
+        recordExpansion(source, ChronoUnit.DAYS.between(startDate, endDate) + 1, sorted.size(),
+                QueryCountInspector.count() - queriesBefore, context, System.nanoTime() - started);
+        return sorted;
+    }
+
+    // Per expansion (one call, or one slice of a sliced range): time, days, sessions, queries and commitment states replayed
+    private void recordExpansion(Source source, long days, int sessions, long queries, ExpansionContext context, long nanos) {
+        String sourceTag = source.name().toLowerCase();
+        Timer.builder("schedule.expansion").description("Time to expand a date range into sessions")
+                .tag("source", sourceTag).register(meterRegistry).record(nanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("schedule.expansion.days").baseUnit("days")
+                .tag("source", sourceTag).register(meterRegistry).record(days);
+        DistributionSummary.builder("schedule.expansion.sessions").baseUnit("sessions")
+                .tag("source", sourceTag).register(meterRegistry).record(sessions);
+        DistributionSummary.builder("schedule.expansion.queries").baseUnit("queries")
+                .tag("source", sourceTag).register(meterRegistry).record(queries);
+        DistributionSummary.builder("schedule.expansion.commitments").baseUnit("commitments")
+                .description("Commitment states replayed onto the expanded sessions")
+                .tag("source", sourceTag).register(meterRegistry)
+                .record(context.commitmentsBySeries().values().stream().mapToInt(List::size).sum());
+    }
+
+    private List<PlannedSession> planRange(LocalDate startDate, LocalDate endDate, Source source) {
+        return planRange(startDate, endDate, source, null);
+    }
+
+    // A non-null trainerId narrows every read to that trainer: their instances and their series' instances, their
+    // series from the index, and only those other series that have an occurrence reassigned to them
+    private List<PlannedSession> planRange(LocalDate startDate, LocalDate endDate, Source source, UUID trainerId) {
         LocalDateTime startDateTime = startDate.atStartOfDay();
         LocalDateTime endDateTime = endDate.atTime(23, 59, 59);
         
         // First, check for existing scheduled session instances
-        List<ScheduledSession> existingSessions = scheduledSessionRepository
-            .findByStartTimeBetweenAndActiveTrue(startDateTime, endDateTime);
-        
+        if (source == Source.MATERIALIZED) {
+            List<ScheduledSession> materialized = trainerId == null
+                ? scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(startDateTime, endDateTime)
+                : scheduledSessionRepository.findByTrainerIdAndStartTimeBetweenAndActiveTrue(trainerId, startDateTime, endDateTime);
+            return materialized.stream().map(PlannedSession::fromInstance).collect(Collectors.toCollection(ArrayList::new));
+        }
+        List<ScheduledSession> existingSessions = trainerId == null
+            ? scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(startDateTime, endDateTime)
+            : scheduledSessionRepository.findForTrainerInRange(trainerId, startDateTime, endDateTime);
+        if (source == Source.VIRTUAL) {
+            existingSessions = existingSessions.stream().filter(ScheduledSession::isInstanceOverride).toList();
+        }
+        if (trainerId == null) {
+            // Series in effect on each date come from the in-memory schedule index
+            return planOccurrences(startDate, endDate, existingSessions, trainerScheduleIndex::findEffectiveOn);
+        }
+
+        // Other trainers' series with an occurrence reassigned to the trainer, by date
+        Map<LocalDate, List<TrainerSchedule>> reassignedIn = new HashMap<>();
+        for (ScheduledSession ss : existingSessions) {
+            if (trainerId.equals(ss.getTrainerId()) && ss.getSessionSeriesId() != null && ss.getStartTime() != null) {
+                LocalDate date = ss.getStartTime().toLocalDate();
+                trainerScheduleIndex.findEffectiveOn(ss.getSessionSeriesId(), date)
+                    .filter(schedule -> !trainerId.equals(schedule.getTrainerId()))
+                    .ifPresent(schedule -> reassignedIn.computeIfAbsent(date, k -> new ArrayList<>()).add(schedule));
+            }
+        }
+        List<PlannedSession> planned = planOccurrences(startDate, endDate, existingSessions, date -> {
+            List<TrainerSchedule> schedules = new ArrayList<>(trainerScheduleIndex.findEffectiveOnForTrainer(trainerId, date));
+            schedules.addAll(reassignedIn.getOrDefault(date, List.of()));
+            return schedules;
+        });
+        // Drops the trainer's own occurrences that were reassigned to someone else
+        planned.removeIf(plannedSession -> !trainerId.equals(plannedSession.trainerId()));
+        return planned;
+    }
+
+    // Occurrences of the series returned for each date, each matched to its persisted instance, plus the instances
+    // that match no occurrence (one-offs)
+    private List<PlannedSession> planOccurrences(LocalDate startDate, LocalDate endDate, List<ScheduledSession> existingSessions,
+            Function<LocalDate, List<TrainerSchedule>> schedulesOn) {
         // Create a map to track which dates/schedules already have instances
         // Map by both the persisted sessionId (legacy 3-part or new 4-part) AND the canonical 4-part key
         Map<String, ScheduledSession> existingSessionMap = new HashMap<>();
@@ -60,7 +358,7 @@ public class ScheduleService {
             // Persisted key
             existingSessionMap.put(ss.getSessionId(), ss);
             // Canonical key (series/date/time/trainer)
-            String canonicalKey = generateSessionId(ss.getSeriesName(),
+            String canonicalKey = SessionIds.canonical(ss.getSeriesName(),
                     ss.getStartTime() != null ? ss.getStartTime().toLocalDate() : null,
                     ss.getStartTime() != null ? ss.getStartTime().toLocalTime() : null,
                     ss.getTrainerId());
@@ -70,112 +368,175 @@ public class ScheduleService {
         }
         // Track generated (virtual) sessionIds to avoid duplicates when also adding standalone instances
         Set<String> generatedSessionIds = new HashSet<>();
+        List<PlannedSession> planned = new ArrayList<>();
         
         // Generate sessions from trainer schedules for all dates in range
         for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
-            int weekday = date.getDayOfWeek() == DayOfWeek.SUNDAY ? 0 : date.getDayOfWeek().getValue();
-            Instant sessionInstant = date.atStartOfDay().toInstant(ZoneOffset.UTC);
-            
-            // Get all active schedules for this weekday at this point in time
-            List<TrainerSchedule> daySchedules = trainerScheduleRepository
-                .findByWeekdayAndEffectiveFromTimestampLessThanEqual(weekday, sessionInstant);
-            
-            for (TrainerSchedule schedule : daySchedules) {
-                String sessionId = generateSessionId(schedule, date);
-                LocalDateTime sessionStartTime = LocalDateTime.of(date, schedule.getStartTime());
-                LocalDateTime sessionEndTime = LocalDateTime.of(date, schedule.calculateEndTime());
+            for (TrainerSchedule schedule : schedulesOn.apply(date)) {
+                String sessionId = SessionIds.canonical(schedule, date);
                 
                 // Check if there's an existing session instance (canonical 4-part); fallback to legacy 3-part
                 ScheduledSession existingSession = existingSessionMap.get(sessionId);
-                if (existingSession == null) {
-                    String legacyId = generateLegacySessionId(schedule, date);
-                    if (legacyId != null) existingSession = existingSessionMap.get(legacyId);
+                String legacyId = SessionIds.legacy(schedule, date);
+                if (existingSession == null && legacyId != null) {
+                    existingSession = existingSessionMap.get(legacyId);
                 }
                 generatedSessionIds.add(sessionId);
                 // Also track legacy key to avoid duplicates later
-                String legacyGeneratedId = generateLegacySessionId(schedule, date);
-                if (legacyGeneratedId != null) generatedSessionIds.add(legacyGeneratedId);
+                if (legacyId != null) generatedSessionIds.add(legacyId);
                 
-                UUID trainerId = schedule.getTrainerId();
-                String trainerName = null;
-                if (trainerId != null) {
-                    trainerName = trainerRepository.findById(trainerId)
-                        .map(trainer -> trainer.getName())
-                        .orElse(null);
-                }
-                String notes = existingSession != null ? existingSession.getNotes() : null;
-                boolean instanceOverride = existingSession != null && existingSession.isInstanceOverride();
-                boolean canceled = existingSession != null && existingSession.isCanceled();
-
-                List<StudentCommitmentResponseDTO> studentCommitments = getStudentCommitmentsForSession(
-                    schedule.getId(), sessionInstant, existingSession);
-                int presentCount = (int) studentCommitments.stream()
-                    .filter(sc -> sc.commitmentStatus() == CommitmentStatus.ATTENDING)
-                    .count();
-
-                sessions.add(new SessionResponseDTO(
-                    sessionId,
-                    trainerId,
-                    trainerName,
-                    sessionStartTime,
-                    sessionEndTime,
-                    schedule.getSeriesName(),
-                    notes,
-                    instanceOverride,
-                    studentCommitments,
-                    canceled,
-                    presentCount
-                ));
+                planned.add(PlannedSession.fromSchedule(schedule, date, sessionId, existingSession));
             }
         }
         // Also include any standalone persisted sessions that do not correspond to a generated schedule (e.g., one-offs)
         for (ScheduledSession ss : existingSessions) {
             // If an existing persisted session corresponds to a generated session, skip it to avoid duplicates.
-            String altId = generateSessionId(ss.getSeriesName(),
+            String altId = SessionIds.canonical(ss.getSeriesName(),
                     ss.getStartTime() != null ? ss.getStartTime().toLocalDate() : null,
                     ss.getStartTime() != null ? ss.getStartTime().toLocalTime() : null,
                     ss.getTrainerId());
             String altLegacy = null;
             if (ss.getStartTime() != null) {
-                altLegacy = String.format("%s__%s__%s", safeSlug(ss.getSeriesName()), ss.getStartTime().toLocalDate(), ss.getStartTime().toLocalTime());
+                altLegacy = String.join("__", SessionIds.slug(ss.getSeriesName()), ss.getStartTime().toLocalDate().toString(), ss.getStartTime().toLocalTime().toString());
             }
             if (!generatedSessionIds.contains(ss.getSessionId())
                     && (altId == null || !generatedSessionIds.contains(altId))
                     && (altLegacy == null || !generatedSessionIds.contains(altLegacy))) {
-                LocalDate date = ss.getStartTime().toLocalDate();
-                Instant sessionInstant = date.atStartOfDay().toInstant(ZoneOffset.UTC);
-                UUID trainerId = ss.getTrainerId();
-                String trainerName = null;
-                if (trainerId != null) {
-                    trainerName = trainerRepository.findById(trainerId)
-                        .map(trainer -> trainer.getName())
-                        .orElse(null);
-                }
-                List<StudentCommitmentResponseDTO> students = getStudentCommitmentsForSession(ss.getSessionSeriesId(), sessionInstant, ss);
-                int presentCount = (int) students.stream()
-                    .filter(sc -> sc.commitmentStatus() == CommitmentStatus.ATTENDING)
-                    .count();
-
-                sessions.add(new SessionResponseDTO(
-                    ss.getSessionId(),
-                    trainerId,
-                    trainerName,
-                    ss.getStartTime(),
-                    ss.getEndTime(),
-                    ss.getSeriesName(),
-                    ss.getNotes(),
-                    ss.isInstanceOverride(),
-                    students,
-                    ss.isCanceled(),
-                    presentCount
-                ));
+                planned.add(PlannedSession.fromInstance(ss));
             }
         }
-        
-        return sessions.stream()
-            .sorted(Comparator.comparing(SessionResponseDTO::startTime))
-            .collect(Collectors.toList());
+        return planned;
+    }
+
+    private ExpansionContext loadExpansionContext(List<PlannedSession> planned) {
+        Set<UUID> trainerIds = new HashSet<>();
+        Set<UUID> seriesIds = new HashSet<>();
+        Set<UUID> instanceIds = new HashSet<>();
+        Instant firstInstant = null;
+        Instant lastInstant = null;
+        for (PlannedSession plannedSession : planned) {
+            if (firstInstant == null || plannedSession.sessionInstant().isBefore(firstInstant)) firstInstant = plannedSession.sessionInstant();
+            if (lastInstant == null || plannedSession.sessionInstant().isAfter(lastInstant)) lastInstant = plannedSession.sessionInstant();
+            if (plannedSession.trainerId() != null) trainerIds.add(plannedSession.trainerId());
+            if (plannedSession.seriesId() != null) seriesIds.add(plannedSession.seriesId());
+            if (plannedSession.instance() != null && plannedSession.instance().getId() != null) {
+                instanceIds.add(plannedSession.instance().getId());
+            }
+        }
+
+        Map<UUID, String> trainerNames = new HashMap<>();
+        if (!trainerIds.isEmpty()) {
+            trainerRepository.findAllById(trainerIds).forEach(t -> trainerNames.put(t.getId(), t.getName()));
+        }
+
+        // Only the commitment states in force somewhere in the range; each session then picks the one covering its instant
+        Map<UUID, List<StudentCommitmentState>> commitmentsBySeries = new HashMap<>();
+        if (!seriesIds.isEmpty()) {
+            studentCommitmentStateRepository.findBySessionSeriesIdInOverlapping(seriesIds, firstInstant, lastInstant)
+                .forEach(c -> commitmentsBySeries.computeIfAbsent(c.getSessionSeriesId(), k -> new ArrayList<>()).add(c));
+        }
+
+        Map<UUID, List<SessionParticipant>> overridesByInstance = new HashMap<>();
+        if (!instanceIds.isEmpty()) {
+            sessionParticipantRepository.findByScheduledSession_IdInAndActiveTrue(instanceIds)
+                .forEach(sp -> overridesByInstance.computeIfAbsent(sp.getScheduledSession().getId(), k -> new ArrayList<>()).add(sp));
+        }
+
+        Set<UUID> studentIds = new HashSet<>();
+        Set<UUID> participantIds = new HashSet<>();
+        commitmentsBySeries.values().forEach(list -> list.forEach(c -> studentIds.add(c.getStudentId())));
+        overridesByInstance.values().forEach(list -> list.forEach(sp -> {
+            studentIds.add(sp.getStudentId());
+            if (sp.isIncluded() && sp.getId() != null) participantIds.add(sp.getId());
+        }));
+
+        Map<UUID, String> studentNames = new HashMap<>();
+        if (!studentIds.isEmpty()) {
+            studentRepository.findAllById(studentIds).forEach(s -> studentNames.put(s.getId(), s.getName()));
+        }
+
+        Map<UUID, List<ParticipantExercise>> exercisesByParticipant = new HashMap<>();
+        if (!participantIds.isEmpty()) {
+            participantExerciseRepository.findActiveWithExerciseBySessionParticipantIdIn(participantIds)
+                .forEach(pe -> exercisesByParticipant.computeIfAbsent(pe.getSessionParticipant().getId(), k -> new ArrayList<>()).add(pe));
+        }
+
+        return new ExpansionContext(trainerNames, commitmentsBySeries, overridesByInstance, studentNames, exercisesByParticipant);
+    }
+
+    private SessionResponseDTO toSessionResponse(PlannedSession plannedSession, ExpansionContext context) {
+        ScheduledSession instance = plannedSession.instance();
+        List<StudentCommitmentResponseDTO> students = buildStudentCommitments(
+            context.commitmentsBySeries().getOrDefault(plannedSession.seriesId(), List.of()),
+            plannedSession.sessionInstant(),
+            instance,
+            instance != null ? context.overridesByInstance().getOrDefault(instance.getId(), List.of()) : List.of(),
+            context.studentNames()::get,
+            participantId -> context.exercisesByParticipant().getOrDefault(participantId, List.of()));
+        int presentCount = (int) students.stream()
+            .filter(sc -> sc.commitmentStatus() == CommitmentStatus.ATTENDING)
+            .count();
+
+        return new SessionResponseDTO(
+            plannedSession.sessionId(),
+            plannedSession.trainerId(),
+            plannedSession.trainerId() != null ? context.trainerNames().get(plannedSession.trainerId()) : null,
+            plannedSession.startTime(),
+            plannedSession.endTime(),
+            plannedSession.seriesName(),
+            instance != null ? instance.getNotes() : null,
+            instance != null && instance.isInstanceOverride(),
+            students,
+            instance != null && instance.isCanceled(),
+            presentCount
+        );
+    }
+
+    // A session to be rendered: either a schedule occurrence (optionally backed by an instance) or a standalone instance
+    private record PlannedSession(
+        String sessionId,
+        UUID seriesId,
+        UUID trainerId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        String seriesName,
+        Instant sessionInstant,
+        ScheduledSession instance
+    ) {
+        static PlannedSession fromSchedule(TrainerSchedule schedule, LocalDate date, String sessionId, ScheduledSession instance) {
+            return new PlannedSession(
+                sessionId,
+                schedule.getId(),
+                // A trainer reassigned on the instance wins over the series' trainer
+                instance != null ? instance.getTrainerId() : schedule.getTrainerId(),
+                LocalDateTime.of(date, schedule.getStartTime()),
+                LocalDateTime.of(date, schedule.calculateEndTime()),
+                schedule.getSeriesName(),
+                date.atStartOfDay().toInstant(ZoneOffset.UTC),
+                instance);
+        }
+
+        static PlannedSession fromInstance(ScheduledSession ss) {
+            return new PlannedSession(
+                ss.getSessionId(),
+                ss.getSessionSeriesId(),
+                ss.getTrainerId(),
+                ss.getStartTime(),
+                ss.getEndTime(),
+                ss.getSeriesName(),
+                ss.getStartTime().toLocalDate().atStartOfDay().toInstant(ZoneOffset.UTC),
+                ss);
+        }
     }
+
+    // Everything needed to render a batch of sessions without further repository calls
+    private record ExpansionContext(
+        Map<UUID, String> trainerNames,
+        Map<UUID, List<StudentCommitmentState>> commitmentsBySeries,
+        Map<UUID, List<SessionParticipant>> overridesByInstance,
+        Map<UUID, String> studentNames,
+        Map<UUID, List<ParticipantExercise>> exercisesByParticipant
+    ) {}
     
     
     public void updateSessionParticipants(String sessionId, List<SessionParticipant> participants) {
@@ -199,6 +560,8 @@ public class ScheduleService {
         // Mark session as having overrides
         session.setInstanceOverride(true);
         scheduledSessionRepository.save(session);
+        publishActivityChanged(session);
+        scheduleChangeLog.recordSession(session, ScheduleChange.ChangeType.OVERRIDE);
     }
     
     public void updateSessionNotes(String sessionId, String notes) {
@@ -206,6 +569,7 @@ public class ScheduleService {
         session.setNotes(notes);
         session.setInstanceOverride(true);
         scheduledSessionRepository.save(session);
+        scheduleChangeLog.recordSession(session, ScheduleChange.ChangeType.NOTES);
     }
 
     public SessionResponseDTO getSessionById(String sessionId) {
@@ -247,26 +611,16 @@ public class ScheduleService {
         }
 
         // 2) Lazily resolve from schedule without materializing an instance
-        String[] parts = sessionId.split("__");
-        if (parts.length < 3 || parts.length > 4) {
-            throw new RuntimeException("Invalid sessionId format: " + sessionId);
-        }
         try {
-            String dateStr = parts[1];
-            String timeStr = parts[2];
-            // Optional provided trainerId (4th part) to help disambiguation
-            final UUID providedTrainerId = (parts.length == 4 && parts[3] != null && !parts[3].isBlank() && !"null".equalsIgnoreCase(parts[3]))
-                    ? safeParseUUID(parts[3])
-                    : null;
-            LocalDate date = LocalDate.parse(dateStr);
-            LocalTime time = LocalTime.parse(timeStr);
-            int weekday = date.getDayOfWeek() == DayOfWeek.SUNDAY ? 0 : date.getDayOfWeek().getValue();
+            SessionIds.Parsed parsed = SessionIds.parse(sessionId);
+            LocalDate date = parsed.date();
+            LocalTime time = parsed.startTime();
             Instant sessionInstant = date.atStartOfDay().toInstant(ZoneOffset.UTC);
+            UUID trainerPref = preferredTrainerId != null ? preferredTrainerId : parsed.trainerId();
             // If multiple persisted instances exist for this timestamp (edge), prefer one matching trainer override
             List<ScheduledSession> persistedSameStart = scheduledSessionRepository
                 .findByStartTimeBetweenAndActiveTrue(LocalDateTime.of(date, time), LocalDateTime.of(date, time));
             if (!persistedSameStart.isEmpty()) {
-                UUID trainerPref = preferredTrainerId != null ? preferredTrainerId : providedTrainerId;
                 if (trainerPref != null) {
                     for (ScheduledSession ss : persistedSameStart) {
                         if (trainerPref.equals(ss.getTrainerId())) {
@@ -277,65 +631,48 @@ public class ScheduleService {
                 // Otherwise return the first (stable choice)
                 return getSessionById(persistedSameStart.get(0).getSessionId());
             }
-            List<TrainerSchedule> schedules = trainerScheduleRepository
-                .findByWeekdayAndEffectiveFromTimestampLessThanEqual(weekday, sessionInstant);
-            // Try exact canonical match first
-            for (TrainerSchedule schedule : schedules) {
-                String canonical = generateSessionId(schedule, date);
-                // Also accept legacy 3-part id for backward compatibility
-                String legacy = generateLegacySessionId(schedule, date);
-                if (schedule.getStartTime().equals(time) && (canonical.equals(sessionId) || legacy.equals(sessionId))) {
-                    return buildVirtualSessionDTO(schedule, date, sessionInstant);
-                }
-            }
-            // Fallback heuristics (slug rename, etc.)
-            List<TrainerSchedule> timeMatches = schedules.stream()
-                .filter(s -> s.getStartTime().equals(time))
-                .toList();
-            if (!timeMatches.isEmpty()) {
-                // Strong disambiguation: trainerId if provided
-                UUID trainerPref = preferredTrainerId != null ? preferredTrainerId : providedTrainerId;
-                if (trainerPref != null) {
-                    List<TrainerSchedule> trainerMatches = timeMatches.stream()
-                        .filter(s -> trainerPref.equals(s.getTrainerId()))
-                        .toList();
-                    if (trainerMatches.size() == 1) {
-                        return buildVirtualSessionDTO(trainerMatches.get(0), date, sessionInstant);
-                    }
-                }
-                if (timeMatches.size() == 1) {
-                    return buildVirtualSessionDTO(timeMatches.get(0), date, sessionInstant);
-                } else {
-                    String providedSlug = parts[0].toLowerCase();
-                    List<TrainerSchedule> exactSlugMatches = timeMatches.stream()
-                        .filter(s -> s.getSeriesName() != null && s.getSeriesName().toLowerCase().replace(" ", "-").equals(providedSlug))
-                        .toList();
-                    if (exactSlugMatches.size() == 1) {
-                        return buildVirtualSessionDTO(exactSlugMatches.get(0), date, sessionInstant);
-                    }
-                    List<TrainerSchedule> prefixMatches = timeMatches.stream()
-                        .filter(s -> {
-                            String slug = s.getSeriesName() == null ? "" : s.getSeriesName().toLowerCase().replace(" ", "-");
-                            return slug.startsWith(providedSlug) || providedSlug.startsWith(slug);
-                        }).toList();
-                    if (prefixMatches.size() == 1) {
-                        return buildVirtualSessionDTO(prefixMatches.get(0), date, sessionInstant);
-                    }
-                    String candidates = timeMatches.stream()
-                        .map(s -> generateSessionId(s, date))
-                        .distinct()
-                        .reduce((a,b) -> a + "," + b).orElse("(none)");
-                    throw new RuntimeException("Ambiguous session slug/time. Provided='" + sessionId + "' candidates=" + candidates);
-                }
-            }
-            throw new RuntimeException("Could not resolve session for sessionId: " + sessionId);
+            SessionKeyRegistry.Resolution resolution = resolveSeries(sessionId, parsed, trainerPref)
+                .orElseThrow(() -> new RuntimeException("Could not resolve session for sessionId: " + sessionId));
+            return buildVirtualSessionDTO(resolution.schedule(), resolution.date(), sessionInstant);
+        } catch (IllegalArgumentException e) {
+            // Not a session id at all (wrong number of parts)
+            throw new RuntimeException(e.getMessage(), e);
         } catch (Exception e) {
             throw new RuntimeException("Could not resolve session for sessionId: " + sessionId, e);
         }
     }
 
+    // Registry lookup first; ids the registry has never seen only resolve when a single series fits their time (and trainer)
+    private Optional<SessionKeyRegistry.Resolution> resolveSeries(String sessionId, SessionIds.Parsed parsed, UUID trainerPref) {
+        Optional<SessionKeyRegistry.Resolution> registered = sessionKeyRegistry.resolve(sessionId);
+        if (registered.isPresent()) {
+            return registered;
+        }
+        LocalDate date = parsed.date();
+        List<TrainerSchedule> timeMatches = trainerScheduleIndex.findEffectiveOn(date, parsed.startTime());
+        if (trainerPref != null) {
+            List<TrainerSchedule> trainerMatches = timeMatches.stream()
+                .filter(s -> trainerPref.equals(s.getTrainerId()))
+                .toList();
+            if (trainerMatches.size() == 1) {
+                return Optional.of(new SessionKeyRegistry.Resolution(trainerMatches.get(0), date));
+            }
+        }
+        if (timeMatches.size() == 1) {
+            return Optional.of(new SessionKeyRegistry.Resolution(timeMatches.get(0), date));
+        }
+        if (timeMatches.size() > 1) {
+            String candidates = timeMatches.stream()
+                .map(s -> SessionIds.canonical(s, date))
+                .distinct()
+                .reduce((x, y) -> x + "," + y).orElse("(none)");
+            throw new RuntimeException("Ambiguous session slug/time. Provided='" + sessionId + "' candidates=" + candidates);
+        }
+        return Optional.empty();
+    }
+
     private SessionResponseDTO buildVirtualSessionDTO(TrainerSchedule schedule, LocalDate date, Instant sessionInstant) {
-        String sessionId = generateSessionId(schedule, date);
+        String sessionId = SessionIds.canonical(schedule, date);
         UUID trainerId = schedule.getTrainerId();
         String trainerName = null;
         if (trainerId != null) {
@@ -365,11 +702,20 @@ public class ScheduleService {
         );
     }
 
+    // Transactional so the new trainer's availability lock is held until the reassignment commits
+    @Transactional
     public void updateSessionTrainer(String sessionId, UUID trainerId) {
         ScheduledSession session = getOrCreateSessionInstance(sessionId);
+        UUID previousTrainerId = session.getTrainerId();
+        if (trainerId != null && !trainerId.equals(previousTrainerId) && !session.isCanceled()) {
+            trainerAvailabilityIndex.requireFree(trainerId, session.getStartTime(), session.getEndTime(), session.getId());
+        }
         session.setTrainerId(trainerId);
         session.setInstanceOverride(true);
         scheduledSessionRepository.save(session);
+        publishActivityChanged(session);
+        eventPublisher.publishEvent(TrainerAvailabilityIndex.Changed.of(previousTrainerId, trainerId));
+        scheduleChangeLog.recordSession(session, ScheduleChange.ChangeType.TRAINER);
     }
 
     public void cancelOrRestoreSession(String sessionId, boolean cancel) {
@@ -377,6 +723,9 @@ public class ScheduleService {
         session.setCanceled(cancel);
         session.setInstanceOverride(true);
         scheduledSessionRepository.save(session);
+        publishActivityChanged(session);
+        eventPublisher.publishEvent(TrainerAvailabilityIndex.Changed.of(session.getTrainerId()));
+        scheduleChangeLog.recordSession(session, ScheduleChange.ChangeType.CANCELLATION);
     }
 
     public void addParticipant(String sessionId, UUID studentId) {
@@ -400,6 +749,8 @@ public class ScheduleService {
         }
         session.setInstanceOverride(true);
         scheduledSessionRepository.save(session);
+        publishActivityChanged(session);
+        scheduleChangeLog.recordSession(session, ScheduleChange.ChangeType.OVERRIDE);
     }
 
     public void removeParticipant(String sessionId, UUID studentId) {
@@ -419,6 +770,8 @@ public class ScheduleService {
         }
         session.setInstanceOverride(true);
         scheduledSessionRepository.save(session);
+        publishActivityChanged(session);
+        scheduleChangeLog.recordSession(session, ScheduleChange.ChangeType.OVERRIDE);
     }
 
     public void updateParticipantPresence(String sessionId, UUID studentId, boolean present, String notes) {
@@ -442,6 +795,44 @@ public class ScheduleService {
         }
         session.setInstanceOverride(true);
         scheduledSessionRepository.save(session);
+        publishActivityChanged(session);
+        scheduleChangeLog.recordSession(session, ScheduleChange.ChangeType.PRESENCE);
+    }
+
+    // Presence for a whole roster: one instance resolution, one participant read and batched writes in one transaction
+    @Transactional
+    public void updateAttendance(String sessionId, Map<UUID, SessionParticipantPresenceRequestDTO> attendance) {
+        ScheduledSession session = getOrCreateSessionInstance(sessionId);
+        Map<UUID, List<SessionParticipant>> existingByStudent = sessionParticipantRepository
+            .findByScheduledSession_IdAndActiveTrue(session.getId()).stream()
+            .collect(Collectors.groupingBy(SessionParticipant::getStudentId));
+        List<SessionParticipant> excluded = new ArrayList<>();
+        List<SessionParticipant> participants = new ArrayList<>();
+        attendance.forEach((studentId, presence) -> {
+            List<SessionParticipant> existing = existingByStudent.getOrDefault(studentId, List.of());
+            // Explicitly setting presence lifts an EXCLUDED override, as in updateParticipantPresence
+            existing.stream().filter(SessionParticipant::isExcluded).forEach(excluded::add);
+            List<SessionParticipant> included = existing.stream().filter(SessionParticipant::isIncluded).toList();
+            if (included.isEmpty()) {
+                SessionParticipant participant = new SessionParticipant();
+                participant.setScheduledSession(session);
+                participant.setStudentId(studentId);
+                participant.setParticipationType(SessionParticipant.ParticipationType.INCLUDED);
+                included = List.of(participant);
+            }
+            for (SessionParticipant participant : included) {
+                participant.setPresent(presence.present());
+                participant.setAttendanceNotes(presence.notes());
+                participant.updateTimestamp();
+                participants.add(participant);
+            }
+        });
+        sessionParticipantRepository.deleteAll(excluded);
+        sessionParticipantRepository.saveAll(participants);
+        session.setInstanceOverride(true);
+        scheduledSessionRepository.save(session);
+        publishActivityChanged(session);
+        scheduleChangeLog.recordSession(session, ScheduleChange.ChangeType.PRESENCE);
     }
 
     public ParticipantExercise addParticipantExercise(String sessionId, UUID studentId, ParticipantExerciseCreateRequestDTO req) {
@@ -465,6 +856,7 @@ public class ScheduleService {
         participantExerciseRepository.save(pe);
         session.setInstanceOverride(true);
         scheduledSessionRepository.save(session);
+        scheduleChangeLog.recordSession(session, ScheduleChange.ChangeType.EXERCISES);
         return pe;
     }
 
@@ -477,6 +869,7 @@ public class ScheduleService {
             if (req.done() != null) pe.setDone(req.done());
             pe.updateTimestamp();
             participantExerciseRepository.save(pe);
+            recordExerciseChange(exerciseRecordId);
         });
     }
 
@@ -484,10 +877,18 @@ public class ScheduleService {
         participantExerciseRepository.findById(exerciseRecordId).ifPresent(pe -> {
             pe.softDelete();
             participantExerciseRepository.save(pe);
+            recordExerciseChange(exerciseRecordId);
         });
     }
 
+    private void recordExerciseChange(UUID exerciseRecordId) {
+        participantExerciseRepository.findScheduledSessionById(exerciseRecordId)
+            .ifPresent(session -> scheduleChangeLog.recordSession(session, ScheduleChange.ChangeType.EXERCISES));
+    }
+
+    @Transactional
     public SessionResponseDTO createOneOffSession(OneOffSessionCreateRequestDTO req) {
+        trainerAvailabilityIndex.requireFree(req.trainerId(), req.startTime(), req.endTime(), null);
         ScheduledSession session = new ScheduledSession();
         session.setSessionSeriesId(null); // standalone series id
         session.setSessionId(String.format("oneoff__%s__%s", req.startTime().toLocalDate(), req.startTime().toLocalTime()));
@@ -499,40 +900,24 @@ public class ScheduleService {
         session.setEffectiveFromTimestamp(Instant.now());
         session.setNotes(req.notes());
         scheduledSessionRepository.save(session);
+        publishActivityChanged(session);
+        eventPublisher.publishEvent(TrainerAvailabilityIndex.Changed.of(session.getTrainerId()));
+        scheduleChangeLog.recordSession(session, ScheduleChange.ChangeType.ONE_OFF);
         return getSessionById(session.getSessionId());
     }
     
-    private String generateSessionId(TrainerSchedule schedule, LocalDate date) {
-        if (schedule == null || date == null) return null;
-        return generateSessionId(schedule.getSeriesName(), date, schedule.getStartTime(), schedule.getTrainerId());
-    }
-
-    // Legacy 3-part id retained for compatibility checks
-    private String generateLegacySessionId(TrainerSchedule schedule, LocalDate date) {
-        if (schedule == null || date == null) return null;
-        return String.format("%s__%s__%s",
-                safeSlug(schedule.getSeriesName()),
-                date,
-                schedule.getStartTime());
-    }
-
-    // Canonical generator that includes the trainerId to avoid collisions between trainers at same time
-    private String generateSessionId(String seriesName, LocalDate date, LocalTime startTime, UUID trainerId) {
-        if (date == null || startTime == null) return null;
-        String slug = safeSlug(seriesName);
-        String trainerPart = trainerId != null ? trainerId.toString() : "null";
-        return String.format("%s__%s__%s__%s", slug, date, startTime, trainerPart);
+    // Attendance and session changes alter the trainer report rollup of the session's day
+    private void publishActivityChanged(ScheduledSession session) {
+        if (session.getStartTime() != null) {
+            eventPublisher.publishEvent(ReportRollupService.ActivityChanged.of(session.getStartTime().toLocalDate()));
+        }
     }
 
-    private String safeSlug(String input) {
-        String s = input == null ? "" : input;
-        return s.toLowerCase().replace(" ", "-");
-    }
-    
-    private ScheduledSession generateSessionFromSchedule(TrainerSchedule schedule, LocalDate date) {
+    // Also used by ScheduleMaterializer, so lazily created and materialized rows are identical
+    static ScheduledSession generateSessionFromSchedule(TrainerSchedule schedule, LocalDate date) {
         ScheduledSession session = new ScheduledSession();
         session.setSessionSeriesId(schedule.getId());
-        session.setSessionId(generateSessionId(schedule, date));
+        session.setSessionId(SessionIds.canonical(schedule, date));
         session.setTrainerId(schedule.getTrainerId());
         session.setStartTime(LocalDateTime.of(date, schedule.getStartTime()));
         session.setEndTime(LocalDateTime.of(date, schedule.calculateEndTime()));
@@ -545,114 +930,53 @@ public class ScheduleService {
     private ScheduledSession getOrCreateSessionInstance(String sessionId) {
         return scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId)
             .orElseGet(() -> {
-                // Parse sessionId to extract date and find the schedule
-                String[] parts = sessionId.split("__");
-                if (parts.length == 3 || parts.length == 4) {
-                    try {
-                        String dateStr = parts[1];
-                        String timeStr = parts[2];
-                        final UUID providedTrainerId = (parts.length == 4 && parts[3] != null && !parts[3].isBlank() && !"null".equalsIgnoreCase(parts[3]))
-                                ? safeParseUUID(parts[3])
-                                : null;
-                        LocalDate date = LocalDate.parse(dateStr);
-                        LocalTime time = LocalTime.parse(timeStr);
-                        int weekday = date.getDayOfWeek() == DayOfWeek.SUNDAY ? 0 : date.getDayOfWeek().getValue();
-                        
-                        // Find the schedule that matches
-                        List<TrainerSchedule> schedules = trainerScheduleRepository
-                            .findByWeekdayAndEffectiveFromTimestampLessThanEqual(weekday, date.atStartOfDay().toInstant(java.time.ZoneOffset.UTC));
-                        
-                        for (TrainerSchedule schedule : schedules) {
-                            String canonical = generateSessionId(schedule, date);
-                            String legacy = generateLegacySessionId(schedule, date);
-                            if (schedule.getStartTime().equals(time) && (canonical.equals(sessionId) || legacy.equals(sessionId))) {
-                                ScheduledSession session = generateSessionFromSchedule(schedule, date);
-                                return scheduledSessionRepository.save(session);
-                            }
-                        }
-                        // Fallback: slug may have changed (series renamed).
-                        List<TrainerSchedule> timeMatches = schedules.stream()
-                            .filter(s -> s.getStartTime().equals(time))
-                            .toList();
-                        if (!timeMatches.isEmpty()) {
-                            // Use provided trainerId if present
-                            if (providedTrainerId != null) {
-                                List<TrainerSchedule> trainerMatches = timeMatches.stream()
-                                        .filter(s -> providedTrainerId.equals(s.getTrainerId()))
-                                        .toList();
-                                if (trainerMatches.size() == 1) {
-                                    ScheduledSession session = generateSessionFromSchedule(trainerMatches.get(0), date);
-                                    return scheduledSessionRepository.save(session);
-                                }
-                            }
-                            if (timeMatches.size() == 1) {
-                                TrainerSchedule schedule = timeMatches.get(0);
-                                ScheduledSession session = generateSessionFromSchedule(schedule, date);
-                                return scheduledSessionRepository.save(session);
-                            } else {
-                                // Disambiguate using provided slug (parts[0]) heuristics
-                                String providedSlug = parts[0].toLowerCase();
-                                List<TrainerSchedule> exactSlugMatches = timeMatches.stream()
-                                    .filter(s -> s.getSeriesName() != null && s.getSeriesName().toLowerCase().replace(" ", "-").equals(providedSlug))
-                                    .toList();
-                                if (exactSlugMatches.size() == 1) {
-                                    ScheduledSession session = generateSessionFromSchedule(exactSlugMatches.get(0), date);
-                                    return scheduledSessionRepository.save(session);
-                                }
-                                // Prefix / contains heuristics
-                                List<TrainerSchedule> prefixMatches = timeMatches.stream()
-                                    .filter(s -> {
-                                        String slug = s.getSeriesName() == null ? "" : s.getSeriesName().toLowerCase().replace(" ", "-");
-                                        return slug.startsWith(providedSlug) || providedSlug.startsWith(slug);
-                                    }).toList();
-                                if (prefixMatches.size() == 1) {
-                                    ScheduledSession session = generateSessionFromSchedule(prefixMatches.get(0), date);
-                                    return scheduledSessionRepository.save(session);
-                                }
-                                // Still ambiguous: throw with diagnostic
-                                String candidates = timeMatches.stream()
-                                    .map(s -> generateSessionId(s, date))
-                                    .distinct()
-                                    .reduce((a,b) -> a + "," + b).orElse("(none)");
-                                throw new RuntimeException("Ambiguous session slug/time. Provided='" + sessionId + "' candidates=" + candidates);
-                            }
-                        }
-                    } catch (Exception e) {
-                        // Parsing failed
-                        throw new RuntimeException("Could not create session instance for sessionId: " + sessionId, e);
-                    }
+                Optional<SessionKeyRegistry.Resolution> resolution;
+                try {
+                    SessionIds.Parsed parsed = SessionIds.parse(sessionId);
+                    resolution = resolveSeries(sessionId, parsed, parsed.trainerId());
+                } catch (Exception e) {
+                    throw new RuntimeException("Could not create session instance for sessionId: " + sessionId, e);
                 }
-                throw new RuntimeException("Could not create session instance for sessionId: " + sessionId);
+                ScheduledSession generated = resolution
+                    .map(r -> generateSessionFromSchedule(r.schedule(), r.date()))
+                    .orElseThrow(() -> new RuntimeException("Could not create session instance for sessionId: " + sessionId));
+                // Concurrent first touches of a virtual session all get here; one insert lands, the rest read its row
+                generated.setId(UUID.randomUUID());
+                scheduledSessionRepository.insertIfAbsent(generated);
+                return scheduledSessionRepository.findBySessionIdAndActiveTrue(generated.getSessionId())
+                    .orElseThrow(() -> new RuntimeException("Could not create session instance for sessionId: " + sessionId));
             });
     }
 
-    private UUID safeParseUUID(String value) {
-        try {
-            return UUID.fromString(value);
-        } catch (Exception e) {
-            return null;
-        }
-    }
-    
     private List<StudentCommitmentResponseDTO> getStudentCommitmentsForSession(UUID sessionSeriesId, Instant sessionInstant, ScheduledSession existingSession) {
+        // Commitment states of this session series in force at the session instant
+        List<StudentCommitmentState> commitments = studentCommitmentStateRepository.findBySessionSeriesIdValidAt(sessionSeriesId, sessionInstant);
+        List<SessionParticipant> overrides = existingSession != null
+            ? sessionParticipantRepository.findByScheduledSession_IdAndActiveTrue(existingSession.getId())
+            : List.of();
+        return buildStudentCommitments(
+            commitments,
+            sessionInstant,
+            existingSession,
+            overrides,
+            studentId -> studentRepository.findById(studentId).map(Student::getName).orElse(null),
+            participantExerciseRepository::findActiveWithExerciseBySessionParticipantId);
+    }
+
+    // Applies series commitments and instance overrides; lookups are supplied so single and batch reads share the rules
+    private List<StudentCommitmentResponseDTO> buildStudentCommitments(List<StudentCommitmentState> commitments,
+                                                                       Instant sessionInstant,
+                                                                       ScheduledSession existingSession,
+                                                                       List<SessionParticipant> overrides,
+                                                                       Function<UUID, String> studentNames,
+                                                                       Function<UUID, List<ParticipantExercise>> exercisesByParticipant) {
         List<StudentCommitmentResponseDTO> studentCommitments = new ArrayList<>();
         
-        // Get all commitments for this session series
-        List<StudentCommitment> allCommitments = studentCommitmentRepository.findBySessionSeriesId(sessionSeriesId);
-        
-        // Group by student to get the most recent commitment for each student at session time
-        Map<UUID, StudentCommitment> latestCommitmentsPerStudent = new HashMap<>();
-        
-        for (StudentCommitment commitment : allCommitments) {
-            if (commitment.getEffectiveFromTimestamp().isBefore(sessionInstant) || 
-                commitment.getEffectiveFromTimestamp().equals(sessionInstant)) {
-                
-                UUID studentId = commitment.getStudentId();
-                StudentCommitment existing = latestCommitmentsPerStudent.get(studentId);
-                
-                if (existing == null || commitment.getEffectiveFromTimestamp().isAfter(existing.getEffectiveFromTimestamp())) {
-                    latestCommitmentsPerStudent.put(studentId, commitment);
-                }
+        // State intervals do not overlap per (student, series), so at most one is in force per student at session time
+        Map<UUID, StudentCommitmentState> latestCommitmentsPerStudent = new HashMap<>();
+        for (StudentCommitmentState commitment : commitments) {
+            if (commitment.isValidAt(sessionInstant)) {
+                latestCommitmentsPerStudent.put(commitment.getStudentId(), commitment);
             }
         }
         
@@ -660,7 +984,6 @@ public class ScheduleService {
         Set<UUID> excludedInInstance = new HashSet<>();
         Map<UUID, SessionParticipant> includedInInstance = new HashMap<>();
         if (existingSession != null) {
-            List<SessionParticipant> overrides = sessionParticipantRepository.findByScheduledSession_IdAndActiveTrue(existingSession.getId());
             for (SessionParticipant sp : overrides) {
                 if (sp.isExcluded()) excludedInInstance.add(sp.getStudentId());
                 if (sp.isIncluded()) includedInInstance.put(sp.getStudentId(), sp);
@@ -668,11 +991,9 @@ public class ScheduleService {
         }
 
         // Convert to DTOs and include exercise data if available, applying overrides
-        for (StudentCommitment commitment : latestCommitmentsPerStudent.values()) {
+        for (StudentCommitmentState commitment : latestCommitmentsPerStudent.values()) {
             UUID studentId = commitment.getStudentId();
-            String studentName = studentRepository.findById(studentId)
-                .map(Student::getName)
-                .orElse(null);
+            String studentName = studentNames.apply(studentId);
 
             List<ExerciseResponseDTO> exercises = new ArrayList<>();
             List<ParticipantExerciseResponseDTO> participantExerciseDtos = new ArrayList<>();
@@ -687,23 +1008,7 @@ public class ScheduleService {
                 if (participant != null) {
                     present = participant.isPresent();
                     attendanceNotes = participant.getAttendanceNotes();
-                    List<ParticipantExercise> pes = participantExerciseRepository
-                            .findActiveWithExerciseBySessionParticipantId(participant.getId());
-                    for (ParticipantExercise participantExercise : pes) {
-                        if (participantExercise.getExercise() != null) {
-                            exercises.add(ExerciseResponseDTO.fromEntity(participantExercise.getExercise()));
-                        }
-                        participantExerciseDtos.add(new ParticipantExerciseResponseDTO(
-                            participantExercise.getId(),
-                            participantExercise.getExerciseId(),
-                            participantExercise.getExercise() != null ? participantExercise.getExercise().getName() : null,
-                            participantExercise.getSetsCompleted(),
-                            participantExercise.getRepsCompleted(),
-                            participantExercise.getWeightCompleted(),
-                            participantExercise.getExerciseNotes(),
-                            participantExercise.isDone()
-                        ));
-                    }
+                    appendExercises(exercisesByParticipant.apply(participant.getId()), exercises, participantExerciseDtos);
                 } else if (commitment.getCommitmentStatus() == CommitmentStatus.ATTENDING) {
                     present = true;
                 } else {
@@ -734,28 +1039,10 @@ public class ScheduleService {
                 // If they were not added above (i.e., either no series commitment or series commitment was non-ATTENDING), include them now
                 boolean alreadyAdded = studentCommitments.stream().anyMatch(sc -> sc.studentId().equals(sp.getStudentId()));
                 if (!alreadyAdded) {
-                    String studentName = studentRepository.findById(sp.getStudentId())
-                        .map(Student::getName)
-                        .orElse(null);
-                    List<ParticipantExercise> pes = participantExerciseRepository
-                        .findActiveWithExerciseBySessionParticipantId(sp.getId());
+                    String studentName = studentNames.apply(sp.getStudentId());
                     List<ExerciseResponseDTO> exercises = new ArrayList<>();
                     List<ParticipantExerciseResponseDTO> participantExerciseDtos = new ArrayList<>();
-                    for (ParticipantExercise participantExercise : pes) {
-                        if (participantExercise.getExercise() != null) {
-                            exercises.add(ExerciseResponseDTO.fromEntity(participantExercise.getExercise()));
-                        }
-                        participantExerciseDtos.add(new ParticipantExerciseResponseDTO(
-                            participantExercise.getId(),
-                            participantExercise.getExerciseId(),
-                            participantExercise.getExercise() != null ? participantExercise.getExercise().getName() : null,
-                            participantExercise.getSetsCompleted(),
-                            participantExercise.getRepsCompleted(),
-                            participantExercise.getWeightCompleted(),
-                            participantExercise.getExerciseNotes(),
-                            participantExercise.isDone()
-                        ));
-                    }
+                    appendExercises(exercisesByParticipant.apply(sp.getId()), exercises, participantExerciseDtos);
                     studentCommitments.add(new StudentCommitmentResponseDTO(
                         sp.getStudentId(),
                         studentName,
@@ -771,5 +1058,25 @@ public class ScheduleService {
 
         return studentCommitments;
     }
+
+    private void appendExercises(List<ParticipantExercise> pes,
+                                 List<ExerciseResponseDTO> exercises,
+                                 List<ParticipantExerciseResponseDTO> participantExerciseDtos) {
+        for (ParticipantExercise participantExercise : pes) {
+            if (participantExercise.getExercise() != null) {
+                exercises.add(ExerciseResponseDTO.fromEntity(participantExercise.getExercise()));
+            }
+            participantExerciseDtos.add(new ParticipantExerciseResponseDTO(
+                participantExercise.getId(),
+                participantExercise.getExerciseId(),
+                participantExercise.getExercise() != null ? participantExercise.getExercise().getName() : null,
+                participantExercise.getSetsCompleted(),
+                participantExercise.getRepsCompleted(),
+                participantExercise.getWeightCompleted(),
+                participantExercise.getExerciseNotes(),
+                participantExercise.isDone()
+            ));
+        }
+    }
     
 }
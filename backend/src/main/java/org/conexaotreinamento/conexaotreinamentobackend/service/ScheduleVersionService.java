@@ -0,0 +1,64 @@
+package org.conexaotreinamento.conexaotreinamentobackend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.EventRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ScheduledSessionRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Strong ETags for the schedule, session and report reads. A tag hashes the request with a version vector of
+ * the rows the read depends on, taken with one aggregate query, so a poll whose If-None-Match still matches is
+ * answered with 304 without expanding anything.
+ */
+@Service
+@RequiredArgsConstructor
+public class ScheduleVersionService {
+
+    private final ScheduledSessionRepository scheduledSessionRepository;
+    private final EventRepository eventRepository;
+
+    // The trainer is part of the key: a trainer's slice and the whole range must never validate each other
+    public String scheduleETag(LocalDate startDate, LocalDate endDate, UUID trainerId) {
+        return eTag("schedule|" + startDate + "|" + endDate + "|" + trainerId, scheduleVersion(startDate, endDate));
+    }
+
+    // Empty for ids that do not name a day; those reads are served without a tag
+    public Optional<String> sessionETag(String sessionId, UUID trainerId) {
+        LocalDate date;
+        try {
+            date = SessionIds.parse(sessionId).date();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+        return Optional.of(eTag("session|" + sessionId + "|" + trainerId, scheduleVersion(date, date)));
+    }
+
+    // Reports also change with the calendar alone (student ages, which days are rolled up), hence today in the key
+    public String reportsETag(LocalDateTime startDate, LocalDateTime endDate, UUID trainerId) {
+        LocalDate firstDay = startDate.toLocalDate();
+        LocalDate lastDay = endDate.toLocalDate();
+        return eTag("reports|" + startDate + "|" + endDate + "|" + trainerId + "|" + LocalDate.now(),
+            scheduleVersion(firstDay, lastDay) + "|" + eventRepository.findEventVersion(firstDay, lastDay));
+    }
+
+    private String scheduleVersion(LocalDate startDate, LocalDate endDate) {
+        // Expansion looks series and commitments up at each day's start (UTC); anything effective before the day after
+        // the range counts
+        return scheduledSessionRepository.findScheduleVersion(startDate.atStartOfDay(), endDate.atTime(LocalTime.MAX),
+            endDate.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+    }
+
+    private static String eTag(String request, String version) {
+        return "\"" + DigestUtils.md5DigestAsHex((request + "|" + version).getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,93 @@
+package org.conexaotreinamento.conexaotreinamentobackend.service;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Format of the public session ids: {@code <slug>__<date>__<start time>__<trainer id>} (canonical) and the
+ * older {@code <slug>__<date>__<start time>}. Registry keys drop the date in favour of its weekday, so one
+ * key covers every occurrence of a weekly series.
+ */
+final class SessionIds {
+
+    private static final String SEPARATOR = "__";
+
+    private SessionIds() {
+    }
+
+    static String canonical(TrainerSchedule schedule, LocalDate date) {
+        if (schedule == null || date == null) return null;
+        return canonical(schedule.getSeriesName(), date, schedule.getStartTime(), schedule.getTrainerId());
+    }
+
+    // Canonical id includes the trainerId to avoid collisions between trainers at same time
+    static String canonical(String seriesName, LocalDate date, LocalTime startTime, UUID trainerId) {
+        if (date == null || startTime == null) return null;
+        return String.join(SEPARATOR, slug(seriesName), date.toString(), startTime.toString(), trainerPart(trainerId));
+    }
+
+    // Legacy 3-part id retained for compatibility
+    static String legacy(TrainerSchedule schedule, LocalDate date) {
+        if (schedule == null || date == null) return null;
+        return String.join(SEPARATOR, slug(schedule.getSeriesName()), date.toString(), schedule.getStartTime().toString());
+    }
+
+    // Canonical and legacy registry keys under the schedule's current name, weekday, time and trainer
+    static List<String> registryKeys(TrainerSchedule schedule) {
+        String legacyKey = String.join(SEPARATOR, String.valueOf(schedule.getWeekday()), slug(schedule.getSeriesName()),
+                schedule.getStartTime().toString());
+        return List.of(legacyKey + SEPARATOR + trainerPart(schedule.getTrainerId()), legacyKey);
+    }
+
+    static String slug(String input) {
+        String s = input == null ? "" : input;
+        return s.toLowerCase().replace(" ", "-");
+    }
+
+    // Throws IllegalArgumentException or DateTimeParseException for ids that are not in either format
+    static Parsed parse(String sessionId) {
+        String[] parts = sessionId.split(SEPARATOR);
+        if (parts.length < 3 || parts.length > 4) {
+            throw new IllegalArgumentException("Invalid sessionId format: " + sessionId);
+        }
+        String trainerPart = parts.length == 4 ? parts[3] : null;
+        return new Parsed(parts[0].toLowerCase(), LocalDate.parse(parts[1]), LocalTime.parse(parts[2]), trainerPart);
+    }
+
+    static int weekday(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SUNDAY ? 0 : date.getDayOfWeek().getValue();
+    }
+
+    private static String trainerPart(UUID trainerId) {
+        return trainerId != null ? trainerId.toString() : "null";
+    }
+
+    record Parsed(String slug, LocalDate date, LocalTime startTime, String trainerPart) {
+
+        // Trainer named by a canonical id, if it names a valid one
+        UUID trainerId() {
+            if (trainerPart == null || trainerPart.isBlank() || "null".equalsIgnoreCase(trainerPart)) {
+                return null;
+            }
+            try {
+                return UUID.fromString(trainerPart);
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        String registryKey() {
+            String legacyKey = String.join(SEPARATOR, String.valueOf(weekday(date)), slug, startTime.toString());
+            if (trainerPart == null) {
+                return legacyKey;
+            }
+            UUID trainerId = trainerId();
+            return legacyKey + SEPARATOR + (trainerId != null ? trainerId.toString() : trainerPart.toLowerCase());
+        }
+    }
+}
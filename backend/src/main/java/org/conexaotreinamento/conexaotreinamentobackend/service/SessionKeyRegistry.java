@@ -0,0 +1,62 @@
+package org.conexaotreinamento.conexaotreinamentobackend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.SessionKey;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.SessionKeyRepository;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Maps session ids to the series they address. Every name, weekday, time and trainer a series has had is
+ * recorded in {@code session_keys} (see {@link SessionIds#registryKeys}), so canonical ids, legacy 3-part ids
+ * and ids minted before a rename all resolve with one indexed lookup plus one snapshot probe in
+ * {@link TrainerScheduleIndex}.
+ */
+@Component
+@RequiredArgsConstructor
+public class SessionKeyRegistry {
+
+    private final SessionKeyRepository sessionKeyRepository;
+    private final TrainerScheduleIndex trainerScheduleIndex;
+
+    public record Resolution(TrainerSchedule schedule, LocalDate date) {
+    }
+
+    // Called whenever a schedule is created or changed; keys registered under earlier names stay as aliases
+    public void register(TrainerSchedule schedule) {
+        List<String> keys = SessionIds.registryKeys(schedule);
+        Set<String> missing = new HashSet<>(keys);
+        missing.removeAll(sessionKeyRepository.findRegisteredKeys(schedule.getId(), keys));
+        if (!missing.isEmpty()) {
+            sessionKeyRepository.saveAll(missing.stream().map(key -> new SessionKey(key, schedule.getId())).toList());
+        }
+    }
+
+    // The series in effect on the id's date that was ever registered under the id's key
+    public Optional<Resolution> resolve(String sessionId) {
+        SessionIds.Parsed parsed = SessionIds.parse(sessionId);
+        List<UUID> seriesIds = sessionKeyRepository.findSeriesIdsBySessionKey(parsed.registryKey());
+        if (seriesIds.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<TrainerSchedule> match = Optional.empty();
+        for (UUID seriesId : seriesIds) {
+            Optional<TrainerSchedule> effective = trainerScheduleIndex.findEffectiveOn(seriesId, parsed.date());
+            if (effective.isPresent()) {
+                if (match.isPresent()) {
+                    // Two live series share the key (e.g. legacy ids of two trainers at the same time): let the caller disambiguate
+                    return Optional.empty();
+                }
+                match = effective;
+            }
+        }
+        return match.map(schedule -> new Resolution(schedule, parsed.date()));
+    }
+}
@@ -1,5 +1,6 @@
 package org.conexaotreinamento.conexaotreinamentobackend.service;
 
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduleChange;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitment;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentPlanAssignment;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
@@ -9,14 +10,18 @@ import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerSchedu
 import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentPlanAssignmentRepository;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentPlanRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.Comparator;
 import java.util.Map;
 
 @Service
@@ -33,6 +38,15 @@ public class StudentCommitmentService {
 
     @Autowired
     private StudentPlanAssignmentRepository studentPlanAssignmentRepository;
+
+    @Autowired
+    private StudentCommitmentStateService studentCommitmentStateService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ScheduleChangeLog scheduleChangeLog;
     
     // Get current commitment status for a student and session series at a specific time
     public CommitmentStatus getCurrentCommitmentStatus(UUID studentId, UUID sessionSeriesId, Instant timestamp) {
@@ -53,6 +67,7 @@ public class StudentCommitmentService {
     }
     
     // Update student commitment with custom effective timestamp (event sourcing - creates new record)
+    @Transactional
     public StudentCommitment updateCommitment(UUID studentId, UUID sessionSeriesId, CommitmentStatus status, Instant effectiveFromTimestamp) {
         if (status == CommitmentStatus.ATTENDING) {
             validatePlanLimitsForSingle(studentId, sessionSeriesId);
@@ -64,7 +79,15 @@ public class StudentCommitmentService {
         commitment.setCommitmentStatus(status);
         commitment.setEffectiveFromTimestamp(effectiveFromTimestamp != null ? effectiveFromTimestamp : Instant.now());
         
-        return studentCommitmentRepository.save(commitment);
+        StudentCommitment saved = studentCommitmentRepository.save(commitment);
+        studentCommitmentStateService.apply(saved);
+        LocalDate effectiveDay = LocalDate.ofInstant(commitment.getEffectiveFromTimestamp(), ZoneOffset.UTC);
+        scheduleChangeLog.recordSeries(sessionSeriesId, effectiveDay, ScheduleChange.ChangeType.COMMITMENT);
+        // A backdated commitment changes who attended days that may already be rolled up for the reports
+        if (effectiveDay.isBefore(LocalDate.now())) {
+            eventPublisher.publishEvent(new ReportRollupService.ActivityChanged(effectiveDay, LocalDate.now()));
+        }
+        return saved;
     }
     
     // Get all commitments for a student
@@ -129,16 +152,37 @@ public class StudentCommitmentService {
         return bulkUpdateCommitments(studentId, sessionSeriesIds, status, null);
     }
     
-    // Bulk update commitments with custom effective timestamp
+    // Bulk update commitments with custom effective timestamp: validated once, resolved with one schedule query, saved as one batch
+    @Transactional
     public List<StudentCommitment> bulkUpdateCommitments(UUID studentId, List<UUID> sessionSeriesIds, 
                                                          CommitmentStatus status, Instant effectiveFromTimestamp) {
+        List<UUID> seriesIds = sessionSeriesIds.stream().distinct().toList();
+        if (seriesIds.isEmpty()) {
+            return List.of();
+        }
         if (status == CommitmentStatus.ATTENDING) {
-            validateBulkPlanLimits(studentId, sessionSeriesIds);
+            validateBulkPlanLimits(studentId, seriesIds);
         }
-        
-        return sessionSeriesIds.stream()
-            .map(seriesId -> updateCommitment(studentId, seriesId, status, effectiveFromTimestamp))
-            .collect(Collectors.toList());
+
+        Instant effectiveFrom = effectiveFromTimestamp != null ? effectiveFromTimestamp : Instant.now();
+        List<StudentCommitment> commitments = new ArrayList<>(seriesIds.size());
+        for (UUID seriesId : seriesIds) {
+            StudentCommitment commitment = new StudentCommitment();
+            commitment.setStudentId(studentId);
+            commitment.setSessionSeriesId(seriesId);
+            commitment.setCommitmentStatus(status);
+            commitment.setEffectiveFromTimestamp(effectiveFrom);
+            commitments.add(commitment);
+        }
+
+        List<StudentCommitment> saved = studentCommitmentRepository.saveAll(commitments);
+        studentCommitmentStateService.applyAll(studentId, saved);
+        LocalDate effectiveDay = LocalDate.ofInstant(effectiveFrom, ZoneOffset.UTC);
+        scheduleChangeLog.recordSeries(seriesIds, effectiveDay, ScheduleChange.ChangeType.COMMITMENT);
+        if (effectiveDay.isBefore(LocalDate.now())) {
+            eventPublisher.publishEvent(new ReportRollupService.ActivityChanged(effectiveDay, LocalDate.now()));
+        }
+        return saved;
     }
     
     private void validateBulkPlanLimits(UUID studentId, List<UUID> sessionSeriesIds) {
@@ -150,26 +194,30 @@ public class StudentCommitmentService {
         Instant now = Instant.now();
 
         Map<UUID, StudentCommitment> latestPerSeries = buildLatestPerSeries(studentId, now);
+        java.util.Set<UUID> attendingSeries = latestPerSeries.values().stream()
+            .filter(c -> c.getCommitmentStatus() == CommitmentStatus.ATTENDING)
+            .map(StudentCommitment::getSessionSeriesId)
+            .collect(Collectors.toSet());
+        java.util.Set<UUID> lookup = new java.util.HashSet<>(attendingSeries);
+        lookup.addAll(sessionSeriesIds);
+        Map<UUID, Integer> weekdayBySeries = trainerScheduleRepository.findAllById(lookup).stream()
+            .collect(Collectors.toMap(TrainerSchedule::getId, TrainerSchedule::getWeekday));
+
         java.util.Set<Integer> activeWeekdays = new java.util.HashSet<>();
-        for (StudentCommitment c : latestPerSeries.values()) {
-            if (c.getCommitmentStatus() == CommitmentStatus.ATTENDING) {
-                trainerScheduleRepository.findById(c.getSessionSeriesId())
-                    .map(TrainerSchedule::getWeekday)
-                    .ifPresent(activeWeekdays::add);
+        for (UUID seriesId : attendingSeries) {
+            Integer weekday = weekdayBySeries.get(seriesId);
+            if (weekday != null) {
+                activeWeekdays.add(weekday);
             }
         }
         for (UUID seriesId : sessionSeriesIds) {
-            StudentCommitment current = latestPerSeries.get(seriesId);
-            boolean alreadyAttending = current != null && current.getCommitmentStatus() == CommitmentStatus.ATTENDING;
-            if (alreadyAttending) continue;
-            int weekday = trainerScheduleRepository.findById(seriesId)
-                .map(TrainerSchedule::getWeekday)
-                .orElseThrow(() -> new RuntimeException("Trainer schedule not found"));
-            if (!activeWeekdays.contains(weekday)) {
-                activeWeekdays.add(weekday);
-                if (activeWeekdays.size() > maxDays) {
-                    throw new RuntimeException(String.format("Compromissos selecionados excedem o limite de %d dias do plano", maxDays));
-                }
+            if (attendingSeries.contains(seriesId)) continue;
+            Integer weekday = weekdayBySeries.get(seriesId);
+            if (weekday == null) {
+                throw new RuntimeException("Trainer schedule not found");
+            }
+            if (activeWeekdays.add(weekday) && activeWeekdays.size() > maxDays) {
+                throw new RuntimeException(String.format("Compromissos selecionados excedem o limite de %d dias do plano", maxDays));
             }
         }
     }
@@ -181,17 +229,9 @@ public class StudentCommitmentService {
             .orElseThrow(() -> new RuntimeException("Plano associado não encontrado"));
     }
 
-    // Helper to build latest event per session series with tie-breaking on createdAt then id
+    // Latest event per session series, read from the commitment state projection instead of replaying the history
     private Map<UUID, StudentCommitment> buildLatestPerSeries(UUID studentId, Instant timestamp) {
-        List<StudentCommitment> all = studentCommitmentRepository.findByStudentId(studentId);
-        // Sort ascending so later entries overwrite earlier ones. Order by effectiveFromTimestamp then createdAt then id
-        return all.stream()
-            .filter(c -> !c.getEffectiveFromTimestamp().isAfter(timestamp))
-            .sorted(Comparator
-                .comparing(StudentCommitment::getEffectiveFromTimestamp)
-                .thenComparing(c -> c.getCreatedAt(), Comparator.nullsFirst(Comparator.naturalOrder()))
-                .thenComparing(c -> c.getId().toString()))
-            .collect(java.util.LinkedHashMap::new, (map, c) -> map.put(c.getSessionSeriesId(), c), Map::putAll);
+        return studentCommitmentStateService.findLatestPerSeries(studentId, timestamp);
     }
 
     public void resetScheduleIfExceedsPlan(UUID studentId, int allowedMaxDays) {
@@ -0,0 +1,151 @@
+package org.conexaotreinamento.conexaotreinamentobackend.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitment;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitmentState;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentCommitmentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentCommitmentStateRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the student_commitment_states projection of the StudentCommitment event log, so
+ * point-in-time reads are a single indexed range probe instead of a replay of the full history.
+ * Writes are applied incrementally in the same transaction as the commitment event; the nightly
+ * {@link #rebuild()} replays the log and repairs any drift. A splice locks its chain before reading it, so two
+ * commitments for the same pair cannot both close the same interval, and never overlaps a rebuild.
+ */
+@Slf4j
+@Service
+public class StudentCommitmentStateService {
+
+    @Autowired
+    private StudentCommitmentStateRepository studentCommitmentStateRepository;
+
+    @Autowired
+    private StudentCommitmentRepository studentCommitmentRepository;
+
+    // Splices a newly saved commitment into the interval chain of its (student, series) pair
+    @Transactional
+    public void apply(StudentCommitment commitment) {
+        lockChains(commitment.getStudentId(), List.of(commitment.getSessionSeriesId()));
+        List<StudentCommitmentState> chain = studentCommitmentStateRepository
+            .findByStudentIdAndSessionSeriesIdOrderByValidFromAsc(commitment.getStudentId(), commitment.getSessionSeriesId());
+        splice(commitment, chain).forEach(studentCommitmentStateRepository::save);
+    }
+
+    // Same as apply for several commitments of one student (one per series), with one read and one batched write
+    @Transactional
+    public void applyAll(UUID studentId, List<StudentCommitment> commitments) {
+        if (commitments.isEmpty()) {
+            return;
+        }
+        lockChains(studentId, commitments.stream().map(StudentCommitment::getSessionSeriesId).toList());
+        Map<UUID, List<StudentCommitmentState>> chains = studentCommitmentStateRepository
+            .findByStudentIdAndSessionSeriesIdInOrderByValidFromAsc(studentId,
+                commitments.stream().map(StudentCommitment::getSessionSeriesId).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.groupingBy(StudentCommitmentState::getSessionSeriesId));
+        List<StudentCommitmentState> changed = new ArrayList<>();
+        for (StudentCommitment commitment : commitments) {
+            changed.addAll(splice(commitment, chains.getOrDefault(commitment.getSessionSeriesId(), List.of())));
+        }
+        studentCommitmentStateRepository.saveAll(changed);
+    }
+
+    // Series are locked in a fixed order so two bulk writes for the same student cannot deadlock
+    private void lockChains(UUID studentId, Collection<UUID> seriesIds) {
+        studentCommitmentStateRepository.lockForSplice();
+        seriesIds.stream()
+            .map(UUID::toString)
+            .distinct()
+            .sorted()
+            .forEach(seriesId -> studentCommitmentStateRepository.lockChain(studentId.toString(), seriesId));
+    }
+
+    // Returns the states to save so the chain (ordered by validFrom) reflects the commitment
+    private List<StudentCommitmentState> splice(StudentCommitment commitment, List<StudentCommitmentState> chain) {
+        Instant effectiveFrom = commitment.getEffectiveFromTimestamp();
+
+        StudentCommitmentState previous = null;
+        StudentCommitmentState next = null;
+        for (StudentCommitmentState state : chain) {
+            if (state.getValidFrom().equals(effectiveFrom)) {
+                // Same effective instant: the newer event replaces the older one without changing the interval
+                state.setCommitmentStatus(commitment.getCommitmentStatus());
+                state.setCommitmentId(commitment.getId());
+                return List.of(state);
+            }
+            if (state.getValidFrom().isBefore(effectiveFrom)) {
+                previous = state;
+            } else {
+                next = state;
+                break;
+            }
+        }
+
+        List<StudentCommitmentState> changed = new ArrayList<>(2);
+        if (previous != null) {
+            previous.setValidTo(effectiveFrom);
+            changed.add(previous);
+        }
+        StudentCommitmentState state = new StudentCommitmentState();
+        state.setStudentId(commitment.getStudentId());
+        state.setSessionSeriesId(commitment.getSessionSeriesId());
+        state.setCommitmentStatus(commitment.getCommitmentStatus());
+        state.setValidFrom(effectiveFrom);
+        state.setValidTo(next != null ? next.getValidFrom() : null);
+        state.setCommitmentId(commitment.getId());
+        changed.add(state);
+        return changed;
+    }
+
+    // Latest commitment event per series for a student at the given time
+    @Transactional(readOnly = true)
+    public Map<UUID, StudentCommitment> findLatestPerSeries(UUID studentId, Instant timestamp) {
+        List<StudentCommitmentState> states = studentCommitmentStateRepository.findByStudentIdValidAt(studentId, timestamp);
+        if (states.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, StudentCommitment> commitmentsById = studentCommitmentRepository
+            .findAllById(states.stream().map(StudentCommitmentState::getCommitmentId).collect(Collectors.toSet()))
+            .stream()
+            .collect(Collectors.toMap(StudentCommitment::getId, c -> c));
+        // Callers render the map as-is, so keep series in the order their current state took effect
+        Map<UUID, StudentCommitment> latestPerSeries = new LinkedHashMap<>();
+        List<StudentCommitmentState> inEffectOrder = states.stream()
+            .sorted(Comparator.comparing(StudentCommitmentState::getValidFrom)
+                .thenComparing(StudentCommitmentState::getSessionSeriesId))
+            .toList();
+        for (StudentCommitmentState state : inEffectOrder) {
+            StudentCommitment commitment = commitmentsById.get(state.getCommitmentId());
+            if (commitment != null) {
+                latestPerSeries.put(state.getSessionSeriesId(), commitment);
+            }
+        }
+        return latestPerSeries;
+    }
+
+    // Full replay of the event log; readers keep seeing the previous projection until the transaction commits
+    @Scheduled(cron = "${app.commitment-states.rebuild-cron:0 30 3 * * *}")
+    @Transactional
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        studentCommitmentStateRepository.lockForRebuild();
+        studentCommitmentStateRepository.deleteAllStates();
+        int rebuilt = studentCommitmentStateRepository.insertStatesFromCommitments();
+        log.info("Rebuilt {} commitment states in {} ms", rebuilt, System.currentTimeMillis() - started);
+    }
+}
@@ -170,6 +170,15 @@ public class StudentService {
         return students.map(StudentResponseDTO::fromEntity);
     }
 
+    public Page<StudentResponseDTO> search(String search, boolean includeInactive, Pageable pageable) {
+        if (search == null || search.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search term is required");
+        }
+        // Results are ordered by relevance, so any client supplied sort is dropped
+        Pageable page = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return studentRepository.searchRanked(search.trim(), includeInactive, page).map(StudentResponseDTO::fromEntity);
+    }
+
     @Transactional
     public StudentResponseDTO update(UUID id, StudentRequestDTO request) {
         Student student = studentRepository.findByIdAndDeletedAtIsNull(id)
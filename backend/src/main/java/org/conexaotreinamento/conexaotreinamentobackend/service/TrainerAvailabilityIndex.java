@@ -0,0 +1,383 @@
+package org.conexaotreinamento.conexaotreinamentobackend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TimeSlotResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TrainerBusyIntervalResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Event;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduledSession;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.EventRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ScheduledSessionRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Process-local busy calendar per trainer: the weekly slots of their series, plus dated intervals for one-off
+ * sessions, occurrences of other trainers' series reassigned to them and events. Occurrences of their own series
+ * that were canceled or reassigned away are released. Each part is a start-sorted array read as a balanced interval
+ * tree, so an overlap lookup costs O(log n) per interval it returns, however long any single entry runs.
+ * <p>
+ * A trainer's calendar is loaded on first use from trainer-scoped queries. Writes publish {@link Changed} for the
+ * trainers they touch, and only those calendars are dropped once the write commits; the rest stay warm.
+ * {@code app.availability-index.max-age} bounds staleness when several backend instances share the database.
+ * Checks made inside a write transaction take a per-trainer advisory lock held until commit and read the calendar
+ * fresh, so two writes for the same trainer cannot both pass the check.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrainerAvailabilityIndex {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private final TrainerScheduleRepository trainerScheduleRepository;
+    private final ScheduledSessionRepository scheduledSessionRepository;
+    private final EventRepository eventRepository;
+    private final TrainerRepository trainerRepository;
+
+    @Value("${app.availability-index.max-age:PT5M}")
+    private Duration maxAge = Duration.ofMinutes(5);
+
+    private final Map<UUID, Calendar> calendars = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> generations = new HashMap<>();
+
+    public enum Kind { SERIES, ONE_OFF, SESSION, EVENT }
+
+    // Published by writes that change when a trainer is busy; handled after the write commits
+    public record Changed(Set<UUID> trainerIds) {
+        public static Changed of(UUID... trainerIds) {
+            return new Changed(Stream.of(trainerIds).filter(Objects::nonNull).collect(Collectors.toSet()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChanged(Changed changed) {
+        changed.trainerIds().forEach(this::invalidate);
+    }
+
+    public void invalidate(UUID trainerId) {
+        if (trainerId == null) {
+            return;
+        }
+        synchronized (generations) {
+            generations.merge(trainerId, 1L, Long::sum);
+            calendars.remove(trainerId);
+        }
+    }
+
+    // Everything keeping the trainer busy somewhere in [start, end), ordered by start
+    public List<TrainerBusyIntervalResponseDTO> findConflicts(UUID trainerId, LocalDateTime start, LocalDateTime end) {
+        return findConflicts(trainerId, start, end, null);
+    }
+
+    // The same, ignoring the entry the caller is about to replace (an event being moved, a session being reassigned)
+    public List<TrainerBusyIntervalResponseDTO> findConflicts(UUID trainerId, LocalDateTime start, LocalDateTime end, UUID ignoredSourceId) {
+        return conflicts(current(trainerId), start, end, ignoredSourceId);
+    }
+
+    // Everything a new weekly slot would collide with: the trainer's other series, and dated entries from now on
+    public List<TrainerBusyIntervalResponseDTO> findWeeklyConflicts(UUID trainerId, int weekday, LocalTime startTime,
+            int durationMinutes, UUID ignoredSeriesId) {
+        return weeklyConflicts(current(trainerId), weekday, startTime, durationMinutes, ignoredSeriesId);
+    }
+
+    private static List<TrainerBusyIntervalResponseDTO> conflicts(Calendar calendar, LocalDateTime start, LocalDateTime end,
+            UUID ignoredSourceId) {
+        List<TrainerBusyIntervalResponseDTO> conflicts = new ArrayList<>();
+        for (Busy busy : calendar.dated().overlapping(toMinute(start), toMinute(end))) {
+            if (!busy.sourceId().equals(ignoredSourceId)) {
+                conflicts.add(busy.toDto(busy.start(), busy.end()));
+            }
+        }
+        // Weekly slots are matched one day at a time, in the minute-of-week of that day; a slot running past
+        // midnight is seen from both days, so occurrences are keyed by series and start
+        Set<String> occurrences = new HashSet<>();
+        for (LocalDate date = start.toLocalDate(); date.atStartOfDay().isBefore(end); date = date.plusDays(1)) {
+            long dayStart = toMinute(date.atStartOfDay());
+            long weekStart = (long) weekday(date) * MINUTES_PER_DAY;
+            long from = Math.max(toMinute(start), dayStart) - dayStart + weekStart;
+            long to = Math.min(toMinute(end), dayStart + MINUTES_PER_DAY) - dayStart + weekStart;
+            for (Busy slot : calendar.weekly().overlapping(from, to)) {
+                LocalDateTime occurrenceStart = fromMinute(slot.start() - weekStart + dayStart);
+                LocalDate occurrenceDate = occurrenceStart.toLocalDate();
+                if (slot.sourceId().equals(ignoredSourceId)
+                        || slot.effectiveFrom().isAfter(occurrenceDate.atStartOfDay().toInstant(ZoneOffset.UTC))
+                        || calendar.released().contains(releaseKey(slot.sourceId(), occurrenceDate))
+                        || !occurrences.add(slot.sourceId() + "|" + occurrenceStart)) {
+                    continue;
+                }
+                conflicts.add(slot.toDto(slot.start() - weekStart + dayStart, slot.end() - weekStart + dayStart));
+            }
+        }
+        conflicts.sort(Comparator.comparing(TrainerBusyIntervalResponseDTO::startTime));
+        return conflicts;
+    }
+
+    private static List<TrainerBusyIntervalResponseDTO> weeklyConflicts(Calendar calendar, int weekday, LocalTime startTime,
+            int durationMinutes, UUID ignoredSeriesId) {
+        long from = (long) weekday * MINUTES_PER_DAY + startTime.toSecondOfDay() / 60;
+        long to = from + Math.max(0, durationMinutes);
+        LocalDate today = LocalDate.now();
+        LocalDate nextOccurrence = today.plusDays(Math.floorMod(weekday - weekday(today), 7));
+        long occurrenceOffset = toMinute(nextOccurrence.atStartOfDay()) - (long) weekday * MINUTES_PER_DAY;
+
+        List<TrainerBusyIntervalResponseDTO> conflicts = new ArrayList<>();
+        Set<UUID> seen = new HashSet<>();
+        // A slot running past Saturday midnight also covers the start of the week
+        List<Busy> weekly = new ArrayList<>(calendar.weekly().overlapping(from, to));
+        if (to > MINUTES_PER_WEEK) {
+            weekly.addAll(calendar.weekly().overlapping(from - MINUTES_PER_WEEK, to - MINUTES_PER_WEEK));
+        }
+        for (Busy slot : weekly) {
+            if (!slot.sourceId().equals(ignoredSeriesId) && seen.add(slot.sourceId())) {
+                long start = Math.floorMod(slot.start(), MINUTES_PER_WEEK);
+                conflicts.add(slot.toDto(start + occurrenceOffset, start + slot.end() - slot.start() + occurrenceOffset));
+            }
+        }
+        // Dated entries are few per trainer; only those still ahead are checked against the weekly slot
+        for (Busy busy : calendar.dated().overlapping(toMinute(today.atStartOfDay()), Long.MAX_VALUE)) {
+            long dayStart = Math.floorDiv(busy.start(), MINUTES_PER_DAY) * MINUTES_PER_DAY;
+            long weekStart = (long) weekday(fromMinute(dayStart).toLocalDate()) * MINUTES_PER_DAY;
+            long busyFrom = busy.start() - dayStart + weekStart;
+            long busyTo = busy.end() - dayStart + weekStart;
+            if ((busyFrom < to && busyTo > from) || (busyFrom + MINUTES_PER_WEEK < to && busyTo + MINUTES_PER_WEEK > from)) {
+                conflicts.add(busy.toDto(busy.start(), busy.end()));
+            }
+        }
+        conflicts.sort(Comparator.comparing(TrainerBusyIntervalResponseDTO::startTime));
+        return conflicts;
+    }
+
+    // Gaps of at least minMinutes between the trainer's busy intervals in [start, end)
+    public List<TimeSlotResponseDTO> findFreeSlots(UUID trainerId, LocalDateTime start, LocalDateTime end, int minMinutes) {
+        List<TimeSlotResponseDTO> free = new ArrayList<>();
+        LocalDateTime cursor = start;
+        for (TrainerBusyIntervalResponseDTO busy : findConflicts(trainerId, start, end)) {
+            if (busy.startTime().isAfter(cursor)) {
+                addSlot(free, cursor, busy.startTime(), minMinutes);
+            }
+            if (busy.endTime().isAfter(cursor)) {
+                cursor = busy.endTime();
+            }
+        }
+        addSlot(free, cursor, end, minMinutes);
+        return free;
+    }
+
+    public void requireFree(UUID trainerId, LocalDateTime start, LocalDateTime end, UUID ignoredSourceId) {
+        if (trainerId == null || start == null || end == null || !end.isAfter(start)) {
+            return;
+        }
+        rejectIfBusy(conflicts(guarded(trainerId), start, end, ignoredSourceId));
+    }
+
+    public void requireWeeklyFree(UUID trainerId, int weekday, LocalTime startTime, int durationMinutes, UUID ignoredSeriesId) {
+        if (trainerId == null || startTime == null || durationMinutes <= 0) {
+            return;
+        }
+        rejectIfBusy(weeklyConflicts(guarded(trainerId), weekday, startTime, durationMinutes, ignoredSeriesId));
+    }
+
+    private static void rejectIfBusy(List<TrainerBusyIntervalResponseDTO> conflicts) {
+        if (!conflicts.isEmpty()) {
+            TrainerBusyIntervalResponseDTO first = conflicts.get(0);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, String.format("Trainer is already busy with %s (%s to %s)",
+                first.label(), first.startTime(), first.endTime()));
+        }
+    }
+
+    private static void addSlot(List<TimeSlotResponseDTO> free, LocalDateTime start, LocalDateTime end, int minMinutes) {
+        if (end.isAfter(start) && Duration.between(start, end).toMinutes() >= minMinutes) {
+            free.add(new TimeSlotResponseDTO(start, end));
+        }
+    }
+
+    // Inside a transaction the check and the write it guards are serialized per trainer, and the calendar is read
+    // fresh: a cached one may predate a write that committed while this transaction waited for the lock
+    private Calendar guarded(UUID trainerId) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return current(trainerId);
+        }
+        trainerRepository.lockAvailability(trainerId.toString());
+        return load(trainerId);
+    }
+
+    private Calendar current(UUID trainerId) {
+        Calendar existing = calendars.get(trainerId);
+        if (existing != null && existing.builtAt().plus(maxAge).isAfter(Instant.now())) {
+            return existing;
+        }
+        long observedGeneration;
+        synchronized (generations) {
+            observedGeneration = generations.getOrDefault(trainerId, 0L);
+        }
+        Calendar loaded = load(trainerId);
+        // A calendar loaded inside a transaction may see its uncommitted (and possibly rolled back) writes
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return loaded;
+        }
+        synchronized (generations) {
+            // A write that committed while loading makes this calendar stale; serve it once but do not keep it
+            if (generations.getOrDefault(trainerId, 0L) == observedGeneration) {
+                calendars.put(trainerId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    private Calendar load(UUID trainerId) {
+        List<Busy> weekly = new ArrayList<>();
+        for (TrainerSchedule schedule : trainerScheduleRepository.findByTrainerIdAndActiveTrue(trainerId)) {
+            if (schedule.getStartTime() == null || schedule.getEffectiveFromTimestamp() == null || schedule.getIntervalDuration() <= 0) {
+                continue;
+            }
+            long start = (long) schedule.getWeekday() * MINUTES_PER_DAY + schedule.getStartTime().toSecondOfDay() / 60;
+            long end = start + schedule.getIntervalDuration();
+            weekly.add(new Busy(Kind.SERIES, schedule.getId(), schedule.getSeriesName(), start, end, schedule.getEffectiveFromTimestamp()));
+            if (end > MINUTES_PER_WEEK) {
+                // Saturday night running into Sunday morning
+                weekly.add(new Busy(Kind.SERIES, schedule.getId(), schedule.getSeriesName(), start - MINUTES_PER_WEEK,
+                    end - MINUTES_PER_WEEK, schedule.getEffectiveFromTimestamp()));
+            }
+        }
+
+        List<Busy> dated = new ArrayList<>();
+        for (ScheduledSession session : scheduledSessionRepository.findBusyOutsideOwnSeries(trainerId)) {
+            if (session.getStartTime() != null && session.getEndTime() != null) {
+                dated.add(new Busy(session.getSessionSeriesId() == null ? Kind.ONE_OFF : Kind.SESSION, session.getId(),
+                    session.getSeriesName(), toMinute(session.getStartTime()), toMinute(session.getEndTime()), Instant.EPOCH));
+            }
+        }
+        // Events without times block no particular interval
+        for (Event event : eventRepository.findByTrainer_IdAndDeletedAtIsNull(trainerId)) {
+            if (event.getStartTime() != null && event.getEndTime() != null) {
+                dated.add(new Busy(Kind.EVENT, event.getId(), event.getName(), toMinute(event.getDate().atTime(event.getStartTime())),
+                    toMinute(event.getDate().atTime(event.getEndTime())), Instant.EPOCH));
+            }
+        }
+
+        Set<String> released = new HashSet<>();
+        for (ScheduledSession session : scheduledSessionRepository.findReleasedFromOwnSeries(trainerId)) {
+            if (session.getStartTime() != null) {
+                released.add(releaseKey(session.getSessionSeriesId(), session.getStartTime().toLocalDate()));
+            }
+        }
+        return new Calendar(IntervalList.of(weekly), IntervalList.of(dated), Set.copyOf(released), Instant.now());
+    }
+
+    private static String releaseKey(UUID seriesId, LocalDate date) {
+        return seriesId + "|" + date;
+    }
+
+    private static long toMinute(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+
+    private static LocalDateTime fromMinute(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static int weekday(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SUNDAY ? 0 : date.getDayOfWeek().getValue();
+    }
+
+    // start/end in minutes: minute-of-week for weekly slots, minutes since the epoch for dated entries
+    private record Busy(Kind kind, UUID sourceId, String label, long start, long end, Instant effectiveFrom) {
+        TrainerBusyIntervalResponseDTO toDto(long startMinute, long endMinute) {
+            return new TrainerBusyIntervalResponseDTO(kind.name(), sourceId, label, fromMinute(startMinute), fromMinute(endMinute));
+        }
+    }
+
+    private record Calendar(IntervalList weekly, IntervalList dated, Set<String> released, Instant builtAt) {}
+
+    // Intervals sorted by start, read as an implicit balanced tree: the middle of each range is its root and
+    // subtreeMaxEnds[mid] is the latest end in that range. Entries starting before `to` are a prefix found by binary
+    // search, and a subtree is skipped whole when nothing in it reaches `from`, so one long early interval cannot
+    // force a walk over everything after it
+    private record IntervalList(Busy[] byStart, long[] starts, long[] subtreeMaxEnds) {
+
+        static IntervalList of(List<Busy> intervals) {
+            Busy[] byStart = intervals.stream().sorted(Comparator.comparingLong(Busy::start)).toArray(Busy[]::new);
+            long[] starts = new long[byStart.length];
+            for (int i = 0; i < byStart.length; i++) {
+                starts[i] = byStart[i].start();
+            }
+            long[] subtreeMaxEnds = new long[byStart.length];
+            fillMaxEnds(byStart, subtreeMaxEnds, 0, byStart.length);
+            return new IntervalList(byStart, starts, subtreeMaxEnds);
+        }
+
+        private static long fillMaxEnds(Busy[] byStart, long[] subtreeMaxEnds, int lo, int hi) {
+            if (lo >= hi) {
+                return Long.MIN_VALUE;
+            }
+            int mid = (lo + hi) >>> 1;
+            long maxEnd = Math.max(byStart[mid].end(), Math.max(
+                fillMaxEnds(byStart, subtreeMaxEnds, lo, mid),
+                fillMaxEnds(byStart, subtreeMaxEnds, mid + 1, hi)));
+            subtreeMaxEnds[mid] = maxEnd;
+            return maxEnd;
+        }
+
+        List<Busy> overlapping(long from, long to) {
+            List<Busy> result = new ArrayList<>();
+            collect(0, lowerBound(to), from, result);
+            return result;
+        }
+
+        // Every entry in [lo, hi) already starts before `to`; only the ends decide
+        private void collect(int lo, int hi, long from, List<Busy> result) {
+            if (lo >= hi) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            if (subtreeMaxEnds[mid] <= from) {
+                return;
+            }
+            collect(lo, mid, from, result);
+            if (byStart[mid].end() > from) {
+                result.add(byStart[mid]);
+            }
+            collect(mid + 1, hi, from, result);
+        }
+
+        // Number of entries starting strictly before `to`
+        private int lowerBound(long to) {
+            int index = Arrays.binarySearch(starts, to);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index > 0 && starts[index - 1] == to) {
+                index--;
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package org.conexaotreinamento.conexaotreinamentobackend.service;
+
+import lombok.RequiredArgsConstructor;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Process-local, immutable view of every TrainerSchedule version, keyed by weekday and start time.
+ * Answers "which series are in effect on date D" without a database round trip. The snapshot is
+ * rebuilt lazily after {@link #invalidate()} (called by TrainerScheduleService on every write, and
+ * again through {@link Changed} once the write's transaction completes) or once it is older than
+ * {@code app.schedule-index.max-age}, which bounds staleness when several backend instances share
+ * the database.
+ */
+@Component
+@RequiredArgsConstructor
+public class TrainerScheduleIndex {
+
+    private final TrainerScheduleRepository trainerScheduleRepository;
+
+    @Value("${app.schedule-index.max-age:PT5M}")
+    private Duration maxAge;
+
+    private volatile Snapshot snapshot;
+    private long generation;
+
+    // Same semantics as TrainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual at the start of the day (UTC)
+    public List<TrainerSchedule> findEffectiveOn(LocalDate date) {
+        return effectiveOn(current().byWeekday(), date);
+    }
+
+    // The same, narrowed to one trainer's series without scanning the others
+    public List<TrainerSchedule> findEffectiveOnForTrainer(UUID trainerId, LocalDate date) {
+        return effectiveOn(current().byTrainer().getOrDefault(trainerId, Map.of()), date);
+    }
+
+    // Narrowed lookup used when resolving a single session id, which always carries its start time
+    public List<TrainerSchedule> findEffectiveOn(LocalDate date, LocalTime startTime) {
+        NavigableMap<LocalTime, List<TrainerSchedule>> byStartTime = current().byWeekday().get(toWeekday(date));
+        if (byStartTime == null || !byStartTime.containsKey(startTime)) {
+            return List.of();
+        }
+        List<TrainerSchedule> result = new ArrayList<>();
+        collectEffective(byStartTime.get(startTime), date.atStartOfDay().toInstant(ZoneOffset.UTC), result);
+        return result;
+    }
+
+    // A single series on a date, as resolved from a session id by SessionKeyRegistry
+    public Optional<TrainerSchedule> findEffectiveOn(UUID seriesId, LocalDate date) {
+        TrainerSchedule schedule = current().byId().get(seriesId);
+        if (schedule == null || schedule.getWeekday() != toWeekday(date)) {
+            return Optional.empty();
+        }
+        List<TrainerSchedule> result = new ArrayList<>(1);
+        collectEffective(List.of(schedule), date.atStartOfDay().toInstant(ZoneOffset.UTC), result);
+        return result.stream().findFirst();
+    }
+
+    // Published by series writes; a snapshot rebuilt inside the writing transaction may hold rows that never commit
+    public record Changed() {
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void onChanged(Changed changed) {
+        invalidate();
+    }
+
+    public void invalidate() {
+        synchronized (this) {
+            generation++;
+            snapshot = null;
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot existing = snapshot;
+        if (existing != null && !existing.isExpired(maxAge)) {
+            return existing;
+        }
+        long observedGeneration;
+        synchronized (this) {
+            observedGeneration = generation;
+        }
+        Snapshot rebuilt = Snapshot.of(trainerScheduleRepository.findAll());
+        synchronized (this) {
+            // A write that happened while loading makes this snapshot stale; serve it once but do not publish it
+            if (generation == observedGeneration) {
+                snapshot = rebuilt;
+            }
+        }
+        return rebuilt;
+    }
+
+    private static List<TrainerSchedule> effectiveOn(Map<Integer, NavigableMap<LocalTime, List<TrainerSchedule>>> byWeekday,
+            LocalDate date) {
+        NavigableMap<LocalTime, List<TrainerSchedule>> byStartTime = byWeekday.get(toWeekday(date));
+        if (byStartTime == null) {
+            return List.of();
+        }
+        Instant instant = date.atStartOfDay().toInstant(ZoneOffset.UTC);
+        List<TrainerSchedule> result = new ArrayList<>();
+        for (List<TrainerSchedule> versions : byStartTime.values()) {
+            collectEffective(versions, instant, result);
+        }
+        return result;
+    }
+
+    private static void collectEffective(List<TrainerSchedule> versions, Instant instant, List<TrainerSchedule> result) {
+        for (TrainerSchedule schedule : versions) {
+            // Versions are sorted by effectiveFromTimestamp, so nothing after this one can be in effect yet
+            if (schedule.getEffectiveFromTimestamp().isAfter(instant)) {
+                break;
+            }
+            if (schedule.isActive() || (schedule.getDeletedAt() != null && schedule.getDeletedAt().isAfter(instant))) {
+                result.add(schedule);
+            }
+        }
+    }
+
+    private static int toWeekday(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SUNDAY ? 0 : date.getDayOfWeek().getValue();
+    }
+
+    private record Snapshot(Map<Integer, NavigableMap<LocalTime, List<TrainerSchedule>>> byWeekday,
+            Map<UUID, Map<Integer, NavigableMap<LocalTime, List<TrainerSchedule>>>> byTrainer,
+            Map<UUID, TrainerSchedule> byId, Instant builtAt) {
+
+        static Snapshot of(List<TrainerSchedule> schedules) {
+            List<TrainerSchedule> copies = new ArrayList<>();
+            Map<UUID, List<TrainerSchedule>> copiesByTrainer = new HashMap<>();
+            Map<UUID, TrainerSchedule> byId = new HashMap<>();
+            for (TrainerSchedule schedule : schedules) {
+                if (schedule.getStartTime() == null || schedule.getEffectiveFromTimestamp() == null) {
+                    continue;
+                }
+                TrainerSchedule copy = detachedCopy(schedule);
+                copies.add(copy);
+                if (copy.getTrainerId() != null) {
+                    copiesByTrainer.computeIfAbsent(copy.getTrainerId(), k -> new ArrayList<>()).add(copy);
+                }
+                byId.put(copy.getId(), copy);
+            }
+            Map<UUID, Map<Integer, NavigableMap<LocalTime, List<TrainerSchedule>>>> byTrainer = new HashMap<>();
+            copiesByTrainer.forEach((trainerId, own) -> byTrainer.put(trainerId, group(own)));
+            return new Snapshot(group(copies), Map.copyOf(byTrainer), Map.copyOf(byId), Instant.now());
+        }
+
+        // Weekday -> start time -> versions sorted by effectiveFromTimestamp
+        private static Map<Integer, NavigableMap<LocalTime, List<TrainerSchedule>>> group(List<TrainerSchedule> schedules) {
+            Map<Integer, TreeMap<LocalTime, List<TrainerSchedule>>> grouped = new HashMap<>();
+            for (TrainerSchedule schedule : schedules) {
+                grouped.computeIfAbsent(schedule.getWeekday(), k -> new TreeMap<>())
+                    .computeIfAbsent(schedule.getStartTime(), k -> new ArrayList<>())
+                    .add(schedule);
+            }
+            Map<Integer, NavigableMap<LocalTime, List<TrainerSchedule>>> frozen = new HashMap<>();
+            grouped.forEach((weekday, byStartTime) -> {
+                byStartTime.values().forEach(versions -> versions.sort(
+                    Comparator.comparing(TrainerSchedule::getEffectiveFromTimestamp)));
+                TreeMap<LocalTime, List<TrainerSchedule>> copy = new TreeMap<>();
+                byStartTime.forEach((startTime, versions) -> copy.put(startTime, List.copyOf(versions)));
+                frozen.put(weekday, Collections.unmodifiableNavigableMap(copy));
+            });
+            return Map.copyOf(frozen);
+        }
+
+        boolean isExpired(Duration maxAge) {
+            return maxAge != null && Instant.now().isAfter(builtAt.plus(maxAge));
+        }
+
+        // The snapshot is shared across threads, so it must not hold entities attached to a persistence context
+        private static TrainerSchedule detachedCopy(TrainerSchedule source) {
+            TrainerSchedule copy = new TrainerSchedule();
+            copy.setId(source.getId());
+            copy.setTrainerId(source.getTrainerId());
+            copy.setWeekday(source.getWeekday());
+            copy.setStartTime(source.getStartTime());
+            copy.setIntervalDuration(source.getIntervalDuration());
+            copy.setSeriesName(source.getSeriesName());
+            copy.setEffectiveFromTimestamp(source.getEffectiveFromTimestamp());
+            copy.setCreatedAt(source.getCreatedAt());
+            copy.setUpdatedAt(source.getUpdatedAt());
+            copy.setDeletedAt(source.getDeletedAt());
+            copy.setActive(source.isActive());
+            return copy;
+        }
+    }
+}
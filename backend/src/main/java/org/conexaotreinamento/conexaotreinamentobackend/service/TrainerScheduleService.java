@@ -1,11 +1,16 @@
 package org.conexaotreinamento.conexaotreinamentobackend.service;
 
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduleChange;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,6 +21,24 @@ public class TrainerScheduleService {
     @Autowired
     private TrainerScheduleRepository trainerScheduleRepository;
     
+    @Autowired
+    private TrainerScheduleIndex trainerScheduleIndex;
+
+    @Autowired
+    private SessionKeyRegistry sessionKeyRegistry;
+
+    @Autowired
+    private ScheduleChangeLog scheduleChangeLog;
+
+    @Autowired
+    private ScheduleMaterializer scheduleMaterializer;
+
+    @Autowired
+    private TrainerAvailabilityIndex trainerAvailabilityIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public List<TrainerSchedule> getAllActiveSchedules() {
         return trainerScheduleRepository.findByActiveTrue();
     }
@@ -28,7 +51,11 @@ public class TrainerScheduleService {
         return trainerScheduleRepository.findById(id);
     }
     
+    // Series writes are transactional so the availability check takes the trainer's lock and holds it until commit
+    @Transactional
     public TrainerSchedule createSchedule(TrainerSchedule schedule) {
+        trainerAvailabilityIndex.requireWeeklyFree(schedule.getTrainerId(), schedule.getWeekday(), schedule.getStartTime(),
+            schedule.getIntervalDuration(), null);
         TrainerSchedule freshSchedule = new TrainerSchedule();
         freshSchedule.setTrainerId(schedule.getTrainerId());
         freshSchedule.setWeekday(schedule.getWeekday());
@@ -38,29 +65,67 @@ public class TrainerScheduleService {
         freshSchedule.setEffectiveFromTimestamp(Instant.now());
         freshSchedule.setActive(true);
         freshSchedule.setDeletedAt(null);
-        return trainerScheduleRepository.save(freshSchedule);
+        TrainerSchedule saved = trainerScheduleRepository.save(freshSchedule);
+        invalidateIndexes(saved.getTrainerId());
+        sessionKeyRegistry.register(saved);
+        scheduleChangeLog.recordSeries(saved.getId(), null, ScheduleChange.ChangeType.SCHEDULE);
+        scheduleMaterializer.rematerializeSeries(saved.getId());
+        return saved;
     }
     
+    @Transactional
     public TrainerSchedule updateSchedule(UUID id, TrainerSchedule updatedSchedule) {
         return trainerScheduleRepository.findById(id)
             .map(schedule -> {
+                trainerAvailabilityIndex.requireWeeklyFree(schedule.getTrainerId(), updatedSchedule.getWeekday(),
+                    updatedSchedule.getStartTime(), updatedSchedule.getIntervalDuration(), schedule.getId());
                 schedule.setWeekday(updatedSchedule.getWeekday());
                 schedule.setStartTime(updatedSchedule.getStartTime());
                 schedule.setIntervalDuration(updatedSchedule.getIntervalDuration());
                 schedule.setSeriesName(updatedSchedule.getSeriesName());
                 schedule.updateTimestamp();
-                return trainerScheduleRepository.save(schedule);
+                TrainerSchedule saved = trainerScheduleRepository.save(schedule);
+                invalidateIndexes(saved.getTrainerId());
+                // Ids minted under the previous name or time keep resolving to this series
+                sessionKeyRegistry.register(saved);
+                scheduleChangeLog.recordSeries(saved.getId(), null, ScheduleChange.ChangeType.SCHEDULE);
+                scheduleMaterializer.rematerializeSeries(saved.getId());
+                publishPastActivityChanged(saved);
+                return saved;
             })
             .orElseThrow(() -> new RuntimeException("TrainerSchedule not found with id: " + id));
     }
     
+    @Transactional
     public void deleteSchedule(UUID id) {
         trainerScheduleRepository.findById(id)
             .ifPresent(schedule -> {
                 schedule.softDelete();
                 trainerScheduleRepository.save(schedule);
+                invalidateIndexes(schedule.getTrainerId());
+                scheduleChangeLog.recordSeries(schedule.getId(), null, ScheduleChange.ChangeType.SCHEDULE);
+                scheduleMaterializer.rematerializeSeries(schedule.getId());
+                publishPastActivityChanged(schedule);
             });
     }
+
+    // Dropped now so rematerialization inside this transaction sees the write, and again once it completes
+    private void invalidateIndexes(UUID trainerId) {
+        trainerScheduleIndex.invalidate();
+        eventPublisher.publishEvent(new TrainerScheduleIndex.Changed());
+        eventPublisher.publishEvent(TrainerAvailabilityIndex.Changed.of(trainerId));
+    }
+
+    // The series row is edited in place, so every day expanded since it took effect changes, rolled-up days included
+    private void publishPastActivityChanged(TrainerSchedule schedule) {
+        if (schedule.getEffectiveFromTimestamp() == null) {
+            return;
+        }
+        LocalDate effectiveDay = LocalDate.ofInstant(schedule.getEffectiveFromTimestamp(), ZoneOffset.UTC);
+        if (effectiveDay.isBefore(LocalDate.now())) {
+            eventPublisher.publishEvent(new ReportRollupService.ActivityChanged(effectiveDay, LocalDate.now()));
+        }
+    }
     
     // Temporal query: Get schedule active at specific time
     public Optional<TrainerSchedule> getScheduleAtTime(UUID trainerId, int weekday, Instant timestamp) {
@@ -3,6 +3,8 @@ package org.conexaotreinamento.conexaotreinamentobackend.service;
 import java.util.Optional;
 import java.util.UUID;
 
+import org.conexaotreinamento.conexaotreinamentobackend.config.security.jwt.RevokedTokenRegistry;
+import org.conexaotreinamento.conexaotreinamentobackend.config.security.user.PrincipalCache;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.ChangePasswordRequestDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.UserCreateRequestDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.PatchUserRoleRequestDTO;
@@ -10,6 +12,7 @@ import org.conexaotreinamento.conexaotreinamentobackend.dto.response.UserRespons
 import org.conexaotreinamento.conexaotreinamentobackend.entity.User;
 import org.conexaotreinamento.conexaotreinamentobackend.enums.Role;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
@@ -28,6 +31,8 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final RevokedTokenRegistry revokedTokenRegistry;
 
     public UserResponseDTO createUser(UserCreateRequestDTO request) {
         log.debug("Attempting to create user with email: {}", request.email());
@@ -63,6 +68,8 @@ public class UserService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
         
         user.deactivate();
+        eventPublisher.publishEvent(new PrincipalCache.Changed(id));
+        revokedTokenRegistry.revoke(id);
         log.info("User deactivated successfully [ID: {}] - Email: {}", id, user.getEmail());
     }
 
@@ -82,6 +89,8 @@ public class UserService {
         }
         
         user.activate();
+        // Tokens issued before the deactivation must stay unusable after the account comes back
+        revokedTokenRegistry.revoke(id);
         User savedUser = userRepository.save(user);
         return UserResponseDTO.fromEntity(savedUser);
     }
@@ -96,6 +105,8 @@ public class UserService {
         Role oldRole = user.getRole();
         if (request.role() != null) {
             user.setRole(request.role());
+            eventPublisher.publishEvent(new PrincipalCache.Changed(id));
+            revokedTokenRegistry.revoke(id);
             log.info("User role updated [ID: {}] - From: {} to: {}", id, oldRole, request.role());
         }
         
@@ -117,6 +128,8 @@ public class UserService {
                 throw new ResponseStatusException(HttpStatus.CONFLICT, "Email already in use");
             }
             user.setEmail(newEmail);
+            eventPublisher.publishEvent(new PrincipalCache.Changed(userId));
+            revokedTokenRegistry.revoke(userId);
         }
 
         User savedUser = userRepository.save(user);
@@ -137,6 +150,7 @@ public class UserService {
         }
 
         user.setPassword(passwordEncoder.encode(newPassword));
+        eventPublisher.publishEvent(new PrincipalCache.Changed(userId));
 
         User savedUser = userRepository.save(user);
         return UserResponseDTO.fromEntity(savedUser);
@@ -160,6 +174,7 @@ public class UserService {
         }
 
         user.setPassword(passwordEncoder.encode(request.newPassword()));
+        eventPublisher.publishEvent(new PrincipalCache.Changed(currentUserId));
         log.info("Password changed successfully for user [ID: {}]", currentUserId);
 
         return UserResponseDTO.fromEntity(user);
@@ -179,6 +194,7 @@ public class UserService {
         }
 
         user.setPassword(passwordEncoder.encode(newPassword));
+        eventPublisher.publishEvent(new PrincipalCache.Changed(userId));
 
         User savedUser = userRepository.save(user);
         return UserResponseDTO.fromEntity(savedUser);
@@ -30,18 +30,10 @@ public class StudentSpecifications {
                 predicates.add(criteriaBuilder.isNull(root.get("deletedAt")));
             }
 
-            // Search filter
+            // Search filter: one LIKE over the generated search_text column, served by its trigram index
             if (search != null && !search.isBlank()) {
                 String searchTerm = "%" + search.toLowerCase() + "%";
-                Predicate searchPredicate = criteriaBuilder.or(
-                    criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), searchTerm),
-                    criteriaBuilder.like(criteriaBuilder.lower(root.get("surname")), searchTerm),
-                    criteriaBuilder.like(criteriaBuilder.lower(root.get("email")), searchTerm),
-                    criteriaBuilder.like(criteriaBuilder.lower(root.get("phone")), searchTerm),
-                    criteriaBuilder.like(criteriaBuilder.lower(criteriaBuilder.coalesce(root.get("profession"), "")), searchTerm)
-                );
-
-                predicates.add(searchPredicate);
+                predicates.add(criteriaBuilder.like(root.get("searchText"), searchTerm));
             }
 
             // Gender filter
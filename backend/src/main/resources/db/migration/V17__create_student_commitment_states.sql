@@ -0,0 +1,32 @@
+-- Materialized "current commitment per (student, series)" projection of the student_commitments event log.
+-- Each row is the status in force during [valid_from, valid_to); valid_to IS NULL marks the open-ended latest state.
+CREATE TABLE student_commitment_states (
+    id UUID PRIMARY KEY,
+    student_id UUID NOT NULL REFERENCES STUDENTS(STUDENT_ID),
+    session_series_id UUID NOT NULL REFERENCES trainer_schedules(id),
+    commitment_status VARCHAR(20) NOT NULL,
+    valid_from TIMESTAMP WITH TIME ZONE NOT NULL,
+    valid_to TIMESTAMP WITH TIME ZONE,
+    commitment_id UUID NOT NULL REFERENCES student_commitments(id),
+    CONSTRAINT uk_student_commitment_states_interval UNIQUE (student_id, session_series_id, valid_from)
+);
+
+-- Point-in-time probes: "who is committed to series S at T" and "what is student X committed to at T"
+CREATE INDEX idx_student_commitment_states_series_valid ON student_commitment_states (session_series_id, valid_from, valid_to);
+CREATE INDEX idx_student_commitment_states_student_valid ON student_commitment_states (student_id, valid_from, valid_to);
+
+-- Backfill from existing history; the latest event per effective instant wins (created_at, then id)
+INSERT INTO student_commitment_states (id, student_id, session_series_id, commitment_status, valid_from, valid_to, commitment_id)
+SELECT gen_random_uuid(),
+       latest.student_id,
+       latest.session_series_id,
+       latest.commitment_status,
+       latest.effective_from_timestamp,
+       LEAD(latest.effective_from_timestamp) OVER (
+           PARTITION BY latest.student_id, latest.session_series_id ORDER BY latest.effective_from_timestamp),
+       latest.id
+FROM (
+    SELECT DISTINCT ON (student_id, session_series_id, effective_from_timestamp) *
+    FROM student_commitments
+    ORDER BY student_id, session_series_id, effective_from_timestamp, created_at DESC, id DESC
+) latest;
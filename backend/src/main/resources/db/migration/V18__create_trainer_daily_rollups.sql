@@ -0,0 +1,19 @@
+-- Pre-aggregated trainer activity per day, so /reports does not re-expand the whole calendar
+CREATE TABLE trainer_daily_rollups (
+    id UUID PRIMARY KEY,
+    trainer_id UUID NOT NULL REFERENCES trainers(id) ON DELETE CASCADE,
+    day DATE NOT NULL,
+    hours DOUBLE PRECISION NOT NULL,
+    activities INTEGER NOT NULL,
+    student_ids UUID[] NOT NULL,
+    refreshed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_trainer_daily_rollups_trainer_day UNIQUE (trainer_id, day)
+);
+
+CREATE INDEX idx_trainer_daily_rollups_day ON trainer_daily_rollups (day);
+
+-- Days whose rollups are complete; a day without a row here is computed live from the calendar
+CREATE TABLE report_rollup_days (
+    day DATE PRIMARY KEY,
+    refreshed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,2 @@
+-- Keyset pagination of the event listing: (created_at, event_id) descending, newest first
+CREATE INDEX IF NOT EXISTS idx_events_created_at_id ON events (created_at DESC, event_id DESC);
@@ -0,0 +1,7 @@
+-- One lower-cased haystack per student so the search box is served by a single trigram index
+-- instead of five sequentially scanned lower(column) LIKE '%term%' predicates
+ALTER TABLE students ADD COLUMN search_text TEXT GENERATED ALWAYS AS (
+    lower(name || ' ' || surname || ' ' || email || ' ' || coalesce(phone, '') || ' ' || coalesce(profession, ''))
+) STORED;
+
+CREATE INDEX IF NOT EXISTS idx_students_search_text_trgm ON students USING GIN (search_text gin_trgm_ops);
@@ -0,0 +1,28 @@
+-- Registry of the weekday-qualified, date-less part of every session id a series has been addressed by:
+-- "<weekday>__<slug>__<start time>__<trainer id>" (canonical) and "<weekday>__<slug>__<start time>" (legacy).
+-- Rows are never rewritten on rename, so ids minted under an old series name keep resolving.
+CREATE TABLE session_keys (
+    id UUID PRIMARY KEY,
+    session_key VARCHAR(512) NOT NULL,
+    series_id UUID NOT NULL REFERENCES trainer_schedules(id) ON DELETE CASCADE,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_session_keys_key_series UNIQUE (session_key, series_id)
+);
+
+-- Backfill the current names; formats mirror SessionIds (LocalTime#toString drops zero seconds)
+WITH keyed AS (
+    SELECT id,
+           weekday || '__' || replace(lower(series_name), ' ', '-') || '__' ||
+           CASE WHEN extract(second FROM start_time) = 0 THEN to_char(start_time, 'HH24:MI')
+                ELSE to_char(start_time, 'HH24:MI:SS') END AS legacy_key,
+           coalesce(trainer_id::text, 'null') AS trainer_part
+    FROM trainer_schedules
+)
+INSERT INTO session_keys (id, session_key, series_id)
+SELECT gen_random_uuid(), k.session_key, k.id
+FROM (
+    SELECT id, legacy_key || '__' || trainer_part AS session_key FROM keyed
+    UNION
+    SELECT id, legacy_key FROM keyed
+) k
+ON CONFLICT (session_key, series_id) DO NOTHING;
@@ -0,0 +1,13 @@
+-- Append-only log of schedule writes read by GET /schedule/changes; the id doubles as the client's change token.
+-- Session-level rows name the touched instance and its day; series-level rows (commitments, schedule edits) name
+-- the series and, for commitments, the first affected day.
+CREATE TABLE schedule_changes (
+    id BIGSERIAL PRIMARY KEY,
+    change_type VARCHAR(32) NOT NULL,
+    scheduled_session_id UUID,
+    series_id UUID,
+    session_date DATE,
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_schedule_changes_changed_at ON schedule_changes (changed_at);
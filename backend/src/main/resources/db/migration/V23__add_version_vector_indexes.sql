@@ -0,0 +1,6 @@
+-- Supports the version vectors behind the schedule, session and report ETags
+-- (ScheduledSessionRepository#findScheduleVersion, EventRepository#findEventVersion)
+CREATE INDEX IF NOT EXISTS idx_student_commitments_created_at ON student_commitments (created_at);
+CREATE INDEX IF NOT EXISTS idx_students_updated_at ON students (updated_at);
+CREATE INDEX IF NOT EXISTS idx_participant_exercises_session_participant ON participant_exercises (session_participant_id);
+CREATE INDEX IF NOT EXISTS idx_events_event_date ON events (event_date);
@@ -0,0 +1,33 @@
+-- Composite indexes for the hot predicates of the scheduling tables created in V7.
+-- Partial on active where every query filtering the table also filters active; scheduled_sessions ranges and
+-- trainer_schedules lookups also read inactive rows (materializer, version vector, soft-deleted history), so
+-- those stay full.
+
+-- TrainerScheduleRepository: series of a weekday (and trainer) in effect at an instant
+CREATE INDEX IF NOT EXISTS idx_trainer_schedules_weekday_effective
+    ON trainer_schedules (weekday, effective_from_timestamp);
+CREATE INDEX IF NOT EXISTS idx_trainer_schedules_trainer_weekday_effective
+    ON trainer_schedules (trainer_id, weekday, effective_from_timestamp DESC);
+
+-- ScheduledSessionRepository: range scans, per-trainer range scans and per-series lookups
+CREATE INDEX IF NOT EXISTS idx_scheduled_sessions_start_end
+    ON scheduled_sessions (start_time, end_time);
+CREATE INDEX IF NOT EXISTS idx_scheduled_sessions_trainer_start_active
+    ON scheduled_sessions (trainer_id, start_time, end_time) WHERE active;
+CREATE INDEX IF NOT EXISTS idx_scheduled_sessions_series
+    ON scheduled_sessions (session_series_id);
+
+-- SessionParticipantRepository: overrides of a session (and student), a student's overrides; the plain
+-- foreign key index serves the ON DELETE CASCADE from scheduled_sessions and the version vector join
+CREATE INDEX IF NOT EXISTS idx_session_participants_session_student_active
+    ON session_participants (scheduled_session_id, student_id) WHERE active;
+CREATE INDEX IF NOT EXISTS idx_session_participants_student_active
+    ON session_participants (student_id) WHERE active;
+CREATE INDEX IF NOT EXISTS idx_session_participants_session
+    ON session_participants (scheduled_session_id);
+
+-- StudentCommitmentRepository: latest commitment of a student to a series at an instant, and a series' history
+CREATE INDEX IF NOT EXISTS idx_student_commitments_student_series_effective
+    ON student_commitments (student_id, session_series_id, effective_from_timestamp DESC);
+CREATE INDEX IF NOT EXISTS idx_student_commitments_series_effective
+    ON student_commitments (session_series_id, effective_from_timestamp);
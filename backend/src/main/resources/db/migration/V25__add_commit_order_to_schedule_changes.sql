@@ -0,0 +1,6 @@
+-- Change tokens follow commit order. Ids are drawn before commit, so a transaction holding id 10 can commit after
+-- one holding id 11 and a client synced in between would never see 10. Each row now records its writing
+-- transaction, and clients resume from a watermark below which every transaction has finished.
+ALTER TABLE schedule_changes ADD COLUMN txid BIGINT NOT NULL DEFAULT (pg_current_xact_id()::text::bigint);
+
+CREATE INDEX idx_schedule_changes_txid ON schedule_changes (txid);
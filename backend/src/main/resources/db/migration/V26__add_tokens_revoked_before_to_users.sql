@@ -0,0 +1,6 @@
+-- Shared "revoked before" instant for the stateless claims mode: access tokens of the user issued
+-- at or before it are rejected by every backend instance
+ALTER TABLE users ADD COLUMN tokens_revoked_before TIMESTAMP;
+
+CREATE INDEX idx_users_tokens_revoked_before ON users (tokens_revoked_before)
+    WHERE tokens_revoked_before IS NOT NULL;
@@ -0,0 +1,6 @@
+-- Wide activity changes used to delete the markers of every day they touched, and the nightly job only repairs its
+-- horizon, so older rollups were lost for good. Those days are now flagged stale instead: reports compute them live
+-- and the nightly job re-rolls every stale day, however old.
+ALTER TABLE report_rollup_days ADD COLUMN stale BOOLEAN NOT NULL DEFAULT FALSE;
+
+CREATE INDEX idx_report_rollup_days_stale ON report_rollup_days (day) WHERE stale;
@@ -0,0 +1,3 @@
+-- tokens_revoked_before holds an instant, like the other instant columns of this series. Existing values were
+-- written through the same JDBC session time zone this migration runs in, so the implicit conversion keeps them.
+ALTER TABLE users ALTER COLUMN tokens_revoked_before TYPE TIMESTAMP WITH TIME ZONE;
@@ -0,0 +1,407 @@
+package org.conexaotreinamento.conexaotreinamentobackend.integration.load;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.conexaotreinamento.conexaotreinamentobackend.config.TestContainerConfig;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.service.StudentCommitmentStateService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerScheduleIndex;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerScheduleService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Drives the real application (production security chain, Flyway schema) on a Testcontainers Postgres with a mixed
+ * gym workload: trainers log in, open the week calendar, toggle presence, log exercises and search students, and
+ * the admin pulls month-end reports. Students are generated from the db/sample_students.sql fixtures. Reports
+ * p50/p95/p99 latency and throughput per endpoint, also written to target/load-test/report.csv, and fails when
+ * more than 1% of an endpoint's requests fail. Opt-in because it needs Docker and takes minutes:
+ * {@code mvn test -Dtest=GymLoadTest -DloadTest=true [-DloadTest.users=50 -DloadTest.duration=PT2M]}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.jwt.secret=loadTestSecretKeyForJWTTokenGeneration1234567890123456789012345678",
+        "spring.jpa.show-sql=false",
+        "logging.level.root=WARN",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.org.springframework.security.oauth2=WARN"
+})
+@Import(TestContainerConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "loadTest", matches = "true")
+@DisplayName("Gym load test")
+class GymLoadTest {
+
+    private static final int STUDENTS = 50_000;
+    private static final int TRAINERS = 200;
+    private static final int SERIES_PER_TRAINER = 10;
+    private static final int COMMITMENTS_PER_STUDENT = 2;
+    private static final int EXERCISES = 40;
+    private static final String PASSWORD = "load-test-password";
+    private static final double MAX_ERROR_RATE = 0.01;
+    // Virtual users log in again after this many actions, as a token refresh would
+    private static final int ACTIONS_PER_LOGIN = 50;
+
+    // Share of each action in a virtual user's mix; reports are pulled by the admin user only
+    private static final Map<String, Integer> MIX = Map.of(
+            "GET /schedule", 35,
+            "POST /schedule/sessions/{id}/participants/{studentId}/presence", 25,
+            "POST /schedule/sessions/{id}/participants/{studentId}/exercises", 15,
+            "GET /students/search", 25);
+
+    // One fixture row: quoted strings, NULL or DATE('...'), in sample_students.sql column order
+    private static final Pattern FIXTURE_ROW = Pattern.compile("^\\('.*\\),?;?$");
+    private static final Pattern FIXTURE_VALUE = Pattern.compile("DATE\\('([^']*)'\\)|'((?:[^']|'')*)'|NULL");
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TrainerScheduleService trainerScheduleService;
+
+    @Autowired
+    private TrainerScheduleIndex trainerScheduleIndex;
+
+    @Autowired
+    private StudentCommitmentStateService studentCommitmentStateService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final Map<String, List<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> failures = new ConcurrentHashMap<>();
+
+    private final List<UUID> trainerIds = new ArrayList<>();
+    private final List<String> trainerEmails = new ArrayList<>();
+    private final List<UUID> exerciseIds = new ArrayList<>();
+    private final List<String> searchTerms = new ArrayList<>();
+    // Per trainer: this week's (session id, committed student) pairs of the trainer's own series
+    private final List<List<String[]>> attendanceByTrainer = new ArrayList<>();
+    private LocalDate weekStart;
+
+    private record Fixture(String name, String surname, String gender, LocalDate birthDate, String neighborhood,
+            String objectives) {
+    }
+
+    @BeforeAll
+    void seed() throws IOException {
+        Random random = new Random(42);
+        weekStart = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+
+        jdbcTemplate.update("INSERT INTO users (id, email, password, role) VALUES (?, ?, ?, 'ROLE_ADMIN')",
+                UUID.randomUUID(), "load-admin@test.com", passwordHash);
+
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> trainers = new ArrayList<>();
+        for (int i = 0; i < TRAINERS; i++) {
+            UUID userId = UUID.randomUUID();
+            UUID trainerId = UUID.randomUUID();
+            String email = "load-trainer-" + i + "@test.com";
+            trainerEmails.add(email);
+            trainerIds.add(trainerId);
+            users.add(new Object[] {userId, email, passwordHash});
+            trainers.add(new Object[] {trainerId, userId, "Trainer " + i, "HOURLY"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, role) VALUES (?, ?, ?, 'ROLE_TRAINER')", users);
+        jdbcTemplate.batchUpdate("INSERT INTO trainers (id, user_id, name, compensation_type) VALUES (?, ?, ?, ?)", trainers);
+
+        List<Object[]> exercises = new ArrayList<>();
+        for (int i = 0; i < EXERCISES; i++) {
+            UUID id = UUID.randomUUID();
+            exerciseIds.add(id);
+            exercises.add(new Object[] {id, "Exercício " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO exercises (id, name) VALUES (?, ?)", exercises);
+
+        // Series go through the service so the session-key registry and schedule index see them
+        List<TrainerSchedule> series = new ArrayList<>();
+        for (int t = 0; t < TRAINERS; t++) {
+            for (int s = 0; s < SERIES_PER_TRAINER; s++) {
+                TrainerSchedule schedule = new TrainerSchedule();
+                schedule.setTrainerId(trainerIds.get(t));
+                schedule.setWeekday(1 + s % 6);
+                schedule.setStartTime(LocalTime.of(6 + (s * 3 + t) % 15, 0));
+                schedule.setIntervalDuration(60);
+                schedule.setSeriesName("turma-" + t + "-" + s);
+                series.add(trainerScheduleService.createSchedule(schedule));
+            }
+        }
+        // Backdate them so this week's sessions and the commitments below are all in effect
+        jdbcTemplate.update("UPDATE trainer_schedules SET effective_from_timestamp = ?",
+                Timestamp.from(Instant.now().minus(365, ChronoUnit.DAYS)));
+        trainerScheduleIndex.invalidate();
+
+        List<Fixture> fixtures = loadFixtures();
+        fixtures.forEach(f -> {
+            searchTerms.add(f.surname().toLowerCase());
+            searchTerms.add(f.name().toLowerCase());
+        });
+        List<Object[]> students = new ArrayList<>();
+        List<Object[]> commitments = new ArrayList<>();
+        Map<Integer, List<UUID>> studentsBySeries = new TreeMap<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            Fixture fixture = fixtures.get(i % fixtures.size());
+            UUID studentId = UUID.randomUUID();
+            students.add(new Object[] {studentId, fixture.name(), fixture.surname(),
+                    (fixture.name() + "." + fixture.surname() + "." + i + "@example.com").toLowerCase(),
+                    "(11) 9%04d-%04d".formatted(random.nextInt(10_000), random.nextInt(10_000)),
+                    Date.valueOf(fixture.birthDate().plusDays(i % 3650)), fixture.gender(), fixture.neighborhood(),
+                    Date.valueOf(LocalDate.now().minusDays(random.nextInt(1000))), fixture.objectives()});
+            for (int c = 0; c < COMMITMENTS_PER_STUDENT; c++) {
+                int seriesIndex = random.nextInt(series.size());
+                studentsBySeries.computeIfAbsent(seriesIndex, k -> new ArrayList<>()).add(studentId);
+                Timestamp effectiveFrom = Timestamp.from(Instant.now().minus(30 + random.nextInt(300), ChronoUnit.DAYS));
+                commitments.add(new Object[] {UUID.randomUUID(), studentId, series.get(seriesIndex).getId(), effectiveFrom, effectiveFrom});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO students (student_id, name, surname, email, phone, birth_date, gender, "
+                + "neighborhood, registration_date, objectives) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", students);
+        jdbcTemplate.batchUpdate("INSERT INTO student_commitments (id, student_id, session_series_id, commitment_status, "
+                + "effective_from_timestamp, created_at) VALUES (?, ?, ?, 'ATTENDING', ?, ?)", commitments);
+        studentCommitmentStateService.rebuild();
+
+        for (int t = 0; t < TRAINERS; t++) {
+            List<String[]> attendance = new ArrayList<>();
+            for (int s = 0; s < SERIES_PER_TRAINER; s++) {
+                int seriesIndex = t * SERIES_PER_TRAINER + s;
+                TrainerSchedule schedule = series.get(seriesIndex);
+                LocalDate date = weekStart.plusDays(schedule.getWeekday() - 1L);
+                String sessionId = String.join("__", schedule.getSeriesName(), date.toString(),
+                        schedule.getStartTime().toString(), schedule.getTrainerId().toString());
+                studentsBySeries.getOrDefault(seriesIndex, List.of())
+                        .forEach(studentId -> attendance.add(new String[] {sessionId, studentId.toString()}));
+            }
+            attendanceByTrainer.add(attendance);
+        }
+        List.of("students", "student_commitments", "student_commitment_states", "trainer_schedules")
+                .forEach(table -> jdbcTemplate.execute("ANALYZE " + table));
+    }
+
+    @Test
+    void mixedGymTraffic() throws Exception {
+        int users = Integer.getInteger("loadTest.users", 50);
+        Duration duration = Duration.parse(System.getProperty("loadTest.duration", "PT1M"));
+        Instant deadline = Instant.now().plus(duration);
+
+        long started = System.nanoTime();
+        try (ExecutorService virtualUsers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int user = 0; user < users; user++) {
+                int trainer = user % TRAINERS;
+                long seed = 42L + user;
+                virtualUsers.submit(() -> trainerSession(trainer, new Random(seed), deadline));
+            }
+            virtualUsers.submit(() -> adminSession(deadline));
+        }
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        List<String> report = report(users, elapsedSeconds);
+        Path csv = Path.of("target", "load-test", "report.csv");
+        Files.createDirectories(csv.getParent());
+        Files.write(csv, report);
+
+        List<String> failing = new ArrayList<>();
+        latencies.forEach((endpoint, samples) -> {
+            long failed = failures.getOrDefault(endpoint, new AtomicLong()).get();
+            if (failed > samples.size() * MAX_ERROR_RATE) {
+                failing.add("%s: %d of %d requests failed".formatted(endpoint, failed, samples.size()));
+            }
+        });
+        assertTrue(failing.isEmpty(), String.join("\n", failing));
+    }
+
+    // A trainer at the front desk: log in, then work through the mix for the rest of the run
+    private Void trainerSession(int trainer, Random random, Instant deadline) throws Exception {
+        List<String[]> attendance = attendanceByTrainer.get(trainer);
+        String token = null;
+        for (int action = 0; Instant.now().isBefore(deadline); action++) {
+            if (action % ACTIONS_PER_LOGIN == 0) {
+                token = login(trainerEmails.get(trainer));
+            }
+            String endpoint = pick(random);
+            String[] pair = attendance.isEmpty() ? null : attendance.get(random.nextInt(attendance.size()));
+            switch (endpoint) {
+                case "GET /schedule" -> send(endpoint, token, get("/schedule?startDate=" + weekStart
+                        + "&endDate=" + weekStart.plusDays(6)));
+                case "POST /schedule/sessions/{id}/participants/{studentId}/presence" -> {
+                    if (pair != null) {
+                        send(endpoint, token, post("/schedule/sessions/" + pair[0] + "/participants/" + pair[1] + "/presence",
+                                Map.of("present", random.nextBoolean())));
+                    }
+                }
+                case "POST /schedule/sessions/{id}/participants/{studentId}/exercises" -> {
+                    if (pair != null) {
+                        send(endpoint, token, post("/schedule/sessions/" + pair[0] + "/participants/" + pair[1] + "/exercises",
+                                Map.of("exerciseId", exerciseIds.get(random.nextInt(exerciseIds.size())),
+                                        "setsCompleted", 3, "repsCompleted", 8 + random.nextInt(8),
+                                        "weightCompleted", 10.0 + random.nextInt(60), "done", true)));
+                    }
+                }
+                default -> send(endpoint, token, get("/students/search?q="
+                        + searchTerms.get(random.nextInt(searchTerms.size()))));
+            }
+        }
+        return null;
+    }
+
+    // The admin closing the month: the month's report for every trainer, then one trainer at a time
+    private Void adminSession(Instant deadline) throws Exception {
+        String token = login("load-admin@test.com");
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+        LocalDate monthEnd = monthStart.with(TemporalAdjusters.lastDayOfMonth());
+        Random random = new Random(7);
+        while (Instant.now().isBefore(deadline)) {
+            String trainerFilter = random.nextInt(4) == 0 ? "" : "&trainerId=" + trainerIds.get(random.nextInt(TRAINERS));
+            send("GET /reports", token, get("/reports?startDate=" + monthStart.atStartOfDay()
+                    + "&endDate=" + monthEnd.atTime(23, 59, 59) + trainerFilter));
+        }
+        return null;
+    }
+
+    private String login(String email) throws Exception {
+        HttpResponse<String> response = send("POST /auth/login", null,
+                post("/auth/login", Map.of("email", email, "password", PASSWORD)));
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpResponse<String> send(String endpoint, String token, HttpRequest.Builder request) throws Exception {
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        long started = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        long elapsed = System.nanoTime() - started;
+        latencies.computeIfAbsent(endpoint, k -> Collections.synchronizedList(new ArrayList<>())).add(elapsed);
+        if (response.statusCode() >= 400) {
+            failures.computeIfAbsent(endpoint, k -> new AtomicLong()).incrementAndGet();
+        }
+        return response;
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, Map<String, ?> body) throws IOException {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+    }
+
+    private static String pick(Random random) {
+        int roll = random.nextInt(MIX.values().stream().mapToInt(Integer::intValue).sum());
+        for (Map.Entry<String, Integer> entry : new TreeMap<>(MIX).entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    private List<String> report(int users, double elapsedSeconds) {
+        List<String> csv = new ArrayList<>();
+        csv.add("endpoint,requests,failed,throughput_rps,p50_ms,p95_ms,p99_ms");
+        System.out.printf("%nGym load (%d students, %d trainers, %d virtual users, %.0f s)%n", STUDENTS, TRAINERS, users, elapsedSeconds);
+        System.out.printf("%-66s %9s %7s %9s %9s %9s %9s%n", "endpoint", "requests", "failed", "req/s", "p50 ms", "p95 ms", "p99 ms");
+        new TreeMap<>(latencies).forEach((endpoint, samples) -> {
+            long[] sorted;
+            synchronized (samples) {
+                sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+            }
+            long failed = failures.getOrDefault(endpoint, new AtomicLong()).get();
+            double throughput = sorted.length / elapsedSeconds;
+            double p50 = percentile(sorted, 0.50);
+            double p95 = percentile(sorted, 0.95);
+            double p99 = percentile(sorted, 0.99);
+            System.out.printf("%-66s %9d %7d %9.1f %9.2f %9.2f %9.2f%n", endpoint, sorted.length, failed, throughput, p50, p95, p99);
+            csv.add("%s,%d,%d,%.2f,%.2f,%.2f,%.2f".formatted(endpoint, sorted.length, failed, throughput, p50, p95, p99));
+        });
+        return csv;
+    }
+
+    // Nearest-rank percentile in milliseconds
+    private static double percentile(long[] sortedNanos, double quantile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, rank)] / 1_000_000.0;
+    }
+
+    private static List<Fixture> loadFixtures() throws IOException {
+        String sql = new ClassPathResource("db/sample_students.sql").getContentAsString(StandardCharsets.UTF_8);
+        List<Fixture> fixtures = new ArrayList<>();
+        for (String line : sql.split("\\R")) {
+            if (!FIXTURE_ROW.matcher(line.trim()).matches()) {
+                continue;
+            }
+            List<String> values = new ArrayList<>();
+            Matcher matcher = FIXTURE_VALUE.matcher(line);
+            while (matcher.find()) {
+                values.add(matcher.group(1) != null ? matcher.group(1)
+                        : matcher.group(2) != null ? matcher.group(2).replace("''", "'") : null);
+            }
+            // STUDENT_ID, NAME, SURNAME, EMAIL, PHONE, BIRTH_DATE, GENDER, STREET, NUMBER, COMPLEMENT, NEIGHBORHOOD, CEP,
+            // REGISTRATION_DATE, EMERGENCY_CONTACT_NAME, EMERGENCY_CONTACT_PHONE, EMERGENCY_CONTACT_RELATIONSHIP, OBJECTIVES
+            if (values.size() >= 17) {
+                fixtures.add(new Fixture(values.get(1), values.get(2), values.get(6), LocalDate.parse(values.get(5)),
+                        values.get(10), values.get(16)));
+            }
+        }
+        if (fixtures.isEmpty()) {
+            throw new IllegalStateException("No student fixtures found in db/sample_students.sql");
+        }
+        return fixtures;
+    }
+}
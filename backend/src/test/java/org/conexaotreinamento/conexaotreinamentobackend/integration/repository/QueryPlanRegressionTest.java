@@ -0,0 +1,403 @@
+package org.conexaotreinamento.conexaotreinamentobackend.integration.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.conexaotreinamento.conexaotreinamentobackend.config.QueryCountInspector;
+import org.conexaotreinamento.conexaotreinamentobackend.config.TestContainerConfig;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.CommitmentStatus;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ScheduledSessionRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.SessionParticipantRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentCommitmentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Runs {@code EXPLAIN (ANALYZE, BUFFERS)} for the repository queries over the scheduling tables against a seeded
+ * data set and fails on sequential scans that discard nearly the whole table (a missing index) and on planner
+ * costs grown past {@code query-plans/baseline.properties}. Each case calls the repository method and replays the
+ * SQL Hibernate prepared for it (captured by {@link QueryCountInspector}) on a schema built by the Flyway
+ * migrations alone, so the plans are the ones production gets. Opt-in because it needs Docker and takes a while:
+ * {@code mvn test -Dtest=QueryPlanRegressionTest -DqueryPlans=true}; add {@code -DqueryPlans.record=true} to
+ * rewrite the baseline from the run after an intended plan change.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@ActiveProfiles("test")
+@Import(TestContainerConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "queryPlans", matches = "true")
+@DisplayName("Query plan regression")
+class QueryPlanRegressionTest {
+
+    private static final int TRAINERS = 120;
+    private static final int SLOTS_PER_WEEKDAY = 6;
+    private static final int VERSIONS_PER_SERIES = 3;
+    private static final int STUDENTS = 5_000;
+    private static final int COMMITMENTS_PER_STUDENT = 12;
+    private static final int PARTICIPANTS_PER_SESSION = 2;
+    private static final int WEEKS = 26;
+
+    // A sequential scan keeping less than this share of the rows it reads should have been an index scan
+    private static final double MIN_SEQ_SCAN_SELECTIVITY = 0.05;
+    private static final double COST_TOLERANCE = 1.5;
+    private static final Set<String> TEMPORAL_TABLES = Set.of(
+            "trainer_schedules", "scheduled_sessions", "session_participants", "student_commitments");
+    private static final LocalDate FIRST_MONDAY = LocalDate.of(2025, 3, 3);
+    private static final Instant NOW = Instant.parse("2025-09-01T12:00:00Z");
+    private static final String BASELINE_HEADER = """
+            # Planner total cost per QueryPlanRegressionTest case against its seeded data set (PostgreSQL 16).
+            # A case fails when its cost grows past baseline x 1.5, or when it has no baseline.
+            # Refresh after an intended plan change: mvn test -Dtest=QueryPlanRegressionTest -DqueryPlans=true -DqueryPlans.record=true
+            """;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TrainerScheduleRepository trainerScheduleRepository;
+
+    @Autowired
+    private ScheduledSessionRepository scheduledSessionRepository;
+
+    @Autowired
+    private SessionParticipantRepository sessionParticipantRepository;
+
+    @Autowired
+    private StudentCommitmentRepository studentCommitmentRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private UUID trainerId;
+    private UUID seriesId;
+    private UUID studentId;
+    private UUID scheduledSessionId;
+    private String sessionId;
+    private List<UUID> daySessionIds;
+
+    // The repository call and, in the order of the placeholders of the SQL it prepares, the values it binds
+    private record PlanCase(String name, Runnable query, Object... args) {
+    }
+
+    private record Plan(double totalCost, double actualMillis, long sharedHit, long sharedRead, List<String> wastefulScans) {
+    }
+
+    @BeforeAll
+    void seed() {
+        Random random = new Random(42);
+        Timestamp created = Timestamp.from(NOW.minus(200, ChronoUnit.DAYS));
+
+        List<UUID> trainerIds = new ArrayList<>();
+        List<Object[]> users = new ArrayList<>();
+        List<Object[]> trainers = new ArrayList<>();
+        for (int i = 0; i < TRAINERS; i++) {
+            UUID userId = UUID.randomUUID();
+            UUID id = UUID.randomUUID();
+            trainerIds.add(id);
+            users.add(new Object[] {userId, "plan-trainer-" + i + "@test.com", "password", "ROLE_TRAINER", created});
+            trainers.add(new Object[] {id, userId, "Trainer " + i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (id, email, password, role, created_at) VALUES (?, ?, ?, ?, ?)", users);
+        jdbcTemplate.batchUpdate("INSERT INTO trainers (id, user_id, name) VALUES (?, ?, ?)", trainers);
+
+        // Every series has earlier, soft-deleted versions behind its current one
+        record Series(UUID id, UUID trainerId, int weekday, LocalTime start, String name) {
+        }
+        List<Series> series = new ArrayList<>();
+        List<Object[]> schedules = new ArrayList<>();
+        for (UUID trainer : trainerIds) {
+            for (int weekday = 0; weekday < 7; weekday++) {
+                for (int slot = 0; slot < SLOTS_PER_WEEKDAY; slot++) {
+                    LocalTime start = LocalTime.of(6 + slot * 2, 0);
+                    String name = "series-" + series.size();
+                    for (int version = 0; version < VERSIONS_PER_SERIES; version++) {
+                        boolean current = version == VERSIONS_PER_SERIES - 1;
+                        UUID id = UUID.randomUUID();
+                        Timestamp effectiveFrom = Timestamp.from(NOW.minus(180 - version * 30L, ChronoUnit.DAYS));
+                        schedules.add(new Object[] {id, trainer, weekday, Time.valueOf(start), 60, name, effectiveFrom, created, created,
+                                current ? null : Timestamp.from(NOW.minus(150 - version * 30L, ChronoUnit.DAYS)), current});
+                        if (current) {
+                            series.add(new Series(id, trainer, weekday, start, name));
+                        }
+                    }
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO trainer_schedules (id, trainer_id, weekday, start_time, interval_duration, series_name, "
+                + "effective_from_timestamp, created_at, updated_at, deleted_at, active) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", schedules);
+
+        List<UUID> studentIds = new ArrayList<>();
+        List<Object[]> students = new ArrayList<>();
+        for (int i = 0; i < STUDENTS; i++) {
+            UUID id = UUID.randomUUID();
+            studentIds.add(id);
+            students.add(new Object[] {id, "plan-student-" + i + "@test.com", "Student", "Plan " + i, "F",
+                    Date.valueOf(LocalDate.of(1990, 1, 1)), Date.valueOf(LocalDate.of(2025, 1, 1)), created});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO students (student_id, email, name, surname, gender, birth_date, registration_date, "
+                + "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", students);
+
+        List<Object[]> commitments = new ArrayList<>();
+        for (UUID student : studentIds) {
+            for (int i = 0; i < COMMITMENTS_PER_STUDENT; i++) {
+                Series committed = series.get(random.nextInt(series.size()));
+                Timestamp effectiveFrom = Timestamp.from(NOW.minus(random.nextInt(180), ChronoUnit.DAYS));
+                commitments.add(new Object[] {UUID.randomUUID(), student, committed.id(),
+                        i % 4 == 3 ? "NOT_ATTENDING" : "ATTENDING", effectiveFrom, effectiveFrom});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO student_commitments (id, student_id, session_series_id, commitment_status, "
+                + "effective_from_timestamp, created_at) VALUES (?, ?, ?, ?, ?, ?)", commitments);
+
+        // One persisted instance per occurrence, as the materializer leaves them, with a couple of overrides each
+        List<Object[]> sessions = new ArrayList<>();
+        List<Object[]> participants = new ArrayList<>();
+        for (int week = 0; week < WEEKS; week++) {
+            for (Series s : series) {
+                LocalDate date = FIRST_MONDAY.plusWeeks(week).plusDays((s.weekday() + 6) % 7);
+                LocalDateTime start = date.atTime(s.start());
+                UUID id = UUID.randomUUID();
+                sessions.add(new Object[] {id, s.id(), s.name() + "__" + date + "__" + s.start() + "__" + s.trainerId(),
+                        s.trainerId(), Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)), false, s.name(),
+                        true, Timestamp.valueOf(start), created, created, true});
+                for (int p = 0; p < PARTICIPANTS_PER_SESSION; p++) {
+                    participants.add(new Object[] {UUID.randomUUID(), id, studentIds.get(random.nextInt(STUDENTS)),
+                            p == 0 ? "INCLUDED" : "EXCLUDED", p == 0, created, created, random.nextInt(10) != 0});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO scheduled_sessions (id, session_series_id, session_id, trainer_id, start_time, end_time, "
+                + "canceled, series_name, instance_override, effective_from_timestamp, created_at, updated_at, active) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", sessions);
+        jdbcTemplate.batchUpdate("INSERT INTO session_participants (id, scheduled_session_id, student_id, participation_type, "
+                + "is_present, created_at, updated_at, active) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", participants);
+
+        TEMPORAL_TABLES.forEach(table -> jdbcTemplate.execute("ANALYZE " + table));
+
+        Series probe = series.get(series.size() / 2);
+        Object[] probeSession = sessions.get(sessions.size() / 2);
+        trainerId = probe.trainerId();
+        seriesId = probe.id();
+        studentId = (UUID) commitments.get(commitments.size() / 2)[1];
+        scheduledSessionId = (UUID) probeSession[0];
+        sessionId = (String) probeSession[2];
+        LocalDateTime day = FIRST_MONDAY.plusWeeks(10).atStartOfDay();
+        daySessionIds = jdbcTemplate.queryForList("SELECT id FROM scheduled_sessions WHERE start_time >= ? AND start_time < ?",
+                UUID.class, Timestamp.valueOf(day), Timestamp.valueOf(day.plusDays(1)));
+    }
+
+    private List<PlanCase> cases() {
+        LocalDateTime weekStart = FIRST_MONDAY.plusWeeks(10).atStartOfDay();
+        LocalDateTime weekEnd = FIRST_MONDAY.plusWeeks(10).plusDays(6).atTime(23, 59, 59);
+        List<PlanCase> cases = new ArrayList<>(List.of(
+                // TrainerScheduleRepository
+                new PlanCase("trainer_schedules.byTrainerAndWeekdayAt",
+                        () -> trainerScheduleRepository.findByTrainerIdAndWeekdayAndEffectiveFromTimestampLessThanEqualOrderByEffectiveFromTimestampDesc(
+                                trainerId, 2, NOW),
+                        trainerId, 2, NOW, NOW),
+                new PlanCase("trainer_schedules.byWeekdayAt",
+                        () -> trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(2, NOW),
+                        2, NOW, NOW),
+                new PlanCase("trainer_schedules.byTrainerActive",
+                        () -> trainerScheduleRepository.findByTrainerIdAndActiveTrue(trainerId), trainerId),
+                // ScheduledSessionRepository
+                new PlanCase("scheduled_sessions.bySessionIdActive",
+                        () -> scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId), sessionId),
+                new PlanCase("scheduled_sessions.bySeriesActive",
+                        () -> scheduledSessionRepository.findBySessionSeriesIdAndActiveTrue(seriesId), seriesId),
+                new PlanCase("scheduled_sessions.rangeActive",
+                        () -> scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(weekStart, weekEnd), weekStart, weekEnd),
+                new PlanCase("scheduled_sessions.range",
+                        () -> scheduledSessionRepository.findByStartTimeBetween(weekStart, weekEnd), weekStart, weekEnd),
+                new PlanCase("scheduled_sessions.trainerRangeActive",
+                        () -> scheduledSessionRepository.findByTrainerIdAndStartTimeBetweenAndActiveTrue(trainerId, weekStart, weekEnd),
+                        trainerId, weekStart, weekEnd),
+                new PlanCase("scheduled_sessions.forTrainerInRange",
+                        () -> scheduledSessionRepository.findForTrainerInRange(trainerId, weekStart, weekEnd),
+                        trainerId, trainerId, weekStart, weekEnd),
+                new PlanCase("scheduled_sessions.seriesInRange",
+                        () -> scheduledSessionRepository.findBySessionSeriesIdInRange(List.of(seriesId), weekStart, weekEnd),
+                        seriesId, weekStart, weekEnd),
+                new PlanCase("scheduled_sessions.busyOutsideOwnSeries",
+                        () -> scheduledSessionRepository.findBusyOutsideOwnSeries(trainerId), trainerId, trainerId),
+                new PlanCase("scheduled_sessions.releasedFromOwnSeries",
+                        () -> scheduledSessionRepository.findReleasedFromOwnSeries(trainerId), trainerId, trainerId),
+                new PlanCase("scheduled_sessions.deletePristineBySeries",
+                        () -> scheduledSessionRepository.deletePristineBySessionSeriesId(seriesId), seriesId),
+                // SessionParticipantRepository
+                new PlanCase("session_participants.bySessionActive",
+                        () -> sessionParticipantRepository.findByScheduledSession_IdAndActiveTrue(scheduledSessionId), scheduledSessionId),
+                new PlanCase("session_participants.byStudentActive",
+                        () -> sessionParticipantRepository.findByStudentIdAndActiveTrue(studentId), studentId),
+                new PlanCase("session_participants.bySessionAndStudentActive",
+                        () -> sessionParticipantRepository.findByScheduledSession_IdAndStudentIdAndActiveTrue(scheduledSessionId, studentId),
+                        scheduledSessionId, studentId),
+                new PlanCase("session_participants.byStudentInRange",
+                        () -> sessionParticipantRepository.findByStudentIdInRange(studentId, weekStart, weekEnd),
+                        studentId, weekStart, weekEnd),
+                // StudentCommitmentRepository
+                new PlanCase("student_commitments.byStudent",
+                        () -> studentCommitmentRepository.findByStudentId(studentId), studentId),
+                new PlanCase("student_commitments.bySeries",
+                        () -> studentCommitmentRepository.findBySessionSeriesId(seriesId), seriesId),
+                new PlanCase("student_commitments.byStudentAndSeriesAt",
+                        () -> studentCommitmentRepository.findByStudentIdAndSessionSeriesIdAndEffectiveFromTimestampLessThanEqualOrderByEffectiveFromTimestampDesc(
+                                studentId, seriesId, NOW),
+                        studentId, seriesId, NOW),
+                new PlanCase("student_commitments.byStudentAndStatusAt",
+                        () -> studentCommitmentRepository.findByStudentIdAndCommitmentStatusAndEffectiveFromTimestampLessThanEqual(
+                                studentId, CommitmentStatus.ATTENDING, NOW),
+                        studentId, CommitmentStatus.ATTENDING, NOW)));
+        // The participants of one day's instances, as the schedule expansion loads them
+        cases.add(new PlanCase("session_participants.bySessionsActive",
+                () -> sessionParticipantRepository.findByScheduledSession_IdInAndActiveTrue(daySessionIds), daySessionIds.toArray()));
+        return cases;
+    }
+
+    @Test
+    void repositoryQueries_useIndexesAndStayWithinCostBaseline() throws IOException {
+        boolean record = Boolean.getBoolean("queryPlans.record");
+        Properties baseline = loadBaseline();
+        TreeMap<String, String> observed = new TreeMap<>();
+        List<String> failures = new ArrayList<>();
+
+        System.out.printf("%nQuery plans (%d series, %d students)%n", TRAINERS * 7 * SLOTS_PER_WEEKDAY, STUDENTS);
+        System.out.printf("%-48s %12s %12s %10s %10s%n", "query", "cost", "actual ms", "hit", "read");
+        for (PlanCase planCase : cases()) {
+            Plan plan = explain(planCase);
+            observed.put(planCase.name(), String.format("%.2f", plan.totalCost()));
+            System.out.printf("%-48s %12.2f %12.3f %10d %10d%n", planCase.name(), plan.totalCost(), plan.actualMillis(),
+                    plan.sharedHit(), plan.sharedRead());
+
+            plan.wastefulScans().forEach(scan -> failures.add(planCase.name() + ": " + scan));
+            String limit = baseline.getProperty(planCase.name());
+            if (record) {
+                continue;
+            }
+            if (limit == null) {
+                failures.add("%s: no baseline, record one with -DqueryPlans.record=true".formatted(planCase.name()));
+            } else if (plan.totalCost() > Double.parseDouble(limit) * COST_TOLERANCE) {
+                failures.add("%s: cost %.2f exceeds baseline %s x %.1f".formatted(planCase.name(), plan.totalCost(), limit, COST_TOLERANCE));
+            }
+        }
+        writeObserved(observed, record);
+
+        assertTrue(failures.isEmpty(), String.join("\n", failures));
+    }
+
+    // The repository call and the plan each run in a rolled-back transaction, so modifying queries leave the data set untouched
+    private Plan explain(PlanCase planCase) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<String> statements = transaction.execute(status -> {
+            status.setRollbackOnly();
+            return QueryCountInspector.capture(planCase.query());
+        });
+        assertFalse(statements.isEmpty(), planCase.name() + ": the repository call issued no SQL");
+        // The first statement is the query itself; any later ones load associations of its rows
+        String sql = statements.get(0);
+        Object[] args = Arrays.stream(planCase.args()).map(QueryPlanRegressionTest::jdbcValue).toArray();
+        assertEquals(args.length, sql.chars().filter(c -> c == '?').count(), planCase.name() + ": placeholders of " + sql);
+        String json = transaction.execute(status -> {
+            status.setRollbackOnly();
+            return jdbcTemplate.queryForObject("EXPLAIN (ANALYZE, BUFFERS, FORMAT JSON) " + sql, String.class, args);
+        });
+        try {
+            JsonNode root = objectMapper.readTree(json).get(0).get("Plan");
+            List<String> wastefulScans = new ArrayList<>();
+            collectWastefulScans(root, wastefulScans);
+            return new Plan(root.get("Total Cost").asDouble(), root.get("Actual Total Time").asDouble(),
+                    root.path("Shared Hit Blocks").asLong(), root.path("Shared Read Blocks").asLong(), wastefulScans);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable plan for " + planCase.name() + ": " + json, e);
+        }
+    }
+
+    private static Object jdbcValue(Object value) {
+        if (value instanceof Instant instant) {
+            return Timestamp.from(instant);
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return Timestamp.valueOf(dateTime);
+        }
+        if (value instanceof Enum<?> constant) {
+            return constant.name();
+        }
+        return value;
+    }
+
+    private static void collectWastefulScans(JsonNode node, List<String> wastefulScans) {
+        String relation = node.path("Relation Name").asText();
+        if ("Seq Scan".equals(node.path("Node Type").asText()) && TEMPORAL_TABLES.contains(relation)) {
+            double kept = node.path("Actual Rows").asDouble();
+            double removed = node.path("Rows Removed by Filter").asDouble();
+            if (kept + removed > 0 && kept / (kept + removed) < MIN_SEQ_SCAN_SELECTIVITY) {
+                wastefulScans.add("sequential scan of %s keeps %.0f of %.0f rows".formatted(relation, kept, kept + removed));
+            }
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectWastefulScans(child, wastefulScans);
+        }
+    }
+
+    private static Properties loadBaseline() throws IOException {
+        Properties baseline = new Properties();
+        try (InputStream in = new ClassPathResource("query-plans/baseline.properties").getInputStream()) {
+            baseline.load(in);
+        }
+        return baseline;
+    }
+
+    private static void writeObserved(TreeMap<String, String> observed, boolean record) throws IOException {
+        Path file = record
+                ? Path.of("src", "test", "resources", "query-plans", "baseline.properties")
+                : Path.of("target", "query-plans", "observed.properties");
+        Files.createDirectories(file.getParent());
+        StringBuilder content = new StringBuilder(record ? BASELINE_HEADER : "");
+        observed.forEach((name, cost) -> content.append(name).append('=').append(cost).append('\n'));
+        Files.writeString(file, content);
+    }
+}
@@ -0,0 +1,99 @@
+package org.conexaotreinamento.conexaotreinamentobackend.integration.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import org.conexaotreinamento.conexaotreinamentobackend.config.PersistenceConfig;
+import org.conexaotreinamento.conexaotreinamentobackend.config.TestContainerConfig;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Trainer;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.User;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.CompensationType;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.Role;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ScheduledSessionRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({TestContainerConfig.class, PersistenceConfig.class})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ScheduledSessionRepositoryTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 9, 22);
+    private static final LocalDate SUNDAY = LocalDate.of(2025, 9, 28);
+
+    @Autowired
+    private ScheduledSessionRepository scheduledSessionRepository;
+
+    @Autowired
+    private TrainerScheduleRepository trainerScheduleRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void scheduleVersionChangesOnlyWithSeriesAndTrainersOfTheRange() {
+        Trainer inRange = persistTrainer("In Range");
+        Trainer later = persistTrainer("Later");
+        trainerScheduleRepository.saveAndFlush(buildSchedule(inRange.getId(), Instant.parse("2025-01-01T00:00:00Z")));
+        trainerScheduleRepository.saveAndFlush(buildSchedule(later.getId(), Instant.parse("2026-01-01T00:00:00Z")));
+        String version = version();
+
+        // A trainer whose only series starts after the range, and series starting after it, are not read
+        later.setName("Later, renamed");
+        trainerRepository.saveAndFlush(later);
+        trainerScheduleRepository.saveAndFlush(buildSchedule(inRange.getId(), Instant.parse("2027-01-01T00:00:00Z")));
+        assertEquals(version, version());
+
+        inRange.setName("In Range, renamed");
+        trainerRepository.saveAndFlush(inRange);
+        assertNotEquals(version, version());
+    }
+
+    private String version() {
+        return scheduledSessionRepository.findScheduleVersion(MONDAY.atStartOfDay(), SUNDAY.atTime(LocalTime.MAX),
+                SUNDAY.plusDays(1).atStartOfDay().toInstant(ZoneOffset.UTC));
+    }
+
+    private TrainerSchedule buildSchedule(UUID trainerId, Instant effectiveFrom) {
+        TrainerSchedule schedule = new TrainerSchedule();
+        schedule.setTrainerId(trainerId);
+        schedule.setWeekday(1);
+        schedule.setStartTime(LocalTime.of(9, 0));
+        schedule.setIntervalDuration(60);
+        schedule.setSeriesName("Series " + UUID.randomUUID());
+        schedule.setActive(true);
+        schedule.setEffectiveFromTimestamp(effectiveFrom);
+        return schedule;
+    }
+
+    private Trainer persistTrainer(String name) {
+        User user = userRepository.save(new User(
+                "trainer-" + UUID.randomUUID() + "@test.com",
+                "password",
+                Role.ROLE_TRAINER));
+
+        Trainer trainer = new Trainer();
+        trainer.setUserId(user.getId());
+        trainer.setName(name);
+        trainer.setCompensationType(CompensationType.HOURLY);
+        return trainerRepository.saveAndFlush(trainer);
+    }
+}
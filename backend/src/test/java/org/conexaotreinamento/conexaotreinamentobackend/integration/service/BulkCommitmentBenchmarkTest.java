@@ -0,0 +1,178 @@
+package org.conexaotreinamento.conexaotreinamentobackend.integration.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.conexaotreinamento.conexaotreinamentobackend.config.TestContainerConfig;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Student;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentPlan;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentPlanAssignment;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Trainer;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.User;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.CommitmentStatus;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.CompensationType;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.Role;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentPlanAssignmentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentPlanRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.UserRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.StudentCommitmentService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Latency of booking every series for a student: the former per-series path (one updateCommitment per
+ * series, each re-validating the plan) against bulkUpdateCommitments. Opt-in because it needs Docker and
+ * takes a while: {@code mvn test -Dtest=BulkCommitmentBenchmarkTest -Dbenchmarks=true}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@ActiveProfiles("test")
+@Import(TestContainerConfig.class)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@DisplayName("Bulk commitment benchmark")
+class BulkCommitmentBenchmarkTest {
+
+    private static final int SLOTS_PER_WEEKDAY = 4;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 20;
+
+    @Autowired
+    private StudentCommitmentService studentCommitmentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentPlanRepository studentPlanRepository;
+
+    @Autowired
+    private StudentPlanAssignmentRepository studentPlanAssignmentRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private TrainerScheduleRepository trainerScheduleRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private record Result(double medianMillis, double p95Millis, long statementsPerRequest) {
+    }
+
+    @Test
+    void bookAllSessions_perSeriesVersusBulk() {
+        UUID studentId = persistStudentWithPlan(7);
+        List<UUID> seriesIds = persistWeeklySeries();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Result perSeries = measure(studentId, seriesIds, statistics, () -> seriesIds
+                .forEach(id -> studentCommitmentService.updateCommitment(studentId, id, CommitmentStatus.ATTENDING)));
+        Result bulk = measure(studentId, seriesIds, statistics, () ->
+                studentCommitmentService.bulkUpdateCommitments(studentId, seriesIds, CommitmentStatus.ATTENDING));
+
+        System.out.printf("%nBook all sessions (%d series, %d rounds)%n", seriesIds.size(), MEASURED_ROUNDS);
+        System.out.printf("%-12s %12s %12s %14s%n", "path", "median ms", "p95 ms", "statements");
+        System.out.printf("%-12s %12.2f %12.2f %14d%n", "per-series", perSeries.medianMillis(), perSeries.p95Millis(), perSeries.statementsPerRequest());
+        System.out.printf("%-12s %12.2f %12.2f %14d%n", "bulk", bulk.medianMillis(), bulk.p95Millis(), bulk.statementsPerRequest());
+
+        assertTrue(bulk.statementsPerRequest() < perSeries.statementsPerRequest());
+    }
+
+    private Result measure(UUID studentId, List<UUID> seriesIds, Statistics statistics, Runnable request) {
+        double[] millis = new double[MEASURED_ROUNDS];
+        long statements = 0;
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            studentCommitmentService.bulkUpdateCommitments(studentId, seriesIds, CommitmentStatus.NOT_ATTENDING);
+            statistics.clear();
+            long started = System.nanoTime();
+            request.run();
+            long elapsed = System.nanoTime() - started;
+            if (round >= WARMUP_ROUNDS) {
+                millis[round - WARMUP_ROUNDS] = elapsed / 1_000_000.0;
+                statements = statistics.getPrepareStatementCount();
+            }
+        }
+        Arrays.sort(millis);
+        return new Result(millis[MEASURED_ROUNDS / 2], millis[(int) Math.ceil(MEASURED_ROUNDS * 0.95) - 1], statements);
+    }
+
+    private UUID persistStudentWithPlan(int maxDays) {
+        User admin = userRepository.save(new User("bench-admin-" + UUID.randomUUID() + "@test.com", "password", Role.ROLE_ADMIN));
+
+        Student student = new Student("bench-" + UUID.randomUUID() + "@test.com", "Bench", "Student",
+                Student.Gender.F, LocalDate.of(1995, 1, 1));
+        student.setRegistrationDate(LocalDate.now());
+        student = studentRepository.save(student);
+
+        StudentPlan plan = new StudentPlan();
+        plan.setName("Bench plan " + UUID.randomUUID());
+        plan.setMaxDays(maxDays);
+        plan.setDurationDays(365);
+        plan = studentPlanRepository.save(plan);
+
+        StudentPlanAssignment assignment = new StudentPlanAssignment();
+        assignment.setStudentId(student.getId());
+        assignment.setPlanId(plan.getId());
+        assignment.setStartDate(LocalDate.now().minusDays(1));
+        assignment.setDurationDays(plan.getDurationDays());
+        assignment.setAssignedByUserId(admin.getId());
+        studentPlanAssignmentRepository.save(assignment);
+        return student.getId();
+    }
+
+    private List<UUID> persistWeeklySeries() {
+        User user = userRepository.save(new User("bench-trainer-" + UUID.randomUUID() + "@test.com", "password", Role.ROLE_TRAINER));
+        Trainer trainer = new Trainer();
+        trainer.setUserId(user.getId());
+        trainer.setName("Bench Trainer");
+        trainer.setPhone("+55 11 99999-0000");
+        trainer.setAddress("Benchmark Gym");
+        trainer.setBirthDate(LocalDate.of(1990, 1, 1));
+        trainer.setCompensationType(CompensationType.HOURLY);
+        trainer = trainerRepository.save(trainer);
+
+        List<UUID> seriesIds = new ArrayList<>();
+        for (int weekday = 0; weekday < 7; weekday++) {
+            for (int slot = 0; slot < SLOTS_PER_WEEKDAY; slot++) {
+                TrainerSchedule schedule = new TrainerSchedule();
+                schedule.setTrainerId(trainer.getId());
+                schedule.setWeekday(weekday);
+                schedule.setStartTime(LocalTime.of(7 + slot * 2, 0));
+                schedule.setIntervalDuration(60);
+                schedule.setSeriesName("bench-" + weekday + "-" + slot);
+                schedule.setActive(true);
+                schedule.setEffectiveFromTimestamp(Instant.now().minusSeconds(86_400));
+                seriesIds.add(trainerScheduleRepository.save(schedule).getId());
+            }
+        }
+        return seriesIds;
+    }
+}
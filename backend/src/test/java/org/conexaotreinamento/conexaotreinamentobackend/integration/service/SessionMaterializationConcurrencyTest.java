@@ -0,0 +1,145 @@
+package org.conexaotreinamento.conexaotreinamentobackend.integration.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.conexaotreinamento.conexaotreinamentobackend.config.TestContainerConfig;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduledSession;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Student;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Trainer;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.User;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.CompensationType;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.Role;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ScheduledSessionRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.SessionParticipantRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.UserRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerScheduleService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Many tablets touching the same virtual session at once: every first touch materializes the session, and all
+ * of them must end up on the one row the upsert let through instead of failing on the unique session id.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@ActiveProfiles("test")
+@Import(TestContainerConfig.class)
+@DisplayName("Session materialization under concurrency")
+class SessionMaterializationConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int ROUNDS = 5;
+    private static final LocalTime START = LocalTime.of(7, 0);
+
+    @Autowired
+    private ScheduleService scheduleService;
+
+    @Autowired
+    private TrainerScheduleService trainerScheduleService;
+
+    @Autowired
+    private ScheduledSessionRepository scheduledSessionRepository;
+
+    @Autowired
+    private SessionParticipantRepository sessionParticipantRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TrainerRepository trainerRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void concurrentFirstTouchesOfOneSession_allLandOnASingleRow() throws Exception {
+        UUID trainerId = persistTrainer();
+        List<UUID> studentIds = persistStudents();
+        TrainerSchedule schedule = new TrainerSchedule();
+        schedule.setTrainerId(trainerId);
+        schedule.setWeekday(DayOfWeek.WEDNESDAY.getValue());
+        schedule.setStartTime(START);
+        schedule.setIntervalDuration(60);
+        schedule.setSeriesName("stress-class");
+        trainerScheduleService.createSchedule(schedule);
+
+        ExecutorService tablets = Executors.newFixedThreadPool(THREADS);
+        try {
+            LocalDate wednesday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.WEDNESDAY));
+            // A fresh, still virtual occurrence every round
+            for (int round = 0; round < ROUNDS; round++) {
+                LocalDate date = wednesday.plusWeeks(round);
+                String sessionId = "stress-class__" + date + "__" + START + "__" + trainerId;
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> touches = new ArrayList<>();
+                for (UUID studentId : studentIds) {
+                    touches.add(tablets.submit(() -> {
+                        start.await();
+                        scheduleService.addParticipant(sessionId, studentId);
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> touch : touches) {
+                    touch.get(30, TimeUnit.SECONDS);
+                }
+
+                List<ScheduledSession> rows = scheduledSessionRepository.findByStartTimeBetween(
+                        date.atStartOfDay(), date.atTime(LocalTime.MAX));
+                assertEquals(1, rows.size(), "rows for " + sessionId);
+                assertEquals(sessionId, rows.get(0).getSessionId());
+                assertTrue(rows.get(0).isInstanceOverride());
+                assertEquals(THREADS, sessionParticipantRepository
+                        .findByScheduledSession_IdAndActiveTrue(rows.get(0).getId()).size());
+            }
+        } finally {
+            tablets.shutdownNow();
+        }
+    }
+
+    private UUID persistTrainer() {
+        User user = userRepository.save(new User("stress-trainer-" + UUID.randomUUID() + "@test.com", "password", Role.ROLE_TRAINER));
+        Trainer trainer = new Trainer();
+        trainer.setUserId(user.getId());
+        trainer.setName("Stress Trainer");
+        trainer.setCompensationType(CompensationType.HOURLY);
+        return trainerRepository.save(trainer).getId();
+    }
+
+    private List<UUID> persistStudents() {
+        List<UUID> studentIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Student student = new Student("stress-" + UUID.randomUUID() + "@test.com", "Stress", "Student " + i,
+                    Student.Gender.F, LocalDate.of(1995, 1, 1));
+            student.setRegistrationDate(LocalDate.now());
+            studentIds.add(studentRepository.save(student).getId());
+        }
+        return studentIds;
+    }
+}
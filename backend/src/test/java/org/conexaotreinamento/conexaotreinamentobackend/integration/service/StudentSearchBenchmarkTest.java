@@ -0,0 +1,148 @@
+package org.conexaotreinamento.conexaotreinamentobackend.integration.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.conexaotreinamento.conexaotreinamentobackend.config.TestContainerConfig;
+import org.conexaotreinamento.conexaotreinamentobackend.service.StudentService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Student search against a seeded 100k-row table: the former five-column {@code lower(x) like '%term%'} scan
+ * against the trigram-indexed filter (GET /students?search=) and the ranked search (GET /students/search).
+ * Opt-in because it needs Docker and takes a while:
+ * {@code mvn test -Dtest=StudentSearchBenchmarkTest -Dbenchmarks=true}.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+})
+@ActiveProfiles("test")
+@Import(TestContainerConfig.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@DisplayName("Student search benchmark")
+class StudentSearchBenchmarkTest {
+
+    private static final int STUDENTS = 100_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 30;
+    private static final List<String> TERMS = List.of("silva", "marcos", "engenheir", "99871", "oliveira.4");
+
+    private static final String[] NAMES = {"Ana", "Bruno", "Carla", "Diego", "Elisa", "Felipe", "Gabriela", "Heitor",
+            "Isabela", "João", "Larissa", "Marcos", "Natália", "Otávio", "Paula", "Rafael"};
+    private static final String[] SURNAMES = {"Silva", "Santos", "Oliveira", "Souza", "Pereira", "Costa", "Almeida",
+            "Ferreira", "Rodrigues", "Gomes", "Martins", "Araújo"};
+    private static final String[] PROFESSIONS = {"Engenheira", "Professor", "Médica", "Advogado", "Designer",
+            "Enfermeira", "Analista", "Arquiteto"};
+
+    // The search filter as it was before the generated search_text column
+    private static final String LEGACY_SQL = "SELECT * FROM students s WHERE s.deleted_at IS NULL AND ("
+            + "lower(s.name) LIKE ? OR lower(s.surname) LIKE ? OR lower(s.email) LIKE ? OR lower(s.phone) LIKE ? "
+            + "OR lower(coalesce(s.profession, '')) LIKE ?) ORDER BY s.created_at DESC LIMIT 20";
+    private static final String LEGACY_COUNT_SQL = "SELECT count(*) FROM students s WHERE s.deleted_at IS NULL AND ("
+            + "lower(s.name) LIKE ? OR lower(s.surname) LIKE ? OR lower(s.email) LIKE ? OR lower(s.phone) LIKE ? "
+            + "OR lower(coalesce(s.profession, '')) LIKE ?)";
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private record Result(double medianMillis, double p95Millis) {
+    }
+
+    @BeforeAll
+    void seed() {
+        // The test profile rebuilds the schema from the entities, which drops the Flyway-created index
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_students_search_text_trgm ON students USING GIN (search_text gin_trgm_ops)");
+
+        Random random = new Random(42);
+        Instant now = Instant.now();
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO students (student_id, email, name, surname, gender, birth_date, phone, profession, "
+                        + "registration_date, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                IntStream.range(0, STUDENTS).mapToObj(i -> {
+                    String name = NAMES[random.nextInt(NAMES.length)];
+                    String surname = SURNAMES[random.nextInt(SURNAMES.length)];
+                    return new Object[] {
+                            UUID.randomUUID(),
+                            (name + "." + surname + "." + i + "@example.com").toLowerCase(),
+                            name,
+                            surname,
+                            String.valueOf("MFO".charAt(random.nextInt(3))),
+                            Date.valueOf(LocalDate.of(1960 + random.nextInt(45), 1 + random.nextInt(12), 1 + random.nextInt(28))),
+                            "+55 11 9%04d-%04d".formatted(random.nextInt(10_000), random.nextInt(10_000)),
+                            random.nextInt(5) == 0 ? null : PROFESSIONS[random.nextInt(PROFESSIONS.length)],
+                            Date.valueOf(LocalDate.now()),
+                            Timestamp.from(now.minusSeconds(i))
+                    };
+                }).collect(Collectors.toList()));
+        jdbcTemplate.execute("ANALYZE students");
+    }
+
+    @Test
+    void search_legacyScanVersusTrigramIndex() {
+        Result legacy = measure(term -> {
+            Object[] args = likeArgs(term);
+            jdbcTemplate.queryForList(LEGACY_SQL, args);
+            jdbcTemplate.queryForObject(LEGACY_COUNT_SQL, Long.class, args);
+        });
+        Result indexed = measure(term -> studentService.findAll(term, null, null, null, null, null, null, false,
+                PageRequest.of(0, 20, Sort.by("createdAt").descending())));
+        Result ranked = measure(term -> studentService.search(term, false, PageRequest.of(0, 20)));
+
+        System.out.printf("%nStudent search (%d students, %d terms, %d rounds)%n", STUDENTS, TERMS.size(), MEASURED_ROUNDS);
+        System.out.printf("%-10s %12s %12s%n", "path", "median ms", "p95 ms");
+        System.out.printf("%-10s %12.2f %12.2f%n", "legacy", legacy.medianMillis(), legacy.p95Millis());
+        System.out.printf("%-10s %12.2f %12.2f%n", "indexed", indexed.medianMillis(), indexed.p95Millis());
+        System.out.printf("%-10s %12.2f %12.2f%n", "ranked", ranked.medianMillis(), ranked.p95Millis());
+
+        String plan = String.join("\n", jdbcTemplate.queryForList(
+                "EXPLAIN SELECT count(*) FROM students s WHERE s.search_text LIKE '%oliveira.4%'", String.class));
+        assertTrue(plan.contains("idx_students_search_text_trgm"), plan);
+    }
+
+    private Result measure(Consumer<String> search) {
+        double[] millis = new double[MEASURED_ROUNDS];
+        for (int round = 0; round < WARMUP_ROUNDS + MEASURED_ROUNDS; round++) {
+            long started = System.nanoTime();
+            TERMS.forEach(search);
+            long elapsed = System.nanoTime() - started;
+            if (round >= WARMUP_ROUNDS) {
+                millis[round - WARMUP_ROUNDS] = elapsed / 1_000_000.0 / TERMS.size();
+            }
+        }
+        Arrays.sort(millis);
+        return new Result(millis[MEASURED_ROUNDS / 2], millis[(int) Math.ceil(MEASURED_ROUNDS * 0.95) - 1]);
+    }
+
+    private static Object[] likeArgs(String term) {
+        String like = "%" + term.toLowerCase() + "%";
+        return new Object[] {like, like, like, like, like};
+    }
+}
@@ -5,7 +5,10 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.EventRequestDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.PatchEventRequestDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventPageResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventParticipantResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventSummaryResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.service.EventService;
 import org.conexaotreinamento.conexaotreinamentobackend.controller.EventController;
 import org.conexaotreinamento.conexaotreinamentobackend.service.StudentService;
@@ -168,6 +171,41 @@ class EventControllerTest {
                 .andExpect(jsonPath("$[0].name").value("Test Event"));
     }
 
+    @Test
+    @DisplayName("Should return a keyset page of event summaries")
+    void shouldReturnKeysetPageOfEventSummaries() throws Exception {
+        // Given
+        EventSummaryResponseDTO summary = new EventSummaryResponseDTO(eventId, "Test Event", LocalDate.of(2024, 12, 25),
+                null, null, "Gym", UUID.randomUUID(), "John Trainer", 12L, 4L, Instant.now(), null);
+        when(eventService.findEventPage("yoga", false, "abc", 10)).thenReturn(new EventPageResponseDTO(List.of(summary), "next"));
+
+        // When & Then
+        mockMvc.perform(get("/events/page")
+                        .param("search", "yoga")
+                        .param("cursor", "abc")
+                        .param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(eventId.toString()))
+                .andExpect(jsonPath("$.items[0].participantCount").value(12))
+                .andExpect(jsonPath("$.items[0].presentCount").value(4))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @DisplayName("Should return the roster of an event")
+    void shouldReturnRosterOfEvent() throws Exception {
+        // Given
+        UUID studentId = UUID.randomUUID();
+        when(eventService.findEventRoster(eventId)).thenReturn(List.of(
+                new EventParticipantResponseDTO(studentId, "Alice Doe", null, Instant.now(), true)));
+
+        // When & Then
+        mockMvc.perform(get("/events/{id}/participants", eventId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(studentId.toString()))
+                .andExpect(jsonPath("$[0].present").value(true));
+    }
+
     @Test
     @DisplayName("Should find all events with search parameter")
     void shouldFindAllEventsWithSearchParameter() throws Exception {
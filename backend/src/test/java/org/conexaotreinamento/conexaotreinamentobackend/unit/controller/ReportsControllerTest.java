@@ -8,7 +8,9 @@ import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ReportsResp
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TrainerReportResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.enums.CompensationType;
 import org.conexaotreinamento.conexaotreinamentobackend.controller.ReportsController;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ReportRollupService;
 import org.conexaotreinamento.conexaotreinamentobackend.service.ReportsService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleVersionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,9 +20,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
@@ -28,10 +32,13 @@ import java.util.List;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +48,12 @@ class ReportsControllerTest {
     @Mock
     private ReportsService reportsService;
 
+    @Mock
+    private ReportRollupService reportRollupService;
+
+    @Mock
+    private ScheduleVersionService scheduleVersionService;
+
     @InjectMocks
     private ReportsController reportsController;
 
@@ -95,6 +108,24 @@ class ReportsControllerTest {
         verify(reportsService).generateReports(any(LocalDateTime.class), any(LocalDateTime.class), eq(null));
     }
 
+    @Test
+    @DisplayName("GET /reports - Should answer 304 without generating reports when the ETag still matches")
+    void shouldAnswerNotModifiedWhenETagMatches() throws Exception {
+        // Arrange
+        when(scheduleVersionService.reportsETag(LocalDateTime.parse("2025-10-01T00:00:00"), LocalDateTime.parse("2025-10-31T23:59:59"), null))
+                .thenReturn("\"v1\"");
+
+        // Act & Assert
+        mockMvc.perform(get("/reports")
+                        .param("startDate", "2025-10-01T00:00:00")
+                        .param("endDate", "2025-10-31T23:59:59")
+                        .header("If-None-Match", "\"v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"v1\""));
+
+        verifyNoInteractions(reportsService);
+    }
+
     @Test
     @DisplayName("GET /reports - Should return reports for specific trainer when trainerId is provided")
     void shouldReturnReportsForSpecificTrainer() throws Exception {
@@ -354,6 +385,58 @@ class ReportsControllerTest {
         verify(reportsService).generateReports(any(LocalDateTime.class), any(LocalDateTime.class), eq(null));
     }
 
+    @Test
+    @DisplayName("POST /reports/rollups/backfill - Should roll up the requested days")
+    void shouldBackfillRollups() throws Exception {
+        // Arrange
+        when(reportRollupService.refreshDays(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31))).thenReturn(31);
+
+        // Act & Assert
+        mockMvc.perform(post("/reports/rollups/backfill")
+                        .param("startDate", "2025-01-01")
+                        .param("endDate", "2025-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.startDate", is("2025-01-01")))
+                .andExpect(jsonPath("$.endDate", is("2025-01-31")))
+                .andExpect(jsonPath("$.daysRolledUp", is(31)));
+
+        verify(reportRollupService).refreshDays(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+        verifyNoInteractions(reportsService);
+    }
+
+    @Test
+    @DisplayName("POST /reports/rollups/backfill - Should reject an end date before the start date")
+    void shouldRejectInvertedBackfillRange() throws Exception {
+        mockMvc.perform(post("/reports/rollups/backfill")
+                        .param("startDate", "2025-02-01")
+                        .param("endDate", "2025-01-01"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reportRollupService);
+    }
+
+    @Test
+    @DisplayName("POST /reports/rollups/backfill - Should reject ranges longer than a year")
+    void shouldRejectBackfillLongerThanAYear() throws Exception {
+        mockMvc.perform(post("/reports/rollups/backfill")
+                        .param("startDate", "2020-01-01")
+                        .param("endDate", "2025-01-01"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reportRollupService);
+    }
+
+    @Test
+    @DisplayName("POST /reports/rollups/backfill - Should be restricted to administrators")
+    void backfillRollups_isAdminOnly() throws Exception {
+        PreAuthorize preAuthorize = ReportsController.class
+                .getMethod("backfillRollups", LocalDate.class, LocalDate.class)
+                .getAnnotation(PreAuthorize.class);
+
+        assertNotNull(preAuthorize);
+        assertEquals("hasRole('ADMIN')", preAuthorize.value());
+    }
+
     // Helper methods
 
     private ReportsResponseDTO createMockReportsResponse() {
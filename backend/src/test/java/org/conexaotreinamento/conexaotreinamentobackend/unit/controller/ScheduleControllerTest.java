@@ -1,26 +1,48 @@
 package org.conexaotreinamento.conexaotreinamentobackend.unit.controller;
 
+import org.conexaotreinamento.conexaotreinamentobackend.dto.request.SessionParticipantPresenceRequestDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ScheduleChangesResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.SessionResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TrainerListItemResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.UserResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.SessionParticipant;
 import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleVersionService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.UserService;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.Role;
 import org.conexaotreinamento.conexaotreinamentobackend.controller.ScheduleController;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -31,6 +53,18 @@ class ScheduleControllerTest {
     @Mock
     private ScheduleService scheduleService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private ScheduleVersionService scheduleVersionService;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private TrainerService trainerService;
+
     @InjectMocks
     private ScheduleController scheduleController;
 
@@ -39,6 +73,7 @@ class ScheduleControllerTest {
     @BeforeEach
     void setup() {
         mockMvc = MockMvcBuilders.standaloneSetup(scheduleController).build();
+        SecurityContextHolder.clearContext();
     }
 
     @Test
@@ -59,7 +94,7 @@ class ScheduleControllerTest {
                 false,
                 0
         ));
-        when(scheduleService.getScheduledSessions(any(LocalDate.class), any(LocalDate.class)))
+        when(scheduleService.getScheduledSessions(any(LocalDate.class), any(LocalDate.class), isNull()))
                 .thenReturn(sessions);
 
         // Act + Assert
@@ -71,7 +106,166 @@ class ScheduleControllerTest {
                 .andExpect(jsonPath("$.sessions").isArray())
                 .andExpect(jsonPath("$.sessions.length()").value(1));
 
-        verify(scheduleService).getScheduledSessions(LocalDate.parse("2025-09-26"), LocalDate.parse("2025-09-26"));
+        verify(scheduleService).getScheduledSessions(LocalDate.parse("2025-09-26"), LocalDate.parse("2025-09-26"), null);
+    }
+
+    @Test
+    void getSchedule_withTrainerId_expandsOnlyThatTrainer() throws Exception {
+        UUID trainerId = UUID.randomUUID();
+        when(scheduleService.getScheduledSessions(LocalDate.parse("2025-09-22"), LocalDate.parse("2025-09-28"), trainerId))
+                .thenReturn(List.of(sessionWithId("s")));
+
+        mockMvc.perform(get("/schedule")
+                .param("startDate", "2025-09-22")
+                .param("endDate", "2025-09-28")
+                .param("trainerId", trainerId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessions.length()").value(1));
+    }
+
+    @Test
+    void getMySchedule_resolvesTheSignedInTrainer() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID trainerId = UUID.randomUUID();
+        signIn("trainer@test.com");
+        when(userService.getUserByEmail("trainer@test.com"))
+                .thenReturn(Optional.of(new UserResponseDTO(userId, "trainer@test.com", Role.ROLE_TRAINER)));
+        when(trainerService.findByUserId(userId)).thenReturn(new TrainerListItemResponseDTO(
+                trainerId, "Trainer", "trainer@test.com", null, null, null, List.of(), null, true, null));
+        when(scheduleService.getScheduledSessions(LocalDate.parse("2025-09-22"), LocalDate.parse("2025-09-28"), trainerId))
+                .thenReturn(List.of(sessionWithId("mine")));
+
+        mockMvc.perform(get("/schedule/mine")
+                .param("startDate", "2025-09-22")
+                .param("endDate", "2025-09-28"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessions[0].sessionId").value("mine"));
+    }
+
+    @Test
+    void getMySchedule_tagsPerTrainer_andVariesOnAuthorization() throws Exception {
+        UUID userId = UUID.randomUUID();
+        UUID trainerId = UUID.randomUUID();
+        signIn("trainer@test.com");
+        when(userService.getUserByEmail("trainer@test.com"))
+                .thenReturn(Optional.of(new UserResponseDTO(userId, "trainer@test.com", Role.ROLE_TRAINER)));
+        when(trainerService.findByUserId(userId)).thenReturn(new TrainerListItemResponseDTO(
+                trainerId, "Trainer", "trainer@test.com", null, null, null, List.of(), null, true, null));
+        when(scheduleVersionService.scheduleETag(LocalDate.parse("2025-09-22"), LocalDate.parse("2025-09-28"), trainerId))
+                .thenReturn("\"mine-v1\"");
+
+        mockMvc.perform(get("/schedule/mine")
+                .param("startDate", "2025-09-22")
+                .param("endDate", "2025-09-28")
+                .header("If-None-Match", "\"mine-v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("Vary", containsString("Authorization")));
+
+        verifyNoInteractions(scheduleService);
+    }
+
+    @Test
+    void getMySchedule_returnsNotFound_whenTheUserIsNotATrainer() throws Exception {
+        UUID userId = UUID.randomUUID();
+        signIn("admin@test.com");
+        when(userService.getUserByEmail("admin@test.com"))
+                .thenReturn(Optional.of(new UserResponseDTO(userId, "admin@test.com", Role.ROLE_ADMIN)));
+        when(trainerService.findByUserId(userId))
+                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Trainer not found"));
+
+        mockMvc.perform(get("/schedule/mine")
+                .param("startDate", "2025-09-22")
+                .param("endDate", "2025-09-28"))
+                .andExpect(status().isNotFound());
+
+        verifyNoInteractions(scheduleService);
+    }
+
+    @Test
+    void getMySchedule_returnsUnauthorized_withoutAuthentication() throws Exception {
+        mockMvc.perform(get("/schedule/mine")
+                .param("startDate", "2025-09-22")
+                .param("endDate", "2025-09-28"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(scheduleService);
+    }
+
+    private static void signIn(String email) {
+        Authentication auth = mock(Authentication.class);
+        when(auth.getName()).thenReturn(email);
+        SecurityContext securityContext = mock(SecurityContext.class);
+        when(securityContext.getAuthentication()).thenReturn(auth);
+        SecurityContextHolder.setContext(securityContext);
+    }
+
+    @Test
+    void getScheduleChanges_passesTheToken_andReturnsTheDelta() throws Exception {
+        when(scheduleService.getScheduleChanges(LocalDate.parse("2025-09-22"), LocalDate.parse("2025-09-28"), 41L))
+                .thenReturn(new ScheduleChangesResponseDTO(List.of(sessionWithId("changed")), false, 42L));
+
+        mockMvc.perform(get("/schedule/changes")
+                .param("startDate", "2025-09-22")
+                .param("endDate", "2025-09-28")
+                .param("since", "41"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.sessions.length()").value(1))
+                .andExpect(jsonPath("$.sessions[0].sessionId").value("changed"))
+                .andExpect(jsonPath("$.fullSync").value(false))
+                .andExpect(jsonPath("$.changeToken").value(42));
+    }
+
+    @Test
+    void getScheduleChanges_rejectsInvertedRange() throws Exception {
+        mockMvc.perform(get("/schedule/changes")
+                .param("startDate", "2025-09-28")
+                .param("endDate", "2025-09-22"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(scheduleService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportSchedule_streamsOneJsonLinePerSession() throws Exception {
+        // Arrange: two days, emitted one after the other by the service
+        doAnswer(invocation -> {
+            Consumer<List<SessionResponseDTO>> perDay = invocation.getArgument(2);
+            perDay.accept(List.of(sessionWithId("day-1-a"), sessionWithId("day-1-b")));
+            perDay.accept(List.of(sessionWithId("day-2-a")));
+            return null;
+        }).when(scheduleService).streamScheduledSessions(eq(LocalDate.parse("2025-09-26")), eq(LocalDate.parse("2025-09-27")), any(Consumer.class));
+
+        // Act
+        MvcResult started = mockMvc.perform(get("/schedule/export")
+                .param("startDate", "2025-09-26")
+                .param("endDate", "2025-09-27"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("day-1-a", objectMapper.readTree(lines[0]).get("sessionId").asText());
+        assertEquals("day-2-a", objectMapper.readTree(lines[2]).get("sessionId").asText());
+    }
+
+    @Test
+    void exportSchedule_rejectsInvertedRange() throws Exception {
+        mockMvc.perform(get("/schedule/export")
+                .param("startDate", "2025-09-27")
+                .param("endDate", "2025-09-26"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(scheduleService);
+    }
+
+    private static SessionResponseDTO sessionWithId(String sessionId) {
+        return new SessionResponseDTO(sessionId, null, null, null, null, null, null, false, List.of(), false, 0);
     }
 
     @Test
@@ -162,6 +356,47 @@ class ScheduleControllerTest {
                 .andExpect(jsonPath("$.sessionId").value(sessionId));
     }
 
+    @Test
+    void getSchedule_tagsTheResponse_andAsksForRevalidation() throws Exception {
+        when(scheduleVersionService.scheduleETag(LocalDate.parse("2025-09-22"), LocalDate.parse("2025-09-28"), null)).thenReturn("\"v1\"");
+        when(scheduleService.getScheduledSessions(LocalDate.parse("2025-09-22"), LocalDate.parse("2025-09-28"), null))
+                .thenReturn(List.of(sessionWithId("s")));
+
+        mockMvc.perform(get("/schedule")
+                .param("startDate", "2025-09-22")
+                .param("endDate", "2025-09-28")
+                .header("If-None-Match", "\"v0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v1\""))
+                .andExpect(header().string("Cache-Control", "no-cache, private"))
+                .andExpect(jsonPath("$.sessions.length()").value(1));
+    }
+
+    @Test
+    void getSchedule_answersNotModified_withoutExpanding() throws Exception {
+        when(scheduleVersionService.scheduleETag(LocalDate.parse("2025-09-22"), LocalDate.parse("2025-09-28"), null)).thenReturn("\"v1\"");
+
+        mockMvc.perform(get("/schedule")
+                .param("startDate", "2025-09-22")
+                .param("endDate", "2025-09-28")
+                .header("If-None-Match", "\"v1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verifyNoInteractions(scheduleService);
+    }
+
+    @Test
+    void getSession_answersNotModified_withoutResolving() throws Exception {
+        String sessionId = "yoga__2025-09-26__09:00";
+        when(scheduleVersionService.sessionETag(sessionId, null)).thenReturn(Optional.of("\"v2\""));
+
+        mockMvc.perform(get("/schedule/sessions/{sessionId}", sessionId).header("If-None-Match", "\"v2\""))
+                .andExpect(status().isNotModified());
+
+        verifyNoInteractions(scheduleService);
+    }
+
     @Test
     void updateSessionTrainer_callsService() throws Exception {
         String sessionId = "session-1";
@@ -233,6 +468,35 @@ class ScheduleControllerTest {
         verify(scheduleService).updateParticipantPresence(sessionId, studentId, true, "On time");
     }
 
+    @Test
+    void updateAttendance_callsServiceWithWholeRoster() throws Exception {
+        String sessionId = "session-1";
+        UUID present = UUID.randomUUID();
+        UUID absent = UUID.randomUUID();
+        String body = "{ \"attendance\": { \"" + present + "\": { \"present\": true }, \""
+                + absent + "\": { \"present\": false, \"notes\": \"Sick\" } } }";
+
+        mockMvc.perform(post("/schedule/sessions/{sessionId}/attendance", sessionId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Attendance updated"));
+
+        verify(scheduleService).updateAttendance(sessionId, Map.of(
+                present, new SessionParticipantPresenceRequestDTO(true, null),
+                absent, new SessionParticipantPresenceRequestDTO(false, "Sick")));
+    }
+
+    @Test
+    void updateAttendance_rejectsEmptyRoster() throws Exception {
+        mockMvc.perform(post("/schedule/sessions/{sessionId}/attendance", "session-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{ \"attendance\": {} }"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(scheduleService);
+    }
+
     @Test
     void addRegisteredParticipantExercise_callsService() throws Exception {
         String sessionId = "session-1";
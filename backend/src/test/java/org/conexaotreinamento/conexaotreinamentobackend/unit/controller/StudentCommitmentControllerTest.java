@@ -6,6 +6,7 @@ import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
 import org.conexaotreinamento.conexaotreinamentobackend.enums.CommitmentStatus;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentRepository;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.CommitmentDetailAssembler;
 import org.conexaotreinamento.conexaotreinamentobackend.service.StudentCommitmentService;
 import org.conexaotreinamento.conexaotreinamentobackend.controller.StudentCommitmentController;
 import org.junit.jupiter.api.BeforeEach;
@@ -14,13 +15,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -58,6 +59,8 @@ class StudentCommitmentControllerTest {
     mockMvc = MockMvcBuilders.standaloneSetup(controller)
         .setControllerAdvice(new org.conexaotreinamento.conexaotreinamentobackend.exception.GlobalExceptionHandler())
         .build();
+        ReflectionTestUtils.setField(controller, "commitmentDetailAssembler",
+            new CommitmentDetailAssembler(studentRepository, trainerScheduleRepository));
         studentId = UUID.randomUUID();
         seriesId = UUID.randomUUID();
     }
@@ -98,8 +101,8 @@ class StudentCommitmentControllerTest {
         when(studentCommitmentService.updateCommitment(eq(studentId), eq(seriesId), eq(CommitmentStatus.ATTENDING), any(Instant.class)))
                 .thenReturn(saved);
 
-        when(studentRepository.findById(studentId)).thenReturn(Optional.of(student(studentId, "Alice")));
-        when(trainerScheduleRepository.findById(seriesId)).thenReturn(Optional.of(schedule(seriesId, "Yoga Basics")));
+        when(studentRepository.findAllById(anyIterable())).thenReturn(List.of(student(studentId, "Alice")));
+        when(trainerScheduleRepository.findAllById(anyIterable())).thenReturn(List.of(schedule(seriesId, "Yoga Basics")));
 
         String body = "{ \"commitmentStatus\": \"ATTENDING\", \"effectiveFromTimestamp\": \"2025-09-01T00:00:00Z\" }";
 
@@ -150,8 +153,8 @@ class StudentCommitmentControllerTest {
         StudentCommitment c1 = commitment(UUID.randomUUID(), CommitmentStatus.ATTENDING, Instant.now());
         when(studentCommitmentService.getStudentCommitments(studentId)).thenReturn(List.of(c1));
 
-        when(studentRepository.findById(studentId)).thenReturn(Optional.of(student(studentId, "Bob")));
-        when(trainerScheduleRepository.findById(seriesId)).thenReturn(Optional.of(schedule(seriesId, "Power Yoga")));
+        when(studentRepository.findAllById(anyIterable())).thenReturn(List.of(student(studentId, "Bob")));
+        when(trainerScheduleRepository.findAllById(anyIterable())).thenReturn(List.of(schedule(seriesId, "Power Yoga")));
 
         // Act + Assert
         mockMvc.perform(get("/commitments/students/{studentId}", studentId))
@@ -168,8 +171,8 @@ class StudentCommitmentControllerTest {
         StudentCommitment c1 = commitment(UUID.randomUUID(), CommitmentStatus.NOT_ATTENDING, Instant.now());
         when(studentCommitmentService.getSessionSeriesCommitments(seriesId)).thenReturn(List.of(c1));
 
-        when(studentRepository.findById(studentId)).thenReturn(Optional.of(student(studentId, "Carol")));
-        when(trainerScheduleRepository.findById(seriesId)).thenReturn(Optional.of(schedule(seriesId, "Pilates")));
+        when(studentRepository.findAllById(anyIterable())).thenReturn(List.of(student(studentId, "Carol")));
+        when(trainerScheduleRepository.findAllById(anyIterable())).thenReturn(List.of(schedule(seriesId, "Pilates")));
 
         // Act + Assert
         mockMvc.perform(get("/commitments/sessions/{sessionSeriesId}", seriesId))
@@ -185,8 +188,8 @@ class StudentCommitmentControllerTest {
         when(studentCommitmentService.getCurrentActiveCommitments(eq(studentId), any(Instant.class)))
                 .thenReturn(List.of(c1));
 
-        when(studentRepository.findById(studentId)).thenReturn(Optional.of(student(studentId, "Dave")));
-        when(trainerScheduleRepository.findById(seriesId)).thenReturn(Optional.of(schedule(seriesId, "Evening Flow")));
+        when(studentRepository.findAllById(anyIterable())).thenReturn(List.of(student(studentId, "Dave")));
+        when(trainerScheduleRepository.findAllById(anyIterable())).thenReturn(List.of(schedule(seriesId, "Evening Flow")));
 
         // Act + Assert
         mockMvc.perform(get("/commitments/students/{studentId}/active", studentId))
@@ -201,8 +204,8 @@ class StudentCommitmentControllerTest {
         StudentCommitment c1 = commitment(UUID.randomUUID(), CommitmentStatus.TENTATIVE, Instant.now().minusSeconds(100));
         when(studentCommitmentService.getCommitmentHistory(studentId, seriesId)).thenReturn(List.of(c1));
 
-        when(studentRepository.findById(studentId)).thenReturn(Optional.of(student(studentId, "Eve")));
-        when(trainerScheduleRepository.findById(seriesId)).thenReturn(Optional.of(schedule(seriesId, "Morning Strength")));
+        when(studentRepository.findAllById(anyIterable())).thenReturn(List.of(student(studentId, "Eve")));
+        when(trainerScheduleRepository.findAllById(anyIterable())).thenReturn(List.of(schedule(seriesId, "Morning Strength")));
 
         // Act + Assert
         mockMvc.perform(get("/commitments/students/{studentId}/sessions/{sessionSeriesId}/history", studentId, seriesId))
@@ -221,8 +224,8 @@ class StudentCommitmentControllerTest {
         when(studentCommitmentService.bulkUpdateCommitments(eq(studentId), anyList(), eq(CommitmentStatus.ATTENDING), any()))
                 .thenReturn(List.of(c1, c2));
 
-        when(studentRepository.findById(studentId)).thenReturn(Optional.of(student(studentId, "Frank")));
-        when(trainerScheduleRepository.findById(any(UUID.class))).thenReturn(Optional.of(schedule(seriesId, "Series X")));
+        when(studentRepository.findAllById(anyIterable())).thenReturn(List.of(student(studentId, "Frank")));
+        when(trainerScheduleRepository.findAllById(anyIterable())).thenReturn(List.of(schedule(seriesId, "Series X")));
 
         String body = "{ \"sessionSeriesIds\": [\"" + s1 + "\", \"" + s2 + "\"], \"commitmentStatus\": \"ATTENDING\", \"effectiveFromTimestamp\": \"2025-09-01T00:00:00Z\" }";
 
@@ -233,7 +236,15 @@ class StudentCommitmentControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].commitmentStatus").value("ATTENDING"))
-                .andExpect(jsonPath("$[1].commitmentStatus").value("ATTENDING"));
+                .andExpect(jsonPath("$[1].commitmentStatus").value("ATTENDING"))
+                .andExpect(jsonPath("$[1].studentName").value("Frank"))
+                .andExpect(jsonPath("$[1].seriesName").value("Series X"));
+
+        // Names are resolved once for the whole list
+        verify(studentRepository, times(1)).findAllById(anyIterable());
+        verify(trainerScheduleRepository, times(1)).findAllById(anyIterable());
+        verify(studentRepository, never()).findById(any());
+        verify(trainerScheduleRepository, never()).findById(any());
     }
 
     @Test
@@ -1,8 +1,11 @@
 package org.conexaotreinamento.conexaotreinamentobackend.unit.controller;
 
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.StudentRequestDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ScheduleResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.SessionResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.StudentResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.Student;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleService;
 import org.conexaotreinamento.conexaotreinamentobackend.service.StudentService;
 import org.conexaotreinamento.conexaotreinamentobackend.controller.StudentController;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,6 +39,9 @@ class StudentControllerTest {
     @Mock
     private StudentService studentService;
 
+    @Mock
+    private ScheduleService scheduleService;
+
     @InjectMocks
     private StudentController studentController;
 
@@ -109,6 +115,22 @@ class StudentControllerTest {
         verify(studentService).findAll(null, null, null, null, null, null, null, false, pageable);
     }
 
+    @Test
+    @DisplayName("Should search students by relevance")
+    void shouldSearchStudentsByRelevance() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 20);
+        Page<StudentResponseDTO> page = new PageImpl<>(List.of(studentResponseDTO), pageable, 1);
+        when(studentService.search("jon", false, pageable)).thenReturn(page);
+
+        // When
+        ResponseEntity<Page<StudentResponseDTO>> response = studentController.searchStudents("jon", false, pageable);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(page);
+    }
+
     @Test
     @DisplayName("Should find all students with search term")
     void shouldFindAllStudentsWithSearchTerm() {
@@ -472,4 +494,33 @@ class StudentControllerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         verify(studentService).findAll(null, null, null, null, null, date, date, false, pageable);
     }
+
+    @Test
+    @DisplayName("Should return the student's sessions of the range")
+    void shouldReturnStudentSessions() {
+        // Given
+        LocalDate from = LocalDate.of(2025, 9, 22);
+        LocalDate to = LocalDate.of(2025, 9, 28);
+        SessionResponseDTO session = new SessionResponseDTO("yoga__2025-09-26__09:00", null, null, null, null,
+                "Yoga", null, false, List.of(), false, 1);
+        when(scheduleService.getStudentSessions(studentId, from, to)).thenReturn(List.of(session));
+
+        // When
+        ResponseEntity<ScheduleResponseDTO> response = studentController.findStudentSessions(studentId, from, to);
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().sessions()).containsExactly(session);
+    }
+
+    @Test
+    @DisplayName("Should reject a session range that ends before it starts")
+    void shouldRejectInvertedSessionRange() {
+        // When / Then
+        assertThatThrownBy(() -> studentController.findStudentSessions(
+                studentId, LocalDate.of(2025, 9, 28), LocalDate.of(2025, 9, 22)))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasMessageContaining("to must not be before from");
+        verifyNoInteractions(scheduleService);
+    }
 }
@@ -2,9 +2,12 @@ package org.conexaotreinamento.conexaotreinamentobackend.unit.controller;
 
 import org.conexaotreinamento.conexaotreinamentobackend.controller.TrainerController;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.TrainerCreateRequestDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TimeSlotResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TrainerBusyIntervalResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TrainerListItemResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TrainerResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.enums.CompensationType;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerAvailabilityIndex;
 import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,6 +21,7 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -25,6 +29,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -36,6 +41,9 @@ class TrainerControllerTest {
     @Mock
     private TrainerService trainerService;
 
+    @Mock
+    private TrainerAvailabilityIndex trainerAvailabilityIndex;
+
     @InjectMocks
     private TrainerController trainerController;
 
@@ -72,6 +80,56 @@ class TrainerControllerTest {
                 .andExpect(jsonPath("$.id").value(id.toString()));
     }
 
+    @Test
+    void findTrainerAvailability_reportsConflicts() throws Exception {
+        UUID id = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.of(2025, 10, 6, 9, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 10, 6, 10, 0);
+        TrainerBusyIntervalResponseDTO busy = new TrainerBusyIntervalResponseDTO("SERIES", UUID.randomUUID(), "Yoga", start, end);
+
+        when(trainerAvailabilityIndex.findConflicts(id, start, end)).thenReturn(List.of(busy));
+
+        mockMvc.perform(get("/trainers/{id}/availability", id)
+                .param("start", "2025-10-06T09:00:00")
+                .param("end", "2025-10-06T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.available").value(false))
+                .andExpect(jsonPath("$.conflicts[0].kind").value("SERIES"))
+                .andExpect(jsonPath("$.conflicts[0].label").value("Yoga"));
+    }
+
+    @Test
+    void findTrainerFreeSlots_rejectsInvalidRange() throws Exception {
+        UUID id = UUID.randomUUID();
+
+        mockMvc.perform(get("/trainers/{id}/free-slots", id)
+                .param("start", "2025-10-06T10:00:00")
+                .param("end", "2025-10-06T09:00:00"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/trainers/{id}/free-slots", id)
+                .param("start", "2025-10-01T00:00:00")
+                .param("end", "2025-12-01T00:00:00"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(trainerAvailabilityIndex);
+    }
+
+    @Test
+    void findTrainerFreeSlots_returnsGaps() throws Exception {
+        UUID id = UUID.randomUUID();
+        LocalDateTime start = LocalDateTime.of(2025, 10, 6, 8, 0);
+        LocalDateTime end = LocalDateTime.of(2025, 10, 6, 12, 0);
+
+        when(trainerAvailabilityIndex.findFreeSlots(id, start, end, 30))
+                .thenReturn(List.of(new TimeSlotResponseDTO(start, start.plusHours(1))));
+
+        mockMvc.perform(get("/trainers/{id}/free-slots", id)
+                .param("start", "2025-10-06T08:00:00")
+                .param("end", "2025-10-06T12:00:00")
+                .param("minMinutes", "30"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
     @Test
     void findTrainerByUserId_returnsOk() throws Exception {
         UUID userId = UUID.randomUUID();
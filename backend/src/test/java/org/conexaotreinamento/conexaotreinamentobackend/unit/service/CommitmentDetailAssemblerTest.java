@@ -0,0 +1,98 @@
+package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
+
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.CommitmentDetailResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Student;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitment;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.CommitmentStatus;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.CommitmentDetailAssembler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommitmentDetailAssemblerTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private TrainerScheduleRepository trainerScheduleRepository;
+
+    @InjectMocks
+    private CommitmentDetailAssembler assembler;
+
+    private StudentCommitment commitment(UUID studentId, UUID seriesId) {
+        StudentCommitment c = new StudentCommitment();
+        c.setId(UUID.randomUUID());
+        c.setStudentId(studentId);
+        c.setSessionSeriesId(seriesId);
+        c.setCommitmentStatus(CommitmentStatus.ATTENDING);
+        c.setEffectiveFromTimestamp(Instant.now());
+        return c;
+    }
+
+    private Student student(UUID id, String name) {
+        Student s = new Student("s@example.com", name, "Doe", Student.Gender.F, LocalDate.of(2000, 1, 1));
+        ReflectionTestUtils.setField(s, "id", id);
+        return s;
+    }
+
+    private TrainerSchedule schedule(UUID id, String seriesName) {
+        TrainerSchedule ts = new TrainerSchedule();
+        ts.setId(id);
+        ts.setSeriesName(seriesName);
+        return ts;
+    }
+
+    @Test
+    void toDetails_resolvesNamesWithOneQueryPerType_andKeepsOrder() {
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+        UUID yoga = UUID.randomUUID();
+        UUID pilates = UUID.randomUUID();
+        List<StudentCommitment> commitments = List.of(
+            commitment(bob, yoga), commitment(alice, pilates), commitment(bob, pilates));
+        when(studentRepository.findAllById(anyIterable())).thenReturn(List.of(student(alice, "Alice"), student(bob, "Bob")));
+        when(trainerScheduleRepository.findAllById(anyIterable())).thenReturn(List.of(schedule(yoga, "Yoga"), schedule(pilates, "Pilates")));
+
+        List<CommitmentDetailResponseDTO> details = assembler.toDetails(commitments);
+
+        assertEquals(List.of("Bob", "Alice", "Bob"), details.stream().map(CommitmentDetailResponseDTO::studentName).toList());
+        assertEquals(List.of("Yoga", "Pilates", "Pilates"), details.stream().map(CommitmentDetailResponseDTO::seriesName).toList());
+        assertEquals(commitments.get(1).getId(), details.get(1).id());
+        verify(studentRepository, times(1)).findAllById(anyIterable());
+        verify(trainerScheduleRepository, times(1)).findAllById(anyIterable());
+    }
+
+    @Test
+    void toDetails_leavesNamesNull_whenReferencesAreMissing() {
+        when(studentRepository.findAllById(anyIterable())).thenReturn(List.of());
+        when(trainerScheduleRepository.findAllById(anyIterable())).thenReturn(List.of());
+
+        CommitmentDetailResponseDTO detail = assembler.toDetail(commitment(UUID.randomUUID(), UUID.randomUUID()));
+
+        assertNull(detail.studentName());
+        assertNull(detail.seriesName());
+    }
+
+    @Test
+    void toDetails_emptyList_doesNotQuery() {
+        assertTrue(assembler.toDetails(List.of()).isEmpty());
+        verifyNoInteractions(studentRepository, trainerScheduleRepository);
+    }
+}
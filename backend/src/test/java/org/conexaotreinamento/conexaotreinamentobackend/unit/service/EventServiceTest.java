@@ -2,13 +2,17 @@ package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
 
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.EventRequestDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.PatchEventRequestDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventPageResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventParticipantResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.EventSummaryResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.Event;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.EventParticipant;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.Student;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.Trainer;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.EventParticipantRepository;
 import org.conexaotreinamento.conexaotreinamentobackend.service.EventService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerAvailabilityIndex;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.EventRepository;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentRepository;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerRepository;
@@ -19,10 +23,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.lang.reflect.Field;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.*;
@@ -47,6 +54,12 @@ class EventServiceTest {
     @Mock
     private TrainerRepository trainerRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private TrainerAvailabilityIndex trainerAvailabilityIndex;
+
     @InjectMocks
     private EventService eventService;
 
@@ -214,6 +227,58 @@ class EventServiceTest {
                 .hasMessageContaining("Trainer is required");
     }
 
+    @Test
+    @DisplayName("Should reject event when trainer is already busy")
+    void shouldRejectEventWhenTrainerIsBusy() {
+        // Given
+        when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
+        doThrow(new ResponseStatusException(HttpStatus.CONFLICT, "Trainer is already busy"))
+                .when(trainerAvailabilityIndex).requireFree(trainerId, LocalDate.of(2024, 12, 25).atTime(10, 0),
+                        LocalDate.of(2024, 12, 25).atTime(11, 0), null);
+
+        // When & Then
+        assertThatThrownBy(() -> eventService.createEvent(eventRequestDTO))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.CONFLICT);
+        verify(eventRepository, never()).save(any(Event.class));
+    }
+
+    @Test
+    @DisplayName("Should reject moving an event onto a busy slot without changing it")
+    void shouldRejectUpdateOntoBusySlotBeforeChangingEvent() {
+        // Given
+        EventRequestDTO moved = new EventRequestDTO("Moved Event", LocalDate.of(2024, 12, 26), LocalTime.of(14, 0),
+                LocalTime.of(15, 0), "Test Location", "Test Description", trainerId, null);
+        when(eventRepository.findByIdAndDeletedAtIsNull(eventId)).thenReturn(Optional.of(event));
+        when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
+        doThrow(new ResponseStatusException(HttpStatus.CONFLICT, "Trainer is already busy"))
+                .when(trainerAvailabilityIndex).requireFree(trainerId, LocalDate.of(2024, 12, 26).atTime(14, 0),
+                        LocalDate.of(2024, 12, 26).atTime(15, 0), eventId);
+
+        // When & Then
+        assertThatThrownBy(() -> eventService.updateEvent(eventId, moved))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.CONFLICT);
+        assertThat(event.getName()).isEqualTo("Test Event");
+        assertThat(event.getDate()).isEqualTo(LocalDate.of(2024, 12, 25));
+        assertThat(event.getStartTime()).isEqualTo(LocalTime.of(10, 0));
+    }
+
+    @Test
+    @DisplayName("Should not re-check availability when the event keeps its slot")
+    void shouldNotRecheckAvailabilityWhenSlotIsUnchanged() {
+        // Given
+        PatchEventRequestDTO rename = new PatchEventRequestDTO("Renamed", null, null, null, null, null, null, null);
+        when(eventRepository.findByIdAndDeletedAtIsNull(eventId)).thenReturn(Optional.of(event));
+
+        // When
+        eventService.patchEvent(eventId, rename);
+
+        // Then
+        assertThat(event.getName()).isEqualTo("Renamed");
+        verifyNoInteractions(trainerAvailabilityIndex);
+    }
+
     @Test
     @DisplayName("Should throw exception when student not found")
     void shouldThrowExceptionWhenStudentNotFound() {
@@ -644,4 +709,86 @@ class EventServiceTest {
         // New participant for addStudent should be saved
         verify(participantRepository).save(argThat(p -> p.getStudent().getId().equals(addStudentId)));
     }
+
+    private EventSummaryResponseDTO summary(Instant createdAt) {
+        return new EventSummaryResponseDTO(UUID.randomUUID(), "Event", LocalDate.of(2024, 12, 25), null, null, "Gym",
+                trainerId, "John Trainer", 3L, 1L, createdAt, null);
+    }
+
+    @Test
+    @DisplayName("Should return a page with a cursor when more events exist")
+    void shouldReturnPageWithCursorWhenMoreEventsExist() {
+        // Given
+        Instant now = Instant.parse("2025-01-10T10:00:00Z");
+        List<EventSummaryResponseDTO> rows = List.of(summary(now), summary(now.minusSeconds(60)), summary(now.minusSeconds(120)));
+        when(eventRepository.findSummaries("%", false, Limit.of(3))).thenReturn(rows);
+
+        // When
+        EventPageResponseDTO page = eventService.findEventPage(null, false, null, 2);
+
+        // Then
+        assertThat(page.items()).containsExactly(rows.get(0), rows.get(1));
+        assertThat(page.nextCursor()).isNotNull();
+        verify(eventRepository, never()).findByDeletedAtIsNullOrderByCreatedAtDesc();
+    }
+
+    @Test
+    @DisplayName("Should continue after the cursor of the previous page")
+    void shouldContinueAfterCursor() {
+        // Given
+        Instant now = Instant.parse("2025-01-10T10:00:00.123456Z");
+        EventSummaryResponseDTO first = summary(now);
+        when(eventRepository.findSummaries("%test%", true, Limit.of(2))).thenReturn(List.of(first, summary(now.minusSeconds(1))));
+        String cursor = eventService.findEventPage("Test", true, null, 1).nextCursor();
+        when(eventRepository.findSummariesAfter("%test%", true, now, first.id(), Limit.of(2))).thenReturn(List.of(summary(now.minusSeconds(1))));
+
+        // When
+        EventPageResponseDTO page = eventService.findEventPage("Test", true, cursor, 1);
+
+        // Then
+        assertThat(page.items()).hasSize(1);
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors and page sizes")
+    void shouldRejectMalformedCursorsAndPageSizes() {
+        assertThatThrownBy(() -> eventService.findEventPage(null, false, "not-a-cursor", 20))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
+        assertThatThrownBy(() -> eventService.findEventPage(null, false, null, 0))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
+        assertThatThrownBy(() -> eventService.findEventPage(null, false, null, 101))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    @DisplayName("Should return the roster of an event")
+    void shouldReturnRosterOfEvent() {
+        // Given
+        EventParticipant participant = new EventParticipant(event, student);
+        when(eventRepository.existsByIdAndDeletedAtIsNull(eventId)).thenReturn(true);
+        when(participantRepository.findRosterByEventId(eventId)).thenReturn(List.of(participant));
+
+        // When
+        List<EventParticipantResponseDTO> roster = eventService.findEventRoster(eventId);
+
+        // Then
+        assertThat(roster).hasSize(1);
+        assertThat(roster.get(0).id()).isEqualTo(studentId);
+        assertThat(roster.get(0).name()).isEqualTo("Alice Doe");
+    }
+
+    @Test
+    @DisplayName("Should return not found for the roster of a missing event")
+    void shouldReturnNotFoundForRosterOfMissingEvent() {
+        when(eventRepository.existsByIdAndDeletedAtIsNull(eventId)).thenReturn(false);
+
+        assertThatThrownBy(() -> eventService.findEventRoster(eventId))
+                .isInstanceOf(ResponseStatusException.class)
+                .hasFieldOrPropertyWithValue("status", HttpStatus.NOT_FOUND);
+        verifyNoInteractions(participantRepository);
+    }
 }
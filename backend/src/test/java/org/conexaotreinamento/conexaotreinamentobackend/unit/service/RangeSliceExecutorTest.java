@@ -0,0 +1,91 @@
+package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
+
+import org.conexaotreinamento.conexaotreinamentobackend.service.RangeSliceExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangeSliceExecutorTest {
+
+    private final LocalDate start = LocalDate.of(2025, 9, 1);
+
+    private RangeSliceExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.destroy();
+        }
+    }
+
+    private static List<LocalDate> days(LocalDate from, LocalDate to) {
+        return Stream.iterate(from, d -> !d.isAfter(to), d -> d.plusDays(1)).toList();
+    }
+
+    @Test
+    void map_runsShortRangesAsOneSliceOnTheCallingThread() {
+        executor = new RangeSliceExecutor(7, 4, 28);
+        Thread caller = Thread.currentThread();
+        AtomicInteger calls = new AtomicInteger();
+
+        List<LocalDate> result = executor.map(start, start.plusDays(26), (from, to) -> {
+            calls.incrementAndGet();
+            assertSame(caller, Thread.currentThread());
+            return days(from, to);
+        });
+
+        assertEquals(27, result.size());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void map_concatenatesSlicesInDateOrder_includingAShortLastSlice() {
+        executor = new RangeSliceExecutor(7, 4, 14);
+        LocalDate end = start.plusDays(29);
+
+        List<LocalDate> result = executor.map(start, end, RangeSliceExecutorTest::days);
+
+        assertEquals(days(start, end), result);
+    }
+
+    @Test
+    void map_neverRunsMoreSlicesAtOnceThanTheBudget() {
+        executor = new RangeSliceExecutor(1, 3, 1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+
+        executor.map(start, start.plusDays(29), (from, to) -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            return List.of(from);
+        });
+
+        assertTrue(peak.get() <= 3, "peak concurrency " + peak.get());
+    }
+
+    @Test
+    void map_rethrowsSliceFailures() {
+        executor = new RangeSliceExecutor(7, 4, 14);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> executor.map(start, start.plusDays(27),
+                (from, to) -> {
+                    if (from.isAfter(start)) {
+                        throw new IllegalArgumentException("slice " + from);
+                    }
+                    return List.of(from);
+                }));
+
+        assertTrue(ex.getMessage().startsWith("slice"));
+    }
+}
@@ -0,0 +1,200 @@
+package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ReportRollupDay;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerDailyRollup;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ReportRollupDayRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerDailyRollupRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ReportRollupService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ReportsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.lang.reflect.Constructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReportRollupServiceTest {
+
+    @Mock
+    private ReportsService reportsService;
+
+    @Mock
+    private TrainerDailyRollupRepository trainerDailyRollupRepository;
+
+    @Mock
+    private ReportRollupDayRepository reportRollupDayRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ReportRollupService reportRollupService;
+
+    private final LocalDate yesterday = LocalDate.now().minusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reportRollupService, "horizonDays", 5);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ReportRollupDay> savedDays(int invocations) {
+        ArgumentCaptor<List<ReportRollupDay>> captor = ArgumentCaptor.forClass(List.class);
+        verify(reportRollupDayRepository, times(invocations)).saveAll(captor.capture());
+        return captor.getAllValues().stream().flatMap(List::stream).toList();
+    }
+
+    private ReportsService.DailyActivity activity(UUID trainerId, LocalDate day, LocalTime start, LocalTime end, UUID... students) throws Exception {
+        Constructor<ReportsService.DailyActivity> constructor =
+                ReportsService.DailyActivity.class.getDeclaredConstructor(UUID.class, LocalDate.class);
+        constructor.setAccessible(true);
+        ReportsService.DailyActivity activity = constructor.newInstance(trainerId, day);
+        ReflectionTestUtils.invokeMethod(activity, "add", LocalDateTime.of(day, start), LocalDateTime.of(day, end), List.of(students));
+        return activity;
+    }
+
+    @Test
+    @DisplayName("refreshDays replaces the rollups of the range and marks every day as rolled up")
+    void refreshDays_writesRollupsAndMarksDays() throws Exception {
+        LocalDate start = yesterday.minusDays(2);
+        UUID trainerId = UUID.randomUUID();
+        UUID studentId = UUID.randomUUID();
+        when(reportsService.collectDailyActivity(start.atStartOfDay(), yesterday.atTime(LocalTime.MAX), null))
+                .thenReturn(List.of(activity(trainerId, start, LocalTime.of(9, 0), LocalTime.of(10, 30), studentId)));
+
+        int days = reportRollupService.refreshDays(start, yesterday);
+
+        assertThat(days).isEqualTo(3);
+        verify(reportRollupDayRepository).deleteByDayBetween(start, yesterday);
+        verify(trainerDailyRollupRepository).deleteByDayBetween(start, yesterday);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TrainerDailyRollup>> rollups = ArgumentCaptor.forClass(List.class);
+        verify(trainerDailyRollupRepository).saveAll(rollups.capture());
+        TrainerDailyRollup rollup = rollups.getValue().get(0);
+        assertThat(rollup.getTrainerId()).isEqualTo(trainerId);
+        assertThat(rollup.getDay()).isEqualTo(start);
+        assertThat(rollup.getHours()).isEqualTo(1.5);
+        assertThat(rollup.getActivities()).isEqualTo(1);
+        assertThat(rollup.getStudentIds()).containsExactly(studentId);
+        assertThat(savedDays(1)).extracting(ReportRollupDay::getDay).containsExactly(start, start.plusDays(1), yesterday);
+    }
+
+    @Test
+    @DisplayName("refreshDays never rolls up today or future days")
+    void refreshDays_clipsToClosedDays() {
+        when(reportsService.collectDailyActivity(any(), any(), isNull())).thenReturn(List.of());
+
+        int days = reportRollupService.refreshDays(yesterday, LocalDate.now().plusDays(3));
+
+        assertThat(days).isEqualTo(1);
+        verify(reportsService).collectDailyActivity(yesterday.atStartOfDay(), yesterday.atTime(LocalTime.MAX), null);
+        assertThat(reportRollupService.refreshDays(LocalDate.now(), LocalDate.now().plusDays(3))).isZero();
+    }
+
+    @Test
+    @DisplayName("refreshDays splits long backfills into bounded chunks")
+    void refreshDays_expandsInChunks() {
+        when(reportsService.collectDailyActivity(any(), any(), isNull())).thenReturn(List.of());
+
+        int days = reportRollupService.refreshDays(yesterday.minusDays(99), yesterday);
+
+        assertThat(days).isEqualTo(100);
+        verify(reportsService, times(4)).collectDailyActivity(any(), any(), isNull());
+        // One transaction per chunk, never one around the whole backfill
+        verify(transactionManager, times(4)).getTransaction(any());
+        verify(transactionManager, times(4)).commit(any());
+    }
+
+    @Test
+    @DisplayName("A change on a closed day re-rolls that day")
+    void onActivityChanged_refreshesSingleClosedDay() {
+        when(reportsService.collectDailyActivity(any(), any(), isNull())).thenReturn(List.of());
+
+        reportRollupService.onActivityChanged(ReportRollupService.ActivityChanged.of(yesterday));
+
+        verify(reportsService).collectDailyActivity(yesterday.atStartOfDay(), yesterday.atTime(LocalTime.MAX), null);
+        assertThat(savedDays(1)).extracting(ReportRollupDay::getDay).containsExactly(yesterday);
+    }
+
+    @Test
+    @DisplayName("Changes to today or later are ignored because those days are always computed live")
+    void onActivityChanged_ignoresOpenDays() {
+        reportRollupService.onActivityChanged(ReportRollupService.ActivityChanged.of(LocalDate.now()));
+
+        verifyNoInteractions(reportsService, trainerDailyRollupRepository, reportRollupDayRepository);
+    }
+
+    @Test
+    @DisplayName("Wide changes only mark the closed days they touch stale")
+    void onActivityChanged_marksWideRangesStale() {
+        LocalDate start = yesterday.minusDays(10);
+
+        reportRollupService.onActivityChanged(new ReportRollupService.ActivityChanged(start, LocalDate.now()));
+
+        verify(reportRollupDayRepository).markStaleBetween(start, yesterday);
+        verify(reportRollupDayRepository, never()).deleteByDayBetween(any(), any());
+        verify(trainerDailyRollupRepository).deleteByDayBetween(start, yesterday);
+        verifyNoInteractions(reportsService);
+    }
+
+    @Test
+    @DisplayName("The nightly job rolls up only the days in the horizon that are missing")
+    void rollUpClosedDays_fillsGaps() {
+        LocalDate horizonStart = yesterday.minusDays(4);
+        when(reportRollupDayRepository.findDaysBetween(horizonStart, yesterday))
+                .thenReturn(List.of(horizonStart, horizonStart.plusDays(1), horizonStart.plusDays(3)));
+        when(reportsService.collectDailyActivity(any(), any(), isNull())).thenReturn(List.of());
+
+        reportRollupService.rollUpClosedDays();
+
+        verify(reportsService).collectDailyActivity(horizonStart.plusDays(2).atStartOfDay(), horizonStart.plusDays(2).atTime(LocalTime.MAX), null);
+        verify(reportsService).collectDailyActivity(yesterday.atStartOfDay(), yesterday.atTime(LocalTime.MAX), null);
+        assertThat(savedDays(2)).extracting(ReportRollupDay::getDay).containsExactly(horizonStart.plusDays(2), yesterday);
+    }
+
+    @Test
+    @DisplayName("The nightly job re-rolls stale days older than the horizon in bounded chunks")
+    void rollUpClosedDays_reRollsStaleDaysBeyondTheHorizon() {
+        LocalDate horizonStart = yesterday.minusDays(4);
+        LocalDate staleStart = yesterday.minusDays(400);
+        List<LocalDate> staleDays = staleStart.datesUntil(staleStart.plusDays(40)).toList();
+        when(reportRollupDayRepository.findDaysBetween(horizonStart, yesterday))
+                .thenReturn(horizonStart.datesUntil(yesterday.plusDays(1)).toList());
+        when(reportRollupDayRepository.findStaleDays()).thenReturn(staleDays);
+        when(reportsService.collectDailyActivity(any(), any(), isNull())).thenReturn(List.of());
+
+        reportRollupService.rollUpClosedDays();
+
+        verify(reportsService).collectDailyActivity(staleStart.atStartOfDay(), staleStart.plusDays(30).atTime(LocalTime.MAX), null);
+        verify(reportsService).collectDailyActivity(staleStart.plusDays(31).atStartOfDay(), staleStart.plusDays(39).atTime(LocalTime.MAX), null);
+        verify(transactionManager, times(2)).commit(any());
+        assertThat(savedDays(2)).extracting(ReportRollupDay::getDay).containsExactlyElementsOf(staleDays)
+                .allSatisfy(day -> assertThat(day).isBefore(horizonStart));
+    }
+
+    @Test
+    @DisplayName("Re-rolled days are written back as current")
+    void refreshDays_clearsStaleFlag() {
+        when(reportsService.collectDailyActivity(any(), any(), isNull())).thenReturn(List.of());
+
+        reportRollupService.refreshDays(yesterday, yesterday);
+
+        assertThat(savedDays(1)).noneMatch(ReportRollupDay::isStale);
+    }
+}
@@ -1,5 +1,6 @@
 package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.AgeDistributionResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ReportsResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.SessionResponseDTO;
@@ -9,10 +10,13 @@ import org.conexaotreinamento.conexaotreinamentobackend.entity.Event;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.EventParticipant;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.Student;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.Trainer;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerDailyRollup;
 import org.conexaotreinamento.conexaotreinamentobackend.enums.CommitmentStatus;
 import org.conexaotreinamento.conexaotreinamentobackend.enums.CompensationType;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.EventRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ReportRollupDayRepository;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerDailyRollupRepository;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerRepository;
 import org.conexaotreinamento.conexaotreinamentobackend.service.ReportsService;
 import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleService;
@@ -22,9 +26,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -38,6 +44,9 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -55,6 +64,15 @@ class ReportsServiceTest {
     @Mock
     private StudentRepository studentRepository;
 
+    @Mock
+    private TrainerDailyRollupRepository trainerDailyRollupRepository;
+
+    @Mock
+    private ReportRollupDayRepository reportRollupDayRepository;
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private ReportsService reportsService;
 
@@ -269,6 +287,17 @@ class ReportsServiceTest {
         assertThat(response.trainerReports()).isEmpty();
     }
 
+    @Test
+    @DisplayName("Times report generation by scope")
+    void shouldTimeReportGenerationByScope() {
+        when(trainerRepository.findAll()).thenReturn(Collections.emptyList());
+        when(studentRepository.findAllBirthDates()).thenReturn(Collections.emptyList());
+
+        reportsService.generateReports(startDate, endDate, null);
+
+        assertThat(meterRegistry.get("reports.generation").tag("scope", "all").timer().count()).isEqualTo(1);
+    }
+
     @Test
     @DisplayName("Ignores canceled sessions in trainer reports")
     void shouldIgnoreCanceledSessionsInTrainerReports() {
@@ -353,6 +382,68 @@ class ReportsServiceTest {
                 .containsOnly(25.0);
     }
 
+    @Test
+    @DisplayName("Reads rolled-up days from the rollup store and computes only the remaining days live")
+    void shouldCombineRollupsWithLiveComputationForRemainingDays() {
+        Trainer trainer = createTrainer(trainerId, "Prof. Ana", CompensationType.HOURLY, List.of());
+        UUID rolledUpOnly = UUID.randomUUID();
+        UUID shared = UUID.randomUUID();
+        UUID liveOnly = UUID.randomUUID();
+
+        List<LocalDate> rolledUpDays = new ArrayList<>();
+        for (LocalDate day = LocalDate.of(2025, 10, 1); !day.isAfter(LocalDate.of(2025, 10, 15)); day = day.plusDays(1)) {
+            rolledUpDays.add(day);
+        }
+        TrainerDailyRollup rollup = new TrainerDailyRollup(UUID.randomUUID(), trainerId, LocalDate.of(2025, 10, 10),
+                2.0, 2, new UUID[]{rolledUpOnly, shared}, Instant.now());
+        SessionResponseDTO liveSession = buildSession(
+                trainerId,
+                LocalDateTime.of(2025, 10, 20, 10, 0),
+                LocalDateTime.of(2025, 10, 20, 11, 0),
+                false,
+                shared,
+                liveOnly
+        );
+
+        when(trainerRepository.findAll()).thenReturn(List.of(trainer));
+        when(reportRollupDayRepository.findDaysBetween(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 31)))
+                .thenReturn(rolledUpDays);
+        when(trainerDailyRollupRepository.findByDayBetween(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 15)))
+                .thenReturn(List.of(rollup));
+        when(scheduleService.getScheduledSessions(LocalDate.of(2025, 10, 16), LocalDate.of(2025, 10, 31)))
+                .thenReturn(List.of(liveSession));
+        when(eventRepository.findActiveWithinDateRangeWithParticipants(LocalDate.of(2025, 10, 16), LocalDate.of(2025, 10, 31)))
+                .thenReturn(Collections.emptyList());
+        when(studentRepository.findAllBirthDates()).thenReturn(Collections.emptyList());
+
+        ReportsResponseDTO response = reportsService.generateReports(startDate, endDate, null);
+
+        var report = response.trainerReports().get(0);
+        assertThat(report.classesGiven()).isEqualTo(3);
+        assertThat(report.hoursWorked()).isEqualTo(3.0);
+        assertThat(report.studentsManaged()).isEqualTo(3);
+        verify(scheduleService, never()).getScheduledSessions(LocalDate.of(2025, 10, 1), LocalDate.of(2025, 10, 31));
+    }
+
+    @Test
+    @DisplayName("Partial first and last days are never read from rollups")
+    void shouldComputePartialDaysLive() {
+        Trainer trainer = createTrainer(trainerId, "Prof. Ana", CompensationType.HOURLY, List.of());
+        LocalDateTime partialStart = LocalDateTime.of(2025, 10, 1, 12, 0);
+        LocalDateTime partialEnd = LocalDateTime.of(2025, 10, 2, 12, 0);
+
+        when(trainerRepository.findAll()).thenReturn(List.of(trainer));
+        when(scheduleService.getScheduledSessions(partialStart.toLocalDate(), partialEnd.toLocalDate()))
+                .thenReturn(Collections.emptyList());
+        when(eventRepository.findActiveWithinDateRangeWithParticipants(partialStart.toLocalDate(), partialEnd.toLocalDate()))
+                .thenReturn(Collections.emptyList());
+        when(studentRepository.findAllBirthDates()).thenReturn(Collections.emptyList());
+
+        reportsService.generateReports(partialStart, partialEnd, null);
+
+        verifyNoInteractions(reportRollupDayRepository, trainerDailyRollupRepository);
+    }
+
     @Test
     @DisplayName("Should include events in trainer reports")
     void shouldIncludeEventsInTrainerReports() {
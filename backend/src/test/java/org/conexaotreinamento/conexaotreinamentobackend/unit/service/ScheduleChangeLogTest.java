@@ -0,0 +1,105 @@
+package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduleChange;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduledSession;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ScheduleChangeRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleChangeLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScheduleChangeLog Unit Tests")
+class ScheduleChangeLogTest {
+
+    @Mock
+    private ScheduleChangeRepository scheduleChangeRepository;
+
+    private ScheduleChangeLog scheduleChangeLog;
+
+    @BeforeEach
+    void setUp() {
+        scheduleChangeLog = new ScheduleChangeLog(scheduleChangeRepository, 30);
+    }
+
+    @Test
+    @DisplayName("Should record the instance, its series and its day for session changes")
+    void shouldRecordSessionChanges() {
+        ScheduledSession session = new ScheduledSession();
+        session.setId(UUID.randomUUID());
+        session.setSessionSeriesId(UUID.randomUUID());
+        session.setStartTime(LocalDateTime.of(2025, 10, 1, 9, 0));
+
+        scheduleChangeLog.recordSession(session, ScheduleChange.ChangeType.PRESENCE);
+
+        ArgumentCaptor<ScheduleChange> captor = ArgumentCaptor.forClass(ScheduleChange.class);
+        verify(scheduleChangeRepository).save(captor.capture());
+        ScheduleChange change = captor.getValue();
+        assertThat(change.isSessionChange()).isTrue();
+        assertThat(change.getScheduledSessionId()).isEqualTo(session.getId());
+        assertThat(change.getSeriesId()).isEqualTo(session.getSessionSeriesId());
+        assertThat(change.getSessionDate()).isEqualTo(LocalDate.of(2025, 10, 1));
+        assertThat(change.getChangeType()).isEqualTo(ScheduleChange.ChangeType.PRESENCE);
+    }
+
+    @Test
+    @DisplayName("Should hand out the finished-transaction watermark as the token")
+    void shouldHandOutTheWatermark() {
+        when(scheduleChangeRepository.findWatermark()).thenReturn(812L);
+
+        assertThat(scheduleChangeLog.currentToken()).isEqualTo(812L);
+    }
+
+    @Test
+    @DisplayName("Should replay the changes of transactions from a token that is still retained")
+    void shouldReplayRetainedChanges() {
+        ScheduleChange change = new ScheduleChange();
+        when(scheduleChangeRepository.findMinTxid()).thenReturn(7L);
+        when(scheduleChangeRepository.findByTxidGreaterThanEqualAndTxidLessThanOrderByIdAsc(7L, 12L)).thenReturn(List.of(change));
+
+        assertThat(scheduleChangeLog.findChanges(7L, 12L)).contains(List.of(change));
+    }
+
+    @Test
+    @DisplayName("Should refuse tokens whose changes were already pruned")
+    void shouldRefusePrunedTokens() {
+        when(scheduleChangeRepository.findMinTxid()).thenReturn(20L);
+
+        assertThat(scheduleChangeLog.findChanges(7L, 25L)).isEqualTo(Optional.empty());
+        verify(scheduleChangeRepository, never()).findByTxidGreaterThanEqualAndTxidLessThanOrderByIdAsc(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should refuse tokens ahead of the log")
+    void shouldRefuseTokensAheadOfTheLog() {
+        when(scheduleChangeRepository.findMinTxid()).thenReturn(1L);
+
+        assertThat(scheduleChangeLog.findChanges(30L, 25L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should prune old rows but keep the newest one")
+    void shouldKeepNewestRowWhenPruning() {
+        when(scheduleChangeRepository.findMaxId()).thenReturn(99L);
+
+        scheduleChangeLog.prune();
+
+        verify(scheduleChangeRepository).deleteOlderThan(any(Instant.class), eq(99L));
+    }
+}
@@ -0,0 +1,72 @@
+package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
+
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleMaterializationJob;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleMaterializer;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScheduleMaterializationJob Unit Tests")
+class ScheduleMaterializationJobTest {
+
+    @Mock
+    private ScheduleMaterializer scheduleMaterializer;
+
+    @Mock
+    private ScheduleService scheduleService;
+
+    @InjectMocks
+    private ScheduleMaterializationJob job;
+
+    private void stubHorizon(List<String> missing) {
+        LocalDate today = LocalDate.now();
+        LocalDate horizonEnd = today.plusWeeks(8).minusDays(1);
+        when(scheduleMaterializer.isEnabled()).thenReturn(true);
+        when(scheduleMaterializer.horizonEnd(today)).thenReturn(horizonEnd);
+        when(scheduleService.checkMaterialization(today, horizonEnd))
+                .thenReturn(new ScheduleMaterializer.Check(today, horizonEnd, missing, List.of()));
+    }
+
+    @Test
+    @DisplayName("Should do nothing while disabled")
+    void shouldDoNothingWhileDisabled() {
+        job.run();
+
+        verify(scheduleMaterializer, never()).materialize(any(), any());
+        verifyNoInteractions(scheduleService);
+    }
+
+    @Test
+    @DisplayName("Should serve the horizon from rows once they match the virtual schedule")
+    void shouldServeConsistentHorizon() {
+        stubHorizon(List.of());
+
+        job.run();
+
+        LocalDate today = LocalDate.now();
+        verify(scheduleMaterializer).materialize(today, today.plusWeeks(8).minusDays(1));
+        verify(scheduleMaterializer).serve(today, today.plusWeeks(8).minusDays(1));
+    }
+
+    @Test
+    @DisplayName("Should keep expanding the series when the rows disagree with them")
+    void shouldStopServingInconsistentHorizon() {
+        stubHorizon(List.of("yoga__2025-09-22__09:00__x|2025-09-22T09:00|2025-09-22T10:00"));
+
+        job.run();
+
+        verify(scheduleMaterializer).stopServing();
+        verify(scheduleMaterializer, never()).serve(any(), any());
+    }
+}
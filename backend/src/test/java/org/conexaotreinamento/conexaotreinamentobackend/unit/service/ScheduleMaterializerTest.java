@@ -0,0 +1,169 @@
+package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduledSession;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ScheduledSessionRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleMaterializer;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerScheduleIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScheduleMaterializer Unit Tests")
+class ScheduleMaterializerTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 9, 22);
+
+    @Mock
+    private TrainerScheduleIndex trainerScheduleIndex;
+
+    @Mock
+    private ScheduledSessionRepository scheduledSessionRepository;
+
+    private final UUID trainerId = UUID.randomUUID();
+
+    private ScheduleMaterializer materializer(boolean enabled) {
+        return new ScheduleMaterializer(trainerScheduleIndex, scheduledSessionRepository, enabled, 2);
+    }
+
+    private TrainerSchedule schedule(String seriesName, LocalTime start) {
+        TrainerSchedule schedule = new TrainerSchedule();
+        schedule.setId(UUID.randomUUID());
+        schedule.setTrainerId(trainerId);
+        schedule.setSeriesName(seriesName);
+        schedule.setStartTime(start);
+        schedule.setIntervalDuration(60);
+        schedule.setEffectiveFromTimestamp(Instant.parse("2025-01-01T00:00:00Z"));
+        return schedule;
+    }
+
+    private ScheduledSession row(String sessionId, String seriesName, LocalDateTime start) {
+        ScheduledSession row = new ScheduledSession();
+        row.setSessionId(sessionId);
+        row.setSeriesName(seriesName);
+        row.setTrainerId(trainerId);
+        row.setStartTime(start);
+        row.setEndTime(start.plusHours(1));
+        return row;
+    }
+
+    @Test
+    @DisplayName("Should insert one pristine row per missing occurrence, one batch per day")
+    @SuppressWarnings("unchecked")
+    void shouldInsertMissingOccurrencesPerDay() {
+        TrainerSchedule yoga = schedule("Yoga Basics", LocalTime.of(9, 0));
+        when(scheduledSessionRepository.findByStartTimeBetween(any(), any())).thenReturn(List.of());
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class))).thenReturn(List.of(yoga));
+        when(scheduledSessionRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        int created = materializer(true).materialize(MONDAY, MONDAY.plusDays(1));
+
+        assertThat(created).isEqualTo(2);
+        ArgumentCaptor<List<ScheduledSession>> captor = ArgumentCaptor.forClass(List.class);
+        verify(scheduledSessionRepository, times(2)).saveAll(captor.capture());
+        ScheduledSession first = captor.getAllValues().get(0).get(0);
+        assertThat(first.getSessionId()).isEqualTo("yoga-basics__2025-09-22__09:00__" + trainerId);
+        assertThat(first.getSessionSeriesId()).isEqualTo(yoga.getId());
+        assertThat(first.isInstanceOverride()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should skip occurrences that already have a row under their canonical or legacy id")
+    void shouldBeIdempotentOnSessionIds() {
+        TrainerSchedule yoga = schedule("Yoga Basics", LocalTime.of(9, 0));
+        TrainerSchedule pilates = schedule("Pilates", LocalTime.of(10, 0));
+        when(scheduledSessionRepository.findByStartTimeBetween(any(), any())).thenReturn(List.of(
+                row("yoga-basics__2025-09-22__09:00__" + trainerId, "Yoga Basics", MONDAY.atTime(9, 0)),
+                row("pilates__2025-09-22__10:00", "Pilates", MONDAY.atTime(10, 0))));
+        when(trainerScheduleIndex.findEffectiveOn(MONDAY)).thenReturn(List.of(yoga, pilates));
+
+        int created = materializer(true).materialize(MONDAY, MONDAY);
+
+        assertThat(created).isZero();
+        verify(scheduledSessionRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Should retry a day row by row with the upsert when a concurrent write took one of its rows")
+    void shouldRetryDaysThatLostARaceRowByRow() {
+        when(scheduledSessionRepository.findByStartTimeBetween(any(), any())).thenReturn(List.of());
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class))).thenReturn(List.of(
+                schedule("Yoga Basics", LocalTime.of(9, 0)), schedule("Pilates", LocalTime.of(10, 0))));
+        when(scheduledSessionRepository.saveAll(anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate session_id"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        // The request already created the yoga row; the pilates row is still missing
+        when(scheduledSessionRepository.insertIfAbsent(any(ScheduledSession.class)))
+                .thenAnswer(invocation -> invocation.<ScheduledSession>getArgument(0).getSeriesName().equals("Pilates") ? 1 : 0);
+
+        int created = materializer(true).materialize(MONDAY, MONDAY.plusDays(1));
+
+        assertThat(created).isEqualTo(3);
+        verify(scheduledSessionRepository, times(2)).insertIfAbsent(any(ScheduledSession.class));
+    }
+
+    @Test
+    @DisplayName("Should drop the pristine rows of a changed series and regenerate it over the horizon")
+    void shouldRematerializeChangedSeries() {
+        TrainerSchedule yoga = schedule("Yoga Basics", LocalTime.of(9, 0));
+        when(scheduledSessionRepository.findByStartTimeBetween(any(), any())).thenReturn(List.of());
+        when(trainerScheduleIndex.findEffectiveOn(any(UUID.class), any(LocalDate.class))).thenReturn(Optional.empty());
+        when(trainerScheduleIndex.findEffectiveOn(yoga.getId(), LocalDate.now())).thenReturn(Optional.of(yoga));
+        when(scheduledSessionRepository.insertIfAbsent(any(ScheduledSession.class))).thenReturn(1);
+
+        materializer(true).rematerializeSeries(yoga.getId());
+
+        verify(scheduledSessionRepository).deletePristineBySessionSeriesId(yoga.getId());
+        // Upserted, so a request materializing the same occurrence concurrently cannot fail the series change
+        verify(scheduledSessionRepository).insertIfAbsent(any(ScheduledSession.class));
+        verify(scheduledSessionRepository, never()).saveAll(anyList());
+        verify(trainerScheduleIndex, times(14)).findEffectiveOn(any(UUID.class), any(LocalDate.class));
+    }
+
+    @Test
+    @DisplayName("Should only drop earlier rows of a changed series while disabled")
+    void shouldOnlyDropRowsWhenDisabled() {
+        UUID seriesId = UUID.randomUUID();
+
+        materializer(false).rematerializeSeries(seriesId);
+
+        verify(scheduledSessionRepository).deletePristineBySessionSeriesId(seriesId);
+        verifyNoMoreInteractions(scheduledSessionRepository);
+        verifyNoInteractions(trainerScheduleIndex);
+    }
+
+    @Test
+    @DisplayName("Should serve only ranges inside the checked window")
+    void shouldServeOnlyTheCheckedWindow() {
+        ScheduleMaterializer materializer = materializer(true);
+        assertThat(materializer.serves(MONDAY, MONDAY)).isFalse();
+
+        materializer.serve(MONDAY, materializer.horizonEnd(MONDAY));
+
+        assertThat(materializer.horizonEnd(MONDAY)).isEqualTo(MONDAY.plusDays(13));
+        assertThat(materializer.serves(MONDAY.plusDays(1), MONDAY.plusDays(13))).isTrue();
+        assertThat(materializer.serves(MONDAY.minusDays(1), MONDAY)).isFalse();
+        assertThat(materializer.serves(MONDAY, MONDAY.plusDays(14))).isFalse();
+
+        materializer.stopServing();
+        assertThat(materializer.serves(MONDAY, MONDAY)).isFalse();
+    }
+}
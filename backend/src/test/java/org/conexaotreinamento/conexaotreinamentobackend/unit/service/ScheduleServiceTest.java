@@ -1,12 +1,21 @@
 package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.ScheduleChangesResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.SessionResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.response.StudentCommitmentResponseDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.*;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.*;
 import org.conexaotreinamento.conexaotreinamentobackend.enums.CommitmentStatus;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.*;
+import org.conexaotreinamento.conexaotreinamentobackend.service.RangeSliceExecutor;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ReportRollupService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleChangeLog;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleMaterializer;
 import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.SessionKeyRegistry;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerAvailabilityIndex;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerScheduleIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -14,10 +23,16 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.*;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -27,7 +42,7 @@ import static org.mockito.Mockito.*;
 class ScheduleServiceTest {
 
     @Mock
-    private TrainerScheduleRepository trainerScheduleRepository;
+    private TrainerScheduleIndex trainerScheduleIndex;
 
     @Mock
     private ScheduledSessionRepository scheduledSessionRepository;
@@ -36,7 +51,10 @@ class ScheduleServiceTest {
     private SessionParticipantRepository sessionParticipantRepository;
 
     @Mock
-    private StudentCommitmentRepository studentCommitmentRepository;
+    private StudentCommitmentStateRepository studentCommitmentStateRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @Mock
     private StudentRepository studentRepository;
@@ -47,9 +65,30 @@ class ScheduleServiceTest {
     @Mock
     private ParticipantExerciseRepository participantExerciseRepository;
 
+    @Mock
+    private SessionKeyRegistry sessionKeyRegistry;
+
+    @Mock
+    private ScheduleChangeLog scheduleChangeLog;
+
+    @Mock
+    private ScheduleMaterializer scheduleMaterializer;
+
+    @Mock
+    private TrainerAvailabilityIndex trainerAvailabilityIndex;
+
+    // Sequential unless a test swaps in a parallel executor
+    @Spy
+    private RangeSliceExecutor rangeSliceExecutor = new RangeSliceExecutor(7, 1, 28);
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private ScheduleService scheduleService;
 
+    private static final Instant SCHEDULES_EFFECTIVE_FROM = Instant.parse("2025-01-01T00:00:00Z");
+
     private UUID trainerId;
     private Trainer trainer;
 
@@ -61,6 +100,18 @@ class ScheduleServiceTest {
         trainer.setName("John Trainer");
     }
 
+    // Lazily created instances are inserted with the upsert and read back by their canonical id
+    private void stubInsertIfAbsentLands() {
+        Map<String, ScheduledSession> inserted = new HashMap<>();
+        when(scheduledSessionRepository.insertIfAbsent(any(ScheduledSession.class))).thenAnswer(invocation -> {
+            ScheduledSession session = invocation.getArgument(0);
+            inserted.put(session.getSessionId(), session);
+            return 1;
+        });
+        when(scheduledSessionRepository.findBySessionIdAndActiveTrue(anyString()))
+            .thenAnswer(invocation -> Optional.ofNullable(inserted.get(invocation.<String>getArgument(0))));
+    }
+
     private TrainerSchedule buildSchedule(UUID id, UUID trainerId, String seriesName, LocalTime start, int intervalMinutes) {
         TrainerSchedule s = new TrainerSchedule();
         s.setId(id != null ? id : UUID.randomUUID());
@@ -68,7 +119,7 @@ class ScheduleServiceTest {
         s.setSeriesName(seriesName);
         s.setStartTime(start);
         s.setIntervalDuration(intervalMinutes);
-        s.setEffectiveFromTimestamp(Instant.now().minus(Duration.ofDays(1)));
+        s.setEffectiveFromTimestamp(SCHEDULES_EFFECTIVE_FROM);
         return s;
     }
 
@@ -95,13 +146,14 @@ class ScheduleServiceTest {
         int intervalMinutes = 60;
         LocalTime end = start.plusMinutes(intervalMinutes);
         TrainerSchedule schedule = buildSchedule(UUID.randomUUID(), trainerId, "Yoga Basics", start, intervalMinutes);
+        schedule.setDayOfWeek(date.getDayOfWeek());
 
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class)))
                 .thenReturn(List.of(schedule));
         when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(List.of());
-        when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
-        when(studentCommitmentRepository.findBySessionSeriesId(schedule.getId())).thenReturn(List.of());
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+        when(studentCommitmentStateRepository.findBySessionSeriesIdInOverlapping(anyCollection(), any(Instant.class), any(Instant.class))).thenReturn(List.of());
 
         // Act
         List<SessionResponseDTO> sessions = scheduleService.getScheduledSessions(date, date);
@@ -123,6 +175,35 @@ class ScheduleServiceTest {
         assertTrue(dto.students().isEmpty());
     }
 
+    @Test
+    void getScheduledSessions_recordsExpansionMetrics() {
+        // Arrange
+        LocalDate monday = LocalDate.of(2025, 9, 22);
+        TrainerSchedule schedule = buildSchedule(UUID.randomUUID(), trainerId, "Yoga Basics", LocalTime.of(9, 0), 60);
+        StudentCommitmentState commitment = new StudentCommitmentState();
+        commitment.setStudentId(UUID.randomUUID());
+        commitment.setSessionSeriesId(schedule.getId());
+        commitment.setCommitmentStatus(CommitmentStatus.ATTENDING);
+        commitment.setValidFrom(SCHEDULES_EFFECTIVE_FROM);
+
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class))).thenReturn(List.of(schedule));
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+        when(studentCommitmentStateRepository.findBySessionSeriesIdInOverlapping(anyCollection(), any(Instant.class), any(Instant.class)))
+                .thenReturn(List.of(commitment));
+        when(studentRepository.findAllById(anyCollection())).thenReturn(List.of());
+
+        // Act
+        scheduleService.getScheduledSessions(monday, monday.plusDays(6));
+
+        // Assert
+        assertEquals(1, meterRegistry.get("schedule.expansion").tag("source", "merged").timer().count());
+        assertEquals(7.0, meterRegistry.get("schedule.expansion.days").summary().totalAmount());
+        assertEquals(7.0, meterRegistry.get("schedule.expansion.sessions").summary().totalAmount());
+        assertEquals(1.0, meterRegistry.get("schedule.expansion.commitments").summary().totalAmount());
+    }
+
     @Test
     void getScheduledSessions_usesExistingInstanceData_whenInstancePresent() {
         // Arrange
@@ -131,11 +212,12 @@ class ScheduleServiceTest {
         int intervalMinutes = 60;
         LocalTime end = start.plusMinutes(intervalMinutes);
         TrainerSchedule schedule = buildSchedule(UUID.randomUUID(), trainerId, "Yoga Basics", start, intervalMinutes);
+        schedule.setDayOfWeek(date.getDayOfWeek());
 
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class)))
                 .thenReturn(List.of(schedule));
-        when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
-        when(studentCommitmentRepository.findBySessionSeriesId(schedule.getId())).thenReturn(List.of());
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+        when(studentCommitmentStateRepository.findBySessionSeriesIdInOverlapping(anyCollection(), any(Instant.class), any(Instant.class))).thenReturn(List.of());
 
         // Build an existing instance (legacy 3-part id), service should still emit canonical 4-part id
         String legacySessionId = "yoga-basics__" + date + "__09:00";
@@ -158,21 +240,225 @@ class ScheduleServiceTest {
     }
 
     @Test
-    void getScheduledSessions_passesSundayAsWeekdayZero() {
+    void getScheduledSessions_expandsSeriesInEffectOnEachDate() {
         // Arrange
-        LocalDate date = LocalDate.of(2025, 9, 28); // Sunday
+        LocalDate saturday = LocalDate.of(2025, 9, 27);
+        LocalDate sunday = LocalDate.of(2025, 9, 28);
+        TrainerSchedule weekend = buildSchedule(UUID.randomUUID(), trainerId, "Weekend Flow", LocalTime.of(9, 0), 60);
+        TrainerSchedule sundayOnly = buildSchedule(UUID.randomUUID(), trainerId, "Sunday Stretch", LocalTime.of(10, 0), 60);
         when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(List.of());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(saturday)).thenReturn(List.of(weekend));
+        when(trainerScheduleIndex.findEffectiveOn(sunday)).thenReturn(List.of(weekend, sundayOnly));
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+
+        // Act
+        List<SessionResponseDTO> sessions = scheduleService.getScheduledSessions(saturday, sunday);
+
+        // Assert: one session per series in effect on each date, no repository lookup per day
+        assertEquals(3, sessions.size());
+        assertEquals(LocalDateTime.of(saturday, LocalTime.of(9, 0)), sessions.get(0).startTime());
+        assertEquals("Sunday Stretch", sessions.get(2).seriesName());
+        verify(trainerScheduleIndex, times(2)).findEffectiveOn(any(LocalDate.class));
+    }
+
+    @Test
+    void getScheduledSessions_expandsLongRangesInSlicesAndKeepsStartTimeOrder() {
+        // Arrange: four weekly slices, each queried on its own
+        ReflectionTestUtils.setField(scheduleService, "rangeSliceExecutor", new RangeSliceExecutor(7, 4, 14));
+        LocalDate start = LocalDate.of(2025, 9, 1);
+        LocalDate end = start.plusDays(27);
+        TrainerSchedule daily = buildSchedule(UUID.randomUUID(), trainerId, "Daily Flow", LocalTime.of(9, 0), 60);
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class))).thenReturn(List.of(daily));
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+
+        // Act
+        List<SessionResponseDTO> sessions = scheduleService.getScheduledSessions(start, end);
+
+        // Assert
+        assertEquals(28, sessions.size());
+        for (int i = 1; i < sessions.size(); i++) {
+            assertTrue(sessions.get(i - 1).startTime().isBefore(sessions.get(i).startTime()));
+        }
+        verify(scheduledSessionRepository).findByStartTimeBetweenAndActiveTrue(start.atStartOfDay(), start.plusDays(6).atTime(23, 59, 59));
+        verify(scheduledSessionRepository).findByStartTimeBetweenAndActiveTrue(start.plusDays(21).atStartOfDay(), end.atTime(23, 59, 59));
+        verify(scheduledSessionRepository, times(4)).findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getScheduledSessions_showsTheInstanceTrainer_whenTheOccurrenceWasReassigned() {
+        LocalDate date = LocalDate.of(2025, 9, 26);
+        UUID substituteId = UUID.randomUUID();
+        TrainerSchedule schedule = buildSchedule(UUID.randomUUID(), trainerId, "Yoga Basics", LocalTime.of(9, 0), 60);
+        ScheduledSession reassigned = buildExistingSession(null, "yoga-basics__2025-09-26__09:00__" + trainerId, schedule.getId(),
+                substituteId, date, LocalTime.of(9, 0), LocalTime.of(10, 0), null, true);
+        when(trainerScheduleIndex.findEffectiveOn(date)).thenReturn(List.of(schedule));
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(reassigned));
+
+        List<SessionResponseDTO> sessions = scheduleService.getScheduledSessions(date, date);
+
+        assertEquals(1, sessions.size());
+        assertEquals(substituteId, sessions.get(0).trainerId());
+    }
+
+    @Test
+    void getScheduledSessions_forTrainer_followsReassignmentsWithoutReadingOtherTrainers() {
+        LocalDate date = LocalDate.of(2025, 9, 26);
+        UUID otherTrainerId = UUID.randomUUID();
+        TrainerSchedule kept = buildSchedule(UUID.randomUUID(), trainerId, "Morning Yoga", LocalTime.of(8, 0), 60);
+        TrainerSchedule givenAway = buildSchedule(UUID.randomUUID(), trainerId, "Yoga Basics", LocalTime.of(9, 0), 60);
+        TrainerSchedule takenOver = buildSchedule(UUID.randomUUID(), otherTrainerId, "Pilates", LocalTime.of(10, 0), 60);
+        ScheduledSession awayInstance = buildExistingSession(null, "yoga-basics__2025-09-26__09:00__" + trainerId,
+                givenAway.getId(), otherTrainerId, date, LocalTime.of(9, 0), LocalTime.of(10, 0), null, true);
+        ScheduledSession inInstance = buildExistingSession(null, "pilates__2025-09-26__10:00__" + otherTrainerId,
+                takenOver.getId(), trainerId, date, LocalTime.of(10, 0), LocalTime.of(11, 0), null, true);
+        when(scheduledSessionRepository.findForTrainerInRange(eq(trainerId), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(awayInstance, inInstance));
+        when(trainerScheduleIndex.findEffectiveOnForTrainer(trainerId, date)).thenReturn(List.of(kept, givenAway));
+        when(trainerScheduleIndex.findEffectiveOn(takenOver.getId(), date)).thenReturn(Optional.of(takenOver));
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+
+        List<SessionResponseDTO> sessions = scheduleService.getScheduledSessions(date, date, trainerId);
+
+        assertEquals(List.of("Morning Yoga", "Pilates"), sessions.stream().map(SessionResponseDTO::seriesName).toList());
+        assertTrue(sessions.stream().allMatch(session -> trainerId.equals(session.trainerId())));
+        assertEquals("pilates__2025-09-26__10:00__" + otherTrainerId, sessions.get(1).sessionId());
+        verify(trainerScheduleIndex, never()).findEffectiveOn(any(LocalDate.class));
+        verify(scheduledSessionRepository, never()).findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getScheduledSessions_forTrainer_readsOnlyTheirRows_insideTheServedWindow() {
+        LocalDate date = LocalDate.of(2025, 9, 26);
+        ScheduledSession row = buildExistingSession(null, "yoga-basics__2025-09-26__09:00__" + trainerId, UUID.randomUUID(), trainerId,
+                date, LocalTime.of(9, 0), LocalTime.of(10, 0), null, false);
+        when(scheduleMaterializer.serves(date, date)).thenReturn(true);
+        when(scheduledSessionRepository.findByTrainerIdAndStartTimeBetweenAndActiveTrue(eq(trainerId), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(row));
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+
+        List<SessionResponseDTO> sessions = scheduleService.getScheduledSessions(date, date, trainerId);
+
+        assertEquals(1, sessions.size());
+        verifyNoInteractions(trainerScheduleIndex);
+        verify(scheduledSessionRepository, never()).findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void getStudentSessions_expandsOnlyTheStudentsBookings_andAppliesTheirOverrides() {
+        // 2025-09-26 and 2025-10-03 are Fridays
+        LocalDate firstFriday = LocalDate.of(2025, 9, 26);
+        LocalDate secondFriday = LocalDate.of(2025, 10, 3);
+        UUID studentId = UUID.randomUUID();
+        Student student = mock(Student.class);
+        when(student.getName()).thenReturn("Ana");
+        TrainerSchedule booked = buildSchedule(UUID.randomUUID(), trainerId, "Yoga Basics", LocalTime.of(9, 0), 60);
+        StudentCommitmentState attending = new StudentCommitmentState();
+        attending.setStudentId(studentId);
+        attending.setSessionSeriesId(booked.getId());
+        attending.setCommitmentStatus(CommitmentStatus.ATTENDING);
+        attending.setValidFrom(SCHEDULES_EFFECTIVE_FROM);
+
+        // Excluded from the first Friday, added to a one-off on Tuesday
+        ScheduledSession firstFridayInstance = buildExistingSession(null, "yoga-basics__2025-09-26__09:00__" + trainerId,
+                booked.getId(), trainerId, firstFriday, LocalTime.of(9, 0), LocalTime.of(10, 0), null, true);
+        SessionParticipant excluded = new SessionParticipant();
+        excluded.setStudentId(studentId);
+        excluded.setScheduledSession(firstFridayInstance);
+        excluded.setParticipationType(SessionParticipant.ParticipationType.EXCLUDED);
+        ScheduledSession oneOff = buildExistingSession(null, "open-gym__2025-09-30__18:00__" + trainerId, null, trainerId,
+                LocalDate.of(2025, 9, 30), LocalTime.of(18, 0), LocalTime.of(19, 0), null, true);
+        oneOff.setSeriesName("Open Gym");
+        SessionParticipant included = new SessionParticipant();
+        included.setId(UUID.randomUUID());
+        included.setStudentId(studentId);
+        included.setScheduledSession(oneOff);
+        included.setParticipationType(SessionParticipant.ParticipationType.INCLUDED);
+
+        when(studentRepository.findByIdAndDeletedAtIsNull(studentId)).thenReturn(Optional.of(student));
+        when(studentCommitmentStateRepository.findByStudentIdOverlapping(eq(studentId), any(Instant.class), any(Instant.class)))
+                .thenReturn(List.of(attending));
+        when(sessionParticipantRepository.findByStudentIdInRange(eq(studentId), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(excluded, included));
+        when(scheduledSessionRepository.findBySessionSeriesIdInRange(eq(Set.of(booked.getId())), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(firstFridayInstance));
+        when(trainerScheduleIndex.findEffectiveOn(eq(booked.getId()), any(LocalDate.class)))
+                .thenAnswer(invocation -> invocation.<LocalDate>getArgument(1).getDayOfWeek() == DayOfWeek.FRIDAY
+                        ? Optional.of(booked) : Optional.empty());
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+
+        List<SessionResponseDTO> sessions = scheduleService.getStudentSessions(studentId, firstFriday, secondFriday);
+
+        assertEquals(List.of("Open Gym", "Yoga Basics"), sessions.stream().map(SessionResponseDTO::seriesName).toList());
+        assertEquals(LocalDateTime.of(secondFriday, LocalTime.of(9, 0)), sessions.get(1).startTime());
+        assertTrue(sessions.stream().allMatch(session -> session.students().size() == 1
+                && studentId.equals(session.students().get(0).studentId())
+                && "Ana".equals(session.students().get(0).studentName())));
+        verify(trainerScheduleIndex, never()).findEffectiveOn(any(LocalDate.class));
+        verify(scheduledSessionRepository, never()).findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class));
+        verify(studentCommitmentStateRepository, never()).findBySessionSeriesIdInOverlapping(anyCollection(), any(Instant.class), any(Instant.class));
+    }
+
+    @Test
+    void getStudentSessions_throwsNotFound_forUnknownStudent() {
+        UUID studentId = UUID.randomUUID();
+        when(studentRepository.findByIdAndDeletedAtIsNull(studentId)).thenReturn(Optional.empty());
+
+        LocalDate date = LocalDate.of(2025, 9, 26);
+        assertThrows(ResponseStatusException.class, () -> scheduleService.getStudentSessions(studentId, date, date));
+        verifyNoInteractions(scheduledSessionRepository, trainerScheduleIndex);
+    }
+
+    @Test
+    void streamScheduledSessions_emitsEachDayOnItsOwnInOrder() {
+        // Arrange
+        LocalDate saturday = LocalDate.of(2025, 9, 27);
+        LocalDate sunday = LocalDate.of(2025, 9, 28);
+        TrainerSchedule weekend = buildSchedule(UUID.randomUUID(), trainerId, "Weekend Flow", LocalTime.of(9, 0), 60);
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(List.of());
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class))).thenReturn(List.of(weekend));
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+        List<List<SessionResponseDTO>> days = new ArrayList<>();
 
         // Act
-        scheduleService.getScheduledSessions(date, date);
+        scheduleService.streamScheduledSessions(saturday, sunday, days::add);
+
+        // Assert: one batch per day, each expanded from its own day-bounded query
+        assertEquals(2, days.size());
+        assertEquals(saturday, days.get(0).get(0).startTime().toLocalDate());
+        assertEquals(sunday, days.get(1).get(0).startTime().toLocalDate());
+        verify(scheduledSessionRepository).findByStartTimeBetweenAndActiveTrue(saturday.atStartOfDay(), saturday.atTime(23, 59, 59));
+        verify(scheduledSessionRepository).findByStartTimeBetweenAndActiveTrue(sunday.atStartOfDay(), sunday.atTime(23, 59, 59));
+    }
 
-        // Assert: capture weekday argument
-        ArgumentCaptor<Integer> weekdayCaptor = ArgumentCaptor.forClass(Integer.class);
-        verify(trainerScheduleRepository, atLeastOnce()).findByWeekdayAndEffectiveFromTimestampLessThanEqual(weekdayCaptor.capture(), any(Instant.class));
-        assertEquals(0, weekdayCaptor.getValue());
+    @Test
+    void streamScheduledSessions_readsMaterializedRowsForDaysTheWindowServes() {
+        LocalDate saturday = LocalDate.of(2025, 9, 27);
+        LocalDate sunday = LocalDate.of(2025, 9, 28);
+        ScheduledSession row = buildExistingSession(null, "weekend-flow__2025-09-27__09:00__" + trainerId, UUID.randomUUID(), trainerId,
+                saturday, LocalTime.of(9, 0), LocalTime.of(10, 0), null, false);
+        TrainerSchedule weekend = buildSchedule(UUID.randomUUID(), trainerId, "Weekend Flow", LocalTime.of(9, 0), 60);
+        when(scheduleMaterializer.serves(saturday, saturday)).thenReturn(true);
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(saturday.atStartOfDay(), saturday.atTime(23, 59, 59)))
+                .thenReturn(List.of(row));
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(sunday.atStartOfDay(), sunday.atTime(23, 59, 59)))
+                .thenReturn(List.of());
+        when(trainerScheduleIndex.findEffectiveOn(sunday)).thenReturn(List.of(weekend));
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+        List<List<SessionResponseDTO>> days = new ArrayList<>();
+
+        scheduleService.streamScheduledSessions(saturday, sunday, days::add);
+
+        // Saturday comes straight from its rows; Sunday, outside the window, is expanded from the series
+        assertEquals(2, days.size());
+        assertEquals(1, days.get(0).size());
+        assertEquals(1, days.get(1).size());
+        verify(trainerScheduleIndex, never()).findEffectiveOn(saturday);
+        verify(trainerScheduleIndex).findEffectiveOn(sunday);
     }
 
     @Test
@@ -261,13 +547,15 @@ class ScheduleServiceTest {
         LocalDate date = LocalDate.of(2025, 9, 26);
         TrainerSchedule s1 = buildSchedule(UUID.randomUUID(), trainerId, "Morning Flow", LocalTime.of(8, 0), 60);
         TrainerSchedule s2 = buildSchedule(UUID.randomUUID(), trainerId, "Power Yoga", LocalTime.of(7, 0), 60);
+        s1.setDayOfWeek(date.getDayOfWeek());
+        s2.setDayOfWeek(date.getDayOfWeek());
 
         when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(List.of());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class)))
                 .thenReturn(List.of(s1, s2));
-        when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
-        when(studentCommitmentRepository.findBySessionSeriesId(any(UUID.class))).thenReturn(List.of());
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+        when(studentCommitmentStateRepository.findBySessionSeriesIdInOverlapping(anyCollection(), any(Instant.class), any(Instant.class))).thenReturn(List.of());
 
         // Act
         List<SessionResponseDTO> sessions = scheduleService.getScheduledSessions(date, date);
@@ -339,6 +627,7 @@ class ScheduleServiceTest {
         assertTrue(existing.isCanceled());
         assertTrue(existing.isInstanceOverride());
         verify(scheduledSessionRepository).save(existing);
+        verify(scheduleChangeLog).recordSession(existing, ScheduleChange.ChangeType.CANCELLATION);
     }
 
     @Test
@@ -364,6 +653,27 @@ class ScheduleServiceTest {
         verify(scheduledSessionRepository).save(existing);
     }
 
+    @Test
+    void updateSessionTrainer_rejectsTrainerBusyAtThatTime() {
+        String sessionId = "yoga-basics__2025-09-26__09:00";
+        ScheduledSession existing = new ScheduledSession();
+        existing.setId(UUID.randomUUID());
+        existing.setSessionId(sessionId);
+        existing.setTrainerId(UUID.randomUUID());
+        existing.setStartTime(LocalDateTime.of(2025, 9, 26, 9, 0));
+        existing.setEndTime(LocalDateTime.of(2025, 9, 26, 10, 0));
+        UUID busyTrainerId = UUID.randomUUID();
+
+        when(scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId)).thenReturn(Optional.of(existing));
+        doThrow(new ResponseStatusException(HttpStatus.CONFLICT, "Trainer is already busy"))
+            .when(trainerAvailabilityIndex).requireFree(busyTrainerId, existing.getStartTime(), existing.getEndTime(), existing.getId());
+
+        assertThrows(ResponseStatusException.class, () -> scheduleService.updateSessionTrainer(sessionId, busyTrainerId));
+
+        verify(scheduledSessionRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any(TrainerAvailabilityIndex.Changed.class));
+    }
+
     @Test
     void addParticipant_addsIncludedOverride() {
         // Arrange
@@ -444,6 +754,85 @@ class ScheduleServiceTest {
         verify(sessionParticipantRepository).save(sp);
     }
 
+    @Test
+    void updateParticipantPresence_publishesActivityChangeForSessionDay() {
+        // Arrange
+        String sessionId = "yoga-basics__2025-09-26__09:00";
+        ScheduledSession existing = new ScheduledSession();
+        existing.setId(UUID.randomUUID());
+        existing.setSessionId(sessionId);
+        existing.setStartTime(LocalDateTime.of(2025, 9, 26, 9, 0));
+        UUID studentId = UUID.randomUUID();
+
+        SessionParticipant sp = new SessionParticipant();
+        sp.setStudentId(studentId);
+        sp.setParticipationType(SessionParticipant.ParticipationType.INCLUDED);
+
+        when(scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId)).thenReturn(Optional.of(existing));
+        when(sessionParticipantRepository.findByScheduledSession_IdAndStudentIdAndActiveTrue(existing.getId(), studentId))
+                .thenReturn(List.of(sp));
+
+        // Act
+        scheduleService.updateParticipantPresence(sessionId, studentId, true, null);
+
+        // Assert: the report rollup of that day is refreshed
+        verify(eventPublisher).publishEvent(ReportRollupService.ActivityChanged.of(LocalDate.of(2025, 9, 26)));
+    }
+
+    @Test
+    void updateAttendance_appliesWholeRosterWithOneResolutionAndBatchedWrites() {
+        // Arrange
+        String sessionId = "yoga-basics__2025-09-26__09:00";
+        ScheduledSession existing = new ScheduledSession();
+        existing.setId(UUID.randomUUID());
+        existing.setSessionId(sessionId);
+        existing.setStartTime(LocalDateTime.of(2025, 9, 26, 9, 0));
+        UUID includedStudent = UUID.randomUUID();
+        UUID excludedStudent = UUID.randomUUID();
+        UUID newStudent = UUID.randomUUID();
+
+        SessionParticipant included = new SessionParticipant();
+        included.setStudentId(includedStudent);
+        included.setParticipationType(SessionParticipant.ParticipationType.INCLUDED);
+        SessionParticipant excluded = new SessionParticipant();
+        excluded.setStudentId(excludedStudent);
+        excluded.setParticipationType(SessionParticipant.ParticipationType.EXCLUDED);
+
+        when(scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId)).thenReturn(Optional.of(existing));
+        when(sessionParticipantRepository.findByScheduledSession_IdAndActiveTrue(existing.getId()))
+                .thenReturn(List.of(included, excluded));
+
+        Map<UUID, SessionParticipantPresenceRequestDTO> attendance = new LinkedHashMap<>();
+        attendance.put(includedStudent, new SessionParticipantPresenceRequestDTO(true, "On time"));
+        attendance.put(excludedStudent, new SessionParticipantPresenceRequestDTO(true, null));
+        attendance.put(newStudent, new SessionParticipantPresenceRequestDTO(false, "Sick"));
+
+        // Act
+        scheduleService.updateAttendance(sessionId, attendance);
+
+        // Assert: excluded override lifted, existing participant updated, missing one included, all in one batch
+        assertTrue(included.isPresent());
+        assertEquals("On time", included.getAttendanceNotes());
+        verify(sessionParticipantRepository).deleteAll(List.of(excluded));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SessionParticipant>> saved = ArgumentCaptor.forClass(List.class);
+        verify(sessionParticipantRepository).saveAll(saved.capture());
+        assertEquals(List.of(includedStudent, excludedStudent, newStudent),
+                saved.getValue().stream().map(SessionParticipant::getStudentId).toList());
+        SessionParticipant added = saved.getValue().get(2);
+        assertTrue(added.isIncluded());
+        assertFalse(added.isPresent());
+        assertEquals("Sick", added.getAttendanceNotes());
+        assertEquals(existing, added.getScheduledSession());
+        verify(scheduledSessionRepository, times(1)).findBySessionIdAndActiveTrue(sessionId);
+        verify(scheduledSessionRepository, times(1)).save(existing);
+        verify(sessionParticipantRepository, never()).findByScheduledSession_IdAndStudentIdAndActiveTrue(any(), any());
+        verify(sessionParticipantRepository, never()).save(any());
+        assertTrue(existing.isInstanceOverride());
+        verify(eventPublisher).publishEvent(ReportRollupService.ActivityChanged.of(LocalDate.of(2025, 9, 26)));
+        verify(scheduleChangeLog).recordSession(existing, ScheduleChange.ChangeType.PRESENCE);
+    }
+
     @Test
     void addParticipantExercise_addsExerciseToParticipant() {
         // Arrange
@@ -545,7 +934,7 @@ class ScheduleServiceTest {
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId)).thenReturn(Optional.of(existing));
         when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
-        when(studentCommitmentRepository.findBySessionSeriesId(any())).thenReturn(List.of());
+        when(studentCommitmentStateRepository.findBySessionSeriesIdValidAt(any(), any())).thenReturn(List.of());
 
         // Act
         SessionResponseDTO result = scheduleService.getSessionById(sessionId);
@@ -567,10 +956,10 @@ class ScheduleServiceTest {
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId)).thenReturn(Optional.empty());
         when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(), any())).thenReturn(List.of());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
                 .thenReturn(List.of(schedule));
         when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
-        when(studentCommitmentRepository.findBySessionSeriesId(schedule.getId())).thenReturn(List.of());
+        when(studentCommitmentStateRepository.findBySessionSeriesIdValidAt(eq(schedule.getId()), any(Instant.class))).thenReturn(List.of());
 
         // Act
         SessionResponseDTO result = scheduleService.getSessionById(sessionId);
@@ -592,10 +981,10 @@ class ScheduleServiceTest {
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(legacyId)).thenReturn(Optional.empty());
         when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(), any())).thenReturn(List.of());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
                 .thenReturn(List.of(schedule));
         when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
-        when(studentCommitmentRepository.findBySessionSeriesId(schedule.getId())).thenReturn(List.of());
+        when(studentCommitmentStateRepository.findBySessionSeriesIdValidAt(eq(schedule.getId()), any(Instant.class))).thenReturn(List.of());
 
         // Act
         SessionResponseDTO result = scheduleService.getSessionById(legacyId);
@@ -620,10 +1009,10 @@ class ScheduleServiceTest {
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(ambiguousId)).thenReturn(Optional.empty());
         when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(), any())).thenReturn(List.of());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
                 .thenReturn(List.of(s1, s2));
         when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
-        when(studentCommitmentRepository.findBySessionSeriesId(s1.getId())).thenReturn(List.of());
+        when(studentCommitmentStateRepository.findBySessionSeriesIdValidAt(eq(s1.getId()), any(Instant.class))).thenReturn(List.of());
 
         // Act
         SessionResponseDTO result = scheduleService.getSessionById(ambiguousId, trainerId);
@@ -647,7 +1036,7 @@ class ScheduleServiceTest {
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(ambiguousId)).thenReturn(Optional.empty());
         when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(), any())).thenReturn(List.of());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
                 .thenReturn(List.of(s1, s2));
 
         // Act & Assert
@@ -669,17 +1058,17 @@ class ScheduleServiceTest {
         existing.setStartTime(LocalDateTime.now());
         
         UUID studentId = UUID.randomUUID();
-        StudentCommitment commitment = new StudentCommitment();
+        StudentCommitmentState commitment = new StudentCommitmentState();
         commitment.setStudentId(studentId);
         commitment.setCommitmentStatus(CommitmentStatus.ATTENDING);
-        commitment.setEffectiveFromTimestamp(Instant.now().minus(Duration.ofDays(10)));
+        commitment.setValidFrom(Instant.now().minus(Duration.ofDays(10)));
 
         SessionParticipant excluded = new SessionParticipant();
         excluded.setStudentId(studentId);
         excluded.setParticipationType(SessionParticipant.ParticipationType.EXCLUDED);
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId)).thenReturn(Optional.of(existing));
-        when(studentCommitmentRepository.findBySessionSeriesId(existing.getSessionSeriesId())).thenReturn(List.of(commitment));
+        when(studentCommitmentStateRepository.findBySessionSeriesIdValidAt(eq(existing.getSessionSeriesId()), any(Instant.class))).thenReturn(List.of(commitment));
         when(sessionParticipantRepository.findByScheduledSession_IdAndActiveTrue(existing.getId())).thenReturn(List.of(excluded));
         when(studentRepository.findById(studentId)).thenReturn(Optional.of(mock(Student.class)));
 
@@ -710,7 +1099,7 @@ class ScheduleServiceTest {
         included.setPresent(true);
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId)).thenReturn(Optional.of(existing));
-        when(studentCommitmentRepository.findBySessionSeriesId(existing.getSessionSeriesId())).thenReturn(List.of());
+        when(studentCommitmentStateRepository.findBySessionSeriesIdValidAt(eq(existing.getSessionSeriesId()), any(Instant.class))).thenReturn(List.of());
         when(sessionParticipantRepository.findByScheduledSession_IdAndActiveTrue(existing.getId())).thenReturn(List.of(included));
         when(studentRepository.findById(studentId)).thenReturn(Optional.of(mock(Student.class)));
         when(participantExerciseRepository.findActiveWithExerciseBySessionParticipantId(included.getId())).thenReturn(List.of());
@@ -800,9 +1189,8 @@ class ScheduleServiceTest {
         
         when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class)))
                 .thenReturn(List.of(standalone));
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class)))
                 .thenReturn(List.of());
-        when(studentCommitmentRepository.findBySessionSeriesId(any())).thenReturn(List.of());
 
         // Act
         List<SessionResponseDTO> sessions = scheduleService.getScheduledSessions(date, date);
@@ -814,64 +1202,46 @@ class ScheduleServiceTest {
     }
 
     @Test
-    void getOrCreateSessionInstance_resolvesAmbiguousSlug_ExactMatch() {
+    void getOrCreateSessionInstance_resolvesThroughRegistry_whenSeveralSeriesShareTheTime() {
         // Arrange
         LocalDate date = LocalDate.of(2025, 9, 26);
         LocalTime time = LocalTime.of(9, 0);
         TrainerSchedule s1 = buildSchedule(UUID.randomUUID(), trainerId, "Yoga Basics", time, 60);
-        TrainerSchedule s2 = buildSchedule(UUID.randomUUID(), UUID.randomUUID(), "Yoga Advanced", time, 60);
-        
-        // Slug "yoga-basics" matches s1 exactly
-        String ambiguousId = "yoga-basics__" + date + "__09:00";
+        String sessionId = "yoga-basics__" + date + "__09:00";
 
-        when(scheduledSessionRepository.findBySessionIdAndActiveTrue(ambiguousId)).thenReturn(Optional.empty());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
-                .thenReturn(List.of(s1, s2));
-        when(scheduledSessionRepository.save(any(ScheduledSession.class))).thenAnswer(invocation -> {
-            ScheduledSession s = invocation.getArgument(0);
-            s.setId(UUID.randomUUID());
-            return s;
-        });
+        stubInsertIfAbsentLands();
+        when(sessionKeyRegistry.resolve(sessionId)).thenReturn(Optional.of(new SessionKeyRegistry.Resolution(s1, date)));
+        when(scheduledSessionRepository.save(any(ScheduledSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // Act
-        // Trigger getOrCreateSessionInstance via updateSessionNotes
-        scheduleService.updateSessionNotes(ambiguousId, "Notes");
+        scheduleService.updateSessionNotes(sessionId, "Notes");
 
         // Assert
         ArgumentCaptor<ScheduledSession> captor = ArgumentCaptor.forClass(ScheduledSession.class);
         verify(scheduledSessionRepository, atLeastOnce()).save(captor.capture());
-        // The first save is inside getOrCreateSessionInstance, the second is inside updateSessionNotes
-        // We just want to ensure one of them (the one created) has the correct series name
-        assertEquals("Yoga Basics", captor.getAllValues().get(0).getSeriesName());
+        assertEquals(s1.getId(), captor.getAllValues().get(0).getSessionSeriesId());
+        assertEquals("yoga-basics__" + date + "__09:00__" + trainerId, captor.getAllValues().get(0).getSessionId());
+        // A registered id never falls back to scanning the slot
+        verify(trainerScheduleIndex, never()).findEffectiveOn(any(LocalDate.class), any(LocalTime.class));
     }
 
     @Test
-    void getOrCreateSessionInstance_resolvesAmbiguousSlug_PrefixMatch() {
+    void getOrCreateSessionInstance_doesNotGuessFromSlugPrefixes() {
         // Arrange
         LocalDate date = LocalDate.of(2025, 9, 26);
         LocalTime time = LocalTime.of(9, 0);
         TrainerSchedule s1 = buildSchedule(UUID.randomUUID(), trainerId, "Yoga Basics", time, 60);
         TrainerSchedule s2 = buildSchedule(UUID.randomUUID(), UUID.randomUUID(), "Pilates", time, 60);
-        
-        // Slug "yoga" is a prefix of "Yoga Basics" but not "Pilates"
-        String ambiguousId = "yoga__" + date + "__09:00";
+        String unregisteredId = "yoga__" + date + "__09:00";
 
-        when(scheduledSessionRepository.findBySessionIdAndActiveTrue(ambiguousId)).thenReturn(Optional.empty());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(scheduledSessionRepository.findBySessionIdAndActiveTrue(unregisteredId)).thenReturn(Optional.empty());
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
                 .thenReturn(List.of(s1, s2));
-        when(scheduledSessionRepository.save(any(ScheduledSession.class))).thenAnswer(invocation -> {
-            ScheduledSession s = invocation.getArgument(0);
-            s.setId(UUID.randomUUID());
-            return s;
-        });
 
-        // Act
-        scheduleService.updateSessionNotes(ambiguousId, "Notes");
-
-        // Assert
-        ArgumentCaptor<ScheduledSession> captor = ArgumentCaptor.forClass(ScheduledSession.class);
-        verify(scheduledSessionRepository, atLeastOnce()).save(captor.capture());
-        assertEquals("Yoga Basics", captor.getAllValues().get(0).getSeriesName());
+        // Act & Assert
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> scheduleService.updateSessionNotes(unregisteredId, "Notes"));
+        assertTrue(ex.getCause().getMessage().contains("Ambiguous session slug/time"));
+        verify(scheduledSessionRepository, never()).save(any());
     }
 
     @Test
@@ -886,7 +1256,7 @@ class ScheduleServiceTest {
         String ambiguousId = "yoga__" + date + "__09:00";
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(ambiguousId)).thenReturn(Optional.empty());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
                 .thenReturn(List.of(s1, s2));
 
         // Act & Assert
@@ -910,8 +1280,8 @@ class ScheduleServiceTest {
         
         TrainerSchedule schedule = buildSchedule(UUID.randomUUID(), trainerId, "New Name", time, 60);
         
-        when(scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId)).thenReturn(Optional.empty());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        stubInsertIfAbsentLands();
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
             .thenReturn(List.of(schedule));
         when(scheduledSessionRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
@@ -934,6 +1304,7 @@ class ScheduleServiceTest {
         LocalDate date = LocalDate.of(2025, 9, 26);
         LocalTime start = LocalTime.of(9, 0);
         TrainerSchedule schedule = buildSchedule(UUID.randomUUID(), trainerId, "Yoga", start, 60);
+        schedule.setDayOfWeek(date.getDayOfWeek());
         
         // Existing session with overrides
         ScheduledSession session = buildExistingSession(UUID.randomUUID(), "yoga__"+date+"__09:00", schedule.getId(), trainerId, date, start, start.plusMinutes(60), "", true);
@@ -942,36 +1313,38 @@ class ScheduleServiceTest {
         UUID studentIncluded = UUID.randomUUID();
         
         // Commitments: studentExcluded has commitment, studentIncluded does not
-        StudentCommitment c1 = new StudentCommitment();
+        StudentCommitmentState c1 = new StudentCommitmentState();
         c1.setStudentId(studentExcluded);
         c1.setSessionSeriesId(schedule.getId());
         c1.setCommitmentStatus(CommitmentStatus.ATTENDING);
-        c1.setEffectiveFromTimestamp(Instant.now().minusSeconds(100));
+        c1.setValidFrom(Instant.now().minusSeconds(100));
         
-        when(studentCommitmentRepository.findBySessionSeriesId(schedule.getId())).thenReturn(List.of(c1));
+        when(studentCommitmentStateRepository.findBySessionSeriesIdInOverlapping(anyCollection(), any(Instant.class), any(Instant.class))).thenReturn(List.of(c1));
         
         // Overrides
         SessionParticipant spExcluded = new SessionParticipant();
+        spExcluded.setScheduledSession(session);
         spExcluded.setStudentId(studentExcluded);
         spExcluded.setParticipationType(SessionParticipant.ParticipationType.EXCLUDED);
         
         SessionParticipant spIncluded = new SessionParticipant();
+        spIncluded.setScheduledSession(session);
         spIncluded.setStudentId(studentIncluded);
         spIncluded.setParticipationType(SessionParticipant.ParticipationType.INCLUDED);
         spIncluded.setPresent(true);
         spIncluded.setId(UUID.randomUUID());
         
-        when(sessionParticipantRepository.findByScheduledSession_IdAndActiveTrue(session.getId()))
+        when(sessionParticipantRepository.findByScheduledSession_IdInAndActiveTrue(anyCollection()))
             .thenReturn(List.of(spExcluded, spIncluded));
             
         when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(), any()))
             .thenReturn(List.of(session));
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any()))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class)))
             .thenReturn(List.of(schedule));
-        when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
         
-        when(studentRepository.findById(studentIncluded)).thenReturn(Optional.of(mock(Student.class)));
-        when(participantExerciseRepository.findActiveWithExerciseBySessionParticipantId(any())).thenReturn(List.of());
+        when(studentRepository.findAllById(anyCollection())).thenReturn(List.of(mock(Student.class)));
+        when(participantExerciseRepository.findActiveWithExerciseBySessionParticipantIdIn(anyCollection())).thenReturn(List.of());
 
         // Act
         List<SessionResponseDTO> sessions = scheduleService.getScheduledSessions(date, date);
@@ -998,10 +1371,9 @@ class ScheduleServiceTest {
         // Canonical ID: slug__date__time__trainerId
         String canonicalId = "yoga__" + date + "__09:00__" + trainerId;
         
-        when(scheduledSessionRepository.findBySessionIdAndActiveTrue(canonicalId)).thenReturn(Optional.empty());
+        stubInsertIfAbsentLands();
         // It should look up by weekday first
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(
-                anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
             .thenReturn(List.of(schedule));
             
         when(scheduledSessionRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
@@ -1017,6 +1389,31 @@ class ScheduleServiceTest {
         assertEquals(canonicalId, saved.getSessionId());
     }
 
+    @Test
+    void getOrCreateSessionInstance_usesConcurrentlyCreatedRow_whenInsertLosesTheRace() {
+        // Arrange
+        LocalDate date = LocalDate.of(2025, 9, 26);
+        TrainerSchedule schedule = buildSchedule(UUID.randomUUID(), trainerId, "Yoga", LocalTime.of(9, 0), 60);
+        String canonicalId = "yoga__" + date + "__09:00__" + trainerId;
+        ScheduledSession winner = new ScheduledSession();
+        winner.setId(UUID.randomUUID());
+        winner.setSessionId(canonicalId);
+
+        // Absent when looked up, taken by another request by the time this one inserts
+        when(scheduledSessionRepository.findBySessionIdAndActiveTrue(canonicalId))
+            .thenReturn(Optional.empty(), Optional.of(winner));
+        when(sessionKeyRegistry.resolve(canonicalId)).thenReturn(Optional.of(new SessionKeyRegistry.Resolution(schedule, date)));
+        when(scheduledSessionRepository.insertIfAbsent(any(ScheduledSession.class))).thenReturn(0);
+
+        // Act
+        scheduleService.updateSessionNotes(canonicalId, "Notes");
+
+        // Assert: the notes land on the row that won, nothing is inserted through save
+        assertEquals("Notes", winner.getNotes());
+        verify(scheduledSessionRepository).save(winner);
+        verify(scheduledSessionRepository, times(1)).save(any(ScheduledSession.class));
+    }
+
     @Test
     void getOrCreateSessionInstance_legacyId_createsSessionWithCanonicalId() {
         // Arrange
@@ -1030,11 +1427,10 @@ class ScheduleServiceTest {
         // Canonical ID: slug__date__time__trainerId
         String canonicalId = "yoga__" + date + "__09:00__" + trainerId;
         
-        when(scheduledSessionRepository.findBySessionIdAndActiveTrue(legacyId)).thenReturn(Optional.empty());
+        stubInsertIfAbsentLands();
         
         // It should look up by weekday
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(
-                anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
             .thenReturn(List.of(schedule));
             
         when(scheduledSessionRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
@@ -1085,7 +1481,7 @@ class ScheduleServiceTest {
         String id = "slug__" + date + "__09:00";
         
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(id)).thenReturn(Optional.empty());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any()))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
             .thenReturn(List.of()); // No schedules found
 
         // Act & Assert
@@ -1149,7 +1545,7 @@ class ScheduleServiceTest {
         schedule.setEffectiveFromTimestamp(Instant.now().minus(Duration.ofDays(1)));
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId)).thenReturn(Optional.empty());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
                 .thenReturn(List.of(schedule));
         when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
 
@@ -1176,7 +1572,7 @@ class ScheduleServiceTest {
         schedule.setEffectiveFromTimestamp(Instant.now().minus(Duration.ofDays(1)));
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId)).thenReturn(Optional.empty());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
                 .thenReturn(List.of(schedule));
         when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
 
@@ -1210,7 +1606,7 @@ class ScheduleServiceTest {
         schedule2.setEffectiveFromTimestamp(Instant.now().minus(Duration.ofDays(1)));
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId)).thenReturn(Optional.empty());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
                 .thenReturn(List.of(schedule1, schedule2));
         when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
 
@@ -1245,7 +1641,7 @@ class ScheduleServiceTest {
         schedule2.setEffectiveFromTimestamp(Instant.now().minus(Duration.ofDays(1)));
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId)).thenReturn(Optional.empty());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
                 .thenReturn(List.of(schedule1, schedule2));
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> scheduleService.getSessionById(sessionId));
@@ -1254,8 +1650,8 @@ class ScheduleServiceTest {
     }
 
     @Test
-    @DisplayName("getSessionById: Should resolve using prefix match")
-    void getSessionById_PrefixMatch() {
+    @DisplayName("getSessionById: Should resolve an id registered under a former name")
+    void getSessionById_resolvesRenamedSlugThroughRegistry() {
         LocalDate date = LocalDate.of(2025, 10, 1);
         LocalTime time = LocalTime.of(10, 0);
         String sessionId = "yoga__" + date + "__" + time;
@@ -1278,14 +1674,14 @@ class ScheduleServiceTest {
         schedule2.setEffectiveFromTimestamp(Instant.now().minus(Duration.ofDays(1)));
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(sessionId)).thenReturn(Optional.empty());
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
-                .thenReturn(List.of(schedule1, schedule2));
+        when(sessionKeyRegistry.resolve(sessionId)).thenReturn(Optional.of(new SessionKeyRegistry.Resolution(schedule1, date)));
         when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
 
         SessionResponseDTO result = scheduleService.getSessionById(sessionId);
 
         assertNotNull(result);
         assertEquals("Yoga Advanced", result.seriesName());
+        verify(trainerScheduleIndex, never()).findEffectiveOn(any(LocalDate.class), any(LocalTime.class));
     }
     
     @Test
@@ -1325,9 +1721,9 @@ class ScheduleServiceTest {
         
         when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(), any()))
                 .thenReturn(List.of(standaloneSession));
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class)))
                 .thenReturn(Collections.emptyList());
-        when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
         
         List<SessionResponseDTO> result = scheduleService.getScheduledSessions(startDate, endDate);
         
@@ -1350,7 +1746,8 @@ class ScheduleServiceTest {
         schedule.setSeriesName("Yoga Basics");
         schedule.setStartTime(time);
         schedule.setIntervalDuration(60);
-        schedule.setEffectiveFromTimestamp(Instant.now().minus(Duration.ofDays(1)));
+        schedule.setEffectiveFromTimestamp(SCHEDULES_EFFECTIVE_FROM);
+        schedule.setDayOfWeek(startDate.getDayOfWeek());
         
         // Persisted session that matches the generated one (same ID)
         String sessionId = "yoga-basics__" + startDate + "__" + time + "__" + trainerId;
@@ -1364,9 +1761,9 @@ class ScheduleServiceTest {
         
         when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(), any()))
                 .thenReturn(List.of(persistedSession));
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class)))
                 .thenReturn(List.of(schedule));
-        when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
         
         List<SessionResponseDTO> result = scheduleService.getScheduledSessions(startDate, endDate);
         
@@ -1390,7 +1787,8 @@ class ScheduleServiceTest {
         schedule.setSeriesName("Yoga Basics");
         schedule.setStartTime(time);
         schedule.setIntervalDuration(60);
-        schedule.setEffectiveFromTimestamp(Instant.now().minus(Duration.ofDays(1)));
+        schedule.setEffectiveFromTimestamp(SCHEDULES_EFFECTIVE_FROM);
+        schedule.setDayOfWeek(startDate.getDayOfWeek());
         
         // Persisted session with LEGACY ID format (3 parts)
         String legacyId = "yoga-basics__" + startDate + "__" + time;
@@ -1404,9 +1802,9 @@ class ScheduleServiceTest {
         
         when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(), any()))
                 .thenReturn(List.of(persistedSession));
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class)))
                 .thenReturn(List.of(schedule));
-        when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
         
         List<SessionResponseDTO> result = scheduleService.getScheduledSessions(startDate, endDate);
         
@@ -1434,9 +1832,10 @@ class ScheduleServiceTest {
         schedule.setSeriesName("Regular Class");
         schedule.setStartTime(LocalTime.of(10, 0));
         schedule.setIntervalDuration(60);
-        schedule.setEffectiveFromTimestamp(Instant.now().minus(Duration.ofDays(1)));
+        schedule.setEffectiveFromTimestamp(SCHEDULES_EFFECTIVE_FROM);
+        schedule.setDayOfWeek(date.getDayOfWeek());
 
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class)))
                 .thenReturn(List.of(schedule));
 
         // Existing session for the same slot
@@ -1453,8 +1852,8 @@ class ScheduleServiceTest {
         when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(startDateTime, endDateTime))
                 .thenReturn(List.of(existing));
 
-        when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
-        when(studentCommitmentRepository.findBySessionSeriesId(any())).thenReturn(List.of());
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+        when(studentCommitmentStateRepository.findBySessionSeriesIdInOverlapping(anyCollection(), any(Instant.class), any(Instant.class))).thenReturn(List.of());
 
         // Act
         List<SessionResponseDTO> sessions = scheduleService.getScheduledSessions(date, date);
@@ -1464,6 +1863,107 @@ class ScheduleServiceTest {
         assertEquals("Updated notes", sessions.get(0).notes());
     }
 
+    @Test
+    @DisplayName("getScheduledSessions: Should resolve any range with a fixed number of set-based queries")
+    void getScheduledSessions_issuesFixedNumberOfQueries_regardlessOfRange() {
+        // Arrange: one series per weekday, two committed students, and one materialized instance with a logged exercise
+        LocalDate monday = LocalDate.of(2025, 10, 6);
+        UUID attendingStudentId = UUID.randomUUID();
+        UUID declinedStudentId = UUID.randomUUID();
+        List<TrainerSchedule> schedules = new ArrayList<>();
+        List<StudentCommitmentState> commitments = new ArrayList<>();
+        for (int weekday = 0; weekday < 7; weekday++) {
+            TrainerSchedule schedule = buildSchedule(UUID.randomUUID(), trainerId, "Daily Flow", LocalTime.of(7, 0), 60);
+            schedule.setWeekday(weekday);
+            schedules.add(schedule);
+            for (UUID studentId : List.of(attendingStudentId, declinedStudentId)) {
+                StudentCommitmentState commitment = new StudentCommitmentState();
+                commitment.setId(UUID.randomUUID());
+                commitment.setStudentId(studentId);
+                commitment.setSessionSeriesId(schedule.getId());
+                commitment.setCommitmentStatus(studentId.equals(attendingStudentId) ? CommitmentStatus.ATTENDING : CommitmentStatus.NOT_ATTENDING);
+                commitment.setValidFrom(SCHEDULES_EFFECTIVE_FROM);
+                commitments.add(commitment);
+            }
+        }
+        TrainerSchedule mondaySchedule = schedules.get(1);
+        ScheduledSession instance = buildExistingSession(UUID.randomUUID(), "daily-flow__" + monday + "__07:00__" + trainerId,
+                mondaySchedule.getId(), trainerId, monday, LocalTime.of(7, 0), LocalTime.of(8, 0), "Bring mats", true);
+        SessionParticipant included = new SessionParticipant();
+        included.setId(UUID.randomUUID());
+        included.setScheduledSession(instance);
+        included.setStudentId(declinedStudentId);
+        included.setParticipationType(SessionParticipant.ParticipationType.INCLUDED);
+        included.setPresent(true);
+        ParticipantExercise loggedExercise = new ParticipantExercise();
+        loggedExercise.setId(UUID.randomUUID());
+        loggedExercise.setSessionParticipant(included);
+        loggedExercise.setExercise(new Exercise("Squat", "Legs"));
+        loggedExercise.setSetsCompleted(3);
+
+        Student attending = mock(Student.class);
+        when(attending.getId()).thenReturn(attendingStudentId);
+        when(attending.getName()).thenReturn("Ana");
+        Student declined = mock(Student.class);
+        when(declined.getId()).thenReturn(declinedStudentId);
+        when(declined.getName()).thenReturn("Bruno");
+
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(instance));
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class))).thenAnswer(invocation -> {
+            LocalDate date = invocation.getArgument(0);
+            return schedules.stream().filter(schedule -> schedule.getDayOfWeek() == date.getDayOfWeek()).toList();
+        });
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+        when(studentCommitmentStateRepository.findBySessionSeriesIdInOverlapping(anyCollection(), any(Instant.class), any(Instant.class)))
+                .thenReturn(commitments);
+        when(sessionParticipantRepository.findByScheduledSession_IdInAndActiveTrue(anyCollection())).thenReturn(List.of(included));
+        when(studentRepository.findAllById(anyCollection())).thenReturn(List.of(attending, declined));
+        when(participantExerciseRepository.findActiveWithExerciseBySessionParticipantIdIn(anyCollection())).thenReturn(List.of(loggedExercise));
+
+        // Act
+        List<SessionResponseDTO> week = scheduleService.getScheduledSessions(monday, monday.plusDays(6));
+        int weekQueries = countRepositoryInvocations();
+        clearInvocations(scheduledSessionRepository, trainerRepository, studentCommitmentStateRepository,
+                sessionParticipantRepository, studentRepository, participantExerciseRepository);
+        List<SessionResponseDTO> month = scheduleService.getScheduledSessions(monday, monday.plusDays(27));
+        int monthQueries = countRepositoryInvocations();
+
+        // Assert: query count does not grow with the range; schedules come from the in-memory index
+        assertEquals(6, weekQueries);
+        assertEquals(weekQueries, monthQueries);
+        verify(trainerRepository, never()).findById(any());
+        verify(studentRepository, never()).findById(any());
+        verify(participantExerciseRepository, never()).findActiveWithExerciseBySessionParticipantId(any());
+
+        assertEquals(7, week.size());
+        assertEquals(28, month.size());
+        SessionResponseDTO mondaySession = week.get(0);
+        assertEquals(instance.getSessionId(), mondaySession.sessionId());
+        assertEquals("John Trainer", mondaySession.trainerName());
+        assertEquals("Bring mats", mondaySession.notes());
+        assertEquals(2, mondaySession.students().size());
+        StudentCommitmentResponseDTO includedDto = mondaySession.students().stream()
+                .filter(sc -> sc.studentId().equals(declinedStudentId))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Bruno", includedDto.studentName());
+        assertEquals(CommitmentStatus.NOT_ATTENDING, includedDto.commitmentStatus());
+        assertEquals(1, includedDto.participantExercises().size());
+        assertEquals("Squat", includedDto.participantExercises().get(0).exerciseName());
+        SessionResponseDTO tuesdaySession = week.get(1);
+        assertEquals(1, tuesdaySession.students().size());
+        assertEquals("Ana", tuesdaySession.students().get(0).studentName());
+        assertTrue(tuesdaySession.students().get(0).participantExercises().isEmpty());
+    }
+
+    private int countRepositoryInvocations() {
+        return Stream.of(scheduledSessionRepository, trainerRepository, studentCommitmentStateRepository,
+                        sessionParticipantRepository, studentRepository, participantExerciseRepository)
+                .mapToInt(repository -> mockingDetails(repository).getInvocations().size())
+                .sum();
+    }
+
     @Test
     void getSessionById_resolvesVirtualSession() {
         // Arrange
@@ -1481,11 +1981,11 @@ class ScheduleServiceTest {
         schedule.setIntervalDuration(60);
         schedule.setEffectiveFromTimestamp(Instant.now().minus(Duration.ofDays(1)));
 
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any(Instant.class)))
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class), any(LocalTime.class)))
                 .thenReturn(List.of(schedule));
         
         when(trainerRepository.findById(trainerId)).thenReturn(Optional.of(trainer));
-        when(studentCommitmentRepository.findBySessionSeriesId(any())).thenReturn(List.of());
+        when(studentCommitmentStateRepository.findBySessionSeriesIdValidAt(any(), any())).thenReturn(List.of());
 
         // Act
         SessionResponseDTO result = scheduleService.getSessionById(sessionId);
@@ -1513,13 +2013,13 @@ class ScheduleServiceTest {
         scheduledSession.setTrainerId(trainerId);
         scheduledSession.setActive(true);
 
-        StudentCommitment studentCommitment = new StudentCommitment();
+        StudentCommitmentState studentCommitment = new StudentCommitmentState();
         studentCommitment.setStudentId(studentId);
         studentCommitment.setSessionSeriesId(sessionSeriesId);
-        studentCommitment.setEffectiveFromTimestamp(Instant.parse("2023-01-01T00:00:00Z"));
+        studentCommitment.setValidFrom(Instant.parse("2023-01-01T00:00:00Z"));
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(anyString())).thenReturn(Optional.of(scheduledSession));
-        when(studentCommitmentRepository.findBySessionSeriesId(sessionSeriesId)).thenReturn(List.of(studentCommitment));
+        when(studentCommitmentStateRepository.findBySessionSeriesIdValidAt(eq(sessionSeriesId), any(Instant.class))).thenReturn(List.of(studentCommitment));
         when(studentRepository.findById(studentId)).thenReturn(Optional.of(new Student("test@example.com", "Test", "Student", Student.Gender.O, LocalDate.now())));
 
         SessionParticipant excludedParticipant = new SessionParticipant();
@@ -1553,14 +2053,14 @@ class ScheduleServiceTest {
         scheduledSession.setTrainerId(trainerId);
         scheduledSession.setActive(true);
 
-        StudentCommitment studentCommitment = new StudentCommitment();
+        StudentCommitmentState studentCommitment = new StudentCommitmentState();
         studentCommitment.setStudentId(studentId);
         studentCommitment.setSessionSeriesId(sessionSeriesId);
-        studentCommitment.setEffectiveFromTimestamp(Instant.parse("2023-01-01T00:00:00Z"));
+        studentCommitment.setValidFrom(Instant.parse("2023-01-01T00:00:00Z"));
         studentCommitment.setCommitmentStatus(CommitmentStatus.ATTENDING);
 
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(anyString())).thenReturn(Optional.of(scheduledSession));
-        when(studentCommitmentRepository.findBySessionSeriesId(sessionSeriesId)).thenReturn(List.of(studentCommitment));
+        when(studentCommitmentStateRepository.findBySessionSeriesIdValidAt(eq(sessionSeriesId), any(Instant.class))).thenReturn(List.of(studentCommitment));
         when(studentRepository.findById(studentId)).thenReturn(Optional.of(new Student("test@example.com", "Test", "Student", Student.Gender.O, LocalDate.now())));
 
         SessionParticipant includedParticipant = new SessionParticipant();
@@ -1593,7 +2093,7 @@ class ScheduleServiceTest {
     }
     
     @Test
-    void getSessionById_resolvesAmbiguousSlug_whenExactMatchExists() {
+    void getSessionById_resolvesSharedSlot_whenRegistryKnowsTheId() {
         // Arrange: No existing session
         when(scheduledSessionRepository.findBySessionIdAndActiveTrue(anyString())).thenReturn(Optional.empty());
         
@@ -1613,7 +2113,8 @@ class ScheduleServiceTest {
         s2.setTrainerId(trainerId);
         s2.setEffectiveFromTimestamp(Instant.MIN);
         
-        when(trainerScheduleRepository.findByWeekdayAndEffectiveFromTimestampLessThanEqual(anyInt(), any())).thenReturn(List.of(s1, s2));
+        when(sessionKeyRegistry.resolve(sessionIdStr))
+                .thenReturn(Optional.of(new SessionKeyRegistry.Resolution(s2, LocalDate.of(2023, 10, 10))));
         
         // Act
         SessionResponseDTO result = scheduleService.getSessionById(sessionIdStr);
@@ -1622,4 +2123,189 @@ class ScheduleServiceTest {
         assertNotNull(result);
         assertEquals("Yoga", result.seriesName());
     }
+
+    private ScheduledSession buildStandaloneSession(LocalDate date, LocalTime start, String seriesName) {
+        ScheduledSession session = new ScheduledSession();
+        session.setId(UUID.randomUUID());
+        session.setSessionId("oneoff__" + date + "__" + start);
+        session.setTrainerId(trainerId);
+        session.setStartTime(LocalDateTime.of(date, start));
+        session.setEndTime(LocalDateTime.of(date, start.plusHours(1)));
+        session.setSeriesName(seriesName);
+        session.setInstanceOverride(true);
+        return session;
+    }
+
+    private ScheduleChange sessionChange(long id, ScheduledSession session, ScheduleChange.ChangeType type) {
+        ScheduleChange change = new ScheduleChange();
+        change.setId(id);
+        change.setChangeType(type);
+        change.setScheduledSessionId(session.getId());
+        change.setSessionDate(session.getStartTime().toLocalDate());
+        return change;
+    }
+
+    @Test
+    void getScheduleChanges_returnsWholeRange_whenNoTokenIsGiven() {
+        LocalDate date = LocalDate.of(2025, 10, 1);
+        ScheduledSession session = buildStandaloneSession(date, LocalTime.of(10, 0), "One-off Session");
+        when(scheduleChangeLog.currentToken()).thenReturn(7L);
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(), any())).thenReturn(List.of(session));
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class))).thenReturn(List.of());
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+
+        ScheduleChangesResponseDTO result = scheduleService.getScheduleChanges(date, date, null);
+
+        assertTrue(result.fullSync());
+        assertEquals(7L, result.changeToken());
+        assertEquals(1, result.sessions().size());
+        verify(scheduleChangeLog, never()).findChanges(anyLong(), anyLong());
+    }
+
+    @Test
+    void getScheduleChanges_returnsWholeRange_whenTokenExpired() {
+        LocalDate date = LocalDate.of(2025, 10, 1);
+        when(scheduleChangeLog.currentToken()).thenReturn(50L);
+        when(scheduleChangeLog.findChanges(3L, 50L)).thenReturn(Optional.empty());
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(), any())).thenReturn(List.of());
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class))).thenReturn(List.of());
+
+        ScheduleChangesResponseDTO result = scheduleService.getScheduleChanges(date, date, 3L);
+
+        assertTrue(result.fullSync());
+        assertEquals(50L, result.changeToken());
+    }
+
+    @Test
+    void getScheduleChanges_returnsWholeRange_afterScheduleEdit() {
+        LocalDate date = LocalDate.of(2025, 10, 1);
+        ScheduleChange edit = new ScheduleChange();
+        edit.setId(11L);
+        edit.setChangeType(ScheduleChange.ChangeType.SCHEDULE);
+        edit.setSeriesId(UUID.randomUUID());
+        when(scheduleChangeLog.currentToken()).thenReturn(11L);
+        when(scheduleChangeLog.findChanges(10L, 11L)).thenReturn(Optional.of(List.of(edit)));
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(), any())).thenReturn(List.of());
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class))).thenReturn(List.of());
+
+        ScheduleChangesResponseDTO result = scheduleService.getScheduleChanges(date, date, 10L);
+
+        assertTrue(result.fullSync());
+    }
+
+    @Test
+    void getScheduleChanges_returnsNothing_whenNoChangeTouchesTheRange() {
+        LocalDate start = LocalDate.of(2025, 10, 6);
+        ScheduledSession elsewhere = buildStandaloneSession(start.plusWeeks(2), LocalTime.of(10, 0), "Later");
+        when(scheduleChangeLog.currentToken()).thenReturn(12L);
+        when(scheduleChangeLog.findChanges(10L, 12L))
+                .thenReturn(Optional.of(List.of(sessionChange(11L, elsewhere, ScheduleChange.ChangeType.PRESENCE))));
+
+        ScheduleChangesResponseDTO result = scheduleService.getScheduleChanges(start, start.plusDays(6), 10L);
+
+        assertFalse(result.fullSync());
+        assertEquals(12L, result.changeToken());
+        assertTrue(result.sessions().isEmpty());
+        verifyNoInteractions(scheduledSessionRepository);
+    }
+
+    @Test
+    void getScheduleChanges_expandsOnlyTheDaysAndSessionsTouched() {
+        LocalDate start = LocalDate.of(2025, 10, 6);
+        LocalDate changedDay = start.plusDays(2);
+        ScheduledSession changed = buildStandaloneSession(changedDay, LocalTime.of(10, 0), "Changed");
+        ScheduledSession untouched = buildStandaloneSession(changedDay, LocalTime.of(12, 0), "Untouched");
+        when(scheduleChangeLog.currentToken()).thenReturn(21L);
+        when(scheduleChangeLog.findChanges(20L, 21L))
+                .thenReturn(Optional.of(List.of(sessionChange(21L, changed, ScheduleChange.ChangeType.CANCELLATION))));
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(), any())).thenReturn(List.of(changed, untouched));
+        when(trainerScheduleIndex.findEffectiveOn(changedDay)).thenReturn(List.of());
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+
+        ScheduleChangesResponseDTO result = scheduleService.getScheduleChanges(start, start.plusDays(6), 20L);
+
+        assertFalse(result.fullSync());
+        assertEquals(21L, result.changeToken());
+        assertEquals(List.of(changed.getSessionId()), result.sessions().stream().map(SessionResponseDTO::sessionId).toList());
+        verify(scheduledSessionRepository).findByStartTimeBetweenAndActiveTrue(changedDay.atStartOfDay(), changedDay.atTime(23, 59, 59));
+        verify(trainerScheduleIndex, times(1)).findEffectiveOn(any(LocalDate.class));
+    }
+
+    @Test
+    void getScheduleChanges_returnsEverySessionOfASeriesWithChangedCommitments() {
+        LocalDate start = LocalDate.of(2025, 10, 6); // Monday
+        TrainerSchedule changedSeries = buildSchedule(UUID.randomUUID(), trainerId, "Pilates", LocalTime.of(8, 0), 60);
+        TrainerSchedule otherSeries = buildSchedule(UUID.randomUUID(), trainerId, "Yoga", LocalTime.of(9, 0), 60);
+        ScheduleChange commitment = new ScheduleChange();
+        commitment.setId(31L);
+        commitment.setChangeType(ScheduleChange.ChangeType.COMMITMENT);
+        commitment.setSeriesId(changedSeries.getId());
+        commitment.setSessionDate(start.minusDays(3));
+        when(scheduleChangeLog.currentToken()).thenReturn(31L);
+        when(scheduleChangeLog.findChanges(30L, 31L)).thenReturn(Optional.of(List.of(commitment)));
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(), any())).thenReturn(List.of());
+        when(trainerScheduleIndex.findEffectiveOn(any(LocalDate.class))).thenAnswer(invocation ->
+                invocation.<LocalDate>getArgument(0).getDayOfWeek() == DayOfWeek.MONDAY ? List.of(changedSeries, otherSeries) : List.of());
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+        when(studentCommitmentStateRepository.findBySessionSeriesIdInOverlapping(eq(Set.of(changedSeries.getId())), any(), any()))
+                .thenReturn(List.of());
+
+        ScheduleChangesResponseDTO result = scheduleService.getScheduleChanges(start, start.plusDays(13), 30L);
+
+        assertFalse(result.fullSync());
+        assertEquals(2, result.sessions().size());
+        assertTrue(result.sessions().stream().allMatch(session -> "Pilates".equals(session.seriesName())));
+    }
+
+    @Test
+    void getScheduledSessions_readsOnlyPersistedRows_insideTheServedWindow() {
+        LocalDate date = LocalDate.of(2025, 9, 26);
+        UUID seriesId = UUID.randomUUID();
+        ScheduledSession row = buildExistingSession(null, "yoga-basics__2025-09-26__09:00__" + trainerId, seriesId, trainerId,
+                date, LocalTime.of(9, 0), LocalTime.of(10, 0), null, false);
+        when(scheduleMaterializer.serves(date, date)).thenReturn(true);
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(row));
+        when(trainerRepository.findAllById(anyCollection())).thenReturn(List.of(trainer));
+        when(studentCommitmentStateRepository.findBySessionSeriesIdInOverlapping(anyCollection(), any(Instant.class), any(Instant.class))).thenReturn(List.of());
+
+        List<SessionResponseDTO> sessions = scheduleService.getScheduledSessions(date, date);
+
+        assertEquals(1, sessions.size());
+        assertEquals(row.getSessionId(), sessions.get(0).sessionId());
+        verifyNoInteractions(trainerScheduleIndex);
+    }
+
+    @Test
+    void checkMaterialization_isConsistent_whenEveryOccurrenceHasItsRow() {
+        LocalDate date = LocalDate.of(2025, 9, 26);
+        TrainerSchedule schedule = buildSchedule(UUID.randomUUID(), trainerId, "Yoga Basics", LocalTime.of(9, 0), 60);
+        ScheduledSession row = buildExistingSession(null, "yoga-basics__2025-09-26__09:00__" + trainerId, schedule.getId(), trainerId,
+                date, LocalTime.of(9, 0), LocalTime.of(10, 0), null, false);
+        when(trainerScheduleIndex.findEffectiveOn(date)).thenReturn(List.of(schedule));
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(row));
+
+        ScheduleMaterializer.Check check = scheduleService.checkMaterialization(date, date);
+
+        assertTrue(check.consistent(), check.toString());
+    }
+
+    @Test
+    void checkMaterialization_reportsMissingAndUnexpectedRows() {
+        LocalDate date = LocalDate.of(2025, 9, 26);
+        TrainerSchedule schedule = buildSchedule(UUID.randomUUID(), trainerId, "Yoga Basics", LocalTime.of(9, 0), 60);
+        // Left over from before the series moved to 09:00
+        ScheduledSession stale = buildExistingSession(null, "yoga-basics__2025-09-26__08:00__" + trainerId, schedule.getId(), trainerId,
+                date, LocalTime.of(8, 0), LocalTime.of(9, 0), null, false);
+        when(trainerScheduleIndex.findEffectiveOn(date)).thenReturn(List.of(schedule));
+        when(scheduledSessionRepository.findByStartTimeBetweenAndActiveTrue(any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(stale));
+
+        ScheduleMaterializer.Check check = scheduleService.checkMaterialization(date, date);
+
+        assertFalse(check.consistent());
+        assertEquals(List.of("yoga-basics__2025-09-26__09:00__" + trainerId + "|2025-09-26T09:00|2025-09-26T10:00"), check.missing());
+        assertEquals(List.of(stale.getSessionId() + "|2025-09-26T08:00|2025-09-26T09:00"), check.unexpected());
+    }
 }
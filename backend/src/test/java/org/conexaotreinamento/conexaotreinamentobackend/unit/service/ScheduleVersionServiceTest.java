@@ -0,0 +1,109 @@
+package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
+
+import org.conexaotreinamento.conexaotreinamentobackend.repository.EventRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ScheduledSessionRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleVersionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ScheduleVersionService Unit Tests")
+class ScheduleVersionServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2025, 9, 22);
+    private static final LocalDate SUNDAY = LocalDate.of(2025, 9, 28);
+
+    @Mock
+    private ScheduledSessionRepository scheduledSessionRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @InjectMocks
+    private ScheduleVersionService scheduleVersionService;
+
+    @Test
+    @DisplayName("Should derive a stable strong ETag from the range's version vector")
+    void shouldDeriveStableStrongETag() {
+        when(scheduledSessionRepository.findScheduleVersion(MONDAY.atStartOfDay(), SUNDAY.atTime(LocalTime.MAX),
+                Instant.parse("2025-09-29T00:00:00Z"))).thenReturn("v1");
+
+        String first = scheduleVersionService.scheduleETag(MONDAY, SUNDAY, null);
+        String second = scheduleVersionService.scheduleETag(MONDAY, SUNDAY, null);
+
+        assertThat(first).isEqualTo(second).startsWith("\"").endsWith("\"").doesNotStartWith("W/");
+    }
+
+    @Test
+    @DisplayName("Should change the ETag when the version vector changes")
+    void shouldChangeETagWithVersion() {
+        when(scheduledSessionRepository.findScheduleVersion(any(), any(), any())).thenReturn("v1", "v2");
+
+        assertThat(scheduleVersionService.scheduleETag(MONDAY, SUNDAY, null))
+                .isNotEqualTo(scheduleVersionService.scheduleETag(MONDAY, SUNDAY, null));
+    }
+
+    @Test
+    @DisplayName("Should tag different ranges differently even when nothing was written")
+    void shouldTagRangesDifferently() {
+        when(scheduledSessionRepository.findScheduleVersion(any(), any(), any())).thenReturn("v1");
+
+        assertThat(scheduleVersionService.scheduleETag(MONDAY, SUNDAY, null))
+                .isNotEqualTo(scheduleVersionService.scheduleETag(MONDAY, MONDAY, null));
+    }
+
+    @Test
+    @DisplayName("Should tag each trainer's slice of a range differently from the range and from each other")
+    void shouldTagTrainerSlicesDifferently() {
+        when(scheduledSessionRepository.findScheduleVersion(any(), any(), any())).thenReturn("v1");
+        UUID trainerA = UUID.randomUUID();
+        UUID trainerB = UUID.randomUUID();
+
+        assertThat(scheduleVersionService.scheduleETag(MONDAY, SUNDAY, trainerA))
+                .isNotEqualTo(scheduleVersionService.scheduleETag(MONDAY, SUNDAY, trainerB))
+                .isNotEqualTo(scheduleVersionService.scheduleETag(MONDAY, SUNDAY, null));
+    }
+
+    @Test
+    @DisplayName("Should version a session by the day named in its id")
+    void shouldVersionSessionByItsDay() {
+        LocalDate day = LocalDate.of(2025, 9, 26);
+        when(scheduledSessionRepository.findScheduleVersion(day.atStartOfDay(), day.atTime(LocalTime.MAX),
+                Instant.parse("2025-09-27T00:00:00Z"))).thenReturn("v1");
+
+        assertThat(scheduleVersionService.sessionETag("yoga__2025-09-26__09:00__" + UUID.randomUUID(), null)).isPresent();
+    }
+
+    @Test
+    @DisplayName("Should not tag sessions whose id does not name a day")
+    void shouldNotTagUnparseableSessionIds() {
+        assertThat(scheduleVersionService.sessionETag("not-a-session", null)).isEmpty();
+        verifyNoInteractions(scheduledSessionRepository);
+    }
+
+    @Test
+    @DisplayName("Should fold event writes into the reports ETag")
+    void shouldFoldEventsIntoReportsETag() {
+        LocalDateTime start = MONDAY.atStartOfDay();
+        LocalDateTime end = SUNDAY.atTime(23, 59, 59);
+        when(scheduledSessionRepository.findScheduleVersion(any(), any(), any())).thenReturn("v1");
+        when(eventRepository.findEventVersion(MONDAY, SUNDAY)).thenReturn("e1", "e2");
+
+        assertThat(scheduleVersionService.reportsETag(start, end, null))
+                .isNotEqualTo(scheduleVersionService.reportsETag(start, end, null));
+    }
+}
@@ -0,0 +1,134 @@
+package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.SessionKey;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.SessionKeyRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.SessionKeyRegistry;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerScheduleIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionKeyRegistryTest {
+
+    @Mock
+    private SessionKeyRepository sessionKeyRepository;
+
+    @Mock
+    private TrainerScheduleIndex trainerScheduleIndex;
+
+    private SessionKeyRegistry registry;
+
+    // 2025-10-06 is a Monday (weekday 1)
+    private final LocalDate monday = LocalDate.of(2025, 10, 6);
+    private final UUID trainerId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        registry = new SessionKeyRegistry(sessionKeyRepository, trainerScheduleIndex);
+    }
+
+    private TrainerSchedule schedule(String seriesName) {
+        TrainerSchedule s = new TrainerSchedule();
+        s.setId(UUID.randomUUID());
+        s.setTrainerId(trainerId);
+        s.setWeekday(1);
+        s.setStartTime(LocalTime.of(9, 0));
+        s.setIntervalDuration(60);
+        s.setSeriesName(seriesName);
+        s.setEffectiveFromTimestamp(Instant.parse("2025-01-01T00:00:00Z"));
+        return s;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void register_savesOnlyKeysNotYetRecorded() {
+        TrainerSchedule series = schedule("Yoga Basics");
+        String canonicalKey = "1__yoga-basics__09:00__" + trainerId;
+        when(sessionKeyRepository.findRegisteredKeys(eq(series.getId()), anyCollection())).thenReturn(List.of(canonicalKey));
+
+        registry.register(series);
+
+        ArgumentCaptor<List<SessionKey>> captor = ArgumentCaptor.forClass(List.class);
+        verify(sessionKeyRepository).saveAll(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("1__yoga-basics__09:00", captor.getValue().get(0).getSessionKey());
+        assertEquals(series.getId(), captor.getValue().get(0).getSeriesId());
+    }
+
+    @Test
+    void register_skipsWrite_whenAllKeysAreRecorded() {
+        TrainerSchedule series = schedule("Yoga");
+        when(sessionKeyRepository.findRegisteredKeys(eq(series.getId()), anyCollection()))
+                .thenReturn(List.of("1__yoga__09:00__" + trainerId, "1__yoga__09:00"));
+
+        registry.register(series);
+
+        verify(sessionKeyRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void resolve_mapsCanonicalIdOfRenamedSeriesToItsCurrentVersion() {
+        TrainerSchedule renamed = schedule("Power Yoga");
+        String oldId = "yoga-basics__" + monday + "__09:00__" + trainerId;
+        when(sessionKeyRepository.findSeriesIdsBySessionKey("1__yoga-basics__09:00__" + trainerId)).thenReturn(List.of(renamed.getId()));
+        when(trainerScheduleIndex.findEffectiveOn(renamed.getId(), monday)).thenReturn(Optional.of(renamed));
+
+        SessionKeyRegistry.Resolution resolution = registry.resolve(oldId).orElseThrow();
+
+        assertSame(renamed, resolution.schedule());
+        assertEquals(monday, resolution.date());
+    }
+
+    @Test
+    void resolve_usesWeekdayQualifiedLegacyKey() {
+        TrainerSchedule series = schedule("Yoga");
+        when(sessionKeyRepository.findSeriesIdsBySessionKey("1__yoga__09:00")).thenReturn(List.of(series.getId()));
+        when(trainerScheduleIndex.findEffectiveOn(series.getId(), monday)).thenReturn(Optional.of(series));
+
+        assertTrue(registry.resolve("Yoga__" + monday + "__09:00").isPresent());
+    }
+
+    @Test
+    void resolve_returnsEmpty_whenKeyIsUnknownOrSeriesNotInEffect() {
+        UUID retired = UUID.randomUUID();
+        when(sessionKeyRepository.findSeriesIdsBySessionKey("1__unknown__09:00")).thenReturn(List.of());
+        when(sessionKeyRepository.findSeriesIdsBySessionKey("1__gone__09:00")).thenReturn(List.of(retired));
+        when(trainerScheduleIndex.findEffectiveOn(retired, monday)).thenReturn(Optional.empty());
+
+        assertTrue(registry.resolve("unknown__" + monday + "__09:00").isEmpty());
+        assertTrue(registry.resolve("gone__" + monday + "__09:00").isEmpty());
+    }
+
+    @Test
+    void resolve_returnsEmpty_whenTwoLiveSeriesShareTheKey() {
+        TrainerSchedule first = schedule("Yoga");
+        TrainerSchedule second = schedule("Yoga");
+        when(sessionKeyRepository.findSeriesIdsBySessionKey("1__yoga__09:00")).thenReturn(List.of(first.getId(), second.getId()));
+        when(trainerScheduleIndex.findEffectiveOn(first.getId(), monday)).thenReturn(Optional.of(first));
+        when(trainerScheduleIndex.findEffectiveOn(second.getId(), monday)).thenReturn(Optional.of(second));
+
+        assertTrue(registry.resolve("yoga__" + monday + "__09:00").isEmpty());
+    }
+
+    @Test
+    void resolve_rejectsMalformedIds() {
+        assertThrows(IllegalArgumentException.class, () -> registry.resolve("not-enough-parts"));
+        verifyNoInteractions(sessionKeyRepository);
+    }
+}
@@ -1,11 +1,15 @@
 package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
 
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduleChange;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitment;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentPlan;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentPlanAssignment;
 import org.conexaotreinamento.conexaotreinamentobackend.enums.CommitmentStatus;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentCommitmentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ReportRollupService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleChangeLog;
 import org.conexaotreinamento.conexaotreinamentobackend.service.StudentCommitmentService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.StudentCommitmentStateService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,8 +17,10 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -36,6 +42,15 @@ class StudentCommitmentServiceTest {
     @Mock
     private org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository trainerScheduleRepository;
 
+    @Mock
+    private StudentCommitmentStateService studentCommitmentStateService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ScheduleChangeLog scheduleChangeLog;
+
     @InjectMocks
     private StudentCommitmentService studentCommitmentService;
 
@@ -58,6 +73,14 @@ class StudentCommitmentServiceTest {
         return c;
     }
 
+    private Map<UUID, StudentCommitment> latestPerSeries(StudentCommitment... commitments) {
+        Map<UUID, StudentCommitment> map = new HashMap<>();
+        for (StudentCommitment c : commitments) {
+            map.put(c.getSessionSeriesId(), c);
+        }
+        return map;
+    }
+
     @Test
     void getCurrentCommitmentStatus_returnsDefault_whenNone() {
         // Arrange
@@ -105,6 +128,7 @@ class StudentCommitmentServiceTest {
         assertEquals(seriesId, saved.getSessionSeriesId());
         assertEquals(CommitmentStatus.NOT_ATTENDING, saved.getCommitmentStatus());
         assertNotNull(saved.getEffectiveFromTimestamp());
+        verify(studentCommitmentStateService).apply(saved);
     }
 
     @Test
@@ -118,6 +142,9 @@ class StudentCommitmentServiceTest {
 
         // Assert
         assertEquals(custom, saved.getEffectiveFromTimestamp());
+        // Backdated commitments invalidate the report rollups from their effective day on
+        verify(eventPublisher).publishEvent(new ReportRollupService.ActivityChanged(LocalDate.of(2025, 9, 1), LocalDate.now()));
+        verify(scheduleChangeLog).recordSeries(seriesId, LocalDate.of(2025, 9, 1), ScheduleChange.ChangeType.COMMITMENT);
     }
 
     @Test
@@ -149,25 +176,22 @@ class StudentCommitmentServiceTest {
     }
 
     @Test
-    void getCurrentActiveCommitments_filtersByAttendingAndTimestamp() {
-        // Arrange
+    void getCurrentActiveCommitments_keepsOnlyAttendingLatestPerSeries() {
+        // Arrange: the projection already resolved the latest commitment per series at t
         Instant t = Instant.now();
         UUID otherSeries = UUID.randomUUID();
-        UUID futureSeries = UUID.randomUUID();
-        StudentCommitment pastAttending = commitment(null, studentId, seriesId, CommitmentStatus.ATTENDING, t.minusSeconds(20));
         StudentCommitment latestNotAttending = commitment(null, studentId, seriesId, CommitmentStatus.NOT_ATTENDING, t.minusSeconds(5));
         StudentCommitment keepAttending = commitment(null, studentId, otherSeries, CommitmentStatus.ATTENDING, t.minusSeconds(10));
-        StudentCommitment futureCommitment = commitment(null, studentId, futureSeries, CommitmentStatus.ATTENDING, t.plusSeconds(60));
-        when(studentCommitmentRepository.findByStudentId(studentId))
-            .thenReturn(List.of(pastAttending, latestNotAttending, keepAttending, futureCommitment));
+        when(studentCommitmentStateService.findLatestPerSeries(studentId, t))
+            .thenReturn(latestPerSeries(latestNotAttending, keepAttending));
 
         // Act
         List<StudentCommitment> list = studentCommitmentService.getCurrentActiveCommitments(studentId, t);
 
         // Assert: only the ATTENDING commitment for otherSeries should remain
-    assertEquals(1, list.size());
-    assertEquals(otherSeries, list.get(0).getSessionSeriesId());
-        verify(studentCommitmentRepository).findByStudentId(studentId);
+        assertEquals(1, list.size());
+        assertEquals(otherSeries, list.get(0).getSessionSeriesId());
+        verify(studentCommitmentRepository, never()).findByStudentId(any());
     }
 
     @Test
@@ -207,105 +231,103 @@ class StudentCommitmentServiceTest {
         return assign;
     }
 
-    @Test
-    void bulkUpdateCommitments_attending_withinPlanLimit_savesEach() {
-        // Arrange
-    List<UUID> seriesIds = List.of(UUID.randomUUID(), UUID.randomUUID());
-    UUID planId = UUID.randomUUID();
-    when(studentPlanAssignmentRepository.findCurrentActiveAssignment(studentId))
-        .thenReturn(Optional.of(buildAssignmentWithPlan(planId, 5)));
-    StudentPlan plan = new StudentPlan();
-    plan.setId(planId);
-    plan.setActive(true);
-    plan.setMaxDays(5);
-    plan.setName("Test Plan");
-    plan.setDurationDays(30);
-    when(studentPlanRepository.findById(planId)).thenReturn(Optional.of(plan));
-    when(studentCommitmentRepository.findByStudentId(studentId)).thenReturn(List.of());
-    // Return same weekday to avoid exceeding limit
-    when(trainerScheduleRepository.findById(any(UUID.class))).thenAnswer(inv -> {
-        UUID id = inv.getArgument(0);
+    private org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule schedule(UUID id, int weekday) {
         org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule ts = new org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule();
         ts.setId(id);
-        ts.setWeekday(1);
-        return Optional.of(ts);
-    });
-    when(studentCommitmentRepository.save(any(StudentCommitment.class))).thenAnswer(inv -> inv.getArgument(0));
+        ts.setWeekday(weekday);
+        return ts;
+    }
+
+    private void stubPlan(int maxDays) {
+        UUID planId = UUID.randomUUID();
+        StudentPlanAssignment assignment = buildAssignmentWithPlan(planId, maxDays);
+        when(studentPlanAssignmentRepository.findCurrentActiveAssignment(studentId)).thenReturn(Optional.of(assignment));
+        when(studentPlanRepository.findById(planId)).thenReturn(Optional.of(assignment.getPlan()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkUpdateCommitments_attending_withinPlanLimit_savesAllInOneBatch() {
+        // Arrange
+        List<UUID> seriesIds = List.of(UUID.randomUUID(), UUID.randomUUID());
+        stubPlan(5);
+        when(studentCommitmentStateService.findLatestPerSeries(eq(studentId), any(Instant.class))).thenReturn(latestPerSeries());
+        // Same weekday for both series to stay within the limit
+        when(trainerScheduleRepository.findAllById(anyCollection()))
+            .thenReturn(List.of(schedule(seriesIds.get(0), 1), schedule(seriesIds.get(1), 1)));
+        when(studentCommitmentRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
 
         // Act
         List<StudentCommitment> saved = studentCommitmentService.bulkUpdateCommitments(studentId, seriesIds, CommitmentStatus.ATTENDING);
 
         // Assert
         assertEquals(2, saved.size());
-        ArgumentCaptor<StudentCommitment> captor = ArgumentCaptor.forClass(StudentCommitment.class);
-        verify(studentCommitmentRepository, times(2)).save(captor.capture());
-        List<StudentCommitment> allSaved = captor.getAllValues();
+        ArgumentCaptor<List<StudentCommitment>> captor = ArgumentCaptor.forClass(List.class);
+        verify(studentCommitmentRepository).saveAll(captor.capture());
+        List<StudentCommitment> allSaved = captor.getValue();
         assertEquals(seriesIds.get(0), allSaved.get(0).getSessionSeriesId());
         assertEquals(seriesIds.get(1), allSaved.get(1).getSessionSeriesId());
+        assertEquals(allSaved.get(0).getEffectiveFromTimestamp(), allSaved.get(1).getEffectiveFromTimestamp());
+        verify(studentCommitmentStateService).applyAll(studentId, saved);
+        // Validation runs once and never per series
+        verify(trainerScheduleRepository, times(1)).findAllById(anyCollection());
+        verify(trainerScheduleRepository, never()).findById(any());
+        verify(studentCommitmentStateService, times(1)).findLatestPerSeries(eq(studentId), any(Instant.class));
+        verify(studentCommitmentRepository, never()).save(any());
     }
 
     @Test
     void bulkUpdateCommitments_attending_noActivePlan_throws() {
         // Arrange
-    List<UUID> seriesIds = List.of(UUID.randomUUID());
-    when(studentPlanAssignmentRepository.findCurrentActiveAssignment(studentId)).thenReturn(Optional.empty());
+        List<UUID> seriesIds = List.of(UUID.randomUUID());
+        when(studentPlanAssignmentRepository.findCurrentActiveAssignment(studentId)).thenReturn(Optional.empty());
 
         // Act + Assert
         RuntimeException ex = assertThrows(RuntimeException.class, () ->
                 studentCommitmentService.bulkUpdateCommitments(studentId, seriesIds, CommitmentStatus.ATTENDING));
         assertTrue(ex.getMessage().toLowerCase().contains("no active plan"));
-        verify(studentCommitmentRepository, never()).save(any());
+        verify(studentCommitmentRepository, never()).saveAll(any());
     }
 
     @Test
     void bulkUpdateCommitments_attending_exceedsPlanLimit_throws() {
         // Arrange
-    List<UUID> seriesIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
-    UUID planId = UUID.randomUUID();
-    when(studentPlanAssignmentRepository.findCurrentActiveAssignment(studentId))
-        .thenReturn(Optional.of(buildAssignmentWithPlan(planId, 3)));
-    StudentPlan plan3 = new StudentPlan();
-    plan3.setId(planId);
-    plan3.setActive(true);
-    plan3.setMaxDays(3);
-    plan3.setName("Plan3");
-    plan3.setDurationDays(30);
-    when(studentPlanRepository.findById(planId)).thenReturn(Optional.of(plan3));
-    // already has 1 active on weekday 1
-    UUID existingSeries = UUID.randomUUID();
-    when(studentCommitmentRepository.findByStudentId(studentId))
-        .thenReturn(List.of(commitment(null, studentId, existingSeries, CommitmentStatus.ATTENDING, Instant.now().minusSeconds(100))));
-    // Default to weekday 1
-    when(trainerScheduleRepository.findById(any(UUID.class))).thenAnswer(inv -> {
-        UUID id = inv.getArgument(0);
-        org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule ts = new org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule();
-        ts.setId(id);
-        ts.setWeekday(1);
-        return Optional.of(ts);
-    });
-    // But for the three new series, return distinct weekdays 2,3,4
-    org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule ts1 = new org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule();
-    ts1.setId(seriesIds.get(0)); ts1.setWeekday(2);
-    org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule ts2 = new org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule();
-    ts2.setId(seriesIds.get(1)); ts2.setWeekday(3);
-    org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule ts3 = new org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule();
-    ts3.setId(seriesIds.get(2)); ts3.setWeekday(4);
-    when(trainerScheduleRepository.findById(seriesIds.get(0))).thenReturn(Optional.of(ts1));
-    when(trainerScheduleRepository.findById(seriesIds.get(1))).thenReturn(Optional.of(ts2));
-    when(trainerScheduleRepository.findById(seriesIds.get(2))).thenReturn(Optional.of(ts3));
+        List<UUID> seriesIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        stubPlan(3);
+        // already has 1 active on weekday 1
+        UUID existingSeries = UUID.randomUUID();
+        when(studentCommitmentStateService.findLatestPerSeries(eq(studentId), any(Instant.class))).thenReturn(latestPerSeries(commitment(null, studentId, existingSeries, CommitmentStatus.ATTENDING, Instant.now().minusSeconds(100))));
+        // The three new series fall on distinct weekdays 2,3,4
+        when(trainerScheduleRepository.findAllById(anyCollection())).thenReturn(List.of(
+            schedule(existingSeries, 1), schedule(seriesIds.get(0), 2), schedule(seriesIds.get(1), 3), schedule(seriesIds.get(2), 4)));
 
         // Act + Assert
         RuntimeException ex = assertThrows(RuntimeException.class, () ->
                 studentCommitmentService.bulkUpdateCommitments(studentId, seriesIds, CommitmentStatus.ATTENDING));
         assertTrue(ex.getMessage().toLowerCase().contains("exced"), "Unexpected message: " + ex.getMessage());
-        verify(studentCommitmentRepository, never()).save(any());
+        verify(studentCommitmentRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void bulkUpdateCommitments_attending_unknownSeries_throws() {
+        // Arrange
+        List<UUID> seriesIds = List.of(UUID.randomUUID());
+        stubPlan(3);
+        when(studentCommitmentStateService.findLatestPerSeries(eq(studentId), any(Instant.class))).thenReturn(latestPerSeries());
+        when(trainerScheduleRepository.findAllById(anyCollection())).thenReturn(List.of());
+
+        // Act + Assert
+        RuntimeException ex = assertThrows(RuntimeException.class, () ->
+                studentCommitmentService.bulkUpdateCommitments(studentId, seriesIds, CommitmentStatus.ATTENDING));
+        assertEquals("Trainer schedule not found", ex.getMessage());
     }
 
     @Test
     void bulkUpdateCommitments_notAttending_bypassesPlanValidation() {
         // Arrange
-    List<UUID> seriesIds = List.of(UUID.randomUUID(), UUID.randomUUID());
-    when(studentCommitmentRepository.save(any(StudentCommitment.class))).thenAnswer(inv -> inv.getArgument(0));
+        UUID duplicated = UUID.randomUUID();
+        List<UUID> seriesIds = List.of(duplicated, UUID.randomUUID(), duplicated);
+        when(studentCommitmentRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
 
         // Act
         List<StudentCommitment> saved = studentCommitmentService.bulkUpdateCommitments(studentId, seriesIds, CommitmentStatus.NOT_ATTENDING);
@@ -314,6 +336,7 @@ class StudentCommitmentServiceTest {
         assertEquals(2, saved.size());
         // Plan services not touched when NOT_ATTENDING
         verify(studentPlanAssignmentRepository, never()).findCurrentActiveAssignment(any());
+        verifyNoInteractions(trainerScheduleRepository);
     }
 
     @Test
@@ -329,7 +352,7 @@ class StudentCommitmentServiceTest {
     plan5.setName("Plan5");
     plan5.setDurationDays(30);
     when(studentPlanRepository.findById(planId)).thenReturn(Optional.of(plan5));
-    when(studentCommitmentRepository.findByStudentId(studentId)).thenReturn(List.of());
+    when(studentCommitmentStateService.findLatestPerSeries(eq(studentId), any(Instant.class))).thenReturn(latestPerSeries());
     when(trainerScheduleRepository.findById(any(UUID.class))).thenAnswer(inv -> {
         UUID id = inv.getArgument(0);
         org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule ts = new org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule();
@@ -360,7 +383,7 @@ class StudentCommitmentServiceTest {
         inactivePlan.setDurationDays(30);
         when(studentPlanRepository.findById(planId)).thenReturn(Optional.of(inactivePlan));
 
-        when(studentCommitmentRepository.findByStudentId(studentId)).thenReturn(List.of());
+        when(studentCommitmentStateService.findLatestPerSeries(eq(studentId), any(Instant.class))).thenReturn(latestPerSeries());
         when(trainerScheduleRepository.findById(any(UUID.class))).thenAnswer(inv -> {
             UUID id = inv.getArgument(0);
             org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule ts = new org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule();
@@ -400,7 +423,7 @@ class StudentCommitmentServiceTest {
 
         // Mock existing commitment as ATTENDING for the same series
         StudentCommitment existing = commitment(null, studentId, seriesId, CommitmentStatus.ATTENDING, Instant.now());
-        when(studentCommitmentRepository.findByStudentId(studentId)).thenReturn(List.of(existing));
+        when(studentCommitmentStateService.findLatestPerSeries(eq(studentId), any(Instant.class))).thenReturn(latestPerSeries(existing));
         
         when(studentCommitmentRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
@@ -425,7 +448,7 @@ class StudentCommitmentServiceTest {
         // Existing commitment on weekday 1
         UUID otherSeries = UUID.randomUUID();
         StudentCommitment existing = commitment(null, studentId, otherSeries, CommitmentStatus.ATTENDING, Instant.now());
-        when(studentCommitmentRepository.findByStudentId(studentId)).thenReturn(List.of(existing));
+        when(studentCommitmentStateService.findLatestPerSeries(eq(studentId), any(Instant.class))).thenReturn(latestPerSeries(existing));
 
         org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule tsExisting = new org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule();
         tsExisting.setId(otherSeries);
@@ -450,7 +473,7 @@ class StudentCommitmentServiceTest {
         int maxDays = 2;
         // 1 active commitment
         StudentCommitment c1 = commitment(null, studentId, seriesId, CommitmentStatus.ATTENDING, Instant.now());
-        when(studentCommitmentRepository.findByStudentId(studentId)).thenReturn(List.of(c1));
+        when(studentCommitmentStateService.findLatestPerSeries(eq(studentId), any(Instant.class))).thenReturn(latestPerSeries(c1));
         
         org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule ts = new org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule();
         ts.setId(seriesId);
@@ -473,7 +496,7 @@ class StudentCommitmentServiceTest {
         UUID s2 = UUID.randomUUID();
         StudentCommitment c1 = commitment(null, studentId, s1, CommitmentStatus.ATTENDING, Instant.now());
         StudentCommitment c2 = commitment(null, studentId, s2, CommitmentStatus.ATTENDING, Instant.now());
-        when(studentCommitmentRepository.findByStudentId(studentId)).thenReturn(List.of(c1, c2));
+        when(studentCommitmentStateService.findLatestPerSeries(eq(studentId), any(Instant.class))).thenReturn(latestPerSeries(c1, c2));
         
         org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule ts1 = new org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule();
         ts1.setId(s1);
@@ -0,0 +1,256 @@
+package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitment;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.StudentCommitmentState;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.CommitmentStatus;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentCommitmentRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.StudentCommitmentStateRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.StudentCommitmentStateService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StudentCommitmentStateServiceTest {
+
+    @Mock
+    private StudentCommitmentStateRepository studentCommitmentStateRepository;
+
+    @Mock
+    private StudentCommitmentRepository studentCommitmentRepository;
+
+    @InjectMocks
+    private StudentCommitmentStateService studentCommitmentStateService;
+
+    private UUID studentId;
+    private UUID seriesId;
+
+    private final Instant jan = Instant.parse("2025-01-01T00:00:00Z");
+    private final Instant mar = Instant.parse("2025-03-01T00:00:00Z");
+    private final Instant may = Instant.parse("2025-05-01T00:00:00Z");
+
+    @BeforeEach
+    void setUp() {
+        studentId = UUID.randomUUID();
+        seriesId = UUID.randomUUID();
+    }
+
+    private StudentCommitment commitment(CommitmentStatus status, Instant effectiveFrom) {
+        StudentCommitment c = new StudentCommitment();
+        c.setId(UUID.randomUUID());
+        c.setStudentId(studentId);
+        c.setSessionSeriesId(seriesId);
+        c.setCommitmentStatus(status);
+        c.setEffectiveFromTimestamp(effectiveFrom);
+        return c;
+    }
+
+    private StudentCommitmentState state(CommitmentStatus status, Instant validFrom, Instant validTo) {
+        return new StudentCommitmentState(UUID.randomUUID(), studentId, seriesId, status, validFrom, validTo, UUID.randomUUID());
+    }
+
+    private List<StudentCommitmentState> captureSaved(int times) {
+        ArgumentCaptor<StudentCommitmentState> captor = ArgumentCaptor.forClass(StudentCommitmentState.class);
+        verify(studentCommitmentStateRepository, times(times)).save(captor.capture());
+        return new ArrayList<>(captor.getAllValues());
+    }
+
+    @Test
+    void apply_firstCommitment_opensUnboundedInterval() {
+        StudentCommitment c = commitment(CommitmentStatus.ATTENDING, jan);
+        when(studentCommitmentStateRepository.findByStudentIdAndSessionSeriesIdOrderByValidFromAsc(studentId, seriesId))
+            .thenReturn(List.of());
+
+        studentCommitmentStateService.apply(c);
+
+        StudentCommitmentState saved = captureSaved(1).get(0);
+        assertEquals(CommitmentStatus.ATTENDING, saved.getCommitmentStatus());
+        assertEquals(jan, saved.getValidFrom());
+        assertNull(saved.getValidTo());
+        assertEquals(c.getId(), saved.getCommitmentId());
+    }
+
+    @Test
+    void apply_laterCommitment_closesPreviousInterval() {
+        StudentCommitmentState open = state(CommitmentStatus.ATTENDING, jan, null);
+        when(studentCommitmentStateRepository.findByStudentIdAndSessionSeriesIdOrderByValidFromAsc(studentId, seriesId))
+            .thenReturn(List.of(open));
+
+        studentCommitmentStateService.apply(commitment(CommitmentStatus.NOT_ATTENDING, mar));
+
+        List<StudentCommitmentState> saved = captureSaved(2);
+        assertEquals(mar, saved.get(0).getValidTo());
+        assertEquals(mar, saved.get(1).getValidFrom());
+        assertNull(saved.get(1).getValidTo());
+        assertEquals(CommitmentStatus.NOT_ATTENDING, saved.get(1).getCommitmentStatus());
+    }
+
+    @Test
+    void apply_backdatedCommitment_splitsExistingChain() {
+        StudentCommitmentState first = state(CommitmentStatus.ATTENDING, jan, may);
+        StudentCommitmentState last = state(CommitmentStatus.NOT_ATTENDING, may, null);
+        when(studentCommitmentStateRepository.findByStudentIdAndSessionSeriesIdOrderByValidFromAsc(studentId, seriesId))
+            .thenReturn(List.of(first, last));
+
+        studentCommitmentStateService.apply(commitment(CommitmentStatus.TENTATIVE, mar));
+
+        List<StudentCommitmentState> saved = captureSaved(2);
+        assertEquals(mar, saved.get(0).getValidTo());
+        assertEquals(mar, saved.get(1).getValidFrom());
+        assertEquals(may, saved.get(1).getValidTo());
+        assertEquals(CommitmentStatus.TENTATIVE, saved.get(1).getCommitmentStatus());
+    }
+
+    @Test
+    void apply_commitmentBeforeHistory_endsWhereHistoryStarts() {
+        StudentCommitmentState existing = state(CommitmentStatus.ATTENDING, mar, null);
+        when(studentCommitmentStateRepository.findByStudentIdAndSessionSeriesIdOrderByValidFromAsc(studentId, seriesId))
+            .thenReturn(List.of(existing));
+
+        studentCommitmentStateService.apply(commitment(CommitmentStatus.NOT_ATTENDING, jan));
+
+        StudentCommitmentState saved = captureSaved(1).get(0);
+        assertEquals(jan, saved.getValidFrom());
+        assertEquals(mar, saved.getValidTo());
+    }
+
+    @Test
+    void apply_sameEffectiveInstant_replacesStatusInPlace() {
+        StudentCommitmentState existing = state(CommitmentStatus.ATTENDING, mar, null);
+        when(studentCommitmentStateRepository.findByStudentIdAndSessionSeriesIdOrderByValidFromAsc(studentId, seriesId))
+            .thenReturn(List.of(existing));
+        StudentCommitment c = commitment(CommitmentStatus.NOT_ATTENDING, mar);
+
+        studentCommitmentStateService.apply(c);
+
+        StudentCommitmentState saved = captureSaved(1).get(0);
+        assertSame(existing, saved);
+        assertEquals(CommitmentStatus.NOT_ATTENDING, saved.getCommitmentStatus());
+        assertEquals(c.getId(), saved.getCommitmentId());
+        assertNull(saved.getValidTo());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void applyAll_splicesEverySeriesWithOneReadAndOneBatchedWrite() {
+        UUID otherSeries = UUID.randomUUID();
+        StudentCommitmentState open = state(CommitmentStatus.ATTENDING, jan, null);
+        StudentCommitment first = commitment(CommitmentStatus.NOT_ATTENDING, mar);
+        StudentCommitment second = commitment(CommitmentStatus.ATTENDING, mar);
+        second.setSessionSeriesId(otherSeries);
+        when(studentCommitmentStateRepository.findByStudentIdAndSessionSeriesIdInOrderByValidFromAsc(eq(studentId), anyCollection()))
+            .thenReturn(List.of(open));
+
+        studentCommitmentStateService.applyAll(studentId, List.of(first, second));
+
+        ArgumentCaptor<List<StudentCommitmentState>> captor = ArgumentCaptor.forClass(List.class);
+        verify(studentCommitmentStateRepository).saveAll(captor.capture());
+        List<StudentCommitmentState> saved = captor.getValue();
+        assertEquals(3, saved.size());
+        assertSame(open, saved.get(0));
+        assertEquals(mar, open.getValidTo());
+        assertEquals(seriesId, saved.get(1).getSessionSeriesId());
+        assertEquals(otherSeries, saved.get(2).getSessionSeriesId());
+        assertNull(saved.get(2).getValidTo());
+        verify(studentCommitmentStateRepository, never()).findByStudentIdAndSessionSeriesIdOrderByValidFromAsc(any(), any());
+        verify(studentCommitmentStateRepository, never()).save(any());
+    }
+
+    @Test
+    void applyAll_locksEveryChainInAFixedOrderBeforeReadingThem() {
+        UUID otherSeries = UUID.randomUUID();
+        StudentCommitment first = commitment(CommitmentStatus.ATTENDING, mar);
+        StudentCommitment second = commitment(CommitmentStatus.ATTENDING, mar);
+        second.setSessionSeriesId(otherSeries);
+        when(studentCommitmentStateRepository.findByStudentIdAndSessionSeriesIdInOrderByValidFromAsc(eq(studentId), anyCollection()))
+            .thenReturn(List.of());
+
+        studentCommitmentStateService.applyAll(studentId, List.of(first, second));
+
+        List<String> sorted = Stream.of(seriesId, otherSeries).map(UUID::toString).sorted().toList();
+        var inOrder = inOrder(studentCommitmentStateRepository);
+        inOrder.verify(studentCommitmentStateRepository).lockForSplice();
+        inOrder.verify(studentCommitmentStateRepository).lockChain(studentId.toString(), sorted.get(0));
+        inOrder.verify(studentCommitmentStateRepository).lockChain(studentId.toString(), sorted.get(1));
+        inOrder.verify(studentCommitmentStateRepository).findByStudentIdAndSessionSeriesIdInOrderByValidFromAsc(eq(studentId), anyCollection());
+    }
+
+    @Test
+    void findLatestPerSeries_resolvesSourceCommitmentsInOneQuery() {
+        UUID otherSeries = UUID.randomUUID();
+        StudentCommitment c1 = commitment(CommitmentStatus.ATTENDING, jan);
+        StudentCommitment c2 = commitment(CommitmentStatus.NOT_ATTENDING, mar);
+        c2.setSessionSeriesId(otherSeries);
+        StudentCommitmentState s1 = new StudentCommitmentState(UUID.randomUUID(), studentId, seriesId, CommitmentStatus.ATTENDING, jan, null, c1.getId());
+        StudentCommitmentState s2 = new StudentCommitmentState(UUID.randomUUID(), studentId, otherSeries, CommitmentStatus.NOT_ATTENDING, mar, null, c2.getId());
+        when(studentCommitmentStateRepository.findByStudentIdValidAt(studentId, may)).thenReturn(List.of(s1, s2));
+        when(studentCommitmentRepository.findAllById(anyCollection())).thenReturn(List.of(c1, c2));
+
+        Map<UUID, StudentCommitment> latest = studentCommitmentStateService.findLatestPerSeries(studentId, may);
+
+        assertEquals(2, latest.size());
+        assertSame(c1, latest.get(seriesId));
+        assertSame(c2, latest.get(otherSeries));
+        verify(studentCommitmentRepository, never()).findByStudentId(any());
+    }
+
+    @Test
+    void findLatestPerSeries_keepsSeriesInValidFromOrder() {
+        UUID otherSeries = UUID.randomUUID();
+        StudentCommitment c1 = commitment(CommitmentStatus.ATTENDING, jan);
+        StudentCommitment c2 = commitment(CommitmentStatus.NOT_ATTENDING, mar);
+        c2.setSessionSeriesId(otherSeries);
+        StudentCommitmentState s1 = new StudentCommitmentState(UUID.randomUUID(), studentId, seriesId, CommitmentStatus.ATTENDING, jan, null, c1.getId());
+        StudentCommitmentState s2 = new StudentCommitmentState(UUID.randomUUID(), studentId, otherSeries, CommitmentStatus.NOT_ATTENDING, mar, null, c2.getId());
+        when(studentCommitmentStateRepository.findByStudentIdValidAt(studentId, may)).thenReturn(List.of(s2, s1));
+        when(studentCommitmentRepository.findAllById(anyCollection())).thenReturn(List.of(c2, c1));
+
+        Map<UUID, StudentCommitment> latest = studentCommitmentStateService.findLatestPerSeries(studentId, may);
+
+        assertEquals(List.of(seriesId, otherSeries), List.copyOf(latest.keySet()));
+    }
+
+    @Test
+    void findLatestPerSeries_returnsEmpty_withoutTouchingCommitments() {
+        when(studentCommitmentStateRepository.findByStudentIdValidAt(studentId, may)).thenReturn(List.of());
+
+        assertTrue(studentCommitmentStateService.findLatestPerSeries(studentId, may).isEmpty());
+        verifyNoInteractions(studentCommitmentRepository);
+    }
+
+    @Test
+    void rebuild_replacesProjectionFromEventLog() {
+        when(studentCommitmentStateRepository.insertStatesFromCommitments()).thenReturn(3);
+
+        studentCommitmentStateService.rebuild();
+
+        var inOrder = inOrder(studentCommitmentStateRepository);
+        inOrder.verify(studentCommitmentStateRepository).lockForRebuild();
+        inOrder.verify(studentCommitmentStateRepository).deleteAllStates();
+        inOrder.verify(studentCommitmentStateRepository).insertStatesFromCommitments();
+    }
+
+    @Test
+    void isValidAt_isHalfOpen() {
+        StudentCommitmentState s = state(CommitmentStatus.ATTENDING, jan, mar);
+
+        assertTrue(s.isValidAt(jan));
+        assertFalse(s.isValidAt(mar));
+        assertFalse(s.isValidAt(jan.minusSeconds(1)));
+    }
+}
@@ -219,6 +219,32 @@ class StudentServiceTest {
         assertEquals(Sort.by("createdAt").descending(), used.getSort(), "Expected sort by createdAt desc");
     }
 
+    @Test
+    void search_usesRankedQueryAndDropsClientSort() {
+        // Arrange
+        Student s = new Student("a@b.com", "Ana", "Silva", Student.Gender.F, LocalDate.of(1990, 1, 1));
+        s.setRegistrationDate(LocalDate.now());
+        setIdViaReflection(s, studentId);
+        when(studentRepository.searchRanked("silva", false, PageRequest.of(1, 10)))
+                .thenReturn(new PageImpl<>(List.of(s), PageRequest.of(1, 10), 11));
+
+        // Act
+        Page<StudentResponseDTO> result = studentService.search(" silva ", false, PageRequest.of(1, 10, Sort.by("name")));
+
+        // Assert
+        assertEquals(11, result.getTotalElements());
+        assertEquals(studentId, result.getContent().get(0).id());
+    }
+
+    @Test
+    void search_badRequest_whenTermIsBlank() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> studentService.search("  ", false, PageRequest.of(0, 10)));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verifyNoInteractions(studentRepository);
+    }
+
     @Test
     void update_conflict_whenNewEmailExists() {
         // Arrange
@@ -0,0 +1,281 @@
+package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
+
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TimeSlotResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.dto.response.TrainerBusyIntervalResponseDTO;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.Event;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduledSession;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.EventRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.ScheduledSessionRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerAvailabilityIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrainerAvailabilityIndexTest {
+
+    @Mock
+    private TrainerScheduleRepository trainerScheduleRepository;
+
+    @Mock
+    private ScheduledSessionRepository scheduledSessionRepository;
+
+    @Mock
+    private EventRepository eventRepository;
+
+    @Mock
+    private TrainerRepository trainerRepository;
+
+    private TrainerAvailabilityIndex index;
+
+    private final UUID trainerId = UUID.randomUUID();
+
+    // 2025-10-06 is a Monday
+    private final LocalDate monday = LocalDate.of(2025, 10, 6);
+    private final LocalDate tuesday = monday.plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        index = new TrainerAvailabilityIndex(trainerScheduleRepository, scheduledSessionRepository, eventRepository,
+            trainerRepository);
+    }
+
+    private TrainerSchedule series(int weekday, String start, int duration, String effectiveFrom) {
+        TrainerSchedule s = new TrainerSchedule();
+        s.setId(UUID.randomUUID());
+        s.setTrainerId(trainerId);
+        s.setWeekday(weekday);
+        s.setStartTime(LocalTime.parse(start));
+        s.setIntervalDuration(duration);
+        s.setSeriesName("Series " + weekday + " " + start);
+        s.setEffectiveFromTimestamp(Instant.parse(effectiveFrom));
+        s.setActive(true);
+        return s;
+    }
+
+    private ScheduledSession session(UUID seriesId, LocalDateTime start, int duration) {
+        ScheduledSession s = new ScheduledSession();
+        s.setId(UUID.randomUUID());
+        s.setSessionSeriesId(seriesId);
+        s.setTrainerId(trainerId);
+        s.setStartTime(start);
+        s.setEndTime(start.plusMinutes(duration));
+        s.setSeriesName("Session");
+        return s;
+    }
+
+    private Event event(LocalDate date, String start, String end) {
+        Event e = new Event("Workshop", date);
+        ReflectionTestUtils.setField(e, "id", UUID.randomUUID());
+        e.setStartTime(LocalTime.parse(start));
+        e.setEndTime(LocalTime.parse(end));
+        return e;
+    }
+
+    private void stubCalendar(List<TrainerSchedule> schedules, List<ScheduledSession> busy, List<Event> events,
+            List<ScheduledSession> released) {
+        when(trainerScheduleRepository.findByTrainerIdAndActiveTrue(trainerId)).thenReturn(schedules);
+        when(scheduledSessionRepository.findBusyOutsideOwnSeries(trainerId)).thenReturn(busy);
+        when(eventRepository.findByTrainer_IdAndDeletedAtIsNull(trainerId)).thenReturn(events);
+        when(scheduledSessionRepository.findReleasedFromOwnSeries(trainerId)).thenReturn(released);
+    }
+
+    @Test
+    void findConflicts_reportsWeeklySlotOnlyOnItsWeekday() {
+        TrainerSchedule yoga = series(1, "09:00", 60, "2025-01-01T00:00:00Z");
+        stubCalendar(List.of(yoga), List.of(), List.of(), List.of());
+
+        List<TrainerBusyIntervalResponseDTO> conflicts = index.findConflicts(trainerId, monday.atTime(9, 30), monday.atTime(10, 30));
+
+        assertEquals(1, conflicts.size());
+        assertEquals("SERIES", conflicts.get(0).kind());
+        assertEquals(yoga.getId(), conflicts.get(0).sourceId());
+        assertEquals(monday.atTime(9, 0), conflicts.get(0).startTime());
+        assertEquals(monday.atTime(10, 0), conflicts.get(0).endTime());
+        assertTrue(index.findConflicts(trainerId, tuesday.atTime(9, 30), tuesday.atTime(10, 30)).isEmpty());
+        // Touching intervals do not overlap
+        assertTrue(index.findConflicts(trainerId, monday.atTime(10, 0), monday.atTime(11, 0)).isEmpty());
+    }
+
+    @Test
+    void findConflicts_includesOneOffsAndEventsInStartOrder() {
+        ScheduledSession oneOff = session(null, tuesday.atTime(14, 0), 60);
+        Event workshop = event(tuesday, "16:00", "17:00");
+        stubCalendar(List.of(), List.of(oneOff), List.of(workshop), List.of());
+
+        List<TrainerBusyIntervalResponseDTO> conflicts = index.findConflicts(trainerId, tuesday.atTime(13, 0), tuesday.atTime(18, 0));
+
+        assertEquals(List.of("ONE_OFF", "EVENT"), conflicts.stream().map(TrainerBusyIntervalResponseDTO::kind).toList());
+        assertEquals(List.of(oneOff.getId(), workshop.getId()),
+            conflicts.stream().map(TrainerBusyIntervalResponseDTO::sourceId).toList());
+        assertTrue(index.findConflicts(trainerId, tuesday.atTime(13, 0), tuesday.atTime(18, 0), workshop.getId())
+            .stream().noneMatch(c -> c.sourceId().equals(workshop.getId())));
+    }
+
+    @Test
+    void findConflicts_skipsReleasedAndNotYetEffectiveOccurrences() {
+        TrainerSchedule yoga = series(1, "09:00", 60, "2025-01-01T00:00:00Z");
+        TrainerSchedule pilates = series(1, "18:00", 60, "2025-10-10T00:00:00Z");
+        ScheduledSession canceled = session(yoga.getId(), monday.atTime(9, 0), 60);
+        canceled.setCanceled(true);
+        stubCalendar(List.of(yoga, pilates), List.of(), List.of(), List.of(canceled));
+
+        assertTrue(index.findConflicts(trainerId, monday.atStartOfDay(), monday.plusDays(1).atStartOfDay()).isEmpty());
+        List<TrainerBusyIntervalResponseDTO> nextWeek = index.findConflicts(trainerId,
+            monday.plusWeeks(1).atStartOfDay(), monday.plusWeeks(1).plusDays(1).atStartOfDay());
+        assertEquals(List.of(yoga.getId(), pilates.getId()),
+            nextWeek.stream().map(TrainerBusyIntervalResponseDTO::sourceId).toList());
+    }
+
+    @Test
+    void findConflicts_seesSlotRunningPastSaturdayMidnightOnSunday() {
+        TrainerSchedule late = series(6, "23:30", 60, "2025-01-01T00:00:00Z");
+        stubCalendar(List.of(late), List.of(), List.of(), List.of());
+        LocalDate sunday = monday.minusDays(1);
+
+        List<TrainerBusyIntervalResponseDTO> conflicts = index.findConflicts(trainerId, sunday.atStartOfDay(), sunday.atTime(0, 20));
+
+        assertEquals(1, conflicts.size());
+        assertEquals(sunday.minusDays(1).atTime(23, 30), conflicts.get(0).startTime());
+        assertEquals(sunday.atTime(0, 30), conflicts.get(0).endTime());
+        // Seen from both days, reported once
+        assertEquals(1, index.findConflicts(trainerId, sunday.minusDays(1).atTime(23, 0), sunday.atTime(1, 0)).size());
+    }
+
+    @Test
+    void findConflicts_findsEntriesBehindALongEarlierInterval() {
+        TrainerSchedule longShift = series(1, "06:00", 600, "2025-01-01T00:00:00Z");
+        TrainerSchedule early = series(1, "07:00", 30, "2025-01-01T00:00:00Z");
+        TrainerSchedule later = series(1, "08:00", 30, "2025-01-01T00:00:00Z");
+        stubCalendar(List.of(later, longShift, early), List.of(), List.of(), List.of());
+
+        List<UUID> atEight = index.findConflicts(trainerId, monday.atTime(8, 10), monday.atTime(8, 20)).stream()
+            .map(TrainerBusyIntervalResponseDTO::sourceId).toList();
+        List<UUID> afternoon = index.findConflicts(trainerId, monday.atTime(15, 0), monday.atTime(16, 0)).stream()
+            .map(TrainerBusyIntervalResponseDTO::sourceId).toList();
+
+        assertEquals(List.of(longShift.getId(), later.getId()), atEight);
+        assertEquals(List.of(longShift.getId()), afternoon);
+    }
+
+    @Test
+    void findFreeSlots_returnsGapsOfAtLeastTheMinimum() {
+        TrainerSchedule yoga = series(1, "09:00", 60, "2025-01-01T00:00:00Z");
+        ScheduledSession oneOff = session(null, monday.atTime(10, 30), 30);
+        stubCalendar(List.of(yoga), List.of(oneOff), List.of(), List.of());
+
+        List<TimeSlotResponseDTO> free = index.findFreeSlots(trainerId, monday.atTime(8, 0), monday.atTime(12, 0), 30);
+
+        assertEquals(List.of(
+            new TimeSlotResponseDTO(monday.atTime(8, 0), monday.atTime(9, 0)),
+            new TimeSlotResponseDTO(monday.atTime(10, 0), monday.atTime(10, 30)),
+            new TimeSlotResponseDTO(monday.atTime(11, 0), monday.atTime(12, 0))), free);
+        assertEquals(2, index.findFreeSlots(trainerId, monday.atTime(8, 0), monday.atTime(12, 0), 45).size());
+    }
+
+    @Test
+    void findWeeklyConflicts_checksOtherSeriesAndUpcomingDatedEntries() {
+        TrainerSchedule yoga = series(1, "09:00", 60, "2025-01-01T00:00:00Z");
+        LocalDate nextWednesday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.WEDNESDAY));
+        Event workshop = event(nextWednesday, "18:00", "19:00");
+        stubCalendar(List.of(yoga), List.of(), List.of(workshop), List.of());
+
+        List<TrainerBusyIntervalResponseDTO> mondayConflicts = index.findWeeklyConflicts(trainerId, 1, LocalTime.of(9, 30), 60, null);
+        assertEquals(List.of(yoga.getId()), mondayConflicts.stream().map(TrainerBusyIntervalResponseDTO::sourceId).toList());
+        // The series being edited does not collide with itself
+        assertTrue(index.findWeeklyConflicts(trainerId, 1, LocalTime.of(9, 30), 60, yoga.getId()).isEmpty());
+
+        List<TrainerBusyIntervalResponseDTO> wednesdayConflicts = index.findWeeklyConflicts(trainerId, 3, LocalTime.of(18, 30), 60, null);
+        assertEquals(List.of(workshop.getId()), wednesdayConflicts.stream().map(TrainerBusyIntervalResponseDTO::sourceId).toList());
+        assertTrue(index.findWeeklyConflicts(trainerId, 3, LocalTime.of(19, 0), 60, null).isEmpty());
+    }
+
+    @Test
+    void requireFree_rejectsOverlapWithConflict() {
+        stubCalendar(List.of(series(1, "09:00", 60, "2025-01-01T00:00:00Z")), List.of(), List.of(), List.of());
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+            () -> index.requireFree(trainerId, monday.atTime(9, 45), monday.atTime(10, 15), null));
+
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        assertDoesNotThrow(() -> index.requireFree(trainerId, monday.atTime(10, 0), monday.atTime(11, 0), null));
+        // Unassigned sessions are never checked
+        assertDoesNotThrow(() -> index.requireFree(null, monday.atTime(9, 0), monday.atTime(10, 0), null));
+    }
+
+    @Test
+    void requireFree_insideTransaction_locksTrainerAndNeverCachesWhatItReads() {
+        stubCalendar(List.of(), List.of(), List.of(), List.of());
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            index.requireFree(trainerId, monday.atTime(9, 0), monday.atTime(10, 0), null);
+            index.findConflicts(trainerId, monday.atTime(9, 0), monday.atTime(10, 0));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+        index.findConflicts(trainerId, monday.atTime(9, 0), monday.atTime(10, 0));
+
+        verify(trainerRepository).lockAvailability(trainerId.toString());
+        // Both in-transaction reads loaded their own calendar; the first one outside loads again and keeps it
+        verify(trainerScheduleRepository, times(3)).findByTrainerIdAndActiveTrue(trainerId);
+        index.findConflicts(trainerId, monday.atTime(9, 0), monday.atTime(10, 0));
+        verify(trainerScheduleRepository, times(3)).findByTrainerIdAndActiveTrue(trainerId);
+    }
+
+    @Test
+    void requireWeeklyFree_insideTransaction_locksTrainerBeforeCheckingTheSeries() {
+        stubCalendar(List.of(series(1, "09:00", 60, "2025-01-01T00:00:00Z")), List.of(), List.of(), List.of());
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            assertThrows(ResponseStatusException.class,
+                () -> index.requireWeeklyFree(trainerId, 1, LocalTime.of(9, 30), 60, null));
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+
+        InOrder inOrder = inOrder(trainerRepository, trainerScheduleRepository);
+        inOrder.verify(trainerRepository).lockAvailability(trainerId.toString());
+        inOrder.verify(trainerScheduleRepository).findByTrainerIdAndActiveTrue(trainerId);
+    }
+
+    @Test
+    void invalidate_reloadsOnlyThatTrainer() {
+        UUID otherTrainerId = UUID.randomUUID();
+        stubCalendar(List.of(), List.of(), List.of(), List.of());
+        when(trainerScheduleRepository.findByTrainerIdAndActiveTrue(otherTrainerId)).thenReturn(List.of());
+        when(scheduledSessionRepository.findBusyOutsideOwnSeries(otherTrainerId)).thenReturn(List.of());
+        when(eventRepository.findByTrainer_IdAndDeletedAtIsNull(otherTrainerId)).thenReturn(List.of());
+        when(scheduledSessionRepository.findReleasedFromOwnSeries(otherTrainerId)).thenReturn(List.of());
+
+        index.findConflicts(trainerId, monday.atTime(9, 0), monday.atTime(10, 0));
+        index.findConflicts(otherTrainerId, monday.atTime(9, 0), monday.atTime(10, 0));
+        index.onChanged(TrainerAvailabilityIndex.Changed.of(trainerId, null));
+        index.findConflicts(trainerId, monday.atTime(9, 0), monday.atTime(10, 0));
+        index.findConflicts(otherTrainerId, monday.atTime(9, 0), monday.atTime(10, 0));
+
+        verify(trainerScheduleRepository, times(2)).findByTrainerIdAndActiveTrue(trainerId);
+        verify(trainerScheduleRepository, times(1)).findByTrainerIdAndActiveTrue(otherTrainerId);
+    }
+}
@@ -0,0 +1,169 @@
+package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
+
+import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerScheduleIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrainerScheduleIndexTest {
+
+    @Mock
+    private TrainerScheduleRepository trainerScheduleRepository;
+
+    private TrainerScheduleIndex index;
+
+    // 2025-10-05 is a Sunday, 2025-10-06 a Monday
+    private final LocalDate sunday = LocalDate.of(2025, 10, 5);
+    private final LocalDate monday = LocalDate.of(2025, 10, 6);
+
+    @BeforeEach
+    void setUp() {
+        index = new TrainerScheduleIndex(trainerScheduleRepository);
+    }
+
+    private TrainerSchedule schedule(int weekday, String start, String effectiveFrom) {
+        TrainerSchedule s = new TrainerSchedule();
+        s.setId(UUID.randomUUID());
+        s.setTrainerId(UUID.randomUUID());
+        s.setWeekday(weekday);
+        s.setStartTime(LocalTime.parse(start));
+        s.setIntervalDuration(60);
+        s.setSeriesName("Series " + weekday + " " + start);
+        s.setEffectiveFromTimestamp(Instant.parse(effectiveFrom));
+        s.setActive(true);
+        return s;
+    }
+
+    @Test
+    void findEffectiveOn_mapsSundayToWeekdayZero() {
+        TrainerSchedule sundaySeries = schedule(0, "09:00", "2025-01-01T00:00:00Z");
+        TrainerSchedule mondaySeries = schedule(1, "09:00", "2025-01-01T00:00:00Z");
+        when(trainerScheduleRepository.findAll()).thenReturn(List.of(sundaySeries, mondaySeries));
+
+        List<TrainerSchedule> result = index.findEffectiveOn(sunday);
+
+        assertEquals(1, result.size());
+        assertEquals(sundaySeries.getId(), result.get(0).getId());
+    }
+
+    @Test
+    void findEffectiveOn_excludesVersionsNotYetEffective() {
+        TrainerSchedule future = schedule(1, "09:00", "2025-10-07T00:00:00Z");
+        when(trainerScheduleRepository.findAll()).thenReturn(List.of(future));
+
+        assertTrue(index.findEffectiveOn(monday).isEmpty());
+        assertEquals(1, index.findEffectiveOn(monday.plusWeeks(1)).size());
+    }
+
+    @Test
+    void findEffectiveOn_keepsSoftDeletedVersionsUntilDeletion() {
+        TrainerSchedule deleted = schedule(1, "09:00", "2025-01-01T00:00:00Z");
+        deleted.setActive(false);
+        deleted.setDeletedAt(Instant.parse("2025-10-10T12:00:00Z"));
+        when(trainerScheduleRepository.findAll()).thenReturn(List.of(deleted));
+
+        assertEquals(1, index.findEffectiveOn(monday).size());
+        assertTrue(index.findEffectiveOn(monday.plusWeeks(1)).isEmpty());
+    }
+
+    @Test
+    void findEffectiveOn_withStartTime_returnsOnlyThatSlot() {
+        TrainerSchedule early = schedule(1, "07:00", "2025-01-01T00:00:00Z");
+        TrainerSchedule late = schedule(1, "18:00", "2025-01-01T00:00:00Z");
+        when(trainerScheduleRepository.findAll()).thenReturn(List.of(early, late));
+
+        List<TrainerSchedule> result = index.findEffectiveOn(monday, LocalTime.of(18, 0));
+
+        assertEquals(1, result.size());
+        assertEquals(late.getId(), result.get(0).getId());
+        assertTrue(index.findEffectiveOn(monday, LocalTime.of(12, 0)).isEmpty());
+    }
+
+    @Test
+    void findEffectiveOn_bySeriesId_requiresMatchingWeekdayAndEffectiveVersion() {
+        TrainerSchedule series = schedule(1, "09:00", "2025-10-07T00:00:00Z");
+        when(trainerScheduleRepository.findAll()).thenReturn(List.of(series));
+
+        assertTrue(index.findEffectiveOn(series.getId(), monday).isEmpty());
+        assertTrue(index.findEffectiveOn(series.getId(), sunday.plusWeeks(1)).isEmpty());
+        assertEquals(series.getId(), index.findEffectiveOn(series.getId(), monday.plusWeeks(1)).orElseThrow().getId());
+        assertTrue(index.findEffectiveOn(UUID.randomUUID(), monday.plusWeeks(1)).isEmpty());
+    }
+
+    @Test
+    void findEffectiveOnForTrainer_returnsOnlyThatTrainersSeries() {
+        TrainerSchedule own = schedule(1, "07:00", "2025-01-01T00:00:00Z");
+        TrainerSchedule ownFuture = schedule(1, "08:00", "2025-10-07T00:00:00Z");
+        ownFuture.setTrainerId(own.getTrainerId());
+        TrainerSchedule other = schedule(1, "07:00", "2025-01-01T00:00:00Z");
+        when(trainerScheduleRepository.findAll()).thenReturn(List.of(own, ownFuture, other));
+
+        List<TrainerSchedule> result = index.findEffectiveOnForTrainer(own.getTrainerId(), monday);
+
+        assertEquals(List.of(own.getId()), result.stream().map(TrainerSchedule::getId).toList());
+        assertEquals(2, index.findEffectiveOnForTrainer(own.getTrainerId(), monday.plusWeeks(1)).size());
+        assertTrue(index.findEffectiveOnForTrainer(UUID.randomUUID(), monday).isEmpty());
+    }
+
+    @Test
+    void findEffectiveOn_servesRepeatedReadsFromSnapshot() {
+        when(trainerScheduleRepository.findAll()).thenReturn(List.of(schedule(1, "09:00", "2025-01-01T00:00:00Z")));
+
+        for (int week = 0; week < 4; week++) {
+            index.findEffectiveOn(monday.plusWeeks(week));
+        }
+
+        verify(trainerScheduleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void invalidate_forcesReloadOnNextRead() {
+        TrainerSchedule original = schedule(1, "09:00", "2025-01-01T00:00:00Z");
+        TrainerSchedule added = schedule(1, "10:00", "2025-01-01T00:00:00Z");
+        when(trainerScheduleRepository.findAll()).thenReturn(List.of(original), List.of(original, added));
+
+        assertEquals(1, index.findEffectiveOn(monday).size());
+        index.invalidate();
+
+        assertEquals(2, index.findEffectiveOn(monday).size());
+        verify(trainerScheduleRepository, times(2)).findAll();
+    }
+
+    @Test
+    void onChanged_dropsSnapshotRebuiltBeforeTheWriteCompleted() {
+        TrainerSchedule original = schedule(1, "09:00", "2025-01-01T00:00:00Z");
+        when(trainerScheduleRepository.findAll()).thenReturn(List.of(original));
+
+        index.findEffectiveOn(monday);
+        index.onChanged(new TrainerScheduleIndex.Changed());
+        index.findEffectiveOn(monday);
+
+        verify(trainerScheduleRepository, times(2)).findAll();
+    }
+
+    @Test
+    void snapshot_isDetachedFromRepositoryEntities() {
+        TrainerSchedule source = schedule(1, "09:00", "2025-01-01T00:00:00Z");
+        when(trainerScheduleRepository.findAll()).thenReturn(List.of(source));
+
+        TrainerSchedule indexed = index.findEffectiveOn(monday).get(0);
+        source.setSeriesName("Renamed without invalidation");
+
+        assertNotSame(source, indexed);
+        assertEquals("Series 1 09:00", index.findEffectiveOn(monday).get(0).getSeriesName());
+    }
+}
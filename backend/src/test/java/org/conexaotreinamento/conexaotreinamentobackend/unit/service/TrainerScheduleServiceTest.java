@@ -1,7 +1,14 @@
 package org.conexaotreinamento.conexaotreinamentobackend.unit.service;
 
+import org.conexaotreinamento.conexaotreinamentobackend.entity.ScheduleChange;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.TrainerSchedule;
 import org.conexaotreinamento.conexaotreinamentobackend.repository.TrainerScheduleRepository;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ReportRollupService;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleChangeLog;
+import org.conexaotreinamento.conexaotreinamentobackend.service.ScheduleMaterializer;
+import org.conexaotreinamento.conexaotreinamentobackend.service.SessionKeyRegistry;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerAvailabilityIndex;
+import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerScheduleIndex;
 import org.conexaotreinamento.conexaotreinamentobackend.service.TrainerScheduleService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,9 +17,16 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -27,6 +41,24 @@ class TrainerScheduleServiceTest {
     @Mock
     private TrainerScheduleRepository trainerScheduleRepository;
 
+    @Mock
+    private TrainerScheduleIndex trainerScheduleIndex;
+
+    @Mock
+    private SessionKeyRegistry sessionKeyRegistry;
+
+    @Mock
+    private ScheduleChangeLog scheduleChangeLog;
+
+    @Mock
+    private ScheduleMaterializer scheduleMaterializer;
+
+    @Mock
+    private TrainerAvailabilityIndex trainerAvailabilityIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private TrainerScheduleService trainerScheduleService;
 
@@ -128,6 +160,43 @@ class TrainerScheduleServiceTest {
         // Assert
         assertNotNull(saved.getEffectiveFromTimestamp(), "effectiveFromTimestamp should be set");
         verify(trainerScheduleRepository).save(saved);
+        verify(trainerScheduleIndex).invalidate();
+        verify(sessionKeyRegistry).register(saved);
+    }
+
+    @Test
+    void createSchedule_rejectsSlotOverlappingTrainersCalendar_withoutSaving() {
+        TrainerSchedule input = newSchedule(null, trainerId, 1, "Pilates", "09:30", 60);
+        doThrow(new ResponseStatusException(HttpStatus.CONFLICT, "Trainer is already busy"))
+            .when(trainerAvailabilityIndex).requireWeeklyFree(trainerId, 1, LocalTime.of(9, 30), 60, null);
+
+        assertThrows(ResponseStatusException.class, () -> trainerScheduleService.createSchedule(input));
+
+        verify(trainerScheduleRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+
+    @Test
+    void createSchedule_dropsBothIndexesAgainOnceTheWriteCompletes() {
+        TrainerSchedule input = newSchedule(null, trainerId, 1, "Pilates", "09:30", 60);
+        when(trainerScheduleRepository.save(any(TrainerSchedule.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        trainerScheduleService.createSchedule(input);
+
+        verify(eventPublisher).publishEvent(new TrainerScheduleIndex.Changed());
+        verify(eventPublisher).publishEvent(TrainerAvailabilityIndex.Changed.of(trainerId));
+        verify(trainerAvailabilityIndex, never()).invalidate(any());
+    }
+
+    @Test
+    void seriesWrites_runInATransactionSoTheAvailabilityCheckTakesTheTrainerLock() throws NoSuchMethodException {
+        // TrainerAvailabilityIndex only locks the trainer when a transaction is active
+        assertNotNull(TrainerScheduleService.class.getMethod("createSchedule", TrainerSchedule.class)
+            .getAnnotation(Transactional.class));
+        assertNotNull(TrainerScheduleService.class.getMethod("updateSchedule", UUID.class, TrainerSchedule.class)
+            .getAnnotation(Transactional.class));
+        assertNotNull(TrainerScheduleService.class.getMethod("deleteSchedule", UUID.class)
+            .getAnnotation(Transactional.class));
     }
 
     @Test
@@ -189,11 +258,31 @@ class TrainerScheduleServiceTest {
         assertEquals(45, result.getIntervalDuration());
         assertEquals("Pilates", result.getSeriesName());
         verify(trainerScheduleRepository).save(existing);
+        verify(trainerScheduleIndex).invalidate();
+        verify(sessionKeyRegistry).register(existing);
 
         // updatedAt should be touched via updateTimestamp (cannot guarantee Instant equality, but non-null)
         assertNotNull(result.getUpdatedAt(), "updatedAt should be set by updateTimestamp");
     }
 
+    @Test
+    void updateSchedule_invalidatesRolledUpDaysSinceTheSeriesTookEffect() {
+        TrainerSchedule existing = newSchedule(scheduleId, trainerId, 1, "Yoga", "09:00", 60);
+        existing.setEffectiveFromTimestamp(Instant.now().minus(10, ChronoUnit.DAYS));
+        when(trainerScheduleRepository.findById(scheduleId)).thenReturn(Optional.of(existing));
+        when(trainerScheduleRepository.save(any(TrainerSchedule.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        TrainerSchedule updated = new TrainerSchedule();
+        updated.setWeekday(2);
+        updated.setStartTime(LocalTime.of(11, 0));
+        updated.setIntervalDuration(45);
+        updated.setSeriesName("Yoga");
+
+        trainerScheduleService.updateSchedule(scheduleId, updated);
+
+        LocalDate effectiveDay = LocalDate.ofInstant(existing.getEffectiveFromTimestamp(), ZoneOffset.UTC);
+        verify(eventPublisher).publishEvent(new ReportRollupService.ActivityChanged(effectiveDay, LocalDate.now()));
+    }
+
     @Test
     void updateSchedule_throws_whenNotFound() {
         // Arrange
@@ -203,6 +292,7 @@ class TrainerScheduleServiceTest {
         RuntimeException ex = assertThrows(RuntimeException.class, () -> trainerScheduleService.updateSchedule(scheduleId, new TrainerSchedule()));
         assertTrue(ex.getMessage().contains("TrainerSchedule not found"), "Message: " + ex.getMessage());
         verify(trainerScheduleRepository, never()).save(any());
+        verifyNoInteractions(trainerScheduleIndex, sessionKeyRegistry);
     }
 
     @Test
@@ -220,6 +310,21 @@ class TrainerScheduleServiceTest {
         TrainerSchedule saved = captor.getValue();
         assertFalse(saved.isActive(), "softDelete should set active=false");
         assertNotNull(saved.getDeletedAt(), "softDelete should set deletedAt");
+        verify(trainerScheduleIndex).invalidate();
+        verify(scheduleChangeLog).recordSeries(scheduleId, null, ScheduleChange.ChangeType.SCHEDULE);
+        verify(scheduleMaterializer).rematerializeSeries(scheduleId);
+    }
+
+    @Test
+    void deleteSchedule_invalidatesRolledUpDaysSinceTheSeriesTookEffect() {
+        TrainerSchedule existing = newSchedule(scheduleId, trainerId, 4, "Cardio", "13:00", 60);
+        existing.setEffectiveFromTimestamp(Instant.now().minus(10, ChronoUnit.DAYS));
+        when(trainerScheduleRepository.findById(scheduleId)).thenReturn(Optional.of(existing));
+
+        trainerScheduleService.deleteSchedule(scheduleId);
+
+        LocalDate effectiveDay = LocalDate.ofInstant(existing.getEffectiveFromTimestamp(), ZoneOffset.UTC);
+        verify(eventPublisher).publishEvent(new ReportRollupService.ActivityChanged(effectiveDay, LocalDate.now()));
     }
 
     @Test
@@ -232,6 +337,7 @@ class TrainerScheduleServiceTest {
 
         // Assert
         verify(trainerScheduleRepository, never()).save(any());
+        verifyNoInteractions(trainerScheduleIndex);
     }
 
     @Test
@@ -7,6 +7,8 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.fail;
+import org.conexaotreinamento.conexaotreinamentobackend.config.security.jwt.RevokedTokenRegistry;
+import org.conexaotreinamento.conexaotreinamentobackend.config.security.user.PrincipalCache;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.UserCreateRequestDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.PatchUserRoleRequestDTO;
 import org.conexaotreinamento.conexaotreinamentobackend.dto.request.ChangePasswordRequestDTO;
@@ -24,8 +26,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -44,6 +48,12 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private RevokedTokenRegistry revokedTokenRegistry;
+
     @InjectMocks
     private UserService userService;
 
@@ -179,6 +189,8 @@ class UserServiceTest {
         assertThat(user.isInactive()).isTrue();
 
         verify(userRepository).findByIdAndDeletedAtIsNull(userId);
+        verify(eventPublisher).publishEvent(new PrincipalCache.Changed(userId));
+        verify(revokedTokenRegistry).revoke(userId);
     }
 
     @Test
@@ -211,6 +223,8 @@ class UserServiceTest {
         assertThat(user.getRole()).isEqualTo(Role.ROLE_TRAINER);
 
         verify(userRepository).findByIdAndDeletedAtIsNull(userId);
+        verify(eventPublisher).publishEvent(new PrincipalCache.Changed(userId));
+        verify(revokedTokenRegistry).revoke(userId);
     }
 
     @Test
@@ -229,6 +243,8 @@ class UserServiceTest {
         assertThat(user.getRole()).isEqualTo(Role.ROLE_ADMIN);
 
         verify(userRepository).findByIdAndDeletedAtIsNull(userId);
+        verifyNoInteractions(eventPublisher);
+        verify(revokedTokenRegistry, never()).revoke(any());
     }
 
     @Test
@@ -432,6 +448,7 @@ class UserServiceTest {
         verify(userRepository).findById(userId);
         verify(userRepository).findByEmailAndDeletedAtIsNull("john@example.com");
         verify(userRepository).save(user);
+        verify(revokedTokenRegistry).revoke(userId);
     }
 
     @Test
@@ -555,6 +572,7 @@ class UserServiceTest {
         // Then
         assertThat(result).isNotNull();
         assertThat(user.getPassword()).isEqualTo("encodedNewPass");
+        verify(eventPublisher).publishEvent(new PrincipalCache.Changed(userId));
     }
 
     @Test
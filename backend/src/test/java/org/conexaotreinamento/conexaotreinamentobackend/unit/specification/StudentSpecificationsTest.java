@@ -107,15 +107,10 @@ class StudentSpecificationsTest {
         spec.toPredicate(root, query, criteriaBuilder);
 
         // Then
-        verify(root).get("name");
-        verify(root).get("surname");
-        verify(root).get("email");
-        verify(root).get("phone");
-        verify(root).get("profession");
-        
-        // Verify that like was called multiple times (5 times for the OR clause)
-        verify(criteriaBuilder, atLeast(5)).like(any(), eq("%john%"));
-        verify(criteriaBuilder).or(any(Predicate[].class));
+        // A single LIKE over the generated, trigram-indexed search column
+        verify(root).get("searchText");
+        verify(criteriaBuilder).like(any(), eq("%john%"));
+        verify(criteriaBuilder, never()).or(any(Predicate[].class));
     }
 
     @Test
@@ -1,25 +1,40 @@
 package org.conexaotreinamento.conexaotreinamentobackend.unit.utils;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.conexaotreinamento.conexaotreinamentobackend.config.security.jwt.JwtAuthenticationFilter;
 import org.conexaotreinamento.conexaotreinamentobackend.config.security.jwt.JwtService;
+import org.conexaotreinamento.conexaotreinamentobackend.config.security.jwt.RevokedTokenRegistry;
+import org.conexaotreinamento.conexaotreinamentobackend.config.security.user.ClaimsPrincipal;
+import org.conexaotreinamento.conexaotreinamentobackend.config.security.user.PrincipalCache;
 import org.conexaotreinamento.conexaotreinamentobackend.config.security.user.UserDetailsImpl;
 import org.conexaotreinamento.conexaotreinamentobackend.entity.User;
 import org.conexaotreinamento.conexaotreinamentobackend.enums.Role;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -35,6 +50,15 @@ class JwtAuthenticationFilterTest {
     @Mock
     private UserDetailsService userDetailsService;
 
+    @Spy
+    private PrincipalCache principalCache = new PrincipalCache(Duration.ofMinutes(1), 100);
+
+    @Spy
+    private RevokedTokenRegistry revokedTokenRegistry = new RevokedTokenRegistry(mock(UserRepository.class), 24);
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Mock
     private HttpServletRequest request;
 
@@ -49,6 +73,7 @@ class JwtAuthenticationFilterTest {
 
     private User testUser;
     private UserDetailsImpl userDetails;
+    private UUID userId;
     private final String validToken = "valid.jwt.token";
     private final String invalidToken = "invalid.jwt.token";
     private final String bearerToken = "Bearer " + validToken;
@@ -58,6 +83,8 @@ class JwtAuthenticationFilterTest {
         SecurityContextHolder.clearContext();
         testUser = TestAuthUtils.createTestUser(TestAuthUtils.VALID_EMAIL, TestAuthUtils.VALID_PASSWORD,
                 Role.ROLE_TRAINER);
+        userId = UUID.randomUUID();
+        ReflectionTestUtils.setField(testUser, "id", userId);
         userDetails = TestAuthUtils.createUserDetails(testUser);
     }
 
@@ -66,8 +93,7 @@ class JwtAuthenticationFilterTest {
     void shouldAuthenticateSuccessfullyWithValidToken() throws ServletException, IOException {
         // Given
         when(request.getHeader("Authorization")).thenReturn(bearerToken);
-        when(jwtService.isTokenValid(validToken)).thenReturn(true);
-        when(jwtService.extractUsername(validToken)).thenReturn(TestAuthUtils.VALID_EMAIL);
+        when(jwtService.decodeIfValid(validToken)).thenReturn(Optional.of(accessToken(userId)));
         when(userDetailsService.loadUserByUsername(TestAuthUtils.VALID_EMAIL)).thenReturn(userDetails);
 
         // When
@@ -79,8 +105,9 @@ class JwtAuthenticationFilterTest {
         assertThat(SecurityContextHolder.getContext().getAuthentication().getAuthorities())
                 .isEqualTo(userDetails.getAuthorities());
 
-        verify(jwtService).isTokenValid(validToken);
-        verify(jwtService).extractUsername(validToken);
+        verify(jwtService).decodeIfValid(validToken);
+        verify(jwtService, never()).isTokenValid(any());
+        verify(jwtService, never()).extractUsername(any());
         verify(userDetailsService).loadUserByUsername(TestAuthUtils.VALID_EMAIL);
         verify(filterChain).doFilter(request, response);
     }
@@ -96,12 +123,29 @@ class JwtAuthenticationFilterTest {
 
         // Then
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-        verify(jwtService, never()).isTokenValid(any());
-        verify(jwtService, never()).extractUsername(any());
+        verify(jwtService, never()).decodeIfValid(any());
         verify(userDetailsService, never()).loadUserByUsername(any());
         verify(filterChain).doFilter(request, response);
     }
 
+    @Test
+    @DisplayName("Should time the authentication overhead per outcome")
+    void shouldTimeAuthenticationOverheadPerOutcome() throws ServletException, IOException {
+        // Given
+        when(request.getHeader("Authorization")).thenReturn(bearerToken, (String) null);
+        when(jwtService.decodeIfValid(validToken)).thenReturn(Optional.of(accessToken(userId)));
+        when(userDetailsService.loadUserByUsername(TestAuthUtils.VALID_EMAIL)).thenReturn(userDetails);
+
+        // When
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        // Then
+        assertThat(meterRegistry.get("security.jwt.filter").tag("outcome", "authenticated").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("security.jwt.filter").tag("outcome", "anonymous").timer().count()).isEqualTo(1);
+    }
+
     @Test
     @DisplayName("Should continue filter chain when token is empty")
     void shouldContinueFilterChainWhenTokenIsEmpty() throws ServletException, IOException {
@@ -113,7 +157,7 @@ class JwtAuthenticationFilterTest {
 
         // Then
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-        verify(jwtService, never()).isTokenValid(any());
+        verify(jwtService, never()).decodeIfValid(any());
         verify(filterChain).doFilter(request, response);
     }
 
@@ -128,7 +172,7 @@ class JwtAuthenticationFilterTest {
 
         // Then
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-        verify(jwtService, never()).isTokenValid(any());
+        verify(jwtService, never()).decodeIfValid(any());
         verify(filterChain).doFilter(request, response);
     }
 
@@ -137,15 +181,14 @@ class JwtAuthenticationFilterTest {
     void shouldContinueFilterChainWhenTokenIsInvalid() throws ServletException, IOException {
         // Given
         when(request.getHeader("Authorization")).thenReturn("Bearer " + invalidToken);
-        when(jwtService.isTokenValid(invalidToken)).thenReturn(false);
+        when(jwtService.decodeIfValid(invalidToken)).thenReturn(Optional.empty());
 
         // When
         jwtAuthenticationFilter.doFilter(request, response, filterChain);
 
         // Then
         assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
-        verify(jwtService).isTokenValid(invalidToken);
-        verify(jwtService, never()).extractUsername(any());
+        verify(jwtService).decodeIfValid(invalidToken);
         verify(userDetailsService, never()).loadUserByUsername(any());
         verify(filterChain).doFilter(request, response);
     }
@@ -156,8 +199,7 @@ class JwtAuthenticationFilterTest {
         // Given
         String testToken = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9.test.signature";
         when(request.getHeader("Authorization")).thenReturn("Bearer " + testToken);
-        when(jwtService.isTokenValid(testToken)).thenReturn(true);
-        when(jwtService.extractUsername(testToken)).thenReturn(TestAuthUtils.VALID_EMAIL);
+        when(jwtService.decodeIfValid(testToken)).thenReturn(Optional.of(accessToken(userId)));
         when(userDetailsService.loadUserByUsername(TestAuthUtils.VALID_EMAIL)).thenReturn(userDetails);
         // Removed getRequestURI stubbing - only needed for exception handling
 
@@ -165,8 +207,129 @@ class JwtAuthenticationFilterTest {
         jwtAuthenticationFilter.doFilter(request, response, filterChain);
 
         // Then
-        verify(jwtService).isTokenValid(testToken);
-        verify(jwtService).extractUsername(testToken);
+        verify(jwtService).decodeIfValid(testToken);
         verify(filterChain).doFilter(request, response);
     }
+
+    @Test
+    @DisplayName("Should reuse the cached principal on subsequent requests")
+    void shouldReuseCachedPrincipalOnSubsequentRequests() throws ServletException, IOException {
+        // Given
+        when(request.getHeader("Authorization")).thenReturn(bearerToken);
+        when(jwtService.decodeIfValid(validToken)).thenReturn(Optional.of(accessToken(userId)));
+        when(userDetailsService.loadUserByUsername(TestAuthUtils.VALID_EMAIL)).thenReturn(userDetails);
+
+        // When
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+        SecurityContextHolder.clearContext();
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(userDetails);
+        verify(userDetailsService, times(1)).loadUserByUsername(TestAuthUtils.VALID_EMAIL);
+    }
+
+    @Test
+    @DisplayName("Should reload the principal after it is invalidated")
+    void shouldReloadPrincipalAfterInvalidation() throws ServletException, IOException {
+        // Given
+        when(request.getHeader("Authorization")).thenReturn(bearerToken);
+        when(jwtService.decodeIfValid(validToken)).thenReturn(Optional.of(accessToken(userId)));
+        when(userDetailsService.loadUserByUsername(TestAuthUtils.VALID_EMAIL)).thenReturn(userDetails);
+
+        // When
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+        principalCache.invalidate(userId);
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        // Then
+        verify(userDetailsService, times(2)).loadUserByUsername(TestAuthUtils.VALID_EMAIL);
+    }
+
+    @Test
+    @DisplayName("Should bypass the cache for tokens without a user id claim")
+    void shouldBypassCacheForTokensWithoutUserId() throws ServletException, IOException {
+        // Given
+        when(request.getHeader("Authorization")).thenReturn(bearerToken);
+        when(jwtService.decodeIfValid(validToken)).thenReturn(Optional.of(accessToken(null)));
+        when(userDetailsService.loadUserByUsername(TestAuthUtils.VALID_EMAIL)).thenReturn(userDetails);
+
+        // When
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(userDetails);
+        assertThat(principalCache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should authenticate from claims without loading the user in stateless mode")
+    void shouldAuthenticateFromClaimsInStatelessMode() throws ServletException, IOException {
+        // Given
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "statelessClaims", true);
+        when(request.getHeader("Authorization")).thenReturn(bearerToken);
+        when(jwtService.decodeIfValid(validToken)).thenReturn(Optional.of(accessToken(userId)));
+
+        // When
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        // Then
+        var authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getPrincipal()).isEqualTo(new ClaimsPrincipal(userId, TestAuthUtils.VALID_EMAIL, Role.ROLE_TRAINER));
+        assertThat(authentication.getName()).isEqualTo(TestAuthUtils.VALID_EMAIL);
+        assertThat(authentication.getAuthorities()).extracting("authority").containsExactly("ROLE_TRAINER");
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    @DisplayName("Should reject tokens issued before a revocation in stateless mode")
+    void shouldRejectRevokedTokensInStatelessMode() throws ServletException, IOException {
+        // Given
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "statelessClaims", true);
+        when(request.getHeader("Authorization")).thenReturn(bearerToken);
+        when(request.getRequestURI()).thenReturn("/students");
+        when(jwtService.decodeIfValid(validToken)).thenReturn(
+                Optional.of(accessToken(userId, Instant.now().minus(1, ChronoUnit.HOURS))));
+        revokedTokenRegistry.revoke(userId);
+
+        // When
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verifyNoInteractions(userDetailsService);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    @DisplayName("Should fall back to loading the user when claims are missing in stateless mode")
+    void shouldFallBackWhenClaimsAreMissingInStatelessMode() throws ServletException, IOException {
+        // Given
+        ReflectionTestUtils.setField(jwtAuthenticationFilter, "statelessClaims", true);
+        when(request.getHeader("Authorization")).thenReturn(bearerToken);
+        when(jwtService.decodeIfValid(validToken)).thenReturn(Optional.of(accessToken(null)));
+        when(userDetailsService.loadUserByUsername(TestAuthUtils.VALID_EMAIL)).thenReturn(userDetails);
+
+        // When
+        jwtAuthenticationFilter.doFilter(request, response, filterChain);
+
+        // Then
+        assertThat(SecurityContextHolder.getContext().getAuthentication().getPrincipal()).isEqualTo(userDetails);
+    }
+
+    private Jwt accessToken(UUID tokenUserId) {
+        return accessToken(tokenUserId, Instant.now());
+    }
+
+    private Jwt accessToken(UUID tokenUserId, Instant issuedAt) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("sub", TestAuthUtils.VALID_EMAIL);
+        if (tokenUserId != null) {
+            claims.put("userId", tokenUserId.toString());
+            claims.put("role", "ROLE_TRAINER");
+        }
+        return new Jwt(validToken, issuedAt, issuedAt.plus(1, ChronoUnit.HOURS),
+                Map.of("alg", "HS256"), claims);
+    }
 }
\ No newline at end of file
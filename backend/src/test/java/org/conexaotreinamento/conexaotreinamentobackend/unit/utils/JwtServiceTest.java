@@ -21,6 +21,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
@@ -125,6 +126,38 @@ class JwtServiceTest {
         verify(jwtDecoder).decode(invalidToken);
     }
 
+    @Test
+    @DisplayName("Should decode a valid token once")
+    void shouldDecodeValidTokenOnce() {
+        // Given
+        String validToken = "valid.jwt.token";
+        Jwt mockJwt = createMockJwt();
+
+        when(jwtDecoder.decode(validToken)).thenReturn(mockJwt);
+
+        // When
+        Optional<Jwt> decoded = jwtService.decodeIfValid(validToken);
+
+        // Then
+        assertThat(decoded).contains(mockJwt);
+        verify(jwtDecoder, times(1)).decode(validToken);
+    }
+
+    @Test
+    @DisplayName("Should return empty when decoding an invalid token")
+    void shouldReturnEmptyWhenDecodingInvalidToken() {
+        // Given
+        String invalidToken = "invalid.jwt.token";
+
+        when(jwtDecoder.decode(invalidToken)).thenThrow(new JwtException("Invalid token"));
+
+        // When & Then
+        assertThat(jwtService.decodeIfValid(invalidToken)).isEmpty();
+        assertThatThrownBy(() -> jwtService.decodeIfValid(" "))
+                .isInstanceOf(JwtException.class)
+                .hasMessage("Token cannot be null or empty");
+    }
+
     @Test
     @DisplayName("Should extract username from token")
     void shouldExtractUsernameFromToken() {
@@ -0,0 +1,106 @@
+package org.conexaotreinamento.conexaotreinamentobackend.unit.utils;
+
+import org.conexaotreinamento.conexaotreinamentobackend.config.security.user.PrincipalCache;
+import org.conexaotreinamento.conexaotreinamentobackend.config.security.user.UserDetailsImpl;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.Role;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("PrincipalCache Unit Tests")
+class PrincipalCacheTest {
+
+    private final UserDetailsImpl principal = TestAuthUtils.createUserDetails(
+            TestAuthUtils.createTestUser(TestAuthUtils.VALID_EMAIL, TestAuthUtils.VALID_PASSWORD, Role.ROLE_TRAINER));
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Supplier<UserDetails> loader = () -> {
+        loads.incrementAndGet();
+        return principal;
+    };
+
+    @Test
+    @DisplayName("Should load once and serve later lookups from the cache")
+    void shouldLoadOnceWithinTtl() {
+        PrincipalCache cache = new PrincipalCache(Duration.ofMinutes(1), 10);
+        UUID userId = UUID.randomUUID();
+
+        assertThat(cache.getOrLoad(userId, TestAuthUtils.VALID_EMAIL, loader)).isSameAs(principal);
+        assertThat(cache.getOrLoad(userId, TestAuthUtils.VALID_EMAIL, loader)).isSameAs(principal);
+
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reload expired entries")
+    void shouldReloadExpiredEntries() {
+        PrincipalCache cache = new PrincipalCache(Duration.ZERO, 10);
+        UUID userId = UUID.randomUUID();
+
+        cache.getOrLoad(userId, TestAuthUtils.VALID_EMAIL, loader);
+        cache.getOrLoad(userId, TestAuthUtils.VALID_EMAIL, loader);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reload when the token subject no longer matches the cached principal")
+    void shouldReloadWhenUsernameDiffers() {
+        PrincipalCache cache = new PrincipalCache(Duration.ofMinutes(1), 10);
+        UUID userId = UUID.randomUUID();
+
+        cache.getOrLoad(userId, TestAuthUtils.VALID_EMAIL, loader);
+        cache.getOrLoad(userId, "renamed@example.com", loader);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should reload after invalidation")
+    void shouldReloadAfterInvalidation() {
+        PrincipalCache cache = new PrincipalCache(Duration.ofMinutes(1), 10);
+        UUID userId = UUID.randomUUID();
+
+        cache.getOrLoad(userId, TestAuthUtils.VALID_EMAIL, loader);
+        cache.invalidate(userId);
+        cache.getOrLoad(userId, TestAuthUtils.VALID_EMAIL, loader);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should evict the user named by a committed Changed event")
+    void shouldEvictOnChanged() {
+        PrincipalCache cache = new PrincipalCache(Duration.ofMinutes(1), 10);
+        UUID userId = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+
+        cache.getOrLoad(userId, TestAuthUtils.VALID_EMAIL, loader);
+        cache.getOrLoad(otherId, TestAuthUtils.VALID_EMAIL, loader);
+        cache.onChanged(new PrincipalCache.Changed(userId));
+
+        assertThat(cache.size()).isEqualTo(1);
+        cache.getOrLoad(otherId, TestAuthUtils.VALID_EMAIL, loader);
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should never hold more than the configured number of principals")
+    void shouldStayWithinMaxSize() {
+        PrincipalCache cache = new PrincipalCache(Duration.ofMinutes(1), 3);
+
+        for (int i = 0; i < 10; i++) {
+            cache.getOrLoad(UUID.randomUUID(), TestAuthUtils.VALID_EMAIL, loader);
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,86 @@
+package org.conexaotreinamento.conexaotreinamentobackend.unit.utils;
+
+import org.conexaotreinamento.conexaotreinamentobackend.config.security.jwt.RevokedTokenRegistry;
+import org.conexaotreinamento.conexaotreinamentobackend.entity.User;
+import org.conexaotreinamento.conexaotreinamentobackend.enums.Role;
+import org.conexaotreinamento.conexaotreinamentobackend.repository.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("RevokedTokenRegistry Unit Tests")
+class RevokedTokenRegistryTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final RevokedTokenRegistry registry = new RevokedTokenRegistry(userRepository, 24);
+
+    @Test
+    @DisplayName("Should only reject tokens issued up to the revocation")
+    void shouldRejectTokensIssuedBeforeRevocation() {
+        UUID userId = UUID.randomUUID();
+
+        registry.revoke(userId);
+
+        assertThat(registry.isRevoked(userId, Instant.now().minus(1, ChronoUnit.MINUTES))).isTrue();
+        assertThat(registry.isRevoked(userId, null)).isTrue();
+        assertThat(registry.isRevoked(userId, Instant.now().plusSeconds(2))).isFalse();
+        assertThat(registry.isRevoked(UUID.randomUUID(), Instant.now().minus(1, ChronoUnit.MINUTES))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should persist the revocation on the user row")
+    void shouldPersistRevocationOnUser() {
+        User user = TestAuthUtils.createTestUser(TestAuthUtils.VALID_EMAIL, TestAuthUtils.VALID_PASSWORD, Role.ROLE_TRAINER);
+        UUID userId = UUID.randomUUID();
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+
+        registry.revoke(userId);
+
+        assertThat(user.getTokensRevokedBefore()).isNotNull();
+        assertThat(registry.isRevoked(userId, user.getTokensRevokedBefore())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should pick up revocations made by other instances on refresh")
+    void shouldLoadRevocationsOnRefresh() {
+        User user = TestAuthUtils.createTestUser(TestAuthUtils.VALID_EMAIL, TestAuthUtils.VALID_PASSWORD, Role.ROLE_TRAINER);
+        UUID userId = UUID.randomUUID();
+        ReflectionTestUtils.setField(user, "id", userId);
+        Instant revokedAt = Instant.now().minus(1, ChronoUnit.MINUTES).truncatedTo(ChronoUnit.SECONDS);
+        user.revokeTokensIssuedUpTo(revokedAt);
+        when(userRepository.findByTokensRevokedBeforeAfter(any())).thenReturn(List.of(user));
+
+        assertThat(registry.isRevoked(userId, revokedAt)).isFalse();
+        registry.refresh();
+
+        assertThat(registry.isRevoked(userId, revokedAt)).isTrue();
+        assertThat(registry.isRevoked(userId, revokedAt.plusSeconds(1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should drop revocations older than the token lifetime")
+    @SuppressWarnings("unchecked")
+    void shouldDropRevocationsOlderThanTokenLifetime() {
+        UUID stale = UUID.randomUUID();
+        Map<UUID, Instant> revokedBefore = (Map<UUID, Instant>) ReflectionTestUtils.getField(registry, "revokedBefore");
+        revokedBefore.put(stale, Instant.now().minus(25, ChronoUnit.HOURS));
+
+        registry.revoke(UUID.randomUUID());
+
+        assertThat(registry.size()).isEqualTo(1);
+        assertThat(registry.isRevoked(stale, Instant.now().minus(30, ChronoUnit.HOURS))).isFalse();
+    }
+}